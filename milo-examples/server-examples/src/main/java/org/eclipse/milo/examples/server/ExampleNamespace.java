@@ -126,7 +126,7 @@ public class ExampleNamespace extends ManagedNamespace {
     ExampleNamespace(OpcUaServer server) {
         super(server, NAMESPACE_URI);
 
-        subscriptionModel = new SubscriptionModel(server, this);
+        subscriptionModel = new SubscriptionModel(server, this, getNodeManager());
     }
 
     @Override
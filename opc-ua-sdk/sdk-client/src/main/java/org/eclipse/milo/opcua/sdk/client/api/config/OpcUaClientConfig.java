@@ -15,7 +15,9 @@ import java.util.function.Supplier;
 
 import org.eclipse.milo.opcua.binaryschema.parser.BsdParser;
 import org.eclipse.milo.opcua.sdk.client.api.identity.IdentityProvider;
+import org.eclipse.milo.opcua.sdk.client.api.subscriptions.UaMonitoredItem;
 import org.eclipse.milo.opcua.stack.client.UaStackClientConfig;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
 import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
 import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
 import org.eclipse.milo.opcua.stack.core.types.structured.PublishRequest;
@@ -89,6 +91,13 @@ public interface OpcUaClientConfig extends UaStackClientConfig {
      */
     UInteger getKeepAliveTimeout();
 
+    /**
+     * @return {@code true} if the {@link DataValue}s in received DataChangeNotifications should only be decoded when a
+     * monitored item's consumer asks for them.
+     * @see UaMonitoredItem#setLazyValueConsumer(UaMonitoredItem.LazyValueConsumer)
+     */
+    boolean isLazyNotificationDecoding();
+
     /**
      * @return a new {@link OpcUaClientConfigBuilder}.
      */
@@ -119,7 +128,7 @@ public interface OpcUaClientConfig extends UaStackClientConfig {
         builder.setEncodingLimits(config.getEncodingLimits());
         builder.setChannelLifetime(config.getChannelLifetime());
         builder.setExecutor(config.getExecutor());
-        builder.setEventLoop(config.getEventLoop());
+        builder.setEventLoopGroup(config.getEventLoopGroup());
         builder.setWheelTimer(config.getWheelTimer());
         builder.setConnectTimeout(config.getConnectTimeout());
         builder.setAcknowledgeTimeout(config.getAcknowledgeTimeout());
@@ -136,6 +145,7 @@ public interface OpcUaClientConfig extends UaStackClientConfig {
         builder.setKeepAliveFailuresAllowed(config.getKeepAliveFailuresAllowed());
         builder.setKeepAliveInterval(config.getKeepAliveInterval());
         builder.setKeepAliveTimeout(config.getKeepAliveTimeout());
+        builder.setLazyNotificationDecoding(config.isLazyNotificationDecoding());
         builder.setSessionLocaleIds(config.getSessionLocaleIds());
 
         return builder;
@@ -16,6 +16,7 @@ import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Supplier;
 
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.util.HashedWheelTimer;
 import org.eclipse.milo.opcua.binaryschema.GenericBsdParser;
@@ -27,6 +28,7 @@ import org.eclipse.milo.opcua.stack.client.UaStackClientConfigBuilder;
 import org.eclipse.milo.opcua.stack.core.channel.MessageLimits;
 import org.eclipse.milo.opcua.stack.core.security.CertificateValidator;
 import org.eclipse.milo.opcua.stack.core.serialization.EncodingLimits;
+import org.eclipse.milo.opcua.stack.core.transport.NettyTransport;
 import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
 import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
 import org.eclipse.milo.opcua.stack.core.types.structured.EndpointDescription;
@@ -54,6 +56,8 @@ public class OpcUaClientConfigBuilder extends UaStackClientConfigBuilder {
     private UInteger keepAliveInterval = uint(5000);
     private UInteger keepAliveTimeout = uint(5000);
 
+    private boolean lazyNotificationDecoding = false;
+
     public OpcUaClientConfigBuilder setApplicationName(LocalizedText applicationName) {
         this.applicationName = applicationName;
         return this;
@@ -119,6 +123,11 @@ public class OpcUaClientConfigBuilder extends UaStackClientConfigBuilder {
         return this;
     }
 
+    public OpcUaClientConfigBuilder setLazyNotificationDecoding(boolean lazyNotificationDecoding) {
+        this.lazyNotificationDecoding = lazyNotificationDecoding;
+        return this;
+    }
+
     @Override
     public OpcUaClientConfigBuilder setEndpoint(EndpointDescription endpoint) {
         super.setEndpoint(endpoint);
@@ -167,12 +176,25 @@ public class OpcUaClientConfigBuilder extends UaStackClientConfigBuilder {
         return this;
     }
 
+    @Deprecated
     @Override
     public OpcUaClientConfigBuilder setEventLoop(NioEventLoopGroup eventLoop) {
         super.setEventLoop(eventLoop);
         return this;
     }
 
+    @Override
+    public OpcUaClientConfigBuilder setEventLoopGroup(EventLoopGroup eventLoop) {
+        super.setEventLoopGroup(eventLoop);
+        return this;
+    }
+
+    @Override
+    public OpcUaClientConfigBuilder setTransport(NettyTransport transport) {
+        super.setTransport(transport);
+        return this;
+    }
+
     @Override
     public OpcUaClientConfigBuilder setWheelTimer(HashedWheelTimer wheelTimer) {
         super.setWheelTimer(wheelTimer);
@@ -227,7 +249,8 @@ public class OpcUaClientConfigBuilder extends UaStackClientConfigBuilder {
             bsdParser,
             keepAliveFailuresAllowed,
             keepAliveInterval,
-            keepAliveTimeout
+            keepAliveTimeout,
+            lazyNotificationDecoding
         );
     }
 
@@ -247,6 +270,7 @@ public class OpcUaClientConfigBuilder extends UaStackClientConfigBuilder {
         private final UInteger keepAliveFailuresAllowed;
         private final UInteger keepAliveInterval;
         private final UInteger keepAliveTimeout;
+        private final boolean lazyNotificationDecoding;
 
         OpcUaClientConfigImpl(
             UaStackClientConfig stackClientConfig,
@@ -262,7 +286,8 @@ public class OpcUaClientConfigBuilder extends UaStackClientConfigBuilder {
             BsdParser bsdParser,
             UInteger keepAliveFailuresAllowed,
             UInteger keepAliveInterval,
-            UInteger keepAliveTimeout) {
+            UInteger keepAliveTimeout,
+            boolean lazyNotificationDecoding) {
 
             this.stackClientConfig = stackClientConfig;
             this.applicationName = applicationName;
@@ -278,6 +303,7 @@ public class OpcUaClientConfigBuilder extends UaStackClientConfigBuilder {
             this.keepAliveFailuresAllowed = keepAliveFailuresAllowed;
             this.keepAliveInterval = keepAliveInterval;
             this.keepAliveTimeout = keepAliveTimeout;
+            this.lazyNotificationDecoding = lazyNotificationDecoding;
         }
 
         @Override
@@ -345,6 +371,11 @@ public class OpcUaClientConfigBuilder extends UaStackClientConfigBuilder {
             return keepAliveTimeout;
         }
 
+        @Override
+        public boolean isLazyNotificationDecoding() {
+            return lazyNotificationDecoding;
+        }
+
         @Override
         public EndpointDescription getEndpoint() {
             return stackClientConfig.getEndpoint();
@@ -395,6 +426,16 @@ public class OpcUaClientConfigBuilder extends UaStackClientConfigBuilder {
             return stackClientConfig.getEventLoop();
         }
 
+        @Override
+        public EventLoopGroup getEventLoopGroup() {
+            return stackClientConfig.getEventLoopGroup();
+        }
+
+        @Override
+        public NettyTransport getTransport() {
+            return stackClientConfig.getTransport();
+        }
+
         @Override
         public HashedWheelTimer getWheelTimer() {
             return stackClientConfig.getWheelTimer();
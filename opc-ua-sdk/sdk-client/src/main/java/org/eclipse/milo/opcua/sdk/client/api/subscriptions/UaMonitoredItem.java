@@ -12,6 +12,7 @@ package org.eclipse.milo.opcua.sdk.client.api.subscriptions;
 
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import org.eclipse.milo.opcua.sdk.client.OpcUaClient;
 import org.eclipse.milo.opcua.stack.core.types.DataTypeManager;
@@ -131,6 +132,18 @@ public interface UaMonitoredItem {
      */
     void setValueConsumer(ValueConsumer valueConsumer);
 
+    /**
+     * Set a {@link LazyValueConsumer} that will be notified as values arrive from the server.
+     * <p>
+     * Replaces any consumer set by one of the {@code setValueConsumer} methods, and vice versa.
+     * <p>
+     * When {@link org.eclipse.milo.opcua.sdk.client.api.config.OpcUaClientConfig#isLazyNotificationDecoding()} is
+     * enabled the value is not decoded until the consumer asks for it.
+     *
+     * @param valueConsumer the {@link LazyValueConsumer} that will be notified as values arrive from the server.
+     */
+    void setLazyValueConsumer(LazyValueConsumer valueConsumer);
+
     /**
      * Set the {@link Consumer} that will receive events as they arrive from the server.
      *
@@ -167,6 +180,19 @@ public interface UaMonitoredItem {
 
     }
 
+    interface LazyValueConsumer {
+
+        /**
+         * A new value has arrived for the {@link UaMonitoredItem} {@code item}.
+         *
+         * @param dataTypeManager the {@link DataTypeManager} from {@link OpcUaClient#getDataTypeManager()}.
+         * @param item            the {@link UaMonitoredItem} this value is for.
+         * @param value           a {@link Supplier} that decodes the new {@link DataValue} on first access.
+         */
+        void onValueArrived(DataTypeManager dataTypeManager, UaMonitoredItem item, Supplier<DataValue> value);
+
+    }
+
     interface EventConsumer {
 
         /**
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.client.subscriptions;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.UaSerializationException;
+import org.eclipse.milo.opcua.stack.core.serialization.OpcUaBinaryStreamDecoder;
+import org.eclipse.milo.opcua.stack.core.serialization.SerializationContext;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.structured.DataChangeNotification;
+import org.eclipse.milo.opcua.stack.core.types.structured.MonitoredItemNotification;
+import org.eclipse.milo.opcua.stack.core.util.Lazy;
+
+import static org.eclipse.milo.opcua.stack.core.util.ConversionUtil.l;
+
+/**
+ * The MonitoredItemNotifications of a {@link DataChangeNotification} as client handles and {@link DataValue}
+ * {@link Supplier}s.
+ * <p>
+ * When created from a binary encoded body by {@link #decode(SerializationContext, ByteString)} each client handle is
+ * read up front and each {@link DataValue} is left encoded until its {@link Supplier} is first called. The
+ * DiagnosticInfos that follow the notifications are not read.
+ */
+final class LazyDataChangeNotification {
+
+    private final UInteger[] clientHandles;
+    private final Supplier<DataValue>[] values;
+
+    private LazyDataChangeNotification(UInteger[] clientHandles, Supplier<DataValue>[] values) {
+        this.clientHandles = clientHandles;
+        this.values = values;
+    }
+
+    int size() {
+        return clientHandles.length;
+    }
+
+    UInteger getClientHandle(int index) {
+        return clientHandles[index];
+    }
+
+    Supplier<DataValue> getValue(int index) {
+        return values[index];
+    }
+
+    /**
+     * Wrap an already decoded {@link DataChangeNotification}.
+     *
+     * @param notification the decoded {@link DataChangeNotification}.
+     * @return a {@link LazyDataChangeNotification} whose values are already available.
+     */
+    @SuppressWarnings("unchecked")
+    static LazyDataChangeNotification of(DataChangeNotification notification) {
+        List<MonitoredItemNotification> notifications = l(notification.getMonitoredItems());
+
+        UInteger[] clientHandles = new UInteger[notifications.size()];
+        Supplier<DataValue>[] values = new Supplier[notifications.size()];
+
+        for (int i = 0; i < notifications.size(); i++) {
+            MonitoredItemNotification n = notifications.get(i);
+            DataValue value = n.getValue();
+
+            clientHandles[i] = n.getClientHandle();
+            values[i] = () -> value;
+        }
+
+        return new LazyDataChangeNotification(clientHandles, values);
+    }
+
+    /**
+     * Locate the MonitoredItemNotifications in the binary encoded body of a {@link DataChangeNotification}.
+     *
+     * @param context the {@link SerializationContext} to decode values with.
+     * @param body    the body of an ExtensionObject with {@link DataChangeNotification#BinaryEncodingId}.
+     * @return a {@link LazyDataChangeNotification}.
+     * @throws UaSerializationException if the body is malformed.
+     */
+    @SuppressWarnings("unchecked")
+    static LazyDataChangeNotification decode(
+        SerializationContext context,
+        ByteString body) throws UaSerializationException {
+
+        ByteBuf buffer = Unpooled.wrappedBuffer(body.bytesOrEmpty());
+
+        OpcUaBinaryStreamDecoder decoder = new OpcUaBinaryStreamDecoder(context).setBuffer(buffer);
+
+        int length = Math.max(decoder.readInt32(), 0);
+
+        // Each MonitoredItemNotification is at least a 4-byte client handle and a 1-byte DataValue mask.
+        if (length > buffer.readableBytes() / 5) {
+            throw new UaSerializationException(
+                StatusCodes.Bad_DecodingError,
+                String.format(
+                    "array length exceeds readable bytes (length=%s, readable=%s)",
+                    length, buffer.readableBytes())
+            );
+        }
+
+        UInteger[] clientHandles = new UInteger[length];
+        Supplier<DataValue>[] values = new Supplier[length];
+
+        for (int i = 0; i < length; i++) {
+            clientHandles[i] = decoder.readUInt32();
+
+            int index = buffer.readerIndex();
+            decoder.skipDataValue();
+            ByteBuf slice = buffer.slice(index, buffer.readerIndex() - index);
+
+            values[i] = new LazyDataValue(context, slice);
+        }
+
+        return new LazyDataChangeNotification(clientHandles, values);
+    }
+
+    private static final class LazyDataValue implements Supplier<DataValue> {
+
+        private final Lazy<DataValue> value = new Lazy<>();
+
+        private final SerializationContext context;
+        private final ByteBuf encoded;
+
+        LazyDataValue(SerializationContext context, ByteBuf encoded) {
+            this.context = context;
+            this.encoded = encoded;
+        }
+
+        @Override
+        public DataValue get() {
+            return value.getOrCompute(
+                () -> new OpcUaBinaryStreamDecoder(context)
+                    .setBuffer(encoded.duplicate())
+                    .readDataValue()
+            );
+        }
+
+    }
+
+}
@@ -12,6 +12,7 @@ package org.eclipse.milo.opcua.sdk.client.subscriptions;
 
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import org.eclipse.milo.opcua.sdk.client.OpcUaClient;
 import org.eclipse.milo.opcua.sdk.client.api.subscriptions.UaMonitoredItem;
@@ -29,7 +30,7 @@ public class OpcUaMonitoredItem implements UaMonitoredItem {
 
     private final OpcUaClient client;
 
-    private volatile ValueConsumer valueConsumer;
+    private volatile LazyValueConsumer valueConsumer;
     private volatile EventConsumer eventConsumer;
 
     private volatile double requestedSamplingInterval = 0.0;
@@ -127,16 +128,22 @@ public class OpcUaMonitoredItem implements UaMonitoredItem {
 
     @Override
     public void setValueConsumer(Consumer<DataValue> consumer) {
-        this.valueConsumer = (dataTypeManager, item, value) -> consumer.accept(value);
+        this.valueConsumer = (dataTypeManager, item, value) -> consumer.accept(value.get());
     }
 
     @Override
     public void setValueConsumer(BiConsumer<UaMonitoredItem, DataValue> valueBiConsumer) {
-        this.valueConsumer = (dataTypeManager, item, value) -> valueBiConsumer.accept(item, value);
+        this.valueConsumer = (dataTypeManager, item, value) -> valueBiConsumer.accept(item, value.get());
     }
 
     @Override
     public void setValueConsumer(ValueConsumer valueConsumer) {
+        this.valueConsumer = (dataTypeManager, item, value) ->
+            valueConsumer.onValueArrived(dataTypeManager, item, value.get());
+    }
+
+    @Override
+    public void setLazyValueConsumer(LazyValueConsumer valueConsumer) {
         this.valueConsumer = valueConsumer;
     }
 
@@ -184,7 +191,12 @@ public class OpcUaMonitoredItem implements UaMonitoredItem {
     }
 
     void onValueArrived(DataValue value) {
-        ValueConsumer c = valueConsumer;
+        LazyValueConsumer c = valueConsumer;
+        if (c != null) c.onValueArrived(client.getDataTypeManager(), this, () -> value);
+    }
+
+    void onValueArrived(Supplier<DataValue> value) {
+        LazyValueConsumer c = valueConsumer;
         if (c != null) c.onValueArrived(client.getDataTypeManager(), this, value);
     }
 
@@ -35,6 +35,7 @@ import org.eclipse.milo.opcua.sdk.client.api.subscriptions.UaSubscription;
 import org.eclipse.milo.opcua.sdk.client.api.subscriptions.UaSubscriptionManager;
 import org.eclipse.milo.opcua.stack.core.StatusCodes;
 import org.eclipse.milo.opcua.stack.core.UaException;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
 import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
 import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
 import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
@@ -48,7 +49,6 @@ import org.eclipse.milo.opcua.stack.core.types.structured.DataChangeNotification
 import org.eclipse.milo.opcua.stack.core.types.structured.EventFieldList;
 import org.eclipse.milo.opcua.stack.core.types.structured.EventNotificationList;
 import org.eclipse.milo.opcua.stack.core.types.structured.ModifySubscriptionResponse;
-import org.eclipse.milo.opcua.stack.core.types.structured.MonitoredItemNotification;
 import org.eclipse.milo.opcua.stack.core.types.structured.NotificationMessage;
 import org.eclipse.milo.opcua.stack.core.types.structured.PublishRequest;
 import org.eclipse.milo.opcua.stack.core.types.structured.PublishResponse;
@@ -681,22 +681,26 @@ public class OpcUaSubscriptionManager implements UaSubscriptionManager {
                 }
 
                 for (ExtensionObject xo : notificationData) {
-                    Object o = xo.decode(client.getSerializationContext());
+                    Object o = decodeNotification(xo);
 
                     if (o instanceof DataChangeNotification) {
-                        DataChangeNotification dcn = (DataChangeNotification) o;
-                        List<MonitoredItemNotification> monitoredItemNotifications = l(dcn.getMonitoredItems());
-                        int notificationCount = monitoredItemNotifications.size();
+                        o = LazyDataChangeNotification.of((DataChangeNotification) o);
+                    }
+
+                    if (o instanceof LazyDataChangeNotification) {
+                        LazyDataChangeNotification dcn = (LazyDataChangeNotification) o;
+                        int notificationCount = dcn.size();
 
                         logger.debug("Received {} MonitoredItemNotifications", notificationCount);
 
-                        for (MonitoredItemNotification min : monitoredItemNotifications) {
-                            logger.trace("MonitoredItemNotification: clientHandle={}, value={}",
-                                min.getClientHandle(), min.getValue());
+                        for (int i = 0; i < notificationCount; i++) {
+                            UInteger clientHandle = dcn.getClientHandle(i);
 
-                            OpcUaMonitoredItem item = items.get(min.getClientHandle());
-                            if (item != null) item.onValueArrived(min.getValue());
-                            else logger.warn("no item for clientHandle=" + min.getClientHandle());
+                            logger.trace("MonitoredItemNotification: clientHandle={}", clientHandle);
+
+                            OpcUaMonitoredItem item = items.get(clientHandle);
+                            if (item != null) item.onValueArrived(dcn.getValue(i));
+                            else logger.warn("no item for clientHandle=" + clientHandle);
                         }
 
                         if (notificationCount == 0) {
@@ -713,13 +717,13 @@ public class OpcUaSubscriptionManager implements UaSubscriptionManager {
                                 List<UaMonitoredItem> monitoredItems = new ArrayList<>();
                                 List<DataValue> dataValues = new ArrayList<>();
 
-                                for (MonitoredItemNotification n : monitoredItemNotifications) {
+                                for (int i = 0; i < notificationCount; i++) {
                                     UaMonitoredItem item = subscription
-                                        .getItemsByClientHandle().get(n.getClientHandle());
+                                        .getItemsByClientHandle().get(dcn.getClientHandle(i));
 
                                     if (item != null) {
                                         monitoredItems.add(item);
-                                        dataValues.add(n.getValue());
+                                        dataValues.add(dcn.getValue(i).get());
                                     }
                                 }
 
@@ -796,6 +800,24 @@ public class OpcUaSubscriptionManager implements UaSubscriptionManager {
         return delivered;
     }
 
+    /**
+     * Decode the notification in {@code xo}.
+     * <p>
+     * If lazy notification decoding is enabled a binary encoded DataChangeNotification is returned as a
+     * {@link LazyDataChangeNotification} instead, leaving each DataValue to be decoded on demand.
+     */
+    private Object decodeNotification(ExtensionObject xo) {
+        boolean lazy = client.getConfig().isLazyNotificationDecoding() &&
+            DataChangeNotification.BinaryEncodingId.equals(xo.getEncodingId()) &&
+            xo.getBody() instanceof ByteString;
+
+        if (lazy) {
+            return LazyDataChangeNotification.decode(client.getSerializationContext(), (ByteString) xo.getBody());
+        } else {
+            return xo.decode(client.getSerializationContext());
+        }
+    }
+
     public void startPublishing() {
         maybeSendPublishRequests();
     }
@@ -0,0 +1,697 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.annotation.Nullable;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.collect.MapMaker;
+import org.eclipse.milo.opcua.sdk.server.nodes.AttributeObserver;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaNode;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaNodeContext;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaObjectNode;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaVariableNode;
+import org.eclipse.milo.opcua.stack.core.AttributeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UByte;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.ubyte;
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+
+/**
+ * A {@link UaNodeManager} for address spaces with millions of Nodes.
+ * <p>
+ * Plain {@link UaVariableNode}s and {@link UaObjectNode}s, i.e. instances of exactly those classes that are
+ * {@link UaNode#isPlain()} when added, aren't kept. Their attributes are stored in columns of primitive arrays instead,
+ * with repeated browse names, display names, descriptions and data types interned, and a {@link UaNode} is only
+ * materialized again when one is asked for. Materialized Nodes are shared for as long as they're referenced, and
+ * attribute changes made to them are written back to the columns. All other Nodes are kept as they are.
+ * <p>
+ * Because a materialized Node doesn't outlive its last reference, an {@link AttributeObserver} or
+ * {@link org.eclipse.milo.opcua.sdk.server.nodes.delegates.AttributeDelegate} set on it is only in effect while it's
+ * referenced. Nodes that need either should be added with it already set, so they're kept as they are.
+ * <p>
+ * Adding and removing Nodes is exclusive, but attribute changes written back to different slots don't contend.
+ */
+public class CompactNodeManager extends UaNodeManager {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final int SLOT_LOCK_STRIPES = 64;
+
+    private static final byte KIND_VARIABLE = 1;
+    private static final byte KIND_OBJECT = 2;
+
+    private static final byte FLAG_HISTORIZING = 1;
+
+    /**
+     * The DisplayName is {@code LocalizedText.english(browseName.getName())} and isn't stored.
+     */
+    private static final byte FLAG_DISPLAY_NAME_FROM_BROWSE_NAME = 1 << 1;
+
+    private final Interner<Object> interner = Interners.newWeakInterner();
+
+    /**
+     * The Nodes materialized from the columns that are still referenced.
+     */
+    private final ConcurrentMap<NodeId, UaNode> views = new MapMaker().weakValues().makeMap();
+
+    private final AttributeObserver writeBack = this::onAttributeChanged;
+
+    /**
+     * Held for writing while slots are allocated or freed and the index or columns are reallocated, and for reading
+     * while they're looked up or a slot's attributes are read or written.
+     */
+    private final ReadWriteLock structureLock = new ReentrantReadWriteLock();
+
+    /**
+     * Guard the attributes of the slots they're striped over, while {@link #structureLock} is held for reading.
+     */
+    private final Object[] slotLocks = new Object[SLOT_LOCK_STRIPES];
+
+    {
+        for (int i = 0; i < slotLocks.length; i++) {
+            slotLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * An open addressing hash table of {@code slot + 1}, or 0 when empty, keyed by {@link #nodeIds}.
+     */
+    private int[] index = new int[INITIAL_CAPACITY * 2];
+
+    private int count = 0;
+    private int slotLimit = 0;
+
+    private int[] freeSlots = new int[0];
+    private int freeSlotCount = 0;
+
+    private NodeId[] nodeIds = new NodeId[INITIAL_CAPACITY];
+    private UaNodeContext[] contexts = new UaNodeContext[INITIAL_CAPACITY];
+    private byte[] kinds = new byte[INITIAL_CAPACITY];
+    private byte[] flags = new byte[INITIAL_CAPACITY];
+    private QualifiedName[] browseNames = new QualifiedName[INITIAL_CAPACITY];
+    private LocalizedText[] displayNames = new LocalizedText[INITIAL_CAPACITY];
+    private LocalizedText[] descriptions = new LocalizedText[INITIAL_CAPACITY];
+    private int[] writeMasks = new int[INITIAL_CAPACITY];
+    private int[] userWriteMasks = new int[INITIAL_CAPACITY];
+
+    // Variable attributes; accessLevels holds the EventNotifier of Objects.
+    private DataValue[] values = new DataValue[INITIAL_CAPACITY];
+    private NodeId[] dataTypes = new NodeId[INITIAL_CAPACITY];
+    private int[] valueRanks = new int[INITIAL_CAPACITY];
+    private UInteger[][] arrayDimensions = new UInteger[INITIAL_CAPACITY][];
+    private byte[] accessLevels = new byte[INITIAL_CAPACITY];
+    private byte[] userAccessLevels = new byte[INITIAL_CAPACITY];
+    private double[] minimumSamplingIntervals = new double[INITIAL_CAPACITY];
+
+    /**
+     * Get the number of Nodes stored in columns rather than kept as they are.
+     *
+     * @return the number of Nodes stored in columns rather than kept as they are.
+     */
+    public int getCompactNodeCount() {
+        structureLock.readLock().lock();
+        try {
+            return count;
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<UaNode> getNodes() {
+        List<UaNode> nodes = super.getNodes();
+
+        for (NodeId nodeId : getCompactNodeIds()) {
+            getNode(nodeId).ifPresent(nodes::add);
+        }
+
+        return nodes;
+    }
+
+    @Override
+    public List<NodeId> getNodeIds() {
+        List<NodeId> nodeIds = super.getNodeIds();
+        nodeIds.addAll(getCompactNodeIds());
+        return nodeIds;
+    }
+
+    @Override
+    public boolean containsNode(NodeId nodeId) {
+        return super.containsNode(nodeId) || containsCompactNode(nodeId);
+    }
+
+    @Override
+    public Optional<UaNode> addNode(UaNode node) {
+        NodeId nodeId = node.getNodeId();
+
+        boolean compact = isCompactable(node);
+
+        UaNode previous;
+
+        structureLock.writeLock().lock();
+        try {
+            previous = getNodeMap().remove(nodeId);
+
+            int slot = find(nodeId);
+
+            if (slot >= 0) {
+                if (previous == null) {
+                    previous = getView(slot);
+                }
+
+                views.remove(nodeId);
+                remove(slot);
+            }
+
+            if (compact) {
+                store(insert(nodeId), node);
+
+                views.put(nodeId, node);
+            } else {
+                getNodeMap().put(nodeId, node);
+            }
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+
+        if (previous != null) {
+            previous.removeAttributeObserver(writeBack);
+        }
+
+        if (compact) {
+            // Keep the Node being added in sync for as long as its caller holds on to it.
+            node.addAttributeObserver(writeBack);
+        }
+
+        fireNodeChanged(nodeId);
+
+        return Optional.ofNullable(previous);
+    }
+
+    @Override
+    public Optional<UaNode> getNode(NodeId nodeId) {
+        UaNode node = views.get(nodeId);
+
+        if (node == null) {
+            node = getNodeMap().get(nodeId);
+        }
+
+        if (node == null) {
+            structureLock.readLock().lock();
+            try {
+                int slot = find(nodeId);
+
+                if (slot >= 0) {
+                    node = getView(slot);
+                }
+            } finally {
+                structureLock.readLock().unlock();
+            }
+        }
+
+        return Optional.ofNullable(node);
+    }
+
+    @Override
+    public Optional<UaNode> removeNode(NodeId nodeId) {
+        UaNode removed;
+
+        structureLock.writeLock().lock();
+        try {
+            removed = getNodeMap().remove(nodeId);
+
+            if (removed == null) {
+                int slot = find(nodeId);
+
+                if (slot >= 0) {
+                    removed = getView(slot);
+
+                    views.remove(nodeId);
+                    remove(slot);
+                }
+            }
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+
+        if (removed != null) {
+            removed.removeAttributeObserver(writeBack);
+
+            fireNodeChanged(nodeId);
+        }
+
+        return Optional.ofNullable(removed);
+    }
+
+    private boolean containsCompactNode(NodeId nodeId) {
+        structureLock.readLock().lock();
+        try {
+            return find(nodeId) >= 0;
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    private List<NodeId> getCompactNodeIds() {
+        structureLock.readLock().lock();
+        try {
+            List<NodeId> compactNodeIds = new ArrayList<>(count);
+
+            for (int slot = 0; slot < slotLimit; slot++) {
+                if (kinds[slot] != 0) {
+                    compactNodeIds.add(nodeIds[slot]);
+                }
+            }
+
+            return compactNodeIds;
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    private static boolean isCompactable(UaNode node) {
+        if (node.getBrowseName() == null ||
+            node.getWriteMask() == null ||
+            node.getUserWriteMask() == null) {
+
+            return false;
+        }
+
+        if (node.getClass() == UaVariableNode.class) {
+            UaVariableNode variableNode = (UaVariableNode) node;
+
+            return variableNode.getValueRank() != null &&
+                variableNode.getAccessLevel() != null &&
+                variableNode.getUserAccessLevel() != null &&
+                variableNode.getMinimumSamplingInterval() != null &&
+                variableNode.getHistorizing() != null &&
+                node.isPlain();
+        } else if (node.getClass() == UaObjectNode.class) {
+            return ((UaObjectNode) node).getEventNotifier() != null && node.isPlain();
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Get the materialized Node in {@code slot}, materializing it if it isn't referenced anymore.
+     * <p>
+     * Guarded by {@link #structureLock}.
+     */
+    private UaNode getView(int slot) {
+        NodeId nodeId = nodeIds[slot];
+
+        UaNode view = views.get(nodeId);
+
+        if (view == null) {
+            UaNode materialized;
+
+            synchronized (slotLock(slot)) {
+                materialized = materialize(slot);
+            }
+
+            // Observe it before it's published; a Node that loses the race is never seen.
+            materialized.addAttributeObserver(writeBack);
+
+            view = views.putIfAbsent(nodeId, materialized);
+
+            if (view == null) {
+                view = materialized;
+            }
+        }
+
+        return view;
+    }
+
+    /**
+     * Guarded by {@link #structureLock} and the lock of {@code slot}.
+     */
+    private UaNode materialize(int slot) {
+        LocalizedText displayName = getDisplayName(slot);
+
+        if (kinds[slot] == KIND_VARIABLE) {
+            return new UaVariableNode(
+                contexts[slot],
+                nodeIds[slot],
+                browseNames[slot],
+                displayName,
+                descriptions[slot],
+                uint(writeMasks[slot] & 0xFFFFFFFFL),
+                uint(userWriteMasks[slot] & 0xFFFFFFFFL),
+                values[slot],
+                dataTypes[slot],
+                valueRanks[slot],
+                arrayDimensions[slot],
+                ubyte(accessLevels[slot]),
+                ubyte(userAccessLevels[slot]),
+                minimumSamplingIntervals[slot],
+                (flags[slot] & FLAG_HISTORIZING) != 0
+            );
+        } else {
+            return new UaObjectNode(
+                contexts[slot],
+                nodeIds[slot],
+                browseNames[slot],
+                displayName,
+                descriptions[slot],
+                uint(writeMasks[slot] & 0xFFFFFFFFL),
+                uint(userWriteMasks[slot] & 0xFFFFFFFFL),
+                ubyte(accessLevels[slot])
+            );
+        }
+    }
+
+    /**
+     * Store the attributes of {@code node} in {@code slot}.
+     * <p>
+     * Guarded by {@link #structureLock} held for writing.
+     */
+    private void store(int slot, UaNode node) {
+        contexts[slot] = node.getNodeContext();
+        flags[slot] = 0;
+
+        setNames(slot, node.getBrowseName(), node.getDisplayName());
+
+        descriptions[slot] = intern(node.getDescription());
+        writeMasks[slot] = node.getWriteMask().intValue();
+        userWriteMasks[slot] = node.getUserWriteMask().intValue();
+
+        if (node instanceof UaVariableNode) {
+            UaVariableNode variableNode = (UaVariableNode) node;
+
+            kinds[slot] = KIND_VARIABLE;
+            values[slot] = variableNode.getValue();
+            dataTypes[slot] = intern(variableNode.getDataType());
+            valueRanks[slot] = variableNode.getValueRank();
+            arrayDimensions[slot] = variableNode.getArrayDimensions();
+            accessLevels[slot] = variableNode.getAccessLevel().byteValue();
+            userAccessLevels[slot] = variableNode.getUserAccessLevel().byteValue();
+            minimumSamplingIntervals[slot] = variableNode.getMinimumSamplingInterval();
+
+            setFlag(slot, FLAG_HISTORIZING, variableNode.getHistorizing());
+        } else {
+            kinds[slot] = KIND_OBJECT;
+            accessLevels[slot] = ((UaObjectNode) node).getEventNotifier().byteValue();
+        }
+    }
+
+    private void onAttributeChanged(UaNode node, AttributeId attributeId, Object value) {
+        NodeId nodeId = node.getNodeId();
+
+        structureLock.readLock().lock();
+        try {
+            int slot = find(nodeId);
+
+            // Ignore Nodes that have since been removed or replaced.
+            if (slot < 0 || views.get(nodeId) != node) return;
+
+            synchronized (slotLock(slot)) {
+                if (write(slot, attributeId, value)) return;
+            }
+        } finally {
+            structureLock.readLock().unlock();
+        }
+
+        // An attribute the columns can't hold; keep the Node as it is from now on.
+        structureLock.writeLock().lock();
+        try {
+            int slot = find(nodeId);
+
+            if (slot >= 0 && views.get(nodeId) == node) {
+                remove(slot);
+                views.remove(nodeId);
+                getNodeMap().put(nodeId, node);
+            }
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Write an attribute changed on a materialized Node back to {@code slot}.
+     * <p>
+     * Guarded by {@link #structureLock} and the lock of {@code slot}.
+     *
+     * @return {@code false} if the value can't be stored in the columns.
+     */
+    private boolean write(int slot, AttributeId attributeId, @Nullable Object value) {
+        switch (attributeId) {
+            case BrowseName:
+                setNames(slot, (QualifiedName) value, getDisplayName(slot));
+                return value != null;
+            case DisplayName:
+                setNames(slot, browseNames[slot], (LocalizedText) value);
+                return true;
+            case Description:
+                descriptions[slot] = intern((LocalizedText) value);
+                return true;
+            case WriteMask:
+                if (value == null) return false;
+                writeMasks[slot] = ((UInteger) value).intValue();
+                return true;
+            case UserWriteMask:
+                if (value == null) return false;
+                userWriteMasks[slot] = ((UInteger) value).intValue();
+                return true;
+            case Value:
+                values[slot] = (DataValue) value;
+                return true;
+            case DataType:
+                dataTypes[slot] = intern((NodeId) value);
+                return true;
+            case ValueRank:
+                if (value == null) return false;
+                valueRanks[slot] = (Integer) value;
+                return true;
+            case ArrayDimensions:
+                arrayDimensions[slot] = (UInteger[]) value;
+                return true;
+            case AccessLevel:
+            case EventNotifier:
+                if (value == null) return false;
+                accessLevels[slot] = ((UByte) value).byteValue();
+                return true;
+            case UserAccessLevel:
+                if (value == null) return false;
+                userAccessLevels[slot] = ((UByte) value).byteValue();
+                return true;
+            case MinimumSamplingInterval:
+                if (value == null) return false;
+                minimumSamplingIntervals[slot] = (Double) value;
+                return true;
+            case Historizing:
+                if (value == null) return false;
+                setFlag(slot, FLAG_HISTORIZING, (Boolean) value);
+                return true;
+            default:
+                // NodeId and NodeClass changes don't re-key a NodeManager.
+                return true;
+        }
+    }
+
+    private void setNames(int slot, QualifiedName browseName, @Nullable LocalizedText displayName) {
+        browseNames[slot] = intern(browseName);
+
+        boolean fromBrowseName = browseName != null &&
+            Objects.equals(displayName, LocalizedText.english(browseName.getName()));
+
+        displayNames[slot] = fromBrowseName ? null : intern(displayName);
+
+        setFlag(slot, FLAG_DISPLAY_NAME_FROM_BROWSE_NAME, fromBrowseName);
+    }
+
+    private LocalizedText getDisplayName(int slot) {
+        if ((flags[slot] & FLAG_DISPLAY_NAME_FROM_BROWSE_NAME) != 0) {
+            return LocalizedText.english(browseNames[slot].getName());
+        } else {
+            return displayNames[slot];
+        }
+    }
+
+    private void setFlag(int slot, byte flag, boolean set) {
+        flags[slot] = (byte) (set ? flags[slot] | flag : flags[slot] & ~flag);
+    }
+
+    private Object slotLock(int slot) {
+        return slotLocks[slot & (SLOT_LOCK_STRIPES - 1)];
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T intern(@Nullable T value) {
+        return value != null ? (T) interner.intern(value) : null;
+    }
+
+    //region index
+
+    private static int hash(NodeId nodeId) {
+        int h = nodeId.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Guarded by {@link #structureLock}.
+     *
+     * @return the slot holding {@code nodeId}, or -1 if there isn't one.
+     */
+    private int find(NodeId nodeId) {
+        int mask = index.length - 1;
+
+        for (int i = hash(nodeId) & mask; index[i] != 0; i = (i + 1) & mask) {
+            int slot = index[i] - 1;
+
+            if (nodeIds[slot].equals(nodeId)) {
+                return slot;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Allocate a slot for {@code nodeId}, which must not already have one.
+     * <p>
+     * Guarded by {@link #structureLock} held for writing.
+     */
+    private int insert(NodeId nodeId) {
+        if ((count + 1) * 2 > index.length) {
+            rehash(index.length * 2);
+        }
+
+        int slot;
+
+        if (freeSlotCount > 0) {
+            slot = freeSlots[--freeSlotCount];
+        } else {
+            if (slotLimit == nodeIds.length) {
+                grow(nodeIds.length * 2);
+            }
+
+            slot = slotLimit++;
+        }
+
+        nodeIds[slot] = nodeId;
+
+        int mask = index.length - 1;
+        int i = hash(nodeId) & mask;
+
+        while (index[i] != 0) {
+            i = (i + 1) & mask;
+        }
+
+        index[i] = slot + 1;
+        count++;
+
+        return slot;
+    }
+
+    /**
+     * Free {@code slot} and remove it from the index.
+     * <p>
+     * Guarded by {@link #structureLock} held for writing.
+     */
+    private void remove(int slot) {
+        int mask = index.length - 1;
+
+        int i = hash(nodeIds[slot]) & mask;
+
+        while (index[i] != slot + 1) {
+            i = (i + 1) & mask;
+        }
+
+        index[i] = 0;
+
+        // Shift back the entries that follow until there's a gap, so probing never stops early.
+        for (int j = (i + 1) & mask; index[j] != 0; j = (j + 1) & mask) {
+            int home = hash(nodeIds[index[j] - 1]) & mask;
+
+            boolean movable = i <= j ? (home <= i || home > j) : (home <= i && home > j);
+
+            if (movable) {
+                index[i] = index[j];
+                index[j] = 0;
+                i = j;
+            }
+        }
+
+        nodeIds[slot] = null;
+        contexts[slot] = null;
+        kinds[slot] = 0;
+        browseNames[slot] = null;
+        displayNames[slot] = null;
+        descriptions[slot] = null;
+        values[slot] = null;
+        dataTypes[slot] = null;
+        arrayDimensions[slot] = null;
+
+        if (freeSlotCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, Math.max(INITIAL_CAPACITY, freeSlots.length * 2));
+        }
+
+        freeSlots[freeSlotCount++] = slot;
+        count--;
+    }
+
+    private void rehash(int capacity) {
+        int[] rehashed = new int[capacity];
+        int mask = capacity - 1;
+
+        for (int entry : index) {
+            if (entry != 0) {
+                int i = hash(nodeIds[entry - 1]) & mask;
+
+                while (rehashed[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+
+                rehashed[i] = entry;
+            }
+        }
+
+        index = rehashed;
+    }
+
+    private void grow(int capacity) {
+        nodeIds = Arrays.copyOf(nodeIds, capacity);
+        contexts = Arrays.copyOf(contexts, capacity);
+        kinds = Arrays.copyOf(kinds, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        browseNames = Arrays.copyOf(browseNames, capacity);
+        displayNames = Arrays.copyOf(displayNames, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        writeMasks = Arrays.copyOf(writeMasks, capacity);
+        userWriteMasks = Arrays.copyOf(userWriteMasks, capacity);
+        values = Arrays.copyOf(values, capacity);
+        dataTypes = Arrays.copyOf(dataTypes, capacity);
+        valueRanks = Arrays.copyOf(valueRanks, capacity);
+        arrayDimensions = Arrays.copyOf(arrayDimensions, capacity);
+        accessLevels = Arrays.copyOf(accessLevels, capacity);
+        userAccessLevels = Arrays.copyOf(userAccessLevels, capacity);
+        minimumSamplingIntervals = Arrays.copyOf(minimumSamplingIntervals, capacity);
+    }
+
+    //endregion
+
+}
@@ -50,6 +50,7 @@ import org.eclipse.milo.opcua.stack.server.services.AttributeServiceSet;
 import org.eclipse.milo.opcua.stack.server.services.MethodServiceSet;
 import org.eclipse.milo.opcua.stack.server.services.MonitoredItemServiceSet;
 import org.eclipse.milo.opcua.stack.server.services.NodeManagementServiceSet;
+import org.eclipse.milo.opcua.stack.server.services.QueryServiceSet;
 import org.eclipse.milo.opcua.stack.server.services.SessionServiceSet;
 import org.eclipse.milo.opcua.stack.server.services.SubscriptionServiceSet;
 import org.eclipse.milo.opcua.stack.server.services.ViewServiceSet;
@@ -110,6 +111,7 @@ public class OpcUaServer {
             stackServer.addServiceSet(path, (MethodServiceSet) sessionManager);
             stackServer.addServiceSet(path, (MonitoredItemServiceSet) sessionManager);
             stackServer.addServiceSet(path, (NodeManagementServiceSet) sessionManager);
+            stackServer.addServiceSet(path, (QueryServiceSet) sessionManager);
             stackServer.addServiceSet(path, (SessionServiceSet) sessionManager);
             stackServer.addServiceSet(path, (SubscriptionServiceSet) sessionManager);
             stackServer.addServiceSet(path, (ViewServiceSet) sessionManager);
@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.Nullable;
+
+import com.google.common.primitives.Ints;
+import org.eclipse.milo.opcua.sdk.server.api.AddressSpace;
+import org.eclipse.milo.opcua.sdk.server.api.nodes.Node;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.IdType;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
+
+/**
+ * The Nodes a {@link Session} registered with the RegisterNodes service.
+ * <p>
+ * Each registered Node is identified by a handle: a NodeId in the namespace of the registered Node whose opaque
+ * identifier holds a numeric index into this table, a generation that changes whenever the index is reused, and a
+ * prefix unique to the Session. Resolving a handle is an array access; no NodeId is hashed and no AddressSpace is
+ * consulted.
+ * <p>
+ * Handles are only valid within the Session that registered them, and only until they're unregistered.
+ */
+public class RegisteredNodes {
+
+    private static final int HANDLE_LENGTH = 12;
+
+    private final int prefix = ThreadLocalRandom.current().nextInt();
+
+    /**
+     * The registered Nodes, indexed by the index in their handle. Guarded by {@code this} for writes.
+     */
+    private volatile AtomicReferenceArray<RegisteredNode> handles = new AtomicReferenceArray<>(16);
+
+    private final Map<NodeId, RegisteredNode> byNodeId = new HashMap<>();
+    private final Deque<Integer> freeIndices = new ArrayDeque<>();
+
+    private int nextIndex = 0;
+    private int generation = 0;
+
+    /**
+     * Register the Node identified by {@code nodeId}, belonging to {@code addressSpace}.
+     * <p>
+     * Registering a Node that is already registered returns its existing handle.
+     *
+     * @param nodeId       the {@link NodeId} of the Node to register.
+     * @param addressSpace the {@link AddressSpace} the Node belongs to.
+     * @return the handle identifying the registered Node.
+     */
+    public synchronized NodeId register(NodeId nodeId, AddressSpace addressSpace) {
+        RegisteredNode registered = byNodeId.get(nodeId);
+
+        if (registered != null) {
+            return registered.getHandle();
+        }
+
+        Integer free = freeIndices.poll();
+        int index = free != null ? free : nextIndex++;
+
+        AtomicReferenceArray<RegisteredNode> array = handles;
+        if (index >= array.length()) {
+            AtomicReferenceArray<RegisteredNode> grown = new AtomicReferenceArray<>(array.length() * 2);
+            for (int i = 0; i < array.length(); i++) {
+                grown.set(i, array.get(i));
+            }
+            handles = array = grown;
+        }
+
+        int g = generation++;
+
+        byte[] bs = new byte[HANDLE_LENGTH];
+        System.arraycopy(Ints.toByteArray(prefix), 0, bs, 0, 4);
+        System.arraycopy(Ints.toByteArray(index), 0, bs, 4, 4);
+        System.arraycopy(Ints.toByteArray(g), 0, bs, 8, 4);
+
+        NodeId handle = new NodeId(nodeId.getNamespaceIndex(), ByteString.of(bs));
+
+        registered = new RegisteredNode(handle, index, g, nodeId, addressSpace);
+
+        array.set(index, registered);
+        byNodeId.put(nodeId, registered);
+
+        return handle;
+    }
+
+    /**
+     * Unregister the Node identified by {@code handle}.
+     *
+     * @param handle a handle returned by {@link #register(NodeId, AddressSpace)}.
+     * @return {@code true} if {@code handle} identified a registered Node.
+     */
+    public synchronized boolean unregister(NodeId handle) {
+        RegisteredNode registered = get(handle);
+
+        if (registered == null) return false;
+
+        handles.set(registered.index, null);
+        byNodeId.remove(registered.getNodeId());
+        freeIndices.push(registered.index);
+
+        return true;
+    }
+
+    /**
+     * Get the {@link RegisteredNode} identified by {@code handle}.
+     *
+     * @param handle a {@link NodeId} that may be a handle returned by {@link #register(NodeId, AddressSpace)}.
+     * @return the {@link RegisteredNode} identified by {@code handle}, or {@code null} if it isn't one.
+     */
+    @Nullable
+    public RegisteredNode get(NodeId handle) {
+        if (handle.getType() != IdType.Opaque) return null;
+
+        byte[] bs = ((ByteString) handle.getIdentifier()).bytes();
+
+        if (bs == null || bs.length != HANDLE_LENGTH) return null;
+        if (Ints.fromBytes(bs[0], bs[1], bs[2], bs[3]) != prefix) return null;
+
+        int index = Ints.fromBytes(bs[4], bs[5], bs[6], bs[7]);
+        int g = Ints.fromBytes(bs[8], bs[9], bs[10], bs[11]);
+
+        AtomicReferenceArray<RegisteredNode> array = handles;
+        if (index < 0 || index >= array.length()) return null;
+
+        RegisteredNode registered = array.get(index);
+
+        if (registered != null &&
+            registered.generation == g &&
+            registered.getHandle().getNamespaceIndex().equals(handle.getNamespaceIndex())) {
+
+            return registered;
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Get the {@link NodeId} of the Node identified by {@code nodeId} if it's a handle, otherwise {@code nodeId}.
+     *
+     * @param nodeId a {@link NodeId} that may be a handle.
+     * @return the {@link NodeId} of the registered Node, or {@code nodeId} if it isn't a handle.
+     */
+    public NodeId resolve(NodeId nodeId) {
+        RegisteredNode registered = get(nodeId);
+
+        return registered != null ? registered.getNodeId() : nodeId;
+    }
+
+    /**
+     * Get {@code readValueId} with its {@link NodeId} resolved by {@link #resolve(NodeId)}.
+     *
+     * @param readValueId a {@link ReadValueId} whose NodeId may be a handle.
+     * @return {@code readValueId}, or a copy of it with the NodeId of the registered Node.
+     */
+    public ReadValueId resolve(ReadValueId readValueId) {
+        RegisteredNode registered = get(readValueId.getNodeId());
+
+        if (registered != null) {
+            return new ReadValueId(
+                registered.getNodeId(),
+                readValueId.getAttributeId(),
+                readValueId.getIndexRange(),
+                readValueId.getDataEncoding()
+            );
+        } else {
+            return readValueId;
+        }
+    }
+
+    /**
+     * @return the number of registered Nodes.
+     */
+    public synchronized int size() {
+        return byNodeId.size();
+    }
+
+    /**
+     * Unregister all Nodes.
+     */
+    public synchronized void clear() {
+        AtomicReferenceArray<RegisteredNode> array = handles;
+        for (int i = 0; i < array.length(); i++) {
+            array.set(i, null);
+        }
+
+        byNodeId.clear();
+        freeIndices.clear();
+        nextIndex = 0;
+    }
+
+    public static final class RegisteredNode {
+
+        private final NodeId handle;
+        private final int index;
+        private final int generation;
+        private final NodeId nodeId;
+        private final AddressSpace addressSpace;
+
+        private volatile Resolution resolution;
+
+        RegisteredNode(NodeId handle, int index, int generation, NodeId nodeId, AddressSpace addressSpace) {
+            this.handle = handle;
+            this.index = index;
+            this.generation = generation;
+            this.nodeId = nodeId;
+            this.addressSpace = addressSpace;
+        }
+
+        /**
+         * @return the handle identifying this registered Node.
+         */
+        public NodeId getHandle() {
+            return handle;
+        }
+
+        /**
+         * @return the {@link NodeId} of the registered Node.
+         */
+        public NodeId getNodeId() {
+            return nodeId;
+        }
+
+        /**
+         * @return the {@link AddressSpace} the registered Node belongs to.
+         */
+        public AddressSpace getAddressSpace() {
+            return addressSpace;
+        }
+
+        /**
+         * Get the Node instance cached by {@link #setNode(Node, long)}, if it was cached at {@code version}.
+         * <p>
+         * The version is up to the {@link AddressSpace}; it should change whenever a cached Node may have been removed
+         * or replaced.
+         *
+         * @param version the current version of the {@link AddressSpace}'s Nodes.
+         * @return the cached Node, or {@code null} if none was cached at {@code version}.
+         */
+        @Nullable
+        public Node getNode(long version) {
+            Resolution r = resolution;
+
+            return r != null && r.version == version ? r.node : null;
+        }
+
+        /**
+         * Cache the Node instance for this registered Node.
+         *
+         * @param node    the Node instance, or {@code null} if it doesn't exist.
+         * @param version the version of the {@link AddressSpace}'s Nodes {@code node} was looked up at.
+         */
+        public void setNode(@Nullable Node node, long version) {
+            resolution = new Resolution(node, version);
+        }
+
+    }
+
+    private static final class Resolution {
+
+        final Node node;
+        final long version;
+
+        Resolution(Node node, long version) {
+            this.node = node;
+            this.version = version;
+        }
+
+    }
+
+}
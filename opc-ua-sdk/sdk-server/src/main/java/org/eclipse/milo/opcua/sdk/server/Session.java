@@ -13,11 +13,13 @@ package org.eclipse.milo.opcua.sdk.server;
 import java.net.InetAddress;
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.Nullable;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import org.eclipse.milo.opcua.sdk.server.services.DefaultAttributeHistoryServiceSet;
 import org.eclipse.milo.opcua.sdk.server.services.DefaultAttributeServiceSet;
 import org.eclipse.milo.opcua.sdk.server.services.DefaultMethodServiceSet;
@@ -26,6 +28,8 @@ import org.eclipse.milo.opcua.sdk.server.services.DefaultNodeManagementServiceSe
 import org.eclipse.milo.opcua.sdk.server.services.DefaultQueryServiceSet;
 import org.eclipse.milo.opcua.sdk.server.services.DefaultSubscriptionServiceSet;
 import org.eclipse.milo.opcua.sdk.server.services.DefaultViewServiceSet;
+import org.eclipse.milo.opcua.sdk.server.services.helpers.BrowseHelper.BrowseContinuationPoint;
+import org.eclipse.milo.opcua.sdk.server.services.helpers.QueryHelper.QueryContinuationPoint;
 import org.eclipse.milo.opcua.sdk.server.subscriptions.SubscriptionManager;
 import org.eclipse.milo.opcua.stack.core.StatusCodes;
 import org.eclipse.milo.opcua.stack.core.UaException;
@@ -51,6 +55,12 @@ public class Session implements SessionServiceSet {
 
     private final SubscriptionManager subscriptionManager;
 
+    private final Map<ByteString, BrowseContinuationPoint> browseContinuationPoints = Maps.newConcurrentMap();
+
+    private final Map<ByteString, QueryContinuationPoint> queryContinuationPoints = Maps.newConcurrentMap();
+
+    private final RegisteredNodes registeredNodes = new RegisteredNodes();
+
     private volatile long secureChannelId;
 
     private volatile Object identityObject;
@@ -186,6 +196,9 @@ public class Session implements SessionServiceSet {
             logger.debug("Session id={} lifetime expired ({}ms).", sessionId, sessionTimeout.toMillis());
 
             subscriptionManager.sessionClosed(true);
+            browseContinuationPoints.clear();
+            queryContinuationPoints.clear();
+            registeredNodes.clear();
 
             listeners.forEach(listener -> listener.onSessionClosed(this, true));
         } else {
@@ -250,6 +263,27 @@ public class Session implements SessionServiceSet {
     public SubscriptionManager getSubscriptionManager() {
         return subscriptionManager;
     }
+
+    /**
+     * @return the Browse continuation points held by this Session, released when it closes.
+     */
+    public Map<ByteString, BrowseContinuationPoint> getBrowseContinuationPoints() {
+        return browseContinuationPoints;
+    }
+
+    /**
+     * @return the Query continuation points held by this Session, released when it closes.
+     */
+    public Map<ByteString, QueryContinuationPoint> getQueryContinuationPoints() {
+        return queryContinuationPoints;
+    }
+
+    /**
+     * @return the Nodes registered by this Session, unregistered when it closes.
+     */
+    public RegisteredNodes getRegisteredNodes() {
+        return registeredNodes;
+    }
     //region Session Services
 
     @Override
@@ -277,6 +311,9 @@ public class Session implements SessionServiceSet {
         }
 
         subscriptionManager.sessionClosed(deleteSubscriptions);
+        browseContinuationPoints.clear();
+        queryContinuationPoints.clear();
+        registeredNodes.clear();
 
         listeners.forEach(listener -> listener.onSessionClosed(this, deleteSubscriptions));
     }
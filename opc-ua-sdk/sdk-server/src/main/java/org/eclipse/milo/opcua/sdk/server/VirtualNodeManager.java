@@ -0,0 +1,541 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.MapMaker;
+import org.eclipse.milo.opcua.sdk.core.Reference;
+import org.eclipse.milo.opcua.sdk.server.api.MonitoredItem;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaNode;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link UaNodeManager} whose Nodes are created on demand by a {@link NodeProvider}.
+ * <p>
+ * Nodes, and the References that have them as their source, are asked of the provider the first time they're looked
+ * up, e.g. by a Browse, Read or CreateMonitoredItems, and are kept in memory afterwards up to a maximum. Beyond it, the
+ * least recently used Nodes are dropped, except those pinned by a MonitoredItem. Lookups announced with
+ * {@link #prefetchNodes(Collection)} are handed to the provider as a single batch.
+ * <p>
+ * Nodes added with {@link #addNode(UaNode)} are kept as usual and never dropped. {@link #getNodes()} and
+ * {@link #getNodeIds()} only include the Nodes currently in memory, and {@link #enumerateNodeIds()} is empty.
+ */
+public class VirtualNodeManager extends UaNodeManager {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    /**
+     * Provided Nodes that may be dropped, least recently used first. Guarded by {@code this}.
+     */
+    private final LinkedHashMap<NodeId, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Provided Nodes pinned by MonitoredItems. Guarded by {@code this}.
+     */
+    private final Map<NodeId, Entry> pinned = new HashMap<>();
+
+    /**
+     * Dropped Nodes that are still referenced; re-used if they're provided again, so there's only ever one instance of
+     * a Node in use.
+     */
+    private final ConcurrentMap<NodeId, UaNode> dropped = new MapMaker().weakValues().makeMap();
+
+    /**
+     * Nodes being provided, so concurrent lookups of the same Node wait for it rather than ask for it again.
+     */
+    private final ConcurrentMap<NodeId, CompletableFuture<UaNode>> pending = new ConcurrentHashMap<>();
+
+    private final NodeProvider provider;
+    private final int maxNodes;
+
+    /**
+     * @param provider the {@link NodeProvider} that creates the Nodes.
+     * @param maxNodes the maximum number of provided Nodes to keep in memory, not counting pinned Nodes.
+     */
+    public VirtualNodeManager(NodeProvider provider, int maxNodes) {
+        Preconditions.checkArgument(maxNodes > 0, "maxNodes must be > 0");
+
+        this.provider = provider;
+        this.maxNodes = maxNodes;
+    }
+
+    /**
+     * Get the number of provided Nodes currently in memory, including pinned Nodes.
+     *
+     * @return the number of provided Nodes currently in memory.
+     */
+    public synchronized int getProvidedNodeCount() {
+        return entries.size() + pinned.size();
+    }
+
+    @Override
+    public List<UaNode> getNodes() {
+        List<UaNode> nodes = super.getNodes();
+
+        synchronized (this) {
+            entries.values().forEach(e -> nodes.add(e.node));
+            pinned.values().forEach(e -> nodes.add(e.node));
+        }
+
+        return nodes;
+    }
+
+    @Override
+    public List<NodeId> getNodeIds() {
+        List<NodeId> nodeIds = super.getNodeIds();
+
+        synchronized (this) {
+            nodeIds.addAll(entries.keySet());
+            nodeIds.addAll(pinned.keySet());
+        }
+
+        return nodeIds;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Provided Nodes can't be enumerated; the ones in memory are only some of them.
+     */
+    @Override
+    public Optional<List<NodeId>> enumerateNodeIds() {
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean containsNode(NodeId nodeId) {
+        return getNode(nodeId).isPresent();
+    }
+
+    @Override
+    public Optional<UaNode> getNode(NodeId nodeId) {
+        UaNode node = getNodeMap().get(nodeId);
+
+        if (node == null) {
+            node = getProvidedNode(nodeId);
+        }
+
+        if (node == null && provider.provides(nodeId)) {
+            node = provide(Collections.singletonList(nodeId)).get(nodeId);
+        }
+
+        return Optional.ofNullable(node);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Removing a provided Node only drops it from memory; it's provided again the next time it's looked up.
+     */
+    @Override
+    public Optional<UaNode> removeNode(NodeId nodeId) {
+        Optional<UaNode> removed = super.removeNode(nodeId);
+
+        if (removed.isPresent()) {
+            return removed;
+        }
+
+        Set<NodeId> changed = new LinkedHashSet<>();
+        Entry entry;
+
+        synchronized (this) {
+            entry = entries.remove(nodeId);
+
+            if (entry == null) {
+                entry = pinned.remove(nodeId);
+            }
+
+            if (entry != null) {
+                drop(entry, changed);
+            }
+        }
+
+        changed.forEach(this::fireNodeChanged);
+
+        return entry != null ? Optional.of(entry.node) : Optional.empty();
+    }
+
+    @Override
+    public void prefetchNodes(Collection<NodeId> nodeIds) {
+        List<NodeId> missing = new ArrayList<>();
+
+        for (NodeId nodeId : nodeIds) {
+            if (provider.provides(nodeId) && !getNodeMap().containsKey(nodeId) && getProvidedNode(nodeId) == null) {
+                missing.add(nodeId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            provide(missing);
+        }
+    }
+
+    @Override
+    public List<Reference> getReferences(NodeId nodeId) {
+        prefetchNode(nodeId);
+
+        return super.getReferences(nodeId);
+    }
+
+    @Override
+    public List<Reference> getReferences(NodeId nodeId, Predicate<Reference> filter) {
+        prefetchNode(nodeId);
+
+        return super.getReferences(nodeId, filter);
+    }
+
+    @Override
+    public List<Reference> getReferences(
+        NodeId nodeId,
+        @Nullable Reference.Direction direction,
+        Collection<NodeId> referenceTypeIds) {
+
+        prefetchNode(nodeId);
+
+        return super.getReferences(nodeId, direction, referenceTypeIds);
+    }
+
+    /**
+     * Pin the Node identified by {@code nodeId} in memory until it's unpinned as many times as it was pinned.
+     * <p>
+     * Nodes added with {@link #addNode(UaNode)} are never dropped and count as pinned.
+     *
+     * @param nodeId the {@link NodeId} of the Node to pin.
+     * @return {@code true} if the Node was pinned, {@code false} if there's no such Node.
+     */
+    public boolean pin(NodeId nodeId) {
+        while (true) {
+            if (getNodeMap().containsKey(nodeId)) return true;
+
+            synchronized (this) {
+                Entry entry = pinned.get(nodeId);
+
+                if (entry == null) {
+                    entry = entries.remove(nodeId);
+
+                    if (entry != null) {
+                        pinned.put(nodeId, entry);
+                    }
+                }
+
+                if (entry != null) {
+                    entry.pins++;
+
+                    return true;
+                }
+            }
+
+            // Not in memory; provide it and try again, since it may be dropped before it's pinned.
+            if (!provider.provides(nodeId) || provide(Collections.singletonList(nodeId)).get(nodeId) == null) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Undo one {@link #pin(NodeId)} of the Node identified by {@code nodeId}.
+     *
+     * @param nodeId the {@link NodeId} of the Node to unpin.
+     */
+    public void unpin(NodeId nodeId) {
+        Set<NodeId> changed = new LinkedHashSet<>();
+
+        synchronized (this) {
+            Entry entry = pinned.get(nodeId);
+
+            if (entry != null && --entry.pins == 0) {
+                pinned.remove(nodeId);
+                entries.put(nodeId, entry);
+
+                evict(changed);
+            }
+        }
+
+        changed.forEach(this::fireNodeChanged);
+    }
+
+    /**
+     * Pin the Nodes monitored by {@code items}.
+     * <p>
+     * Call this from {@code onDataItemsCreated} and {@code onEventItemsCreated} of the
+     * {@link org.eclipse.milo.opcua.sdk.server.api.AddressSpace} the Nodes belong to.
+     *
+     * @param items the {@link MonitoredItem}s that were created.
+     */
+    public void onMonitoredItemsCreated(List<? extends MonitoredItem> items) {
+        prefetchNodes(nodeIdsOf(items));
+
+        items.forEach(item -> {
+            NodeId nodeId = item.getReadValueId().getNodeId();
+
+            if (!pin(nodeId)) {
+                logger.debug("MonitoredItem {} monitors Node {}, which doesn't exist", item.getId(), nodeId);
+            }
+        });
+    }
+
+    /**
+     * Unpin the Nodes monitored by {@code items}.
+     * <p>
+     * Call this from {@code onDataItemsDeleted} and {@code onEventItemsDeleted} of the
+     * {@link org.eclipse.milo.opcua.sdk.server.api.AddressSpace} the Nodes belong to.
+     *
+     * @param items the {@link MonitoredItem}s that were deleted.
+     */
+    public void onMonitoredItemsDeleted(List<? extends MonitoredItem> items) {
+        items.forEach(item -> unpin(item.getReadValueId().getNodeId()));
+    }
+
+    private static List<NodeId> nodeIdsOf(List<? extends MonitoredItem> items) {
+        List<NodeId> nodeIds = new ArrayList<>(items.size());
+        items.forEach(item -> nodeIds.add(item.getReadValueId().getNodeId()));
+        return nodeIds;
+    }
+
+    private void prefetchNode(NodeId nodeId) {
+        if (provider.provides(nodeId) && !getNodeMap().containsKey(nodeId) && getProvidedNode(nodeId) == null) {
+            provide(Collections.singletonList(nodeId));
+        }
+    }
+
+    @Nullable
+    private synchronized UaNode getProvidedNode(NodeId nodeId) {
+        Entry entry = entries.get(nodeId);
+
+        if (entry == null) {
+            entry = pinned.get(nodeId);
+        }
+
+        return entry != null ? entry.node : null;
+    }
+
+    /**
+     * Ask the provider for the Nodes identified by {@code nodeIds} that aren't already being provided, and wait for
+     * the rest.
+     *
+     * @return the Nodes that exist, by {@link NodeId}.
+     */
+    private Map<NodeId, UaNode> provide(List<NodeId> nodeIds) {
+        Map<NodeId, CompletableFuture<UaNode>> requested = new LinkedHashMap<>();
+        Map<NodeId, CompletableFuture<UaNode>> waiting = new HashMap<>();
+
+        for (NodeId nodeId : nodeIds) {
+            CompletableFuture<UaNode> future = new CompletableFuture<>();
+            CompletableFuture<UaNode> existing = pending.putIfAbsent(nodeId, future);
+
+            if (existing == null) {
+                requested.put(nodeId, future);
+            } else {
+                waiting.put(nodeId, existing);
+            }
+        }
+
+        Map<NodeId, UaNode> nodes = new HashMap<>();
+
+        if (!requested.isEmpty()) {
+            Map<NodeId, ProvidedNode> provided;
+
+            try {
+                provided = provider.provide(new ArrayList<>(requested.keySet()));
+            } catch (Throwable t) {
+                logger.warn("NodeProvider failed to provide {} Nodes", requested.size(), t);
+
+                provided = Collections.emptyMap();
+            }
+
+            Set<NodeId> changed = new LinkedHashSet<>();
+
+            synchronized (this) {
+                for (NodeId nodeId : requested.keySet()) {
+                    ProvidedNode providedNode = provided.get(nodeId);
+
+                    if (providedNode != null) {
+                        nodes.put(nodeId, add(nodeId, providedNode, changed));
+                    }
+                }
+
+                evict(changed);
+            }
+
+            changed.forEach(this::fireNodeChanged);
+
+            requested.forEach((nodeId, future) -> {
+                pending.remove(nodeId);
+                future.complete(nodes.get(nodeId));
+            });
+        }
+
+        waiting.forEach((nodeId, future) -> {
+            UaNode node = future.join();
+
+            if (node != null) {
+                nodes.put(nodeId, node);
+            }
+        });
+
+        return nodes;
+    }
+
+    /**
+     * Add a provided Node and its References, collecting the Nodes that changed in {@code changed} so they can be
+     * reported once {@code this} is released.
+     * <p>
+     * Guarded by {@code this}.
+     */
+    private UaNode add(NodeId nodeId, ProvidedNode providedNode, Set<NodeId> changed) {
+        Entry entry = entries.get(nodeId);
+
+        if (entry == null) {
+            entry = pinned.get(nodeId);
+        }
+
+        if (entry != null) {
+            // Provided concurrently by a lookup that had started before this one.
+            return entry.node;
+        }
+
+        UaNode node = dropped.remove(nodeId);
+
+        if (node == null) {
+            node = providedNode.getNode();
+        }
+
+        List<Reference> references = providedNode.getReferences();
+        references.forEach(getReferenceStore()::add);
+
+        entries.put(nodeId, new Entry(node, references));
+
+        changed.add(nodeId);
+        references.forEach(reference -> changed.add(reference.getSourceNodeId()));
+
+        return node;
+    }
+
+    /**
+     * Drop the least recently used Nodes until there are at most {@code maxNodes}.
+     * <p>
+     * Guarded by {@code this}.
+     */
+    private void evict(Set<NodeId> changed) {
+        Iterator<Entry> iterator = entries.values().iterator();
+
+        while (entries.size() > maxNodes && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            iterator.remove();
+
+            drop(entry, changed);
+        }
+    }
+
+    /**
+     * Drop a provided Node and its References, collecting the Nodes that changed in {@code changed}.
+     * <p>
+     * Guarded by {@code this}.
+     */
+    private void drop(Entry entry, Set<NodeId> changed) {
+        entry.references.forEach(getReferenceStore()::remove);
+
+        dropped.put(entry.node.getNodeId(), entry.node);
+
+        changed.add(entry.node.getNodeId());
+        entry.references.forEach(reference -> changed.add(reference.getSourceNodeId()));
+    }
+
+    private static class Entry {
+
+        final UaNode node;
+        final List<Reference> references;
+
+        int pins = 0;
+
+        Entry(UaNode node, List<Reference> references) {
+            this.node = node;
+            this.references = references;
+        }
+
+    }
+
+    /**
+     * Creates the Nodes of a {@link VirtualNodeManager} on demand.
+     */
+    public interface NodeProvider {
+
+        /**
+         * Check if {@code nodeId} may identify a Node this provider creates.
+         * <p>
+         * This is called for lookups of Nodes of any namespace, so it should be cheap, e.g. a check of the namespace
+         * index.
+         *
+         * @param nodeId the {@link NodeId} to check.
+         * @return {@code true} if {@code nodeId} may identify a Node this provider creates.
+         */
+        boolean provides(NodeId nodeId);
+
+        /**
+         * Create the Nodes identified by {@code nodeIds}.
+         * <p>
+         * The References of each Node should be returned with it rather than added to the {@link VirtualNodeManager}
+         * while it's created, or they aren't removed when the Node is dropped.
+         *
+         * @param nodeIds the {@link NodeId}s of the Nodes to create.
+         * @return the created Nodes, by {@link NodeId}; {@link NodeId}s that don't identify a Node are left out.
+         */
+        Map<NodeId, ProvidedNode> provide(List<NodeId> nodeIds);
+
+    }
+
+    /**
+     * A Node created by a {@link NodeProvider}, along with the References that have it as their source.
+     */
+    public static class ProvidedNode {
+
+        private final UaNode node;
+        private final List<Reference> references;
+
+        /**
+         * @param node       the {@link UaNode}.
+         * @param references the {@link Reference}s that have {@code node} as their source, in both directions.
+         */
+        public ProvidedNode(UaNode node, List<Reference> references) {
+            this.node = node;
+            this.references = references;
+        }
+
+        public UaNode getNode() {
+            return node;
+        }
+
+        public List<Reference> getReferences() {
+            return references;
+        }
+
+    }
+
+}
@@ -11,17 +11,15 @@
 package org.eclipse.milo.opcua.sdk.server.api;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
-import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.ListMultimap;
 import com.google.common.collect.MapMaker;
-import com.google.common.collect.Multimap;
-import com.google.common.collect.Multimaps;
 import org.eclipse.milo.opcua.sdk.core.Reference;
 import org.eclipse.milo.opcua.sdk.server.api.nodes.Node;
 import org.eclipse.milo.opcua.stack.core.NamespaceTable;
@@ -31,11 +29,12 @@ import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
 public class AbstractNodeManager<T extends Node> implements NodeManager<T> {
 
     private final ConcurrentMap<NodeId, T> nodeMap;
-    private final ListMultimap<NodeId, Reference> referenceMultimap;
+    private final ReferenceStore referenceStore = new ReferenceStore();
+
+    private final List<ChangeListener> changeListeners = new CopyOnWriteArrayList<>();
 
     public AbstractNodeManager() {
         nodeMap = makeNodeMap(new MapMaker());
-        referenceMultimap = Multimaps.synchronizedListMultimap(ArrayListMultimap.create());
     }
 
     /**
@@ -58,15 +57,12 @@ public class AbstractNodeManager<T extends Node> implements NodeManager<T> {
     }
 
     /**
-     * Get the backing {@link ListMultimap} holding this {@link NodeManager}'s References.
-     * <p>
-     * The backing ListMultimap is synchronized and should be treated with caution as described by
-     * {@link Multimaps#synchronizedMultimap(Multimap)}.
+     * Get the backing {@link ReferenceStore} holding this {@link NodeManager}'s References.
      *
-     * @return the backing {@link ListMultimap} holding this {@link NodeManager}'s References.
+     * @return the backing {@link ReferenceStore} holding this {@link NodeManager}'s References.
      */
-    protected ListMultimap<NodeId, Reference> getReferenceMultimap() {
-        return referenceMultimap;
+    protected ReferenceStore getReferenceStore() {
+        return referenceStore;
     }
 
     /**
@@ -87,6 +83,11 @@ public class AbstractNodeManager<T extends Node> implements NodeManager<T> {
         return new ArrayList<>(nodeMap.keySet());
     }
 
+    @Override
+    public Optional<List<NodeId>> enumerateNodeIds() {
+        return Optional.of(getNodeIds());
+    }
+
     @Override
     public boolean containsNode(NodeId nodeId) {
         return nodeMap.containsKey(nodeId);
@@ -101,7 +102,11 @@ public class AbstractNodeManager<T extends Node> implements NodeManager<T> {
 
     @Override
     public Optional<T> addNode(T node) {
-        return Optional.ofNullable(nodeMap.put(node.getNodeId(), node));
+        T previous = nodeMap.put(node.getNodeId(), node);
+
+        fireNodeChanged(node.getNodeId());
+
+        return Optional.ofNullable(previous);
     }
 
     @Override
@@ -116,7 +121,13 @@ public class AbstractNodeManager<T extends Node> implements NodeManager<T> {
 
     @Override
     public Optional<T> removeNode(NodeId nodeId) {
-        return Optional.ofNullable(nodeMap.remove(nodeId));
+        T removed = nodeMap.remove(nodeId);
+
+        if (removed != null) {
+            fireNodeChanged(nodeId);
+        }
+
+        return Optional.ofNullable(removed);
     }
 
     @Override
@@ -126,49 +137,83 @@ public class AbstractNodeManager<T extends Node> implements NodeManager<T> {
 
     @Override
     public void addReference(Reference reference) {
-        referenceMultimap.put(reference.getSourceNodeId(), reference);
+        referenceStore.add(reference);
+
+        fireNodeChanged(reference.getSourceNodeId());
     }
 
     @Override
     public void addReferences(Reference reference, NamespaceTable namespaceTable) {
-        referenceMultimap.put(reference.getSourceNodeId(), reference);
+        addReference(reference);
 
-        reference.invert(namespaceTable).ifPresent(
-            inverted ->
-                referenceMultimap.put(inverted.getSourceNodeId(), inverted)
-        );
+        reference.invert(namespaceTable).ifPresent(this::addReference);
     }
 
     @Override
     public void removeReference(Reference reference) {
-        referenceMultimap.remove(reference.getSourceNodeId(), reference);
+        referenceStore.remove(reference);
+
+        fireNodeChanged(reference.getSourceNodeId());
     }
 
     @Override
     public void removeReferences(Reference reference, NamespaceTable namespaceTable) {
-        referenceMultimap.remove(reference.getSourceNodeId(), reference);
+        removeReference(reference);
 
-        reference.invert(namespaceTable).ifPresent(
-            inverted ->
-                referenceMultimap.remove(inverted.getSourceNodeId(), inverted)
-        );
+        reference.invert(namespaceTable).ifPresent(this::removeReference);
     }
 
     @Override
-    public List<Reference> getReferences(NodeId nodeId) {
-        synchronized (referenceMultimap) {
-            return new ArrayList<>(referenceMultimap.get(nodeId));
+    public void addChangeListener(ChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    @Override
+    public void removeChangeListener(ChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    @Override
+    public boolean isReportingChanges() {
+        return true;
+    }
+
+    /**
+     * Notify the registered {@link ChangeListener}s that the Node identified by {@code nodeId}, or its References,
+     * changed.
+     * <p>
+     * Subclasses that change Nodes or References without going through this class must call it themselves.
+     *
+     * @param nodeId the {@link NodeId} of the Node that changed.
+     */
+    protected void fireNodeChanged(NodeId nodeId) {
+        for (ChangeListener listener : changeListeners) {
+            listener.onNodeChanged(nodeId);
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned List is an unmodifiable snapshot; it is not copied.
+     */
+    @Override
+    public List<Reference> getReferences(NodeId nodeId) {
+        return referenceStore.getReferences(nodeId);
+    }
+
     @Override
     public List<Reference> getReferences(NodeId nodeId, Predicate<Reference> filter) {
-        synchronized (referenceMultimap) {
-            return referenceMultimap.get(nodeId)
-                .stream()
-                .filter(filter)
-                .collect(Collectors.toList());
-        }
+        return referenceStore.getReferences(nodeId, filter);
+    }
+
+    @Override
+    public List<Reference> getReferences(
+        NodeId nodeId,
+        @Nullable Reference.Direction direction,
+        Collection<NodeId> referenceTypeIds) {
+
+        return referenceStore.getReferences(nodeId, direction, referenceTypeIds);
     }
 
 }
@@ -19,10 +19,13 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
+import javax.annotation.Nullable;
 
 import org.eclipse.milo.opcua.sdk.core.Reference;
 import org.eclipse.milo.opcua.sdk.server.AbstractLifecycle;
 import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
+import org.eclipse.milo.opcua.sdk.server.RegisteredNodes.RegisteredNode;
+import org.eclipse.milo.opcua.sdk.server.Session;
 import org.eclipse.milo.opcua.sdk.server.api.services.MonitoredItemServices;
 import org.eclipse.milo.opcua.stack.core.StatusCodes;
 import org.eclipse.milo.opcua.stack.core.UaException;
@@ -60,6 +63,10 @@ import static org.eclipse.milo.opcua.sdk.server.util.GroupMapCollate.groupMapCol
  * An {@link AddressSpace} that is composed of one or more registered sub-AddressSpaces.
  * <p>
  * Service call operations are executed by the first sub-AddressSpace that matches on the NodeId in the operation.
+ * <p>
+ * Operations on a NodeId in the namespace of an AddressSpace whose filter is a {@link NamespaceAddressSpaceFilter}
+ * are routed through a table indexed by namespace index that is rebuilt whenever an AddressSpace is registered or
+ * unregistered; only AddressSpaces with any other kind of filter are tested per operation.
  */
 public abstract class AddressSpaceComposite extends AbstractLifecycle implements AddressSpace {
 
@@ -69,6 +76,10 @@ public abstract class AddressSpaceComposite extends AbstractLifecycle implements
 
     private final CompositeAddressSpaceFilter filter = new CompositeAddressSpaceFilter(addressSpaces);
 
+    private volatile RoutingTable routingTable = new RoutingTable(emptyList());
+
+    private volatile EmptyAddressSpace emptyAddressSpace;
+
     private final OpcUaServer server;
 
     public AddressSpaceComposite(OpcUaServer server) {
@@ -96,6 +107,7 @@ public abstract class AddressSpaceComposite extends AbstractLifecycle implements
     public synchronized void register(AddressSpace addressSpace) {
         if (!addressSpaces.contains(addressSpace)) {
             addressSpaces.add(addressSpace);
+            routingTable = new RoutingTable(addressSpaces);
 
             logger.debug("registered {}", addressSpace);
         } else {
@@ -113,6 +125,7 @@ public abstract class AddressSpaceComposite extends AbstractLifecycle implements
     public synchronized void registerFirst(AddressSpace addressSpace) {
         if (!addressSpaces.contains(addressSpace)) {
             addressSpaces.add(0, addressSpace);
+            routingTable = new RoutingTable(addressSpaces);
 
             logger.debug("registered {} at index 0", addressSpace);
         } else {
@@ -128,6 +141,7 @@ public abstract class AddressSpaceComposite extends AbstractLifecycle implements
     public synchronized void unregister(AddressSpace addressSpace) {
         if (addressSpaces.contains(addressSpace)) {
             addressSpaces.remove(addressSpace);
+            routingTable = new RoutingTable(addressSpaces);
 
             logger.debug("unregistered {}", addressSpace);
         } else {
@@ -154,10 +168,56 @@ public abstract class AddressSpaceComposite extends AbstractLifecycle implements
     }
 
     private AddressSpace getAddressSpace(Predicate<AddressSpace> filter) {
-        return addressSpaces.stream()
-            .filter(filter)
-            .findFirst()
-            .orElse(new EmptyAddressSpace(server));
+        for (AddressSpace asx : addressSpaces) {
+            if (filter.test(asx)) {
+                return asx;
+            }
+        }
+
+        return getEmptyAddressSpace();
+    }
+
+    /**
+     * Get the first {@link AddressSpace} that matches {@code filter}, testing only the AddressSpaces that could be
+     * responsible for {@code nodeId} according to the routing table.
+     *
+     * @param nodeId the {@link NodeId} the operation belongs to.
+     * @param filter the filter for the operation.
+     * @return the {@link AddressSpace} for the operation, or an empty AddressSpace if none matched.
+     */
+    private AddressSpace getAddressSpace(NodeId nodeId, Predicate<AddressSpace> filter) {
+        AddressSpace asx = routingTable.route(nodeId).resolve(filter);
+
+        return asx != null ? asx : getEmptyAddressSpace();
+    }
+
+    /**
+     * Get the {@link AddressSpace} for {@code nodeId} if it's a handle the Session got from RegisterNodes, without
+     * consulting the routing table or any filter, otherwise as {@link #getAddressSpace(NodeId, Predicate)} does.
+     *
+     * @param context the {@link AccessContext} of the operation.
+     * @param nodeId  the {@link NodeId} the operation belongs to.
+     * @param filter  the filter for the operation.
+     * @return the {@link AddressSpace} for the operation, or an empty AddressSpace if none matched.
+     */
+    private AddressSpace getAddressSpace(AccessContext context, NodeId nodeId, Predicate<AddressSpace> filter) {
+        Session session = context.getSession().orElse(null);
+
+        RegisteredNode registered = session != null ?
+            session.getRegisteredNodes().get(nodeId) : null;
+
+        return registered != null ? registered.getAddressSpace() : getAddressSpace(nodeId, filter);
+    }
+
+    private AddressSpace getEmptyAddressSpace() {
+        EmptyAddressSpace asx = emptyAddressSpace;
+
+        if (asx == null) {
+            // Created lazily because the server isn't fully constructed yet when this composite is.
+            emptyAddressSpace = asx = new EmptyAddressSpace(server);
+        }
+
+        return asx;
     }
 
     //region ViewServices
@@ -166,19 +226,16 @@ public abstract class AddressSpaceComposite extends AbstractLifecycle implements
     public void browse(BrowseContext context, ViewDescription view, NodeId nodeId) {
         List<AddressSpace> addressSpaces = getAddressSpaces();
 
-        AddressSpace firstMatch;
-        try {
-            firstMatch = addressSpaces.stream()
-                .filter(asx -> asx.getFilter().filterBrowse(server, nodeId))
-                .findFirst()
-                .orElseThrow(() -> new UaException(StatusCodes.Bad_NodeIdUnknown));
+        AddressSpace firstMatch = routingTable.route(nodeId)
+            .resolve(asx -> asx.getFilter().filterBrowse(server, nodeId));
 
-            addressSpaces.remove(firstMatch);
-        } catch (UaException e) {
-            context.failure(e);
+        if (firstMatch == null) {
+            context.failure(new UaException(StatusCodes.Bad_NodeIdUnknown));
             return;
         }
 
+        addressSpaces.remove(firstMatch);
+
         List<CompletableFuture<List<Reference>>> futures = new ArrayList<>();
 
         BrowseContext browseContext = new BrowseContext(
@@ -257,6 +314,7 @@ public abstract class AddressSpaceComposite extends AbstractLifecycle implements
         CompletableFuture<List<NodeId>> registeredNodeIds = groupMapCollate(
             nodeIds,
             nodeId -> getAddressSpace(
+                nodeId,
                 asx ->
                     asx.getFilter().filterRegisterNode(server, nodeId)
             ),
@@ -281,6 +339,7 @@ public abstract class AddressSpaceComposite extends AbstractLifecycle implements
         CompletableFuture<List<Unit>> units = groupMapCollate(
             nodeIds,
             nodeId -> getAddressSpace(
+                nodeId,
                 asx ->
                     asx.getFilter().filterUnregisterNode(server, nodeId)
             ),
@@ -315,6 +374,8 @@ public abstract class AddressSpaceComposite extends AbstractLifecycle implements
         CompletableFuture<List<DataValue>> values = groupMapCollate(
             readValueIds,
             readValueId -> getAddressSpace(
+                context,
+                readValueId.getNodeId(),
                 asx ->
                     asx.getFilter().filterRead(server, readValueId)
             ),
@@ -343,6 +404,8 @@ public abstract class AddressSpaceComposite extends AbstractLifecycle implements
         CompletableFuture<List<StatusCode>> results = groupMapCollate(
             writeValues,
             writeValue -> getAddressSpace(
+                context,
+                writeValue.getNodeId(),
                 asx ->
                     asx.getFilter().filterWrite(server, writeValue)
             ),
@@ -378,6 +441,7 @@ public abstract class AddressSpaceComposite extends AbstractLifecycle implements
         CompletableFuture<List<HistoryReadResult>> results = groupMapCollate(
             readValueIds,
             readValueId -> getAddressSpace(
+                readValueId.getNodeId(),
                 asx ->
                     asx.getFilter().filterHistoryRead(server, readValueId)
             ),
@@ -412,6 +476,7 @@ public abstract class AddressSpaceComposite extends AbstractLifecycle implements
         CompletableFuture<List<HistoryUpdateResult>> results = groupMapCollate(
             updateDetailsList,
             updateDetails -> getAddressSpace(
+                updateDetails.getNodeId(),
                 asx ->
                     asx.getFilter().filterHistoryUpdate(server, updateDetails)
             ),
@@ -445,6 +510,7 @@ public abstract class AddressSpaceComposite extends AbstractLifecycle implements
         CompletableFuture<List<CallMethodResult>> results = groupMapCollate(
             requests,
             request -> getAddressSpace(
+                request.getObjectId(),
                 asx ->
                     asx.getFilter().filterCall(server, request)
             ),
@@ -478,6 +544,7 @@ public abstract class AddressSpaceComposite extends AbstractLifecycle implements
     ) {
 
         AddressSpace addressSpace = getAddressSpace(
+            itemToMonitor.getNodeId(),
             asx ->
                 asx.getFilter().filterOnCreateDataItem(server, itemToMonitor)
         );
@@ -499,6 +566,7 @@ public abstract class AddressSpaceComposite extends AbstractLifecycle implements
     ) {
 
         AddressSpace addressSpace = getAddressSpace(
+            itemToModify.getNodeId(),
             asx ->
                 asx.getFilter().filterOnModifyDataItem(server, itemToModify)
         );
@@ -519,6 +587,7 @@ public abstract class AddressSpaceComposite extends AbstractLifecycle implements
     ) {
 
         AddressSpace addressSpace = getAddressSpace(
+            itemToMonitor.getNodeId(),
             asx ->
                 asx.getFilter().filterOnCreateEventItem(server, itemToMonitor)
         );
@@ -538,6 +607,7 @@ public abstract class AddressSpaceComposite extends AbstractLifecycle implements
     ) {
 
         AddressSpace addressSpace = getAddressSpace(
+            itemToModify.getNodeId(),
             asx ->
                 asx.getFilter().filterOnModifyEventItem(server, itemToModify)
         );
@@ -553,6 +623,7 @@ public abstract class AddressSpaceComposite extends AbstractLifecycle implements
     public void onDataItemsCreated(List<DataItem> dataItems) {
         Map<AddressSpace, List<DataItem>> byAddressSpace = dataItems.stream().collect(groupingBy(item ->
             getAddressSpace(
+                item.getReadValueId().getNodeId(),
                 asx ->
                     asx.getFilter().filterOnDataItemsCreated(server, item.getReadValueId())
             )
@@ -565,6 +636,7 @@ public abstract class AddressSpaceComposite extends AbstractLifecycle implements
     public void onDataItemsModified(List<DataItem> dataItems) {
         Map<AddressSpace, List<DataItem>> byAddressSpace = dataItems.stream().collect(groupingBy(item ->
             getAddressSpace(
+                item.getReadValueId().getNodeId(),
                 asx ->
                     asx.getFilter().filterOnDataItemsModified(server, item.getReadValueId())
             )
@@ -577,6 +649,7 @@ public abstract class AddressSpaceComposite extends AbstractLifecycle implements
     public void onDataItemsDeleted(List<DataItem> dataItems) {
         Map<AddressSpace, List<DataItem>> byAddressSpace = dataItems.stream().collect(groupingBy(item ->
             getAddressSpace(
+                item.getReadValueId().getNodeId(),
                 asx ->
                     asx.getFilter().filterOnDataItemsDeleted(server, item.getReadValueId())
             )
@@ -589,6 +662,7 @@ public abstract class AddressSpaceComposite extends AbstractLifecycle implements
     public void onEventItemsCreated(List<EventItem> eventItems) {
         Map<AddressSpace, List<EventItem>> byAddressSpace = eventItems.stream().collect(groupingBy(item ->
             getAddressSpace(
+                item.getReadValueId().getNodeId(),
                 asx ->
                     asx.getFilter().filterOnEventItemsCreated(server, item.getReadValueId())
             )
@@ -601,6 +675,7 @@ public abstract class AddressSpaceComposite extends AbstractLifecycle implements
     public void onEventItemsModified(List<EventItem> eventItems) {
         Map<AddressSpace, List<EventItem>> byAddressSpace = eventItems.stream().collect(groupingBy(item ->
             getAddressSpace(
+                item.getReadValueId().getNodeId(),
                 asx ->
                     asx.getFilter().filterOnEventItemsModified(server, item.getReadValueId())
             )
@@ -613,6 +688,7 @@ public abstract class AddressSpaceComposite extends AbstractLifecycle implements
     public void onEventItemsDeleted(List<EventItem> eventItems) {
         Map<AddressSpace, List<EventItem>> byAddressSpace = eventItems.stream().collect(groupingBy(item ->
             getAddressSpace(
+                item.getReadValueId().getNodeId(),
                 asx ->
                     asx.getFilter().filterOnEventItemsDeleted(server, item.getReadValueId())
             )
@@ -625,6 +701,7 @@ public abstract class AddressSpaceComposite extends AbstractLifecycle implements
     public void onMonitoringModeChanged(List<MonitoredItem> monitoredItems) {
         Map<AddressSpace, List<MonitoredItem>> byAddressSpace = monitoredItems.stream().collect(groupingBy(item ->
             getAddressSpace(
+                item.getReadValueId().getNodeId(),
                 asx ->
                     asx.getFilter().filterOnMonitoringModeChanged(server, item.getReadValueId())
             )
@@ -887,13 +964,104 @@ public abstract class AddressSpaceComposite extends AbstractLifecycle implements
 
     }
 
+    /**
+     * Maps each namespace index to the {@link Route} for operations on NodeIds in that namespace.
+     */
+    private static class RoutingTable {
+
+        private final Route[] routes;
+        private final Route undeclaredRoute;
+
+        RoutingTable(List<AddressSpace> addressSpaces) {
+            int maxNamespaceIndex = -1;
+            for (AddressSpace asx : addressSpaces) {
+                maxNamespaceIndex = Math.max(maxNamespaceIndex, getDeclaredNamespaceIndex(asx));
+            }
+
+            routes = new Route[maxNamespaceIndex + 1];
+            for (int i = 0; i < routes.length; i++) {
+                routes[i] = new Route(addressSpaces, i);
+            }
+
+            undeclaredRoute = new Route(addressSpaces, -1);
+        }
+
+        Route route(NodeId nodeId) {
+            int namespaceIndex = nodeId.getNamespaceIndex().intValue();
+
+            return namespaceIndex < routes.length ? routes[namespaceIndex] : undeclaredRoute;
+        }
+
+        /**
+         * @return the namespace index declared by the filter of {@code addressSpace}, or -1 if it doesn't declare one.
+         */
+        private static int getDeclaredNamespaceIndex(AddressSpace addressSpace) {
+            AddressSpaceFilter filter = addressSpace.getFilter();
+
+            if (filter instanceof NamespaceAddressSpaceFilter) {
+                return ((NamespaceAddressSpaceFilter) filter).getNamespaceIndex().intValue();
+            } else {
+                return -1;
+            }
+        }
+
+    }
+
+    /**
+     * The AddressSpaces that could be responsible for a NodeId in one namespace, in registration order.
+     * <p>
+     * The AddressSpaces whose filter doesn't declare a namespace and that were registered before the first one that
+     * declares this namespace still have to be tested; the declaring one matches without a test, and nothing after it
+     * is ever reached.
+     */
+    private static class Route {
+
+        private final AddressSpace[] undeclared;
+        private final AddressSpace owner;
+
+        Route(List<AddressSpace> addressSpaces, int namespaceIndex) {
+            List<AddressSpace> undeclared = new ArrayList<>();
+            AddressSpace owner = null;
+
+            for (AddressSpace asx : addressSpaces) {
+                int declared = RoutingTable.getDeclaredNamespaceIndex(asx);
+
+                if (declared == -1) {
+                    undeclared.add(asx);
+                } else if (declared == namespaceIndex) {
+                    owner = asx;
+                    break;
+                }
+            }
+
+            this.undeclared = undeclared.toArray(new AddressSpace[0]);
+            this.owner = owner;
+        }
+
+        /**
+         * @param filter the filter for the operation.
+         * @return the first AddressSpace on this route that matches {@code filter}, or {@code null} if none does.
+         */
+        @Nullable
+        AddressSpace resolve(Predicate<AddressSpace> filter) {
+            for (AddressSpace asx : undeclared) {
+                if (filter.test(asx)) {
+                    return asx;
+                }
+            }
+
+            return owner;
+        }
+
+    }
+
     private static class EmptyAddressSpace extends ManagedAddressSpace {
 
         EmptyAddressSpace(OpcUaServer server) {
             super(server);
         }
 
-        // EmptyAddressSpace is used ephemerally and should never be started/registered
+        // EmptyAddressSpace should never be started/registered
 
         @Override
         protected void onStartup() {
@@ -10,16 +10,22 @@
 
 package org.eclipse.milo.opcua.sdk.server.api;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
 import org.eclipse.milo.opcua.sdk.core.Reference;
 import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
 import org.eclipse.milo.opcua.sdk.server.nodes.UaNode;
+import org.eclipse.milo.opcua.sdk.server.util.BrowsePathCache;
+import org.eclipse.milo.opcua.sdk.server.util.TypeDefinitionIndex;
+import org.eclipse.milo.opcua.stack.core.Identifiers;
 import org.eclipse.milo.opcua.stack.core.types.builtin.ExpandedNodeId;
 import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
 import org.slf4j.Logger;
@@ -31,6 +37,15 @@ public class AddressSpaceManager extends AddressSpaceComposite {
 
     private final List<NodeManager<UaNode>> nodeManagers = new CopyOnWriteArrayList<>();
 
+    private final BrowsePathCache browsePathCache = new BrowsePathCache();
+
+    private volatile boolean enumerable = true;
+
+    private final TypeDefinitionIndex typeDefinitionIndex = new TypeDefinitionIndex(
+        this::getManagedNodeIds,
+        this::getManagedTypeDefinition
+    );
+
     public AddressSpaceManager(OpcUaServer server) {
         super(server);
     }
@@ -43,6 +58,10 @@ public class AddressSpaceManager extends AddressSpaceComposite {
     public synchronized void register(NodeManager<UaNode> nodeManager) {
         if (!nodeManagers.contains(nodeManager)) {
             nodeManagers.add(nodeManager);
+            nodeManager.addChangeListener(browsePathCache);
+            nodeManager.addChangeListener(typeDefinitionIndex);
+            typeDefinitionIndex.reset();
+            enumerable &= nodeManager.enumerateNodeIds().isPresent();
         } else {
             logger.warn("NodeManager already registered: {}", nodeManager);
         }
@@ -56,11 +75,90 @@ public class AddressSpaceManager extends AddressSpaceComposite {
     public synchronized void unregister(NodeManager<UaNode> nodeManager) {
         if (nodeManagers.contains(nodeManager)) {
             nodeManagers.remove(nodeManager);
+            nodeManager.removeChangeListener(browsePathCache);
+            nodeManager.removeChangeListener(typeDefinitionIndex);
+            browsePathCache.clear();
+            typeDefinitionIndex.reset();
+            enumerable = nodeManagers.stream().allMatch(n -> n.enumerateNodeIds().isPresent());
         } else {
             logger.warn("NodeManager not registered: {}", nodeManager);
         }
     }
 
+    /**
+     * Get the {@link BrowsePathCache} holding resolved browse paths, invalidated by changes to the Nodes and
+     * References of the registered {@link NodeManager}s.
+     *
+     * @return the {@link BrowsePathCache}.
+     */
+    public BrowsePathCache getBrowsePathCache() {
+        return browsePathCache;
+    }
+
+    /**
+     * Get the {@link TypeDefinitionIndex} of the instances managed by the registered {@link NodeManager}s.
+     *
+     * @return the {@link TypeDefinitionIndex}.
+     */
+    public TypeDefinitionIndex getTypeDefinitionIndex() {
+        return typeDefinitionIndex;
+    }
+
+    /**
+     * Return {@code true} if the Node identified by {@code nodeId} is managed by a registered {@link NodeManager}.
+     *
+     * @param nodeId the {@link NodeId} of the Node.
+     * @return {@code true} if the Node identified by {@code nodeId} is managed by a registered {@link NodeManager}.
+     */
+    public boolean containsManagedNode(NodeId nodeId) {
+        for (NodeManager<UaNode> nodeManager : nodeManagers) {
+            if (nodeManager.containsNode(nodeId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Return {@code true} if every registered {@link NodeManager} reports its changes, so results derived from the
+     * managed Nodes and References can be cached.
+     *
+     * @return {@code true} if every registered {@link NodeManager} reports its changes.
+     * @see NodeManager#isReportingChanges()
+     */
+    public boolean isReportingChanges() {
+        for (NodeManager<UaNode> nodeManager : nodeManagers) {
+            if (!nodeManager.isReportingChanges()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return {@code true} if every registered {@link NodeManager} can enumerate its Nodes, so the
+     * {@link TypeDefinitionIndex} covers every managed Node.
+     *
+     * @return {@code true} if every registered {@link NodeManager} can enumerate its Nodes.
+     * @see NodeManager#enumerateNodeIds()
+     */
+    public boolean isEnumerable() {
+        return enumerable;
+    }
+
+    /**
+     * Hint to every registered {@link NodeManager} that the Nodes identified by {@code nodeIds} are about to be asked
+     * for.
+     *
+     * @param nodeIds the {@link NodeId}s of the Nodes about to be asked for.
+     * @see NodeManager#prefetchNodes(Collection)
+     */
+    public void prefetchManagedNodes(Collection<NodeId> nodeIds) {
+        for (NodeManager<UaNode> nodeManager : nodeManagers) {
+            nodeManager.prefetchNodes(nodeIds);
+        }
+    }
+
     /**
      * Get the managed {@link UaNode} identified by {@code nodeId} from the first registered {@link NodeManager} that
      * has it, if there is one.
@@ -117,4 +215,48 @@ public class AddressSpaceManager extends AddressSpaceComposite {
             .collect(Collectors.toList());
     }
 
+    /**
+     * Collect the {@link Reference}s from all registered {@link NodeManager}s where {@code nodeId} is the source
+     * {@link NodeId}, the direction is {@code direction}, and the reference type is one of {@code referenceTypeIds}.
+     *
+     * @param nodeId           the {@link NodeId} of the source NodeId in the {@link Reference}.
+     * @param direction        the direction of the References, or {@code null} for both directions.
+     * @param referenceTypeIds the reference types to include, exactly; subtypes must be included explicitly.
+     * @return the matching {@link Reference}s from all registered {@link NodeManager}s.
+     * @see NodeManager#getReferences(NodeId, Reference.Direction, Collection)
+     */
+    public List<Reference> getManagedReferences(
+        NodeId nodeId,
+        @Nullable Reference.Direction direction,
+        Collection<NodeId> referenceTypeIds) {
+
+        List<Reference> references = new ArrayList<>();
+        for (NodeManager<UaNode> nodeManager : nodeManagers) {
+            references.addAll(nodeManager.getReferences(nodeId, direction, referenceTypeIds));
+        }
+        return references;
+    }
+
+    private Collection<NodeId> getManagedNodeIds() {
+        List<NodeId> nodeIds = new ArrayList<>();
+        for (NodeManager<UaNode> nodeManager : nodeManagers) {
+            nodeManager.enumerateNodeIds().ifPresent(nodeIds::addAll);
+        }
+        return nodeIds;
+    }
+
+    @Nullable
+    private NodeId getManagedTypeDefinition(NodeId nodeId) {
+        if (!containsManagedNode(nodeId)) return null;
+
+        return getManagedReferences(
+            nodeId,
+            Reference.Direction.FORWARD,
+            Collections.singleton(Identifiers.HasTypeDefinition)
+        ).stream()
+            .findFirst()
+            .flatMap(r -> r.getTargetNodeId().local(getServer().getNamespaceTable()))
+            .orElse(null);
+    }
+
 }
@@ -95,4 +95,14 @@ public class EmptyNodeManager<T extends Node> implements NodeManager<T> {
         return Collections.emptyList();
     }
 
+    @Override
+    public Optional<List<NodeId>> enumerateNodeIds() {
+        return Optional.of(Collections.emptyList());
+    }
+
+    @Override
+    public boolean isReportingChanges() {
+        return true;
+    }
+
 }
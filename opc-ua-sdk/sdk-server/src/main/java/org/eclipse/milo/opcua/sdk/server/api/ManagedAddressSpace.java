@@ -11,6 +11,7 @@
 package org.eclipse.milo.opcua.sdk.server.api;
 
 import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
+import org.eclipse.milo.opcua.sdk.server.UaNodeManager;
 
 public abstract class ManagedAddressSpace extends ManagedAddressSpaceServices implements AddressSpace {
 
@@ -18,6 +19,10 @@ public abstract class ManagedAddressSpace extends ManagedAddressSpaceServices im
         super(server);
     }
 
+    public ManagedAddressSpace(OpcUaServer server, UaNodeManager nodeManager) {
+        super(server, nodeManager);
+    }
+
     @Override
     protected void onStartup() {
         super.onStartup();
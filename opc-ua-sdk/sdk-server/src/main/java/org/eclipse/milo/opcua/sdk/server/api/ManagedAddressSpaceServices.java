@@ -13,11 +13,18 @@ package org.eclipse.milo.opcua.sdk.server.api;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
 
 import com.google.common.collect.Lists;
+import org.eclipse.milo.opcua.sdk.core.AccessLevel;
 import org.eclipse.milo.opcua.sdk.core.Reference;
 import org.eclipse.milo.opcua.sdk.server.AbstractLifecycle;
 import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
+import org.eclipse.milo.opcua.sdk.server.RegisteredNodes;
+import org.eclipse.milo.opcua.sdk.server.RegisteredNodes.RegisteredNode;
+import org.eclipse.milo.opcua.sdk.server.Session;
 import org.eclipse.milo.opcua.sdk.server.UaNodeManager;
 import org.eclipse.milo.opcua.sdk.server.api.methods.MethodInvocationHandler;
 import org.eclipse.milo.opcua.sdk.server.api.services.MethodServices;
@@ -28,7 +35,10 @@ import org.eclipse.milo.opcua.sdk.server.nodes.UaNodeContext;
 import org.eclipse.milo.opcua.sdk.server.nodes.UaObjectNode;
 import org.eclipse.milo.opcua.sdk.server.nodes.UaObjectTypeNode;
 import org.eclipse.milo.opcua.sdk.server.nodes.UaServerNode;
+import org.eclipse.milo.opcua.sdk.server.nodes.delegates.AttributeDelegate;
 import org.eclipse.milo.opcua.sdk.server.nodes.factories.NodeFactory;
+import org.eclipse.milo.opcua.sdk.server.util.AttributeUtil;
+import org.eclipse.milo.opcua.sdk.server.util.AttributeValueCache;
 import org.eclipse.milo.opcua.stack.core.AttributeId;
 import org.eclipse.milo.opcua.stack.core.StatusCodes;
 import org.eclipse.milo.opcua.stack.core.UaException;
@@ -37,12 +47,14 @@ import org.eclipse.milo.opcua.stack.core.types.builtin.DiagnosticInfo;
 import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
 import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
 import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.NodeClass;
 import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
 import org.eclipse.milo.opcua.stack.core.types.structured.CallMethodRequest;
 import org.eclipse.milo.opcua.stack.core.types.structured.CallMethodResult;
 import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
 import org.eclipse.milo.opcua.stack.core.types.structured.ViewDescription;
 import org.eclipse.milo.opcua.stack.core.types.structured.WriteValue;
+import org.eclipse.milo.opcua.stack.core.util.FutureUtils;
 import org.eclipse.milo.opcua.stack.core.util.Unit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,7 +63,15 @@ public abstract class ManagedAddressSpaceServices extends AbstractLifecycle impl
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
-    private final UaNodeManager nodeManager = new UaNodeManager();
+    private final UaNodeManager nodeManager;
+
+    private final AttributeValueCache valueCache = new AttributeValueCache();
+
+    /**
+     * Changes whenever a Node or Reference is added to or removed from the {@link UaNodeManager}, invalidating the
+     * Nodes cached by {@link RegisteredNode}s.
+     */
+    private final AtomicLong nodeVersion = new AtomicLong();
 
     private final UaNodeContext nodeContext;
     private final NodeFactory nodeFactory;
@@ -59,7 +79,19 @@ public abstract class ManagedAddressSpaceServices extends AbstractLifecycle impl
     private final OpcUaServer server;
 
     public ManagedAddressSpaceServices(OpcUaServer server) {
+        this(server, new UaNodeManager());
+    }
+
+    /**
+     * Create a {@link ManagedAddressSpaceServices} that keeps its Nodes in {@code nodeManager}, e.g. a
+     * {@link org.eclipse.milo.opcua.sdk.server.CompactNodeManager} for very large address spaces.
+     *
+     * @param server      the {@link OpcUaServer}.
+     * @param nodeManager the {@link UaNodeManager} to keep Nodes in.
+     */
+    public ManagedAddressSpaceServices(OpcUaServer server, UaNodeManager nodeManager) {
         this.server = server;
+        this.nodeManager = nodeManager;
 
         nodeContext = new UaNodeContext() {
             @Override
@@ -74,6 +106,8 @@ public abstract class ManagedAddressSpaceServices extends AbstractLifecycle impl
         };
 
         nodeFactory = new NodeFactory(nodeContext);
+
+        nodeManager.addChangeListener(nodeId -> nodeVersion.incrementAndGet());
     }
 
     protected OpcUaServer getServer() {
@@ -100,6 +134,8 @@ public abstract class ManagedAddressSpaceServices extends AbstractLifecycle impl
     @Override
     protected void onShutdown() {
         unregisterNodeManager(nodeManager);
+
+        valueCache.clear();
     }
 
     /**
@@ -148,11 +184,34 @@ public abstract class ManagedAddressSpaceServices extends AbstractLifecycle impl
 
     @Override
     public void registerNodes(RegisterNodesContext context, List<NodeId> nodeIds) {
-        context.success(nodeIds);
+        Session session = context.getSession().orElse(null);
+
+        if (session == null || !(this instanceof AddressSpace)) {
+            context.success(nodeIds);
+            return;
+        }
+
+        List<NodeId> registeredNodeIds = Lists.newArrayListWithCapacity(nodeIds.size());
+
+        for (NodeId nodeId : nodeIds) {
+            if (nodeManager.containsNode(nodeId)) {
+                registeredNodeIds.add(session.getRegisteredNodes().register(nodeId, (AddressSpace) this));
+            } else {
+                registeredNodeIds.add(nodeId);
+            }
+        }
+
+        context.success(registeredNodeIds);
     }
 
     @Override
     public void unregisterNodes(UnregisterNodesContext context, List<NodeId> nodeIds) {
+        context.getSession().ifPresent(session -> {
+            for (NodeId nodeId : nodeIds) {
+                session.getRegisteredNodes().unregister(nodeId);
+            }
+        });
+
         context.success(Collections.nCopies(nodeIds.size(), Unit.VALUE));
     }
 
@@ -164,34 +223,179 @@ public abstract class ManagedAddressSpaceServices extends AbstractLifecycle impl
         List<ReadValueId> readValueIds
     ) {
 
-        List<DataValue> results = Lists.newArrayListWithCapacity(readValueIds.size());
+        prefetchNodes(context, Lists.transform(readValueIds, ReadValueId::getNodeId));
+
+        List<CompletableFuture<DataValue>> results = Lists.newArrayListWithCapacity(readValueIds.size());
 
         for (ReadValueId readValueId : readValueIds) {
-            UaServerNode node = nodeManager.get(readValueId.getNodeId());
+            UaServerNode node = getNode(context, readValueId.getNodeId());
 
             if (node != null) {
-                DataValue value = node.readAttribute(
-                    new AttributeContext(context),
-                    readValueId.getAttributeId(),
-                    timestamps,
-                    readValueId.getIndexRange(),
-                    readValueId.getDataEncoding()
-                );
+                if (maxAge > 0 && isValueCacheable(context, node, readValueId)) {
+                    ReadValueId cacheKey = node.getNodeId().equals(readValueId.getNodeId()) ?
+                        readValueId :
+                        new ReadValueId(
+                            node.getNodeId(),
+                            readValueId.getAttributeId(),
+                            readValueId.getIndexRange(),
+                            readValueId.getDataEncoding()
+                        );
+
+                    CompletableFuture<DataValue> value = valueCache.get(
+                        cacheKey,
+                        maxAge,
+                        () -> CompletableFuture.supplyAsync(
+                            () -> node.readAttribute(
+                                new AttributeContext(server),
+                                readValueId.getAttributeId(),
+                                TimestampsToReturn.Both,
+                                readValueId.getIndexRange(),
+                                readValueId.getDataEncoding()
+                            ),
+                            server.getExecutorService()
+                        )
+                    );
 
-                logger.debug("Read value {} from attribute {} of {}",
-                    value.getValue().getValue(),
-                    AttributeId.from(readValueId.getAttributeId())
-                        .map(Object::toString).orElse("unknown"),
-                    node.getNodeId()
-                );
+                    results.add(
+                        value.thenApply(v -> filterTimestamps(v, timestamps)).exceptionally(ex -> {
+                            logger.warn("Reading attribute of {} failed", node.getNodeId(), ex);
+
+                            return new DataValue(StatusCodes.Bad_InternalError);
+                        })
+                    );
+                } else {
+                    DataValue value = node.readAttribute(
+                        new AttributeContext(context),
+                        readValueId.getAttributeId(),
+                        timestamps,
+                        readValueId.getIndexRange(),
+                        readValueId.getDataEncoding()
+                    );
+
+                    logger.debug("Read value {} from attribute {} of {}",
+                        value.getValue().getValue(),
+                        AttributeId.from(readValueId.getAttributeId())
+                            .map(Object::toString).orElse("unknown"),
+                        node.getNodeId()
+                    );
 
-                results.add(value);
+                    results.add(CompletableFuture.completedFuture(value));
+                }
             } else {
-                results.add(new DataValue(StatusCodes.Bad_NodeIdUnknown));
+                results.add(CompletableFuture.completedFuture(new DataValue(StatusCodes.Bad_NodeIdUnknown)));
             }
         }
 
-        context.success(results);
+        FutureUtils.sequence(results).thenAccept(context::success);
+    }
+
+    /**
+     * Let the {@link UaNodeManager} create the Nodes an operation is about to look up all at once, if it creates its
+     * Nodes on demand.
+     *
+     * @param context the {@link AccessContext} of the operation.
+     * @param nodeIds the {@link NodeId}s of the Nodes, or handles identifying registered Nodes.
+     */
+    private void prefetchNodes(AccessContext context, List<NodeId> nodeIds) {
+        RegisteredNodes registeredNodes = context.getSession()
+            .map(Session::getRegisteredNodes)
+            .orElse(null);
+
+        nodeManager.prefetchNodes(
+            registeredNodes != null ? Lists.transform(nodeIds, registeredNodes::resolve) : nodeIds
+        );
+    }
+
+    /**
+     * Get the Node identified by {@code nodeId}, which may be a handle the Session got from RegisterNodes.
+     * <p>
+     * A registered Node is looked up in the {@link UaNodeManager} once and then cached in its
+     * {@link RegisteredNode} until the Nodes of the NodeManager change.
+     *
+     * @param context the {@link AccessContext} of the operation.
+     * @param nodeId  the {@link NodeId} of the Node, or a handle identifying a registered Node.
+     * @return the Node, or {@code null} if it doesn't exist.
+     */
+    @Nullable
+    private UaServerNode getNode(AccessContext context, NodeId nodeId) {
+        Session session = context.getSession().orElse(null);
+
+        RegisteredNode registered = session != null ?
+            session.getRegisteredNodes().get(nodeId) : null;
+
+        if (registered == null || registered.getAddressSpace() != this) {
+            return nodeManager.get(nodeId);
+        }
+
+        long version = nodeVersion.get();
+
+        UaServerNode node = (UaServerNode) registered.getNode(version);
+
+        if (node == null) {
+            node = nodeManager.get(registered.getNodeId());
+
+            registered.setNode(node, version);
+        }
+
+        return node;
+    }
+
+    /**
+     * Get the {@link AttributeValueCache} used to serve Reads with a non-zero {@code maxAge}.
+     *
+     * @return the {@link AttributeValueCache} used to serve Reads with a non-zero {@code maxAge}.
+     */
+    protected AttributeValueCache getValueCache() {
+        return valueCache;
+    }
+
+    /**
+     * Check if the value identified by {@code readValueId} may be served from the {@link AttributeValueCache}.
+     * <p>
+     * Cached values are read without a Session and shared by all Sessions, so the default implementation only allows
+     * the Value attribute of Variable nodes the Session has CurrentRead access to; every other attribute is either
+     * cheap to read or depends on the Session. A node's {@link AttributeDelegate} may return a different value for
+     * each Session, so it is only cached if {@link AttributeDelegate#isSessionIndependent()} returns {@code true}.
+     * Override to exclude nodes whose value must always be read anew.
+     *
+     * @param context     the {@link AccessContext} of the Read.
+     * @param node        the node being read.
+     * @param readValueId the {@link ReadValueId} being read.
+     * @return {@code true} if the value may be served from the cache.
+     */
+    protected boolean isValueCacheable(AccessContext context, UaServerNode node, ReadValueId readValueId) {
+        if (!AttributeId.Value.isEqual(readValueId.getAttributeId()) || node.getNodeClass() != NodeClass.Variable) {
+            return false;
+        }
+
+        if (node instanceof UaNode && !((UaNode) node).getAttributeDelegate().isSessionIndependent()) {
+            return false;
+        }
+
+        AttributeContext internalContext = new AttributeContext(server);
+        AttributeContext sessionContext = new AttributeContext(server, context.getSession().orElse(null));
+
+        try {
+            return AttributeUtil.getAccessLevels(node, internalContext).contains(AccessLevel.CurrentRead) &&
+                AttributeUtil.getUserAccessLevels(node, sessionContext).contains(AccessLevel.CurrentRead);
+        } catch (UaException e) {
+            return false;
+        }
+    }
+
+    private static DataValue filterTimestamps(DataValue value, TimestampsToReturn timestamps) {
+        DataValue.Builder builder = value.copy();
+
+        if (timestamps != TimestampsToReturn.Source && timestamps != TimestampsToReturn.Both) {
+            builder.setSourceTime(null);
+            builder.setSourcePicoseconds(null);
+        }
+        if (timestamps != TimestampsToReturn.Server && timestamps != TimestampsToReturn.Both) {
+            builder.setServerTime(null);
+            builder.setServerPicoseconds(null);
+        }
+
+        return builder.build();
     }
 
     @Override
@@ -200,10 +404,12 @@ public abstract class ManagedAddressSpaceServices extends AbstractLifecycle impl
         List<WriteValue> writeValues
     ) {
 
+        prefetchNodes(context, Lists.transform(writeValues, WriteValue::getNodeId));
+
         List<StatusCode> results = Lists.newArrayListWithCapacity(writeValues.size());
 
         for (WriteValue writeValue : writeValues) {
-            UaServerNode node = nodeManager.get(writeValue.getNodeId());
+            UaServerNode node = getNode(context, writeValue.getNodeId());
 
             if (node != null) {
                 try {
@@ -216,6 +422,8 @@ public abstract class ManagedAddressSpaceServices extends AbstractLifecycle impl
 
                     results.add(StatusCode.GOOD);
 
+                    valueCache.invalidate(node.getNodeId());
+
                     logger.debug(
                         "Wrote value {} to {} attribute of {}",
                         writeValue.getValue().getValue(),
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.api;
+
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UShort;
+
+/**
+ * A {@link SimpleAddressSpaceFilter} that matches every {@link NodeId} in one namespace.
+ * <p>
+ * An {@link AddressSpaceComposite} recognizes this filter when an {@link AddressSpace} is registered and routes
+ * operations in its namespace directly to that AddressSpace, without testing the filter of each AddressSpace in turn.
+ */
+public final class NamespaceAddressSpaceFilter extends SimpleAddressSpaceFilter {
+
+    private final UShort namespaceIndex;
+
+    public NamespaceAddressSpaceFilter(UShort namespaceIndex) {
+        this.namespaceIndex = namespaceIndex;
+    }
+
+    /**
+     * @return the index of the namespace this filter matches.
+     */
+    public UShort getNamespaceIndex() {
+        return namespaceIndex;
+    }
+
+    @Override
+    protected boolean filter(NodeId nodeId) {
+        return nodeId.getNamespaceIndex().equals(namespaceIndex);
+    }
+
+}
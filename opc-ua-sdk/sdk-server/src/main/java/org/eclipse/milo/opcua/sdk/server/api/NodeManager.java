@@ -10,6 +10,7 @@
 
 package org.eclipse.milo.opcua.sdk.server.api;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
@@ -139,6 +140,93 @@ public interface NodeManager<T extends Node> {
      */
     List<Reference> getReferences(NodeId nodeId, Predicate<Reference> filter);
 
+    /**
+     * Get the {@link Reference}s that have {@code nodeId} as their source {@link NodeId}, are in {@code direction},
+     * and have one of {@code referenceTypeIds} as their reference type.
+     * <p>
+     * The default implementation filters {@link #getReferences(NodeId)}; implementations that index their References
+     * by type should override it.
+     *
+     * @param nodeId           the source {@link NodeId}.
+     * @param direction        the direction of the References, or {@code null} for both directions.
+     * @param referenceTypeIds the reference types to include, exactly; subtypes must be included explicitly.
+     * @return the {@link Reference}s that have {@code nodeId} as their source {@link NodeId}, are in
+     * {@code direction}, and have one of {@code referenceTypeIds} as their reference type.
+     */
+    default List<Reference> getReferences(
+        NodeId nodeId,
+        @Nullable Reference.Direction direction,
+        Collection<NodeId> referenceTypeIds) {
+
+        return getReferences(
+            nodeId,
+            r ->
+                (direction == null || r.getDirection() == direction) &&
+                    referenceTypeIds.contains(r.getReferenceTypeId())
+        );
+    }
+
+    /**
+     * Hint that the Nodes identified by {@code nodeIds} are about to be asked for, so a {@link NodeManager} that
+     * creates its Nodes on demand can create them all at once rather than one lookup at a time.
+     * <p>
+     * The default implementation does nothing.
+     *
+     * @param nodeIds the {@link NodeId}s of the Nodes about to be asked for; may include Nodes this
+     *                {@link NodeManager} doesn't contain.
+     */
+    default void prefetchNodes(Collection<NodeId> nodeIds) {}
+
+    /**
+     * Get the {@link NodeId}s of every Node this {@link NodeManager} contains, so they can be indexed, e.g. by
+     * TypeDefinition to answer Query.
+     * <p>
+     * The default implementation returns {@link Optional#empty()}, for {@link NodeManager}s that can't enumerate their
+     * Nodes, e.g. because they create them on demand. Services that need to enumerate every Node are unsupported
+     * while such a {@link NodeManager} is registered. Whether a {@link NodeManager} can enumerate its Nodes must not
+     * change.
+     *
+     * @return the {@link NodeId}s of every Node this {@link NodeManager} contains, or {@link Optional#empty()} if they
+     * can't be enumerated.
+     */
+    default Optional<List<NodeId>> enumerateNodeIds() {
+        return Optional.empty();
+    }
+
+    /**
+     * Add a {@link ChangeListener} to be notified when Nodes or References are added to or removed from this
+     * {@link NodeManager}.
+     * <p>
+     * The default implementation does nothing, for {@link NodeManager}s that don't report their changes.
+     *
+     * @see #isReportingChanges()
+     *
+     * @param listener the {@link ChangeListener} to add.
+     */
+    default void addChangeListener(ChangeListener listener) {}
+
+    /**
+     * Remove a {@link ChangeListener} previously added with {@link #addChangeListener(ChangeListener)}.
+     *
+     * <p>
+     * The default implementation does nothing.
+     *
+     * @param listener the {@link ChangeListener} to remove.
+     */
+    default void removeChangeListener(ChangeListener listener) {}
+
+    /**
+     * Return {@code true} if this {@link NodeManager} notifies its {@link ChangeListener}s of every change to its
+     * Nodes and References. Results derived from a {@link NodeManager} that doesn't are never cached.
+     * <p>
+     * The default implementation returns {@code false}.
+     *
+     * @return {@code true} if this {@link NodeManager} notifies its {@link ChangeListener}s of every change.
+     */
+    default boolean isReportingChanges() {
+        return false;
+    }
+
     /**
      * Return {@code true} if this {@link NodeManager} contains {@code node}.
      *
@@ -185,4 +273,16 @@ public interface NodeManager<T extends Node> {
         return removeNode(node.getNodeId());
     }
 
+    interface ChangeListener {
+
+        /**
+         * A Node was added to or removed from a {@link NodeManager}, or a Reference that has it as its source was.
+         *
+         * @param nodeId the {@link NodeId} of the Node that was added or removed, or the source {@link NodeId} of the
+         *               Reference that was added or removed.
+         */
+        void onNodeChanged(NodeId nodeId);
+
+    }
+
 }
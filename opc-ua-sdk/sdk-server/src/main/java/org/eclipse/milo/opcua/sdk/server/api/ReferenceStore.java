@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+
+import org.eclipse.milo.opcua.sdk.core.Reference;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+
+/**
+ * A concurrent store of {@link Reference}s indexed by source {@link NodeId}, and then by direction and reference type.
+ * <p>
+ * The References of each source node are kept as an immutable snapshot that is replaced on every change, so reads
+ * never lock and the Lists they return are never copied. Writes to different source nodes don't contend; writes to the
+ * same source node are serialized. Appending to a snapshot reuses its backing array where it can, so adding many
+ * References to one node is amortized constant time.
+ * <p>
+ * As with a {@code ListMultimap}, the same Reference can be added more than once and is removed one at a time.
+ */
+public class ReferenceStore {
+
+    private final ConcurrentMap<NodeId, NodeReferences> references = new ConcurrentHashMap<>();
+
+    /**
+     * Add {@code reference} to the References of its source node.
+     *
+     * @param reference the {@link Reference} to add.
+     */
+    public void add(Reference reference) {
+        references.compute(
+            reference.getSourceNodeId(),
+            (nodeId, refs) ->
+                refs != null ? refs.add(reference) : NodeReferences.of(reference)
+        );
+    }
+
+    /**
+     * Remove one occurrence of {@code reference} from the References of its source node.
+     *
+     * @param reference the {@link Reference} to remove.
+     */
+    public void remove(Reference reference) {
+        references.computeIfPresent(
+            reference.getSourceNodeId(),
+            (nodeId, refs) -> refs.remove(reference)
+        );
+    }
+
+    /**
+     * Get all {@link Reference}s that have {@code nodeId} as their source.
+     *
+     * @param nodeId the source {@link NodeId}.
+     * @return an unmodifiable List of the References that have {@code nodeId} as their source, in the order they were
+     * added. Later changes to the store are not reflected in it.
+     */
+    public List<Reference> getReferences(NodeId nodeId) {
+        NodeReferences refs = references.get(nodeId);
+
+        return refs != null ? refs.asList() : Collections.emptyList();
+    }
+
+    /**
+     * Get the {@link Reference}s that have {@code nodeId} as their source and pass {@code filter}.
+     *
+     * @param nodeId the source {@link NodeId}.
+     * @param filter a {@link Predicate} to filter References.
+     * @return the References that have {@code nodeId} as their source and pass {@code filter}.
+     */
+    public List<Reference> getReferences(NodeId nodeId, Predicate<Reference> filter) {
+        NodeReferences refs = references.get(nodeId);
+
+        if (refs == null) {
+            return Collections.emptyList();
+        }
+
+        List<Reference> filtered = new ArrayList<>();
+        for (int i = 0; i < refs.size; i++) {
+            Reference reference = refs.array[i];
+
+            if (filter.test(reference)) {
+                filtered.add(reference);
+            }
+        }
+        return filtered;
+    }
+
+    /**
+     * Get the {@link Reference}s that have {@code nodeId} as their source, are in {@code direction}, and are of one of
+     * {@code referenceTypeIds}, resolved through the index without looking at any other References.
+     *
+     * @param nodeId           the source {@link NodeId}.
+     * @param direction        the direction of the References, or {@code null} for both directions.
+     * @param referenceTypeIds the reference types to include, exactly; subtypes must be included explicitly.
+     * @return the matching References, grouped by direction and then by reference type in the iteration order of
+     * {@code referenceTypeIds}.
+     */
+    public List<Reference> getReferences(
+        NodeId nodeId,
+        @Nullable Reference.Direction direction,
+        Collection<NodeId> referenceTypeIds) {
+
+        NodeReferences refs = references.get(nodeId);
+
+        if (refs == null) {
+            return Collections.emptyList();
+        }
+
+        Index index = refs.index();
+
+        List<Reference> matching = new ArrayList<>();
+
+        if (direction != Reference.Direction.INVERSE) {
+            for (NodeId referenceTypeId : referenceTypeIds) {
+                matching.addAll(index.forward.getOrDefault(referenceTypeId, Collections.emptyList()));
+            }
+        }
+        if (direction != Reference.Direction.FORWARD) {
+            for (NodeId referenceTypeId : referenceTypeIds) {
+                matching.addAll(index.inverse.getOrDefault(referenceTypeId, Collections.emptyList()));
+            }
+        }
+
+        return matching;
+    }
+
+    /**
+     * An immutable snapshot of the References of one source node.
+     * <p>
+     * Only {@code array[0, size)} belongs to this snapshot. The slots after it may be filled in by the snapshot that
+     * appends to this one, which is safe because nothing reading this snapshot looks at them and only one snapshot
+     * ever appends into a given slot.
+     */
+    private static final class NodeReferences {
+
+        private final Reference[] array;
+        private final int size;
+
+        private volatile boolean appended;
+        private volatile Index index;
+
+        private NodeReferences(Reference[] array, int size) {
+            this.array = array;
+            this.size = size;
+        }
+
+        static NodeReferences of(Reference reference) {
+            Reference[] array = new Reference[2];
+            array[0] = reference;
+            return new NodeReferences(array, 1);
+        }
+
+        /**
+         * Called while holding the lock on this node's entry in the map, so at most one thread appends at a time.
+         */
+        NodeReferences add(Reference reference) {
+            if (!appended && size < array.length) {
+                appended = true;
+                array[size] = reference;
+                return new NodeReferences(array, size + 1);
+            } else {
+                Reference[] copy = Arrays.copyOf(array, Math.max(size * 2, 2));
+                copy[size] = reference;
+                return new NodeReferences(copy, size + 1);
+            }
+        }
+
+        /**
+         * @return a snapshot without the first occurrence of {@code reference}, or {@code null} if none are left.
+         */
+        @Nullable
+        NodeReferences remove(Reference reference) {
+            for (int i = 0; i < size; i++) {
+                if (array[i].equals(reference)) {
+                    if (size == 1) {
+                        return null;
+                    }
+
+                    Reference[] copy = new Reference[size - 1];
+                    System.arraycopy(array, 0, copy, 0, i);
+                    System.arraycopy(array, i + 1, copy, i, size - i - 1);
+                    return new NodeReferences(copy, copy.length);
+                }
+            }
+
+            return this;
+        }
+
+        List<Reference> asList() {
+            return Collections.unmodifiableList(Arrays.asList(array).subList(0, size));
+        }
+
+        /**
+         * Get the by-type index of this snapshot, building it on first use. Racing threads may each build it; they
+         * build the same thing.
+         */
+        Index index() {
+            Index i = index;
+
+            if (i == null) {
+                index = i = new Index(array, size);
+            }
+
+            return i;
+        }
+
+    }
+
+    private static final class Index {
+
+        final Map<NodeId, List<Reference>> forward = new HashMap<>();
+        final Map<NodeId, List<Reference>> inverse = new HashMap<>();
+
+        Index(Reference[] array, int size) {
+            for (int i = 0; i < size; i++) {
+                Reference reference = array[i];
+
+                Map<NodeId, List<Reference>> byType = reference.isForward() ? forward : inverse;
+
+                byType.computeIfAbsent(reference.getReferenceTypeId(), k -> new ArrayList<>(1)).add(reference);
+            }
+        }
+
+    }
+
+}
@@ -107,6 +107,7 @@ public interface OpcUaServerConfig extends UaStackServerConfig {
         builder.setHttpsKeyPair(config.getHttpsKeyPair().orElse(null));
         builder.setHttpsCertificate(config.getHttpsCertificate().orElse(null));
         builder.setExecutor(config.getExecutor());
+        builder.setTransport(config.getTransport());
 
         // OpcUaServerConfig values
         builder.setIdentityValidator(config.getIdentityValidator());
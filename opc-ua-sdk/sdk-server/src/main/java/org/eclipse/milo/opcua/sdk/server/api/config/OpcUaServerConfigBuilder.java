@@ -23,6 +23,7 @@ import org.eclipse.milo.opcua.stack.core.security.CertificateManager;
 import org.eclipse.milo.opcua.stack.core.security.CertificateValidator;
 import org.eclipse.milo.opcua.stack.core.security.TrustListManager;
 import org.eclipse.milo.opcua.stack.core.serialization.EncodingLimits;
+import org.eclipse.milo.opcua.stack.core.transport.NettyTransport;
 import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
 import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
 import org.eclipse.milo.opcua.stack.core.types.structured.BuildInfo;
@@ -120,6 +121,12 @@ public class OpcUaServerConfigBuilder extends UaStackServerConfigBuilder {
         return this;
     }
 
+    @Override
+    public OpcUaServerConfigBuilder setTransport(NettyTransport transport) {
+        super.setTransport(transport);
+        return this;
+    }
+
     @Override
     public OpcUaServerConfigBuilder setMessageLimits(MessageLimits messageLimits) {
         super.setMessageLimits(messageLimits);
@@ -229,6 +236,11 @@ public class OpcUaServerConfigBuilder extends UaStackServerConfigBuilder {
             return stackServerConfig.getExecutor();
         }
 
+        @Override
+        public NettyTransport getTransport() {
+            return stackServerConfig.getTransport();
+        }
+
         @Override
         public MessageLimits getMessageLimits() {
             return stackServerConfig.getMessageLimits();
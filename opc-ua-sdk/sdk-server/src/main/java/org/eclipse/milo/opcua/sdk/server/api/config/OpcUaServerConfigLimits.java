@@ -92,6 +92,34 @@ public interface OpcUaServerConfigLimits {
         return uint(1024);
     }
 
+    /**
+     * Get the time, in milliseconds, a Browse continuation point can go unused before it is released.
+     *
+     * @return the time, in milliseconds, a Browse continuation point can go unused before it is released.
+     */
+    default Double getBrowseContinuationPointTimeout() {
+        return (double) TimeUnit.MILLISECONDS.convert(5, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Get the maximum number of QueryDataSets returned by each QueryFirst or QueryNext call, used when the client
+     * requests more or leaves it up to the server. 0 means no limit.
+     *
+     * @return the maximum number of QueryDataSets returned by each QueryFirst or QueryNext call.
+     */
+    default UInteger getMaxQueryDataSets() {
+        return uint(1000);
+    }
+
+    /**
+     * Get the time, in milliseconds, a Query continuation point can go unused before it is released.
+     *
+     * @return the time, in milliseconds, a Query continuation point can go unused before it is released.
+     */
+    default Double getQueryContinuationPointTimeout() {
+        return (double) TimeUnit.MILLISECONDS.convert(5, TimeUnit.MINUTES);
+    }
+
     //region ServerCapabilities
 
     default Double getMinSupportedSampleRate() {
@@ -110,10 +138,21 @@ public interface OpcUaServerConfigLimits {
         return uint(EncodingLimits.DEFAULT_MAX_ARRAY_LENGTH);
     }
 
+    /**
+     * Get the maximum number of Browse continuation points each Session can hold at once.
+     *
+     * @return the maximum number of Browse continuation points each Session can hold at once.
+     */
     default UShort getMaxBrowseContinuationPoints() {
         return ushort(250);
     }
 
+    /**
+     * Get the maximum number of Query continuation points each Session can hold at once. 0 means no limit, as for
+     * the MaxQueryContinuationPoints ServerCapability it's published as.
+     *
+     * @return the maximum number of Query continuation points each Session can hold at once.
+     */
     default UShort getMaxQueryContinuationPoints() {
         return ushort(250);
     }
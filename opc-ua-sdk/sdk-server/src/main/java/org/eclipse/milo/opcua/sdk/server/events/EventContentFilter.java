@@ -386,9 +386,9 @@ public class EventContentFilter {
             case InList:
                 return Operators.UNSUPPORTED;
             case And:
-                return Operators.UNSUPPORTED;
+                return Operators.AND;
             case Or:
-                return Operators.UNSUPPORTED;
+                return Operators.OR;
             case Cast:
                 return Operators.CAST;
             case BitwiseAnd:
@@ -0,0 +1,549 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.events;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.eclipse.milo.opcua.sdk.core.Reference;
+import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
+import org.eclipse.milo.opcua.sdk.server.Session;
+import org.eclipse.milo.opcua.sdk.server.api.AddressSpaceManager;
+import org.eclipse.milo.opcua.sdk.server.events.operators.Operator;
+import org.eclipse.milo.opcua.sdk.server.events.operators.Operators;
+import org.eclipse.milo.opcua.sdk.server.model.nodes.objects.BaseEventNode;
+import org.eclipse.milo.opcua.sdk.server.nodes.AttributeContext;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaNode;
+import org.eclipse.milo.opcua.sdk.server.util.AttributeReader;
+import org.eclipse.milo.opcua.stack.core.AttributeId;
+import org.eclipse.milo.opcua.stack.core.Identifiers;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.UaException;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DiagnosticInfo;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.FilterOperator;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.NodeClass;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
+import org.eclipse.milo.opcua.stack.core.types.structured.AttributeOperand;
+import org.eclipse.milo.opcua.stack.core.types.structured.ContentFilter;
+import org.eclipse.milo.opcua.stack.core.types.structured.ContentFilterElement;
+import org.eclipse.milo.opcua.stack.core.types.structured.ContentFilterElementResult;
+import org.eclipse.milo.opcua.stack.core.types.structured.ContentFilterResult;
+import org.eclipse.milo.opcua.stack.core.types.structured.ElementOperand;
+import org.eclipse.milo.opcua.stack.core.types.structured.FilterOperand;
+import org.eclipse.milo.opcua.stack.core.types.structured.LiteralOperand;
+import org.eclipse.milo.opcua.stack.core.types.structured.RelativePath;
+import org.eclipse.milo.opcua.stack.core.types.structured.RelativePathElement;
+import org.eclipse.milo.opcua.stack.core.types.structured.SimpleAttributeOperand;
+
+/**
+ * The ContentFilter of a QueryFirst request, evaluated against the Nodes selected by the query.
+ * <p>
+ * Operands are decoded once, when the filter is created, rather than for every Node. The operators are the ones
+ * {@link EventContentFilter} uses, with the operands resolved against the Node being evaluated; OfType, which needs
+ * the Node's TypeDefinition, is evaluated here.
+ */
+public class QueryContentFilter {
+
+    private final FilterContext context;
+    private final ContentFilterElement[] elements;
+    private final FilterOperand[][] operands;
+
+    private final Map<NodeId, Set<NodeId>> subtypes = new ConcurrentHashMap<>();
+
+    /**
+     * @param context the {@link FilterContext} to decode, validate and evaluate the filter in.
+     * @param filter  the {@link ContentFilter}; a {@code null} or empty filter selects every Node.
+     */
+    public QueryContentFilter(FilterContext context, @Nullable ContentFilter filter) {
+        this.context = context;
+
+        elements = filter != null && filter.getElements() != null ?
+            filter.getElements() : new ContentFilterElement[0];
+
+        operands = new FilterOperand[elements.length][];
+
+        for (int i = 0; i < elements.length; i++) {
+            ExtensionObject[] xos = elements[i].getFilterOperands();
+
+            if (xos == null) xos = new ExtensionObject[0];
+
+            operands[i] = new FilterOperand[xos.length];
+
+            for (int j = 0; j < xos.length; j++) {
+                Object operand = xos[j] != null ?
+                    xos[j].decodeOrNull(context.getServer().getSerializationContext()) : null;
+
+                if (operand instanceof FilterOperand) {
+                    operands[i][j] = (FilterOperand) operand;
+                }
+            }
+        }
+    }
+
+    /**
+     * Validate the filter.
+     *
+     * @return the {@link ContentFilterResult} describing the problems with each element, if any.
+     */
+    public ContentFilterResult validate() {
+        ContentFilterElementResult[] elementResults = new ContentFilterElementResult[elements.length];
+
+        for (int i = 0; i < elements.length; i++) {
+            elementResults[i] = validateElement(i);
+        }
+
+        return new ContentFilterResult(elementResults, new DiagnosticInfo[0]);
+    }
+
+    /**
+     * @param result a {@link ContentFilterResult} returned by {@link #validate()}.
+     * @return {@code true} if {@code result} reports no problems.
+     */
+    public static boolean isValid(ContentFilterResult result) {
+        ContentFilterElementResult[] elementResults = result.getElementResults();
+
+        if (elementResults == null) return true;
+
+        for (ContentFilterElementResult elementResult : elementResults) {
+            if (elementResult.getStatusCode().isBad()) return false;
+
+            StatusCode[] operandStatusCodes = elementResult.getOperandStatusCodes();
+
+            if (operandStatusCodes != null) {
+                for (StatusCode operandStatusCode : operandStatusCodes) {
+                    if (operandStatusCode.isBad()) return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private ContentFilterElementResult validateElement(int index) {
+        FilterOperator filterOperator = elements[index].getFilterOperator();
+
+        if (filterOperator == null ||
+            !(filterOperator == FilterOperator.OfType || Operators.SUPPORTED_OPERATORS.contains(filterOperator))) {
+
+            return new ContentFilterElementResult(
+                new StatusCode(StatusCodes.Bad_FilterOperatorUnsupported),
+                new StatusCode[0],
+                new DiagnosticInfo[0]
+            );
+        }
+
+        FilterOperand[] elementOperands = operands[index];
+        StatusCode[] operandStatusCodes = new StatusCode[elementOperands.length];
+
+        for (int i = 0; i < elementOperands.length; i++) {
+            operandStatusCodes[i] = validateOperand(index, elementOperands[i]);
+        }
+
+        StatusCode operatorStatus = StatusCode.GOOD;
+
+        if (filterOperator == FilterOperator.OfType) {
+            if (elementOperands.length < 1) {
+                operatorStatus = new StatusCode(StatusCodes.Bad_FilterOperandCountMismatch);
+            } else if (!(elementOperands[0] instanceof LiteralOperand) ||
+                !(((LiteralOperand) elementOperands[0]).getValue().getValue() instanceof NodeId)) {
+
+                operandStatusCodes[0] = new StatusCode(StatusCodes.Bad_FilterOperandInvalid);
+            }
+        } else {
+            try {
+                getOperator(filterOperator).validate(context, elementOperands);
+            } catch (ValidationException e) {
+                operatorStatus = e.getStatusCode();
+            }
+        }
+
+        return new ContentFilterElementResult(
+            operatorStatus,
+            operandStatusCodes,
+            new DiagnosticInfo[0]
+        );
+    }
+
+    private StatusCode validateOperand(int index, @Nullable FilterOperand operand) {
+        if (operand instanceof LiteralOperand) {
+            return StatusCode.GOOD;
+        } else if (operand instanceof ElementOperand) {
+            // Only later elements may be referenced, so evaluation can't loop.
+            UInteger elementIndex = ((ElementOperand) operand).getIndex();
+
+            boolean valid = elementIndex != null &&
+                elementIndex.longValue() > index &&
+                elementIndex.longValue() < elements.length;
+
+            return valid ? StatusCode.GOOD : new StatusCode(StatusCodes.Bad_FilterOperandInvalid);
+        } else if (operand instanceof AttributeOperand) {
+            AttributeOperand ao = (AttributeOperand) operand;
+
+            if (!AttributeId.isValid(ao.getAttributeId())) {
+                return new StatusCode(StatusCodes.Bad_AttributeIdInvalid);
+            }
+
+            return validateTypeDefinition(ao.getNodeId());
+        } else if (operand instanceof SimpleAttributeOperand) {
+            SimpleAttributeOperand sao = (SimpleAttributeOperand) operand;
+
+            if (!AttributeId.isValid(sao.getAttributeId())) {
+                return new StatusCode(StatusCodes.Bad_AttributeIdInvalid);
+            }
+
+            return validateTypeDefinition(sao.getTypeDefinitionId());
+        } else {
+            return new StatusCode(StatusCodes.Bad_FilterOperandInvalid);
+        }
+    }
+
+    private StatusCode validateTypeDefinition(@Nullable NodeId typeDefinitionId) {
+        if (typeDefinitionId == null || typeDefinitionId.isNull()) {
+            return StatusCode.GOOD;
+        }
+
+        UaNode node = context.getServer().getAddressSpaceManager().getManagedNode(typeDefinitionId).orElse(null);
+
+        if (node == null) {
+            return new StatusCode(StatusCodes.Bad_NodeIdUnknown);
+        } else if (node.getNodeClass() != NodeClass.ObjectType && node.getNodeClass() != NodeClass.VariableType) {
+            return new StatusCode(StatusCodes.Bad_NotTypeDefinition);
+        } else {
+            return StatusCode.GOOD;
+        }
+    }
+
+    /**
+     * Evaluate the filter against {@code node}.
+     * <p>
+     * The filter must have been validated first.
+     *
+     * @param node             the {@link UaNode} to evaluate the filter against.
+     * @param typeDefinitionId the {@link NodeId} of {@code node}'s TypeDefinition.
+     * @return {@code true} if {@code node} passes the filter.
+     * @throws UaException if the filter can't be evaluated against {@code node}.
+     */
+    public boolean evaluate(UaNode node, @Nullable NodeId typeDefinitionId) throws UaException {
+        if (elements.length == 0) return true;
+
+        Object result = new NodeOperatorContext(node, typeDefinitionId).evaluate(0);
+
+        return Boolean.TRUE.equals(result);
+    }
+
+    private Set<NodeId> getSubtypes(NodeId typeDefinitionId) {
+        Set<NodeId> typeDefinitionIds = subtypes.get(typeDefinitionId);
+
+        if (typeDefinitionIds == null) {
+            typeDefinitionIds = subtypesOf(context.getServer(), typeDefinitionId);
+            subtypes.put(typeDefinitionId, typeDefinitionIds);
+        }
+
+        return typeDefinitionIds;
+    }
+
+    /**
+     * Get {@code typeDefinitionId} and all of its subtypes known to the {@link AddressSpaceManager}.
+     *
+     * @param server           the {@link OpcUaServer}.
+     * @param typeDefinitionId the {@link NodeId} of an ObjectType or VariableType.
+     * @return {@code typeDefinitionId} and the NodeIds of all of its managed subtypes.
+     */
+    public static Set<NodeId> subtypesOf(OpcUaServer server, NodeId typeDefinitionId) {
+        AddressSpaceManager addressSpaceManager = server.getAddressSpaceManager();
+
+        Set<NodeId> typeDefinitionIds = new LinkedHashSet<>();
+        typeDefinitionIds.add(typeDefinitionId);
+
+        Deque<NodeId> remaining = new ArrayDeque<>();
+        remaining.add(typeDefinitionId);
+
+        while (!remaining.isEmpty()) {
+            NodeId supertypeId = remaining.poll();
+
+            for (Reference reference : addressSpaceManager.getManagedReferences(
+                supertypeId,
+                Reference.Direction.FORWARD,
+                Collections.singleton(Identifiers.HasSubtype))) {
+
+                reference.getTargetNodeId().local(server.getNamespaceTable()).ifPresent(subtypeId -> {
+                    if (typeDefinitionIds.add(subtypeId)) {
+                        remaining.add(subtypeId);
+                    }
+                });
+            }
+        }
+
+        return typeDefinitionIds;
+    }
+
+    /**
+     * Follow {@code relativePath} from {@code startingNode} through the managed Nodes, taking the first target that
+     * matches at each step.
+     *
+     * @param server       the {@link OpcUaServer}.
+     * @param startingNode the {@link UaNode} to start at.
+     * @param relativePath the {@link RelativePath} to follow; {@code null} or empty selects {@code startingNode}.
+     * @return the {@link UaNode} at the end of {@code relativePath}, or {@code null} if there isn't one.
+     */
+    @Nullable
+    public static UaNode getRelativeNode(
+        OpcUaServer server,
+        @Nonnull UaNode startingNode,
+        @Nullable RelativePath relativePath) {
+
+        RelativePathElement[] pathElements = relativePath != null ? relativePath.getElements() : null;
+
+        if (pathElements == null) return startingNode;
+
+        AddressSpaceManager addressSpaceManager = server.getAddressSpaceManager();
+
+        UaNode node = startingNode;
+
+        for (RelativePathElement element : pathElements) {
+            boolean inverse = Boolean.TRUE.equals(element.getIsInverse());
+            boolean includeSubtypes = Boolean.TRUE.equals(element.getIncludeSubtypes());
+            NodeId referenceTypeId = element.getReferenceTypeId();
+            QualifiedName targetName = element.getTargetName();
+
+            UaNode target = null;
+
+            for (Reference reference : addressSpaceManager.getManagedReferences(node.getNodeId())) {
+                if (reference.isInverse() != inverse) continue;
+
+                boolean typeMatches = referenceTypeId == null ||
+                    referenceTypeId.isNull() ||
+                    referenceTypeId.equals(reference.getReferenceTypeId()) ||
+                    (includeSubtypes && reference.subtypeOf(referenceTypeId, server.getReferenceTypes()));
+
+                if (!typeMatches) continue;
+
+                Optional<UaNode> candidate = addressSpaceManager.getManagedNode(reference.getTargetNodeId());
+
+                if (candidate.isPresent() &&
+                    (targetName == null || targetName.isNull() ||
+                        targetName.equals(candidate.get().getBrowseName()))) {
+
+                    target = candidate.get();
+                    break;
+                }
+            }
+
+            if (target == null) return null;
+
+            node = target;
+        }
+
+        return node;
+    }
+
+    /**
+     * Read an attribute of {@code node} on behalf of {@code context}.
+     *
+     * @param context     the {@link FilterContext} to read in.
+     * @param node        the {@link UaNode} to read from.
+     * @param attributeId the id of the attribute to read.
+     * @param indexRange  the index range to read, if any.
+     * @return the {@link DataValue} read.
+     */
+    public static DataValue readAttribute(
+        FilterContext context,
+        UaNode node,
+        UInteger attributeId,
+        @Nullable String indexRange) {
+
+        AttributeId id = AttributeId.from(attributeId).orElse(null);
+
+        if (id == null) {
+            return new DataValue(StatusCodes.Bad_AttributeIdInvalid);
+        }
+
+        AttributeContext attributeContext = new AttributeContext(
+            context.getServer(),
+            context.getSession().orElse(null)
+        );
+
+        return AttributeReader.readAttribute(
+            attributeContext,
+            node,
+            id,
+            TimestampsToReturn.Neither,
+            indexRange,
+            QualifiedName.NULL_VALUE
+        );
+    }
+
+    private static RelativePath toRelativePath(@Nullable QualifiedName[] browsePath) {
+        if (browsePath == null) return new RelativePath(new RelativePathElement[0]);
+
+        RelativePathElement[] pathElements = new RelativePathElement[browsePath.length];
+
+        for (int i = 0; i < browsePath.length; i++) {
+            pathElements[i] = new RelativePathElement(
+                Identifiers.HierarchicalReferences,
+                false,
+                true,
+                browsePath[i]
+            );
+        }
+
+        return new RelativePath(pathElements);
+    }
+
+    @Nonnull
+    private static Operator<?> getOperator(@Nonnull FilterOperator filterOperator) {
+        //@formatter:off
+        switch (filterOperator) {
+            case Equals:
+                return Operators.EQUALS;
+            case IsNull:
+                return Operators.IS_NULL;
+            case GreaterThan:
+                return Operators.GREATER_THAN;
+            case LessThan:
+                return Operators.LESS_THAN;
+            case GreaterThanOrEqual:
+                return Operators.GREATER_THAN_OR_EQUAL;
+            case LessThanOrEqual:
+                return Operators.LESS_THAN_OR_EQUAL;
+            case Not:
+                return Operators.NOT;
+            case And:
+                return Operators.AND;
+            case Or:
+                return Operators.OR;
+            case Cast:
+                return Operators.CAST;
+            default:
+                return Operators.UNSUPPORTED;
+        }
+        //@formatter:on
+    }
+
+    /**
+     * Resolves operands against the Node being evaluated; the event Node passed by the operators is always
+     * {@code null}.
+     */
+    private class NodeOperatorContext implements OperatorContext {
+
+        private final UaNode node;
+        private final NodeId typeDefinitionId;
+
+        NodeOperatorContext(UaNode node, @Nullable NodeId typeDefinitionId) {
+            this.node = node;
+            this.typeDefinitionId = typeDefinitionId;
+        }
+
+        @Override
+        public Optional<Session> getSession() {
+            return context.getSession();
+        }
+
+        @Override
+        public OpcUaServer getServer() {
+            return context.getServer();
+        }
+
+        @Override
+        public ContentFilterElement[] getElements() {
+            return elements;
+        }
+
+        @Nullable
+        Object evaluate(int index) throws UaException {
+            FilterOperator filterOperator = elements[index].getFilterOperator();
+
+            if (filterOperator == null) {
+                throw new UaException(StatusCodes.Bad_FilterOperatorInvalid);
+            }
+
+            FilterOperand[] elementOperands = operands[index];
+
+            if (filterOperator == FilterOperator.OfType) {
+                Object value = resolve(elementOperands[0], null);
+
+                return value instanceof NodeId && isOfType((NodeId) value);
+            } else {
+                return getOperator(filterOperator).apply(this, null, elementOperands);
+            }
+        }
+
+        @Nullable
+        @Override
+        public Object resolve(FilterOperand operand, @Nullable BaseEventNode eventNode) throws UaException {
+            if (operand instanceof LiteralOperand) {
+                return ((LiteralOperand) operand).getValue().getValue();
+            } else if (operand instanceof ElementOperand) {
+                return evaluate(((ElementOperand) operand).getIndex().intValue());
+            } else if (operand instanceof AttributeOperand) {
+                AttributeOperand ao = (AttributeOperand) operand;
+
+                return getAttribute(ao.getNodeId(), ao.getBrowsePath(), ao.getAttributeId(), ao.getIndexRange());
+            } else if (operand instanceof SimpleAttributeOperand) {
+                SimpleAttributeOperand sao = (SimpleAttributeOperand) operand;
+
+                return getAttribute(
+                    sao.getTypeDefinitionId(),
+                    toRelativePath(sao.getBrowsePath()),
+                    sao.getAttributeId(),
+                    sao.getIndexRange()
+                );
+            } else {
+                throw new UaException(StatusCodes.Bad_FilterOperandInvalid);
+            }
+        }
+
+        @Nullable
+        private Object getAttribute(
+            @Nullable NodeId operandTypeDefinitionId,
+            @Nullable RelativePath browsePath,
+            UInteger attributeId,
+            @Nullable String indexRange) {
+
+            // An operand of a type the Node isn't an instance of doesn't apply to it.
+            if (operandTypeDefinitionId != null &&
+                operandTypeDefinitionId.isNotNull() &&
+                !isOfType(operandTypeDefinitionId)) {
+
+                return null;
+            }
+
+            UaNode targetNode = getRelativeNode(context.getServer(), node, browsePath);
+
+            if (targetNode == null) return null;
+
+            DataValue value = readAttribute(context, targetNode, attributeId, indexRange);
+
+            return value.getStatusCode() == null || value.getStatusCode().isGood() ?
+                value.getValue().getValue() : null;
+        }
+
+        private boolean isOfType(NodeId operandTypeDefinitionId) {
+            return typeDefinitionId != null && getSubtypes(operandTypeDefinitionId).contains(typeDefinitionId);
+        }
+
+    }
+
+}
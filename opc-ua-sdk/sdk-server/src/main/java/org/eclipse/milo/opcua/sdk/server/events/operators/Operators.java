@@ -31,6 +31,8 @@ public class Operators {
     public static final GreaterThanOrEqual GREATER_THAN_OR_EQUAL = new GreaterThanOrEqual();
     public static final LessThanOrEqual LESS_THAN_OR_EQUAL = new LessThanOrEqual();
     public static final Not NOT = new Not();
+    public static final And AND = new And();
+    public static final Or OR = new Or();
     public static final Cast CAST = new Cast();
 
     public static final Operator<Object> UNSUPPORTED = new Operator<Object>() {
@@ -58,6 +60,8 @@ public class Operators {
         .add(FilterOperator.GreaterThanOrEqual)
         .add(FilterOperator.LessThanOrEqual)
         .add(FilterOperator.Not)
+        .add(FilterOperator.And)
+        .add(FilterOperator.Or)
         .add(FilterOperator.Cast)
         .build();
 
@@ -13,12 +13,14 @@ package org.eclipse.milo.opcua.sdk.server.items;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
 
 import com.google.common.primitives.Ints;
 import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
 import org.eclipse.milo.opcua.sdk.server.Session;
 import org.eclipse.milo.opcua.sdk.server.api.MonitoredItem;
-import org.eclipse.milo.opcua.sdk.server.util.RingBuffer;
+import org.eclipse.milo.opcua.sdk.server.util.ConcurrentRingBuffer;
 import org.eclipse.milo.opcua.stack.core.UaException;
 import org.eclipse.milo.opcua.stack.core.serialization.UaStructure;
 import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
@@ -34,7 +36,17 @@ public abstract class BaseMonitoredItem<T> implements MonitoredItem {
     protected volatile Map<UInteger, BaseMonitoredItem<?>> triggeredItems;
     protected volatile boolean triggered = false;
 
-    protected volatile RingBuffer<T> queue;
+    /**
+     * Values are only added while holding the lock on this item; they are taken without it, so publishing never waits
+     * for sampling.
+     */
+    protected volatile ConcurrentRingBuffer<T> queue;
+
+    /**
+     * The items of the owning Subscription that may have notifications to publish, or {@code null} if this item
+     * doesn't belong to one yet.
+     */
+    private volatile Set<BaseMonitoredItem<?>> readyItems;
 
     protected volatile long clientHandle;
     protected volatile int queueSize;
@@ -75,7 +87,7 @@ public abstract class BaseMonitoredItem<T> implements MonitoredItem {
 
         setQueueSize(queueSize);
 
-        queue = new RingBuffer<>(this.queueSize);
+        queue = new ConcurrentRingBuffer<>(this.queueSize);
     }
 
     protected void setQueueSize(UInteger queueSize) {
@@ -85,12 +97,15 @@ public abstract class BaseMonitoredItem<T> implements MonitoredItem {
         this.queueSize = qs;
     }
 
-    public synchronized boolean getNotifications(List<UaStructure> notifications, int max) {
-        int queueSize = queue.size();
-        int count = Math.min(queueSize, max);
+    public boolean getNotifications(List<UaStructure> notifications, int max) {
+        ConcurrentRingBuffer<T> queue = this.queue;
+
+        for (int i = 0; i < max; i++) {
+            T value = queue.poll();
 
-        for (int i = 0; i < count; i++) {
-            notifications.add(wrapQueueValue(queue.remove()));
+            if (value == null) break;
+
+            notifications.add(wrapQueueValue(value));
         }
 
         boolean queueIsEmpty = queue.isEmpty();
@@ -102,8 +117,8 @@ public abstract class BaseMonitoredItem<T> implements MonitoredItem {
         return queueIsEmpty;
     }
 
-    public synchronized boolean hasNotifications() {
-        return (queue.size() > 0 && monitoringMode == MonitoringMode.Reporting);
+    public boolean hasNotifications() {
+        return (!queue.isEmpty() && monitoringMode == MonitoringMode.Reporting);
     }
 
     public synchronized void modify(TimestampsToReturn timestamps,
@@ -123,22 +138,58 @@ public abstract class BaseMonitoredItem<T> implements MonitoredItem {
         if (queueSize.intValue() != this.queueSize) {
             setQueueSize(queueSize);
 
-            RingBuffer<T> oldQueue = queue;
-            queue = new RingBuffer<>(this.queueSize);
+            ConcurrentRingBuffer<T> oldQueue = queue;
+            queue = new ConcurrentRingBuffer<>(this.queueSize);
 
-            while (oldQueue.size() > 0) {
-                enqueue(oldQueue.remove());
+            T value;
+            while ((value = oldQueue.poll()) != null) {
+                enqueue(value);
             }
         }
     }
 
     protected abstract void enqueue(T value);
 
+    /**
+     * Set the ready-set of the Subscription this item belongs to, which this item adds itself to whenever it may have
+     * become publishable.
+     *
+     * @param readyItems the ready-set of the owning Subscription, or {@code null} if the item was removed from it.
+     */
+    public void setReadyItems(@Nullable Set<BaseMonitoredItem<?>> readyItems) {
+        this.readyItems = readyItems;
+
+        notifyReady();
+    }
+
+    /**
+     * Add this item to the ready-set of its Subscription. Called after enqueueing a value, or after anything else
+     * that might make {@link #hasNotifications()} or {@link #isTriggered()} true.
+     */
+    protected void notifyReady() {
+        Set<BaseMonitoredItem<?>> ready = readyItems;
+
+        if (ready != null) {
+            ready.add(this);
+        }
+    }
+
+    /**
+     * Mark this item as triggered by a triggering item.
+     */
+    protected void trigger() {
+        triggered = true;
+
+        notifyReady();
+    }
+
     public void setMonitoringMode(MonitoringMode monitoringMode) {
         this.monitoringMode = monitoringMode;
 
         if (monitoringMode == MonitoringMode.Disabled) {
             queue.clear();
+        } else {
+            notifyReady();
         }
     }
 
@@ -196,7 +247,7 @@ public abstract class BaseMonitoredItem<T> implements MonitoredItem {
         return triggeredItems;
     }
 
-    public synchronized boolean isTriggered() {
+    public boolean isTriggered() {
         return triggered;
     }
 
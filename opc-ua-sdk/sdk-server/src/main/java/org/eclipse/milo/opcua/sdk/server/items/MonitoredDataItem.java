@@ -79,30 +79,26 @@ public class MonitoredDataItem extends BaseMonitoredItem<DataValue> implements D
             enqueue(value);
 
             if (triggeredItems != null) {
-                triggeredItems.values().forEach(item -> item.triggered = true);
+                triggeredItems.values().forEach(BaseMonitoredItem::trigger);
             }
         }
     }
 
     @Override
     protected synchronized void enqueue(DataValue value) {
-        if (queue.size() < queue.maxSize()) {
-            queue.add(value);
-        } else {
+        queue.add(value, discardOldest, v -> {
             if (getQueueSize() > 1) {
                 /* Set overflow if queueSize > 1... */
-                value = value.withStatus(value.getStatusCode().withOverflow());
-            } else if (value.getStatusCode().isOverflowSet()) {
+                return v.withStatus(v.getStatusCode().withOverflow());
+            } else if (v.getStatusCode().isOverflowSet()) {
                 /* But make sure it's clear otherwise. */
-                value = value.withStatus(value.getStatusCode().withoutOverflow());
-            }
-
-            if (discardOldest) {
-                queue.add(value);
+                return v.withStatus(v.getStatusCode().withoutOverflow());
             } else {
-                queue.set(queue.maxSize() - 1, value);
+                return v;
             }
-        }
+        });
+
+        notifyReady();
     }
 
     @Override
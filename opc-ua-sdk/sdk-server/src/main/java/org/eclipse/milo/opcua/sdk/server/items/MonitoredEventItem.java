@@ -135,23 +135,17 @@ public class MonitoredEventItem extends BaseMonitoredItem<Variant[]> implements
 
     @Override
     protected synchronized void enqueue(Variant[] value) {
-        if (queue.size() < queue.maxSize()) {
-            queue.add(value);
-        } else {
-            if (getQueueSize() > 1) {
-                eventOverflow.set(true);
-            }
+        boolean discarded = queue.add(value, discardOldest, v -> v);
 
-            if (discardOldest) {
-                queue.add(value);
-            } else {
-                queue.set(queue.maxSize() - 1, value);
-            }
+        if (discarded && getQueueSize() > 1) {
+            eventOverflow.set(true);
         }
+
+        notifyReady();
     }
 
     @Override
-    public synchronized boolean getNotifications(List<UaStructure> notifications, int max) {
+    public boolean getNotifications(List<UaStructure> notifications, int max) {
         if (eventOverflow.compareAndSet(true, false)) {
             Variant[] eventFields = generateOverflowEventFields();
 
@@ -86,7 +86,7 @@ public class OpcUaNamespace extends ManagedNamespace {
 
         this.server = server;
 
-        subscriptionModel = new SubscriptionModel(server, this);
+        subscriptionModel = new SubscriptionModel(server, this, getNodeManager());
     }
 
     @Override
@@ -10,12 +10,18 @@
 
 package org.eclipse.milo.opcua.sdk.server.namespaces.loader;
 
+import java.io.InputStream;
+
 import org.eclipse.milo.opcua.sdk.server.api.NodeManager;
 import org.eclipse.milo.opcua.sdk.server.nodes.UaNode;
 import org.eclipse.milo.opcua.sdk.server.nodes.UaNodeContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class UaNodeLoader {
 
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
     private final UaNodeContext context;
     private final NodeManager<UaNode> nodeManager;
 
@@ -24,7 +30,20 @@ public class UaNodeLoader {
         this.nodeManager = nodeManager;
     }
 
+    /**
+     * Load the namespace 0 Nodes from the precompiled {@link UaNodeSnapshot} if it's on the classpath, otherwise
+     * with the generated loaders.
+     */
     public void loadNodes() throws Exception {
+        if (!loadSnapshot()) {
+            loadGeneratedNodes();
+        }
+    }
+
+    /**
+     * Load the namespace 0 Nodes with the generated loaders, ignoring any snapshot.
+     */
+    public void loadGeneratedNodes() throws Exception {
         new UaDataTypeLoader(context, nodeManager).buildNodes();
         new UaMethodLoader(context, nodeManager).buildNodes();
         new UaObjectLoader(context, nodeManager).buildNodes();
@@ -35,4 +54,24 @@ public class UaNodeLoader {
         new UaViewLoader(context, nodeManager).buildNodes();
     }
 
+    private boolean loadSnapshot() {
+        InputStream inputStream = UaNodeSnapshot.class.getResourceAsStream(UaNodeSnapshot.NAMESPACE_ZERO_RESOURCE);
+
+        if (inputStream == null) {
+            return false;
+        }
+
+        try (InputStream in = inputStream) {
+            int count = UaNodeSnapshot.load(context, nodeManager, in);
+
+            logger.debug("Loaded {} nodes from snapshot.", count);
+
+            return true;
+        } catch (Exception e) {
+            logger.warn("Error loading node snapshot; using generated loaders.", e);
+
+            return false;
+        }
+    }
+
 }
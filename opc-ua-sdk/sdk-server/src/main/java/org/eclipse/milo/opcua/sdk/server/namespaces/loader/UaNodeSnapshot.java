@@ -0,0 +1,554 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.namespaces.loader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.io.ByteStreams;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.eclipse.milo.opcua.sdk.core.Reference;
+import org.eclipse.milo.opcua.sdk.server.api.NodeManager;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaDataTypeNode;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaMethodNode;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaNode;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaNodeContext;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaObjectNode;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaObjectTypeNode;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaReferenceTypeNode;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaVariableNode;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaVariableTypeNode;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaViewNode;
+import org.eclipse.milo.opcua.stack.core.NamespaceTable;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.UaSerializationException;
+import org.eclipse.milo.opcua.stack.core.serialization.EncodingLimits;
+import org.eclipse.milo.opcua.stack.core.serialization.OpcUaBinaryStreamDecoder;
+import org.eclipse.milo.opcua.stack.core.serialization.OpcUaBinaryStreamEncoder;
+import org.eclipse.milo.opcua.stack.core.serialization.SerializationContext;
+import org.eclipse.milo.opcua.stack.core.serialization.UaStructure;
+import org.eclipse.milo.opcua.stack.core.types.DataTypeManager;
+import org.eclipse.milo.opcua.stack.core.types.OpcUaDataTypeManager;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ExpandedNodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
+import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.NodeClass;
+
+/**
+ * A compact binary snapshot of a set of {@link UaNode}s, their References, and their decoded values.
+ * <p>
+ * Loading a snapshot is much cheaper than running the generated loaders, which parse an XML document for the value
+ * of most VariableNodes. {@link UaNodeSnapshotGenerator} writes the snapshot of namespace 0 at build time, and
+ * {@link UaNodeLoader} loads it in place of the generated loaders when it's on the classpath.
+ * <p>
+ * The snapshot is encoded with the OPC UA binary encoding. After a header it holds a table of the Node classes used,
+ * then for each Node its class, its attributes, and the References that have it as their source.
+ * <p>
+ * ObjectNodes and VariableNodes may be any subclass of {@link UaObjectNode} or {@link UaVariableNode} that has the
+ * {@code (UaNodeContext, NodeId, QualifiedName, LocalizedText, LocalizedText, UInteger, UInteger)} constructor every
+ * generated model Node has. Nodes of any other NodeClass must be instances of exactly the {@code UaNode} class for it.
+ */
+public final class UaNodeSnapshot {
+
+    /**
+     * The name of the namespace 0 snapshot resource, relative to this class.
+     */
+    public static final String NAMESPACE_ZERO_RESOURCE = "ns0.snapshot";
+
+    private static final int MAGIC = 0x534E4155; // "UANS", little-endian
+
+    private static final int FORMAT_VERSION = 1;
+
+    private UaNodeSnapshot() {}
+
+    /**
+     * Write a snapshot of {@code nodes} and their References in {@code nodeManager} to {@code outputStream}.
+     * <p>
+     * Values that are ExtensionObjects with an XML body are transcoded to Default Binary first, so loading the
+     * snapshot never has to parse XML.
+     *
+     * @param nodes        the {@link UaNode}s to write.
+     * @param nodeManager  the {@link NodeManager} to get the References of {@code nodes} from.
+     * @param context      the {@link SerializationContext} to encode with.
+     * @param outputStream the {@link OutputStream} to write to.
+     * @throws IOException             if writing to {@code outputStream} fails.
+     * @throws UaSerializationException if a Node or value can't be encoded.
+     */
+    public static void write(
+        Collection<? extends UaNode> nodes,
+        NodeManager<UaNode> nodeManager,
+        SerializationContext context,
+        OutputStream outputStream
+    ) throws IOException, UaSerializationException {
+
+        List<String> classNames = new ArrayList<>();
+        Map<Class<?>, Integer> classIndices = new HashMap<>();
+
+        for (UaNode node : nodes) {
+            Class<?> nodeClass = node.getClass();
+
+            if (!classIndices.containsKey(nodeClass)) {
+                checkSupported(node);
+
+                classIndices.put(nodeClass, classNames.size());
+                classNames.add(nodeClass.getName());
+            }
+        }
+
+        ByteBuf buffer = Unpooled.buffer();
+
+        try {
+            OpcUaBinaryStreamEncoder encoder = new OpcUaBinaryStreamEncoder(context).setBuffer(buffer);
+
+            encoder.writeInt32(MAGIC);
+            encoder.writeInt32(FORMAT_VERSION);
+
+            encoder.writeInt32(classNames.size());
+            for (String className : classNames) {
+                encoder.writeString(className);
+            }
+
+            encoder.writeInt32(nodes.size());
+            for (UaNode node : nodes) {
+                encoder.writeInt32(classIndices.get(node.getClass()));
+                writeNode(node, encoder, context);
+
+                List<Reference> references = nodeManager.getReferences(node.getNodeId());
+
+                encoder.writeInt32(references.size());
+                for (Reference reference : references) {
+                    encoder.writeNodeId(reference.getReferenceTypeId());
+                    encoder.writeExpandedNodeId(reference.getTargetNodeId());
+                    encoder.writeBoolean(reference.isForward());
+                }
+            }
+
+            buffer.readBytes(outputStream, buffer.readableBytes());
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Read a snapshot from {@code inputStream} and add its Nodes and References to {@code nodeManager}.
+     * <p>
+     * The whole snapshot is decoded before anything is added, so {@code nodeManager} is left unchanged if it can't
+     * be.
+     *
+     * @param context     the {@link UaNodeContext} to create the Nodes with.
+     * @param nodeManager the {@link NodeManager} to add the Nodes and References to.
+     * @param inputStream the {@link InputStream} to read the snapshot from.
+     * @return the number of Nodes added.
+     * @throws IOException             if reading from {@code inputStream} fails.
+     * @throws UaSerializationException if the snapshot is malformed, from an unsupported format version, or names a
+     *                                  Node class that can't be instantiated.
+     */
+    public static int load(
+        UaNodeContext context,
+        NodeManager<UaNode> nodeManager,
+        InputStream inputStream
+    ) throws IOException, UaSerializationException {
+
+        SerializationContext serializationContext = newSerializationContext(context.getNamespaceTable());
+
+        ByteBuf buffer = Unpooled.wrappedBuffer(ByteStreams.toByteArray(inputStream));
+
+        OpcUaBinaryStreamDecoder decoder = new OpcUaBinaryStreamDecoder(serializationContext).setBuffer(buffer);
+
+        if (decoder.readInt32() != MAGIC) {
+            throw new UaSerializationException(StatusCodes.Bad_DecodingError, "not a node snapshot");
+        }
+
+        int formatVersion = decoder.readInt32();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new UaSerializationException(
+                StatusCodes.Bad_DecodingError,
+                "unsupported node snapshot format version: " + formatVersion
+            );
+        }
+
+        int classCount = decoder.readInt32();
+        List<Class<?>> classes = new ArrayList<>(classCount);
+        for (int i = 0; i < classCount; i++) {
+            String className = decoder.readString();
+
+            try {
+                classes.add(Class.forName(className, true, UaNodeSnapshot.class.getClassLoader()));
+            } catch (ClassNotFoundException e) {
+                throw new UaSerializationException(StatusCodes.Bad_DecodingError, e);
+            }
+        }
+
+        Map<Class<?>, Constructor<?>> constructors = new HashMap<>();
+
+        int nodeCount = decoder.readInt32();
+        List<UaNode> nodes = new ArrayList<>(nodeCount);
+        List<Reference> references = new ArrayList<>(nodeCount * 4);
+
+        for (int i = 0; i < nodeCount; i++) {
+            Class<?> nodeClass = classes.get(decoder.readInt32());
+
+            UaNode node = readNode(context, nodeClass, decoder, constructors);
+            nodes.add(node);
+
+            NodeId nodeId = node.getNodeId();
+            int referenceCount = decoder.readInt32();
+            for (int j = 0; j < referenceCount; j++) {
+                NodeId referenceTypeId = decoder.readNodeId();
+                ExpandedNodeId targetNodeId = decoder.readExpandedNodeId();
+                boolean forward = decoder.readBoolean();
+
+                references.add(new Reference(nodeId, referenceTypeId, targetNodeId, forward));
+            }
+        }
+
+        nodes.forEach(nodeManager::addNode);
+        references.forEach(nodeManager::addReference);
+
+        return nodes.size();
+    }
+
+    /**
+     * Snapshots only hold namespace 0 DataTypes, so they don't need the Server's {@link DataTypeManager}, which
+     * isn't always available while Nodes are being loaded.
+     */
+    private static SerializationContext newSerializationContext(NamespaceTable namespaceTable) {
+        return new SerializationContext() {
+            @Override
+            public EncodingLimits getEncodingLimits() {
+                return EncodingLimits.DEFAULT;
+            }
+
+            @Override
+            public NamespaceTable getNamespaceTable() {
+                return namespaceTable;
+            }
+
+            @Override
+            public DataTypeManager getDataTypeManager() {
+                return OpcUaDataTypeManager.getInstance();
+            }
+        };
+    }
+
+    private static void checkSupported(UaNode node) {
+        Class<?> nodeClass = node.getClass();
+
+        switch (node.getNodeClass()) {
+            case Object:
+            case Variable:
+                try {
+                    baseConstructor(nodeClass);
+                } catch (NoSuchMethodException e) {
+                    throw new UaSerializationException(StatusCodes.Bad_EncodingError, e);
+                }
+                break;
+
+            case Method:
+                checkExactly(nodeClass, UaMethodNode.class);
+                break;
+            case ObjectType:
+                checkExactly(nodeClass, UaObjectTypeNode.class);
+                break;
+            case VariableType:
+                checkExactly(nodeClass, UaVariableTypeNode.class);
+                break;
+            case ReferenceType:
+                checkExactly(nodeClass, UaReferenceTypeNode.class);
+                break;
+            case DataType:
+                checkExactly(nodeClass, UaDataTypeNode.class);
+                break;
+            case View:
+                checkExactly(nodeClass, UaViewNode.class);
+                break;
+
+            default:
+                throw new UaSerializationException(
+                    StatusCodes.Bad_EncodingError,
+                    "unsupported NodeClass: " + node.getNodeClass()
+                );
+        }
+    }
+
+    private static void checkExactly(Class<?> nodeClass, Class<?> expected) {
+        if (nodeClass != expected) {
+            throw new UaSerializationException(
+                StatusCodes.Bad_EncodingError,
+                String.format("unsupported Node class: %s (expected %s)", nodeClass.getName(), expected.getName())
+            );
+        }
+    }
+
+    private static Constructor<?> baseConstructor(Class<?> nodeClass) throws NoSuchMethodException {
+        return nodeClass.getConstructor(
+            UaNodeContext.class,
+            NodeId.class,
+            QualifiedName.class,
+            LocalizedText.class,
+            LocalizedText.class,
+            UInteger.class,
+            UInteger.class
+        );
+    }
+
+    private static void writeNode(
+        UaNode node,
+        OpcUaBinaryStreamEncoder encoder,
+        SerializationContext context
+    ) throws UaSerializationException {
+
+        encoder.writeInt32(node.getNodeClass().getValue());
+        encoder.writeNodeId(node.getNodeId());
+        encoder.writeQualifiedName(node.getBrowseName());
+        encoder.writeLocalizedText(node.getDisplayName());
+        encoder.writeLocalizedText(node.getDescription());
+        encoder.writeUInt32(node.getWriteMask());
+        encoder.writeUInt32(node.getUserWriteMask());
+
+        switch (node.getNodeClass()) {
+            case Object: {
+                UaObjectNode objectNode = (UaObjectNode) node;
+                encoder.writeByte(objectNode.getEventNotifier());
+                break;
+            }
+            case Variable: {
+                UaVariableNode variableNode = (UaVariableNode) node;
+                writeValue(variableNode.getValue(), encoder, context);
+                encoder.writeNodeId(variableNode.getDataType());
+                encoder.writeInt32(variableNode.getValueRank());
+                encoder.writeUInt32Array(null, variableNode.getArrayDimensions());
+                encoder.writeByte(variableNode.getAccessLevel());
+                encoder.writeByte(variableNode.getUserAccessLevel());
+                encoder.writeDouble(variableNode.getMinimumSamplingInterval());
+                encoder.writeBoolean(variableNode.getHistorizing());
+                break;
+            }
+            case Method: {
+                UaMethodNode methodNode = (UaMethodNode) node;
+                encoder.writeBoolean(methodNode.isExecutable());
+                encoder.writeBoolean(methodNode.isUserExecutable());
+                break;
+            }
+            case ObjectType: {
+                UaObjectTypeNode objectTypeNode = (UaObjectTypeNode) node;
+                encoder.writeBoolean(objectTypeNode.getIsAbstract());
+                break;
+            }
+            case VariableType: {
+                UaVariableTypeNode variableTypeNode = (UaVariableTypeNode) node;
+                writeValue(variableTypeNode.getValue(), encoder, context);
+                encoder.writeNodeId(variableTypeNode.getDataType());
+                encoder.writeInt32(variableTypeNode.getValueRank());
+                encoder.writeUInt32Array(null, variableTypeNode.getArrayDimensions());
+                encoder.writeBoolean(variableTypeNode.getIsAbstract());
+                break;
+            }
+            case ReferenceType: {
+                UaReferenceTypeNode referenceTypeNode = (UaReferenceTypeNode) node;
+                encoder.writeBoolean(referenceTypeNode.getIsAbstract());
+                encoder.writeBoolean(referenceTypeNode.getSymmetric());
+                encoder.writeLocalizedText(referenceTypeNode.getInverseName());
+                break;
+            }
+            case DataType: {
+                UaDataTypeNode dataTypeNode = (UaDataTypeNode) node;
+                encoder.writeBoolean(dataTypeNode.getIsAbstract());
+                break;
+            }
+            case View: {
+                UaViewNode viewNode = (UaViewNode) node;
+                encoder.writeBoolean(viewNode.getContainsNoLoops());
+                encoder.writeByte(viewNode.getEventNotifier());
+                break;
+            }
+            default:
+                throw new UaSerializationException(
+                    StatusCodes.Bad_EncodingError,
+                    "unsupported NodeClass: " + node.getNodeClass()
+                );
+        }
+    }
+
+    private static UaNode readNode(
+        UaNodeContext context,
+        Class<?> nodeClass,
+        OpcUaBinaryStreamDecoder decoder,
+        Map<Class<?>, Constructor<?>> constructors
+    ) throws UaSerializationException {
+
+        NodeClass type = NodeClass.from(decoder.readInt32());
+        NodeId nodeId = decoder.readNodeId();
+        QualifiedName browseName = decoder.readQualifiedName();
+        LocalizedText displayName = decoder.readLocalizedText();
+        LocalizedText description = decoder.readLocalizedText();
+        UInteger writeMask = decoder.readUInt32();
+        UInteger userWriteMask = decoder.readUInt32();
+
+        if (type == null) {
+            throw new UaSerializationException(StatusCodes.Bad_DecodingError, "unknown NodeClass for " + nodeId);
+        }
+
+        switch (type) {
+            case Object: {
+                UaObjectNode node = (UaObjectNode) newInstance(
+                    nodeClass, constructors,
+                    context, nodeId, browseName, displayName, description, writeMask, userWriteMask
+                );
+                node.setEventNotifier(decoder.readByte());
+                return node;
+            }
+            case Variable: {
+                UaVariableNode node = (UaVariableNode) newInstance(
+                    nodeClass, constructors,
+                    context, nodeId, browseName, displayName, description, writeMask, userWriteMask
+                );
+                node.setValue(readValue(decoder));
+                node.setDataType(decoder.readNodeId());
+                node.setValueRank(decoder.readInt32());
+                node.setArrayDimensions(decoder.readUInt32Array(null));
+                node.setAccessLevel(decoder.readByte());
+                node.setUserAccessLevel(decoder.readByte());
+                node.setMinimumSamplingInterval(decoder.readDouble());
+                node.setHistorizing(decoder.readBoolean());
+                return node;
+            }
+            case Method:
+                return new UaMethodNode(
+                    context, nodeId, browseName, displayName, description, writeMask, userWriteMask,
+                    decoder.readBoolean(),
+                    decoder.readBoolean()
+                );
+            case ObjectType:
+                return new UaObjectTypeNode(
+                    context, nodeId, browseName, displayName, description, writeMask, userWriteMask,
+                    decoder.readBoolean()
+                );
+            case VariableType:
+                return new UaVariableTypeNode(
+                    context, nodeId, browseName, displayName, description, writeMask, userWriteMask,
+                    readValue(decoder),
+                    decoder.readNodeId(),
+                    decoder.readInt32(),
+                    decoder.readUInt32Array(null),
+                    decoder.readBoolean()
+                );
+            case ReferenceType:
+                return new UaReferenceTypeNode(
+                    context, nodeId, browseName, displayName, description, writeMask, userWriteMask,
+                    decoder.readBoolean(),
+                    decoder.readBoolean(),
+                    decoder.readLocalizedText()
+                );
+            case DataType:
+                return new UaDataTypeNode(
+                    context, nodeId, browseName, displayName, description, writeMask, userWriteMask,
+                    decoder.readBoolean()
+                );
+            case View:
+                return new UaViewNode(
+                    context, nodeId, browseName, displayName, description, writeMask, userWriteMask,
+                    decoder.readBoolean(),
+                    decoder.readByte()
+                );
+            default:
+                throw new UaSerializationException(
+                    StatusCodes.Bad_DecodingError,
+                    "unsupported NodeClass: " + type
+                );
+        }
+    }
+
+    private static Object newInstance(
+        Class<?> nodeClass,
+        Map<Class<?>, Constructor<?>> constructors,
+        Object... args
+    ) throws UaSerializationException {
+
+        try {
+            Constructor<?> constructor = constructors.get(nodeClass);
+
+            if (constructor == null) {
+                constructor = baseConstructor(nodeClass);
+                constructors.put(nodeClass, constructor);
+            }
+
+            return constructor.newInstance(args);
+        } catch (ReflectiveOperationException e) {
+            throw new UaSerializationException(StatusCodes.Bad_DecodingError, e);
+        }
+    }
+
+    private static void writeValue(
+        DataValue value,
+        OpcUaBinaryStreamEncoder encoder,
+        SerializationContext context
+    ) throws UaSerializationException {
+
+        encoder.writeStatusCode(value.getStatusCode());
+        encoder.writeVariant(toBinary(value.getValue(), context));
+    }
+
+    private static DataValue readValue(OpcUaBinaryStreamDecoder decoder) throws UaSerializationException {
+        StatusCode statusCode = decoder.readStatusCode();
+        Variant variant = decoder.readVariant();
+
+        return new DataValue(variant, statusCode);
+    }
+
+    private static Variant toBinary(Variant variant, SerializationContext context) {
+        Object value = variant.getValue();
+
+        if (value instanceof ExtensionObject) {
+            return new Variant(toBinary((ExtensionObject) value, context));
+        } else if (value instanceof ExtensionObject[]) {
+            ExtensionObject[] xos = (ExtensionObject[]) value;
+            ExtensionObject[] transcoded = new ExtensionObject[xos.length];
+
+            for (int i = 0; i < xos.length; i++) {
+                transcoded[i] = toBinary(xos[i], context);
+            }
+
+            return new Variant(transcoded);
+        } else {
+            return variant;
+        }
+    }
+
+    private static ExtensionObject toBinary(ExtensionObject xo, SerializationContext context) {
+        if (xo == null || xo.getBodyType() != ExtensionObject.BodyType.XmlElement) {
+            return xo;
+        }
+
+        Object struct = xo.decodeOrNull(context);
+
+        if (struct instanceof UaStructure) {
+            return ExtensionObject.encode(context, (UaStructure) struct);
+        } else {
+            return xo;
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.namespaces.loader;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+
+import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
+import org.eclipse.milo.opcua.sdk.server.UaNodeManager;
+import org.eclipse.milo.opcua.sdk.server.api.NodeManager;
+import org.eclipse.milo.opcua.sdk.server.api.config.OpcUaServerConfig;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaNode;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaNodeContext;
+import org.eclipse.milo.opcua.stack.core.Stack;
+import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the {@link UaNodeSnapshot} of namespace 0 built by the generated loaders.
+ * <p>
+ * Run at build time with the path of the snapshot resource to write as the only argument.
+ */
+public final class UaNodeSnapshotGenerator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UaNodeSnapshotGenerator.class);
+
+    private UaNodeSnapshotGenerator() {}
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("usage: UaNodeSnapshotGenerator <output file>");
+        }
+
+        File file = new File(args[0]);
+
+        try {
+            generate(file);
+        } finally {
+            Stack.releaseSharedResources();
+        }
+    }
+
+    private static void generate(File file) throws Exception {
+        // Only used as the source of the SerializationContext and
+        // NamespaceTable the generated loaders need; never started.
+        OpcUaServer server = new OpcUaServer(
+            OpcUaServerConfig.builder()
+                .setApplicationUri("urn:eclipse:milo:snapshot-generator")
+                .setApplicationName(LocalizedText.english("Eclipse Milo Snapshot Generator"))
+                .setProductUri("urn:eclipse:milo:snapshot-generator")
+                .build()
+        );
+
+        UaNodeManager nodeManager = new UaNodeManager();
+
+        UaNodeContext context = new UaNodeContext() {
+            @Override
+            public OpcUaServer getServer() {
+                return server;
+            }
+
+            @Override
+            public NodeManager<UaNode> getNodeManager() {
+                return nodeManager;
+            }
+        };
+
+        new UaNodeLoader(context, nodeManager).loadGeneratedNodes();
+
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalStateException("could not create " + directory);
+        }
+
+        try (OutputStream outputStream = new FileOutputStream(file)) {
+            UaNodeSnapshot.write(
+                nodeManager.getNodes(),
+                nodeManager,
+                server.getSerializationContext(),
+                outputStream
+            );
+        }
+
+        LOGGER.info("Wrote {} nodes to {} ({} bytes).", nodeManager.getNodes().size(), file, file.length());
+    }
+
+}
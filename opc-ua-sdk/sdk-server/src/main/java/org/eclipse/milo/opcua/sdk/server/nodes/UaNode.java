@@ -11,11 +11,14 @@
 package org.eclipse.milo.opcua.sdk.server.nodes;
 
 import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 import javax.annotation.Nonnull;
@@ -48,6 +51,30 @@ public abstract class UaNode implements UaServerNode {
 
     private static final AttributeDelegate DEFAULT_ATTRIBUTE_DELEGATE = AttributeDelegate.DEFAULT;
 
+    /**
+     * The attributes whose getter a Node class inherits from the Node classes of this package, i.e. doesn't compute.
+     */
+    private static final ClassValue<Set<AttributeId>> STORED_ATTRIBUTES = new ClassValue<Set<AttributeId>>() {
+        @Override
+        protected Set<AttributeId> computeValue(Class<?> type) {
+            Set<AttributeId> stored = EnumSet.noneOf(AttributeId.class);
+
+            for (AttributeId attributeId : AttributeId.values()) {
+                try {
+                    Method getter = type.getMethod("get" + attributeId.name());
+
+                    if (getter.getDeclaringClass().getPackage() == UaNode.class.getPackage()) {
+                        stored.add(attributeId);
+                    }
+                } catch (NoSuchMethodException ignored) {
+                    // Not an attribute of this NodeClass.
+                }
+            }
+
+            return stored;
+        }
+    };
+
     private final AtomicReference<AttributeDelegate> attributeDelegate =
         new AtomicReference<>(DEFAULT_ATTRIBUTE_DELEGATE);
 
@@ -519,6 +546,48 @@ public abstract class UaNode implements UaServerNode {
         if (observers.isEmpty()) observers = null;
     }
 
+    /**
+     * Check if this Node is nothing more than its attribute values: it has the default {@link AttributeDelegate} and
+     * no {@link AttributeObserver}s.
+     *
+     * @return {@code true} if this Node has the default {@link AttributeDelegate} and no {@link AttributeObserver}s.
+     */
+    public synchronized boolean isPlain() {
+        if (attributeDelegate.get() != DEFAULT_ATTRIBUTE_DELEGATE) return false;
+        if (observers == null) return true;
+
+        for (WeakReference<AttributeObserver> ref : observers) {
+            if (ref.get() != null) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Check if this Node has the default {@link AttributeDelegate}, i.e. its attribute values are the ones set on it
+     * and every change is reported to its {@link AttributeObserver}s.
+     *
+     * @return {@code true} if this Node has the default {@link AttributeDelegate}.
+     */
+    public boolean hasDefaultAttributeDelegate() {
+        return attributeDelegate.get() == DEFAULT_ATTRIBUTE_DELEGATE;
+    }
+
+    /**
+     * Check if every change to an attribute of this Node is reported to its {@link AttributeObserver}s, so it can be
+     * observed rather than read periodically.
+     * <p>
+     * By default this is the case if this Node has the default {@link AttributeDelegate} and its class doesn't
+     * override the getter of the attribute, e.g. to compute the value when it's read. A subclass that does, but calls
+     * {@link #fireAttributeChanged(AttributeId, Object)} whenever the computed value changes, can override this.
+     *
+     * @param attributeId the {@link AttributeId} of the attribute.
+     * @return {@code true} if every change to the attribute is reported to this Node's {@link AttributeObserver}s.
+     */
+    public boolean isAttributeChangeReported(AttributeId attributeId) {
+        return hasDefaultAttributeDelegate() && STORED_ATTRIBUTES.get(getClass()).contains(attributeId);
+    }
+
     protected synchronized void fireAttributeChanged(AttributeId attributeId, Object attributeValue) {
         if (observers == null) return;
 
@@ -535,6 +604,13 @@ public abstract class UaNode implements UaServerNode {
         }
     }
 
+    /**
+     * @return the {@link AttributeDelegate} for this node.
+     */
+    public AttributeDelegate getAttributeDelegate() {
+        return attributeDelegate.get();
+    }
+
     /**
      * Set the {@link AttributeDelegate} for this node.
      * <p>
@@ -40,7 +40,22 @@ public interface AttributeDelegate extends
      * A default implementation of {@link AttributeDelegate} in which all calls are simply delegate to the
      * appropriate getter or setter for the Node.
      */
-    AttributeDelegate DEFAULT = new AttributeDelegate() {};
+    AttributeDelegate DEFAULT = new AttributeDelegate() {
+        @Override
+        public boolean isSessionIndependent() {
+            return true;
+        }
+    };
+
+    /**
+     * Check if the attribute values this delegate returns are the same for every Session, so they may be cached and
+     * shared between Sessions, e.g. to serve a Read with a non-zero {@code maxAge}.
+     *
+     * @return {@code true} if the attribute values this delegate returns don't depend on the Session reading them.
+     */
+    default boolean isSessionIndependent() {
+        return false;
+    }
 
     default DataValue getAttribute(
         AttributeContext context,
@@ -15,6 +15,7 @@ import java.util.stream.Collectors;
 
 import org.eclipse.milo.opcua.sdk.server.DiagnosticsContext;
 import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
+import org.eclipse.milo.opcua.sdk.server.RegisteredNodes;
 import org.eclipse.milo.opcua.sdk.server.Session;
 import org.eclipse.milo.opcua.sdk.server.api.services.AttributeHistoryServices.HistoryReadContext;
 import org.eclipse.milo.opcua.sdk.server.api.services.AttributeHistoryServices.HistoryUpdateContext;
@@ -34,6 +35,7 @@ import org.eclipse.milo.opcua.stack.core.types.structured.ResponseHeader;
 import org.eclipse.milo.opcua.stack.server.services.AttributeHistoryServiceSet;
 import org.eclipse.milo.opcua.stack.server.services.ServiceRequest;
 
+import static java.util.stream.Collectors.toList;
 import static org.eclipse.milo.opcua.stack.core.util.ConversionUtil.a;
 import static org.eclipse.milo.opcua.stack.core.util.ConversionUtil.l;
 
@@ -51,7 +53,16 @@ public class DefaultAttributeHistoryServiceSet implements AttributeHistoryServic
         OpcUaServer server = service.attr(ServiceAttributes.SERVER_KEY).get();
         Session session = service.attr(ServiceAttributes.SESSION_KEY).get();
 
-        List<HistoryReadValueId> nodesToRead = l(request.getNodesToRead());
+        RegisteredNodes registeredNodes = session.getRegisteredNodes();
+
+        List<HistoryReadValueId> nodesToRead = l(request.getNodesToRead()).stream()
+            .map(v -> new HistoryReadValueId(
+                registeredNodes.resolve(v.getNodeId()),
+                v.getIndexRange(),
+                v.getDataEncoding(),
+                v.getContinuationPoint()
+            ))
+            .collect(toList());
 
         if (nodesToRead.isEmpty()) {
             service.setServiceFault(StatusCodes.Bad_NothingToDo);
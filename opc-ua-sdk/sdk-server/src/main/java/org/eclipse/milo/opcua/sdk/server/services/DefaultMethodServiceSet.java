@@ -14,6 +14,7 @@ import java.util.List;
 
 import org.eclipse.milo.opcua.sdk.server.DiagnosticsContext;
 import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
+import org.eclipse.milo.opcua.sdk.server.RegisteredNodes;
 import org.eclipse.milo.opcua.sdk.server.Session;
 import org.eclipse.milo.opcua.sdk.server.api.services.MethodServices.CallContext;
 import org.eclipse.milo.opcua.stack.core.StatusCodes;
@@ -26,6 +27,7 @@ import org.eclipse.milo.opcua.stack.core.types.structured.ResponseHeader;
 import org.eclipse.milo.opcua.stack.server.services.MethodServiceSet;
 import org.eclipse.milo.opcua.stack.server.services.ServiceRequest;
 
+import static java.util.stream.Collectors.toList;
 import static org.eclipse.milo.opcua.stack.core.util.ConversionUtil.a;
 import static org.eclipse.milo.opcua.stack.core.util.ConversionUtil.l;
 
@@ -42,7 +44,15 @@ public class DefaultMethodServiceSet implements MethodServiceSet {
 
         CallRequest request = (CallRequest) service.getRequest();
 
-        List<CallMethodRequest> methodsToCall = l(request.getMethodsToCall());
+        RegisteredNodes registeredNodes = session.getRegisteredNodes();
+
+        List<CallMethodRequest> methodsToCall = l(request.getMethodsToCall()).stream()
+            .map(r -> new CallMethodRequest(
+                registeredNodes.resolve(r.getObjectId()),
+                registeredNodes.resolve(r.getMethodId()),
+                r.getInputArguments()
+            ))
+            .collect(toList());
 
         if (methodsToCall.isEmpty()) {
             service.setServiceFault(StatusCodes.Bad_NothingToDo);
@@ -10,29 +10,30 @@
 
 package org.eclipse.milo.opcua.sdk.server.services;
 
+import org.eclipse.milo.opcua.sdk.server.services.helpers.QueryHelper;
 import org.eclipse.milo.opcua.stack.core.UaException;
 import org.eclipse.milo.opcua.stack.server.services.QueryServiceSet;
 import org.eclipse.milo.opcua.stack.server.services.ServiceRequest;
 
-import static org.eclipse.milo.opcua.stack.core.StatusCodes.Bad_ServiceUnsupported;
-
 public class DefaultQueryServiceSet implements QueryServiceSet {
 
     private final ServiceCounter queryFirstMetric = new ServiceCounter();
     private final ServiceCounter queryNextMetric = new ServiceCounter();
 
+    private final QueryHelper queryHelper = new QueryHelper();
+
     @Override
     public void onQueryFirst(ServiceRequest service) throws UaException {
         queryFirstMetric.record(service);
 
-        service.setServiceFault(Bad_ServiceUnsupported);
+        queryHelper.queryFirst(service);
     }
 
     @Override
     public void onQueryNext(ServiceRequest service) throws UaException {
         queryNextMetric.record(service);
 
-        service.setServiceFault(Bad_ServiceUnsupported);
+        queryHelper.queryNext(service);
     }
 
 }
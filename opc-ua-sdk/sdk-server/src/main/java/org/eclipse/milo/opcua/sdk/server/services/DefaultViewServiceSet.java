@@ -17,6 +17,7 @@ import java.util.stream.Stream;
 
 import org.eclipse.milo.opcua.sdk.server.DiagnosticsContext;
 import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
+import org.eclipse.milo.opcua.sdk.server.RegisteredNodes;
 import org.eclipse.milo.opcua.sdk.server.Session;
 import org.eclipse.milo.opcua.sdk.server.api.services.ViewServices.RegisterNodesContext;
 import org.eclipse.milo.opcua.sdk.server.api.services.ViewServices.UnregisterNodesContext;
@@ -68,6 +69,8 @@ public class DefaultViewServiceSet implements ViewServiceSet {
             return;
         }
 
+        RegisteredNodes registeredNodes = session.getRegisteredNodes();
+
         Stream<CompletableFuture<BrowseResult>> futures = nodesToBrowse.stream().map(
             browseDescription ->
                 BrowseHelper.browse(
@@ -75,7 +78,14 @@ public class DefaultViewServiceSet implements ViewServiceSet {
                     server,
                     request.getView(),
                     request.getRequestedMaxReferencesPerNode(),
-                    browseDescription
+                    new BrowseDescription(
+                        registeredNodes.resolve(browseDescription.getNodeId()),
+                        browseDescription.getBrowseDirection(),
+                        browseDescription.getReferenceTypeId(),
+                        browseDescription.getIncludeSubtypes(),
+                        browseDescription.getNodeClassMask(),
+                        browseDescription.getResultMask()
+                    )
                 )
         );
 
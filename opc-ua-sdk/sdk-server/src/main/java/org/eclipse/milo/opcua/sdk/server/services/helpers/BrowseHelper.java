@@ -10,22 +10,30 @@
 
 package org.eclipse.milo.opcua.sdk.server.services.helpers;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
 
 import com.google.common.collect.Lists;
 import com.google.common.primitives.Ints;
 import org.eclipse.milo.opcua.sdk.core.Reference;
 import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
+import org.eclipse.milo.opcua.sdk.server.Session;
 import org.eclipse.milo.opcua.sdk.server.api.AccessContext;
 import org.eclipse.milo.opcua.sdk.server.api.services.AttributeServices.ReadContext;
 import org.eclipse.milo.opcua.sdk.server.api.services.ViewServices.BrowseContext;
 import org.eclipse.milo.opcua.sdk.server.services.ServiceAttributes;
 import org.eclipse.milo.opcua.stack.core.AttributeId;
 import org.eclipse.milo.opcua.stack.core.Identifiers;
+import org.eclipse.milo.opcua.stack.core.ReferenceType;
 import org.eclipse.milo.opcua.stack.core.Stack;
 import org.eclipse.milo.opcua.stack.core.StatusCodes;
 import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
@@ -55,7 +63,6 @@ import org.eclipse.milo.opcua.stack.server.services.ServiceRequest;
 import org.slf4j.LoggerFactory;
 
 import static java.util.concurrent.CompletableFuture.completedFuture;
-import static java.util.stream.Collectors.toList;
 import static org.eclipse.milo.opcua.sdk.server.util.UaEnumUtil.browseResultMasks;
 import static org.eclipse.milo.opcua.sdk.server.util.UaEnumUtil.nodeClasses;
 import static org.eclipse.milo.opcua.stack.core.util.ConversionUtil.l;
@@ -76,6 +83,8 @@ public class BrowseHelper {
     private static final StatusCode BAD_NO_CONTINUATION_POINTS =
         new StatusCode(StatusCodes.Bad_NoContinuationPoints);
 
+    private static final Set<NodeId> HAS_TYPE_DEFINITION = Collections.singleton(Identifiers.HasTypeDefinition);
+
     private static final BrowseResult NODE_ID_UNKNOWN_RESULT = new BrowseResult(
         new StatusCode(StatusCodes.Bad_NodeIdUnknown),
         ByteString.NULL_VALUE, new ReferenceDescription[0]);
@@ -121,9 +130,21 @@ public class BrowseHelper {
         private final AccessContext context;
         private final OpcUaServer server;
         private final ViewDescription view;
-        private final UInteger maxReferencesPerNode;
         private final BrowseDescription browseDescription;
 
+        /**
+         * The maximum number of references per page, {@link Integer#MAX_VALUE} if the client didn't set one.
+         */
+        private final int max;
+
+        /**
+         * The reference types matched by this Browse, including subtypes if requested, or {@code null} for any.
+         */
+        private final Set<NodeId> referenceTypeIds;
+
+        private final EnumSet<BrowseResultMask> masks;
+        private final EnumSet<NodeClass> nodeClasses;
+
         private Browse(AccessContext context,
                        OpcUaServer server,
                        ViewDescription view,
@@ -134,7 +155,25 @@ public class BrowseHelper {
             this.server = server;
             this.view = view;
             this.browseDescription = browseDescription;
-            this.maxReferencesPerNode = maxReferencesPerNode;
+
+            max = maxReferencesPerNode.longValue() == 0 ?
+                Integer.MAX_VALUE :
+                Ints.saturatedCast(maxReferencesPerNode.longValue());
+
+            NodeId referenceTypeId = browseDescription.getReferenceTypeId();
+
+            if (referenceTypeId == null || referenceTypeId.isNull()) {
+                referenceTypeIds = null;
+            } else if (browseDescription.getIncludeSubtypes()) {
+                referenceTypeIds = subtypesOf(referenceTypeId, server.getReferenceTypes());
+            } else {
+                referenceTypeIds = Collections.singleton(referenceTypeId);
+            }
+
+            masks = browseResultMasks(browseDescription.getResultMask().longValue());
+
+            long mask = browseDescription.getNodeClassMask().longValue();
+            nodeClasses = (mask == 0L) ? EnumSet.allOf(NodeClass.class) : nodeClasses(mask);
         }
 
         public CompletableFuture<BrowseResult> browse() {
@@ -165,48 +204,157 @@ public class BrowseHelper {
         }
 
         private CompletableFuture<BrowseResult> browse(List<Reference> references) {
-            List<CompletableFuture<ReferenceDescription>> fs = references.stream()
-                .filter(this::directionFilter)
-                .filter(this::referenceTypeFilter)
-                .map(this::referenceDescription)
-                .collect(toList());
-
-            return FutureUtils.sequence(fs).thenApply(referenceDescriptions -> {
-                int max = maxReferencesPerNode.longValue() == 0 ?
-                    Integer.MAX_VALUE :
-                    Ints.saturatedCast(maxReferencesPerNode.longValue());
-
-                return browseResult(
-                    max,
-                    referenceDescriptions
-                        .stream()
-                        .filter(this::nodeClassFilter)
-                        .collect(toList())
-                );
-            });
-        }
+            BrowseContinuationPoint c = new BrowseContinuationPoint(this, references);
+
+            return nextPage(c).thenApply(page -> {
+                if (!c.hasMore()) {
+                    return new BrowseResult(
+                        StatusCode.GOOD, null, page.toArray(new ReferenceDescription[0]));
+                }
+
+                Map<ByteString, BrowseContinuationPoint> continuationPoints =
+                    getContinuationPoints(server, context.getSession().orElse(null));
 
-        private BrowseResult browseResult(int max, List<ReferenceDescription> references) {
-            if (references.size() > max) {
-                if (server.getBrowseContinuationPoints().size() >
+                if (continuationPoints.size() >=
                     server.getConfig().getLimits().getMaxBrowseContinuationPoints().intValue()) {
 
                     return new BrowseResult(BAD_NO_CONTINUATION_POINTS, null, new ReferenceDescription[0]);
                 } else {
-                    List<ReferenceDescription> subList = references.subList(0, max);
-                    List<ReferenceDescription> current = Lists.newArrayList(subList);
-                    subList.clear();
-
-                    BrowseContinuationPoint c = new BrowseContinuationPoint(references, max);
-                    server.getBrowseContinuationPoints().put(c.identifier, c);
+                    continuationPoints.put(c.identifier, c);
 
                     return new BrowseResult(
-                        StatusCode.GOOD, c.identifier, current.toArray(new ReferenceDescription[0]));
+                        StatusCode.GOOD, c.identifier, page.toArray(new ReferenceDescription[0]));
                 }
-            } else {
-                return new BrowseResult(
-                    StatusCode.GOOD, null, references.toArray(new ReferenceDescription[0]));
+            });
+        }
+
+        /**
+         * Build the next page of {@link ReferenceDescription}s, starting at the position of {@code c} and advancing
+         * it past every reference looked at.
+         * <p>
+         * Only the references that can end up on the page have their target attributes read, so the cost of a page
+         * doesn't depend on how many references the node has.
+         */
+        CompletableFuture<List<ReferenceDescription>> nextPage(BrowseContinuationPoint c) {
+            List<ReferenceDescription> page = new ArrayList<>();
+
+            if (c.next != null) {
+                page.add(c.next);
+                c.next = null;
             }
+
+            return fillPage(c, page);
+        }
+
+        private CompletableFuture<List<ReferenceDescription>> fillPage(
+            BrowseContinuationPoint c,
+            List<ReferenceDescription> page) {
+
+            while (true) {
+                List<Reference> references = new ArrayList<>();
+
+                while (page.size() + references.size() < max && c.position < c.references.size()) {
+                    Reference reference = c.references.get(c.position++);
+
+                    if (directionFilter(reference) && referenceTypeFilter(reference)) {
+                        references.add(reference);
+                    }
+                }
+
+                if (references.isEmpty()) {
+                    if (nodeClasses.size() == NodeClass.values().length) {
+                        skipToNextMatch(c);
+
+                        return completedFuture(page);
+                    } else {
+                        return lookAhead(c).thenApply(v -> page);
+                    }
+                }
+
+                // Targets are read one at a time; let NodeManagers that create Nodes on demand create them together.
+                List<NodeId> targetNodeIds = new ArrayList<>(references.size());
+                for (Reference reference : references) {
+                    reference.getTargetNodeId().local(server.getNamespaceTable()).ifPresent(targetNodeIds::add);
+                }
+                server.getAddressSpaceManager().prefetchManagedNodes(targetNodeIds);
+
+                List<CompletableFuture<ReferenceDescription>> fs = new ArrayList<>(references.size());
+                for (Reference reference : references) {
+                    fs.add(referenceDescription(reference));
+                }
+
+                CompletableFuture<List<ReferenceDescription>> batch = FutureUtils.sequence(fs);
+
+                if (batch.isDone() && !batch.isCompletedExceptionally()) {
+                    // Loop rather than recurse when the attribute reads completed synchronously, which they
+                    // usually do, so a node with many references filtered out by NodeClass can't overflow the stack.
+                    addToPage(page, batch.join());
+                } else {
+                    return batch.thenCompose(referenceDescriptions -> {
+                        addToPage(page, referenceDescriptions);
+
+                        return fillPage(c, page);
+                    });
+                }
+            }
+        }
+
+        private void addToPage(List<ReferenceDescription> page, List<ReferenceDescription> referenceDescriptions) {
+            for (ReferenceDescription referenceDescription : referenceDescriptions) {
+                if (nodeClassFilter(referenceDescription)) {
+                    page.add(referenceDescription);
+                }
+            }
+        }
+
+        /**
+         * Advance {@code c} to the next reference that passes the direction and reference type filters, so that
+         * {@link BrowseContinuationPoint#hasMore()} doesn't hand out a continuation point for nothing. Without a
+         * NodeClass mask these are the only filters, so no target attributes have to be read to find it.
+         */
+        private void skipToNextMatch(BrowseContinuationPoint c) {
+            while (c.position < c.references.size()) {
+                Reference reference = c.references.get(c.position);
+
+                if (directionFilter(reference) && referenceTypeFilter(reference)) {
+                    break;
+                } else {
+                    c.position++;
+                }
+            }
+        }
+
+        /**
+         * Advance {@code c} to the next reference that passes every filter, including the NodeClass filter, and keep
+         * its {@link ReferenceDescription} to start the next page with, so that a continuation point is never handed
+         * out for an empty page. Only needed when a NodeClass mask is set; otherwise {@link #skipToNextMatch} is.
+         */
+        private CompletableFuture<Void> lookAhead(BrowseContinuationPoint c) {
+            while (c.position < c.references.size()) {
+                Reference reference = c.references.get(c.position++);
+
+                if (directionFilter(reference) && referenceTypeFilter(reference)) {
+                    CompletableFuture<ReferenceDescription> f = referenceDescription(reference);
+
+                    if (f.isDone() && !f.isCompletedExceptionally()) {
+                        if (nodeClassFilter(f.join())) {
+                            c.next = f.join();
+                            break;
+                        }
+                    } else {
+                        return f.thenCompose(referenceDescription -> {
+                            if (nodeClassFilter(referenceDescription)) {
+                                c.next = referenceDescription;
+                                return completedFuture(null);
+                            } else {
+                                return lookAhead(c);
+                            }
+                        });
+                    }
+                }
+            }
+
+            return completedFuture(null);
         }
 
         private boolean directionFilter(Reference reference) {
@@ -222,27 +370,14 @@ public class BrowseHelper {
         }
 
         private boolean referenceTypeFilter(Reference reference) {
-            NodeId referenceTypeId = browseDescription.getReferenceTypeId();
-
-            boolean includeAny = referenceTypeId == null || referenceTypeId.isNull();
-            boolean includeSubtypes = browseDescription.getIncludeSubtypes();
-
-            return includeAny || reference.getReferenceTypeId().equals(referenceTypeId) ||
-                (includeSubtypes && reference.subtypeOf(referenceTypeId, server.getReferenceTypes()));
+            return referenceTypeIds == null || referenceTypeIds.contains(reference.getReferenceTypeId());
         }
 
         private boolean nodeClassFilter(ReferenceDescription referenceDescription) {
-            long mask = browseDescription.getNodeClassMask().longValue();
-
-            EnumSet<NodeClass> nodeClasses = (mask == 0L) ?
-                EnumSet.allOf(NodeClass.class) : nodeClasses(mask);
-
             return nodeClasses.contains(referenceDescription.getNodeClass());
         }
 
         private CompletableFuture<ReferenceDescription> referenceDescription(Reference reference) {
-            EnumSet<BrowseResultMask> masks = browseResultMasks(browseDescription.getResultMask().longValue());
-
             ExpandedNodeId targetNodeId = reference.getTargetNodeId();
 
             NodeId referenceTypeId = masks.contains(BrowseResultMask.ReferenceTypeId) ?
@@ -358,7 +493,7 @@ public class BrowseHelper {
 
         private CompletableFuture<ExpandedNodeId> getTypeDefinition(NodeId nodeId) {
             Optional<ExpandedNodeId> typeDefinitionId = server.getAddressSpaceManager()
-                .getManagedReferences(nodeId, Reference.HAS_TYPE_DEFINITION_PREDICATE)
+                .getManagedReferences(nodeId, Reference.Direction.FORWARD, HAS_TYPE_DEFINITION)
                 .stream()
                 .findFirst()
                 .map(Reference::getTargetNodeId);
@@ -390,6 +525,57 @@ public class BrowseHelper {
 
     }
 
+    /**
+     * Get {@code referenceTypeId} and all of its known subtypes.
+     *
+     * @param referenceTypeId the {@link NodeId} of a reference type.
+     * @param referenceTypes  the known reference types.
+     * @return {@code referenceTypeId} and the NodeIds of all of its subtypes in {@code referenceTypes}.
+     */
+    static Set<NodeId> subtypesOf(NodeId referenceTypeId, Map<NodeId, ReferenceType> referenceTypes) {
+        Set<NodeId> subtypes = new HashSet<>();
+        subtypes.add(referenceTypeId);
+
+        boolean added = true;
+        while (added) {
+            added = false;
+
+            for (ReferenceType referenceType : referenceTypes.values()) {
+                boolean subtype = referenceType.getSuperTypeId()
+                    .map(subtypes::contains)
+                    .orElse(false);
+
+                if (subtype && subtypes.add(referenceType.getNodeId())) {
+                    added = true;
+                }
+            }
+        }
+
+        return subtypes;
+    }
+
+    /**
+     * Get the continuation points of {@code session}, or the server's continuation points for internal Browses that
+     * don't belong to a Session, after releasing the ones that expired.
+     */
+    private static Map<ByteString, BrowseContinuationPoint> getContinuationPoints(
+        OpcUaServer server,
+        @Nullable Session session) {
+
+        Map<ByteString, BrowseContinuationPoint> continuationPoints = session != null ?
+            session.getBrowseContinuationPoints() :
+            server.getBrowseContinuationPoints();
+
+        long timeout = (long) (server.getConfig().getLimits().getBrowseContinuationPointTimeout() *
+            TimeUnit.MILLISECONDS.toNanos(1));
+
+        long now = System.nanoTime();
+
+        continuationPoints.values().removeIf(c -> now - c.lastUsed > timeout);
+
+        return continuationPoints;
+    }
+
     private static class BrowseNext implements Runnable {
 
         private final OpcUaServer server;
@@ -405,93 +591,118 @@ public class BrowseHelper {
         public void run() {
             BrowseNextRequest request = (BrowseNextRequest) service.getRequest();
 
-            List<BrowseResult> results = Lists.newArrayList();
+            Map<ByteString, BrowseContinuationPoint> continuationPoints = getContinuationPoints(
+                server,
+                service.attr(ServiceAttributes.SESSION_KEY).get()
+            );
+
+            List<CompletableFuture<BrowseResult>> results = Lists.newArrayList();
 
             ByteString[] cs = request.getContinuationPoints() != null ?
                 request.getContinuationPoints() : new ByteString[0];
 
             for (ByteString bs : cs) {
                 if (request.getReleaseContinuationPoints()) {
-                    results.add(release(bs));
+                    results.add(completedFuture(release(continuationPoints, bs)));
                 } else {
-                    results.add(references(bs));
+                    results.add(references(continuationPoints, bs));
                 }
             }
 
-            ResponseHeader header = service.createResponseHeader();
-            BrowseNextResponse response = new BrowseNextResponse(
-                header, results.toArray(new BrowseResult[0]), new DiagnosticInfo[0]);
+            FutureUtils.sequence(results).thenAccept(rs -> {
+                ResponseHeader header = service.createResponseHeader();
+                BrowseNextResponse response = new BrowseNextResponse(
+                    header, rs.toArray(new BrowseResult[0]), new DiagnosticInfo[0]);
 
-            service.setResponse(response);
+                service.setResponse(response);
+            });
         }
 
-        private BrowseResult release(ByteString bs) {
-            BrowseContinuationPoint c = server.getBrowseContinuationPoints().remove(bs);
+        private BrowseResult release(Map<ByteString, BrowseContinuationPoint> continuationPoints, ByteString bs) {
+            BrowseContinuationPoint c = continuationPoints.remove(bs);
 
             return c != null ?
                 new BrowseResult(StatusCode.GOOD, null, null) :
                 new BrowseResult(BAD_CONTINUATION_POINT_INVALID, null, null);
         }
 
-        private BrowseResult references(ByteString bs) {
-            BrowseContinuationPoint c = server.getBrowseContinuationPoints().remove(bs);
+        private CompletableFuture<BrowseResult> references(
+            Map<ByteString, BrowseContinuationPoint> continuationPoints,
+            ByteString bs) {
+
+            // Removing it claims it; a concurrent BrowseNext with the same continuation point finds it invalid.
+            BrowseContinuationPoint c = continuationPoints.remove(bs);
 
-            if (c != null) {
-                int max = c.max;
-                List<ReferenceDescription> references = c.references;
+            if (c == null) {
+                return completedFuture(new BrowseResult(BAD_CONTINUATION_POINT_INVALID, null, null));
+            }
 
-                if (references.size() > max) {
-                    List<ReferenceDescription> subList = references.subList(0, max);
-                    List<ReferenceDescription> current = Lists.newArrayList(subList);
-                    subList.clear();
+            return c.browse.nextPage(c).handle((page, ex) -> {
+                if (page == null) {
+                    LoggerFactory.getLogger(BrowseHelper.class)
+                        .warn("failed to build next page for continuation point", ex);
 
-                    server.getBrowseContinuationPoints().put(c.identifier, c);
+                    return new BrowseResult(new StatusCode(StatusCodes.Bad_InternalError), null, null);
+                } else if (c.hasMore()) {
+                    c.lastUsed = System.nanoTime();
+                    continuationPoints.put(c.identifier, c);
 
                     return new BrowseResult(
                         StatusCode.GOOD,
                         c.identifier,
-                        current.toArray(new ReferenceDescription[0]));
+                        page.toArray(new ReferenceDescription[0]));
                 } else {
                     return new BrowseResult(
                         StatusCode.GOOD,
                         null,
-                        references.toArray(new ReferenceDescription[0]));
+                        page.toArray(new ReferenceDescription[0]));
                 }
-            } else {
-                return new BrowseResult(BAD_CONTINUATION_POINT_INVALID, null, null);
-            }
+            });
         }
 
     }
 
+    /**
+     * A cursor over the references of a browsed node.
+     * <p>
+     * Only the position in the node's references is kept; the {@link ReferenceDescription}s for each page are built
+     * when it is requested.
+     */
     public static class BrowseContinuationPoint {
 
-        private final List<ReferenceDescription> references;
-        private final int max;
+        private final Browse browse;
+        private final List<Reference> references;
         private final ByteString identifier;
 
-        public BrowseContinuationPoint(List<ReferenceDescription> references, int max) {
-            this(references, max, generateId());
-        }
+        private int position = 0;
+        private volatile long lastUsed = System.nanoTime();
 
-        public BrowseContinuationPoint(List<ReferenceDescription> references, int max, ByteString identifier) {
-            this.references = Collections.synchronizedList(references);
-            this.max = max;
-            this.identifier = identifier;
-        }
+        /**
+         * The first reference of the next page, already known to pass every filter, if a NodeClass mask is set.
+         */
+        private ReferenceDescription next;
 
-        public List<ReferenceDescription> getReferences() {
-            return references;
+        private BrowseContinuationPoint(Browse browse, List<Reference> references) {
+            this.browse = browse;
+            this.references = references;
+            this.identifier = generateId();
         }
 
+        /**
+         * @return the maximum number of references per page.
+         */
         public int getMax() {
-            return max;
+            return browse.max;
         }
 
         public ByteString getIdentifier() {
             return identifier;
         }
 
+        boolean hasMore() {
+            return next != null || position < references.size();
+        }
+
         public static ByteString generateId() {
             return NonceUtil.generateNonce(16);
         }
@@ -10,17 +10,27 @@
 
 package org.eclipse.milo.opcua.sdk.server.services.helpers;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
 
+import com.google.common.collect.Maps;
 import org.eclipse.milo.opcua.sdk.core.Reference;
 import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
 import org.eclipse.milo.opcua.sdk.server.api.AccessContext;
+import org.eclipse.milo.opcua.sdk.server.api.AddressSpaceManager;
 import org.eclipse.milo.opcua.sdk.server.api.services.AttributeServices.ReadContext;
 import org.eclipse.milo.opcua.sdk.server.api.services.ViewServices.BrowseContext;
 import org.eclipse.milo.opcua.sdk.server.services.ServiceAttributes;
+import org.eclipse.milo.opcua.sdk.server.util.BrowsePathCache;
 import org.eclipse.milo.opcua.stack.core.AttributeId;
 import org.eclipse.milo.opcua.stack.core.StatusCodes;
 import org.eclipse.milo.opcua.stack.core.UaException;
@@ -43,10 +53,8 @@ import org.eclipse.milo.opcua.stack.core.types.structured.TranslateBrowsePathsTo
 import org.eclipse.milo.opcua.stack.core.types.structured.TranslateBrowsePathsToNodeIdsResponse;
 import org.eclipse.milo.opcua.stack.server.services.ServiceRequest;
 
-import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Lists.newArrayListWithCapacity;
 import static java.util.concurrent.CompletableFuture.completedFuture;
-import static java.util.stream.Collectors.toList;
 import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
 import static org.eclipse.milo.opcua.stack.core.util.ConversionUtil.a;
 import static org.eclipse.milo.opcua.stack.core.util.ConversionUtil.l;
@@ -76,8 +84,14 @@ public class BrowsePathsHelper {
         } else {
             List<CompletableFuture<BrowsePathResult>> futures = newArrayListWithCapacity(browsePaths.size());
 
+            Translation translation = new Translation();
+
             for (BrowsePath browsePath : browsePaths) {
-                futures.add(translate(browsePath));
+                NodeId startingNode = context.getSession()
+                    .map(s -> s.getRegisteredNodes().resolve(browsePath.getStartingNode()))
+                    .orElse(browsePath.getStartingNode());
+
+                futures.add(translation.translate(new BrowsePath(startingNode, browsePath.getRelativePath())));
             }
 
             sequence(futures).thenAcceptAsync(results -> {
@@ -90,201 +104,413 @@ public class BrowsePathsHelper {
         }
     }
 
-    private CompletableFuture<BrowsePathResult> translate(BrowsePath browsePath) {
-        CompletableFuture<BrowsePathResult> future = new CompletableFuture<>();
+    private static boolean matchesTarget(@Nullable QualifiedName browseName, QualifiedName targetName) {
+        return targetName == null ||
+            targetName.equals(QualifiedName.NULL_VALUE) ||
+            targetName.equals(browseName);
+    }
+
+    /**
+     * Get the future in {@code map} for {@code key}, or create it with {@code supplier} if there isn't one yet.
+     * <p>
+     * Unlike {@link ConcurrentMap#computeIfAbsent}, {@code supplier} is called outside the map, so it's free to use the
+     * map itself, and its future may complete synchronously.
+     */
+    private static <K, V> CompletableFuture<V> memoize(
+        ConcurrentMap<K, CompletableFuture<V>> map,
+        K key,
+        Supplier<CompletableFuture<V>> supplier) {
+
+        CompletableFuture<V> future = map.get(key);
+
+        if (future == null) {
+            CompletableFuture<V> newFuture = new CompletableFuture<>();
+            future = map.putIfAbsent(key, newFuture);
+
+            if (future == null) {
+                future = newFuture;
+
+                supplier.get().whenComplete((v, ex) -> {
+                    if (ex == null) newFuture.complete(v);
+                    else newFuture.completeExceptionally(ex);
+                });
+            }
+        }
+
+        return future;
+    }
+
+    /**
+     * Translates the BrowsePaths of one request.
+     * <p>
+     * Results are taken from the server's {@link BrowsePathCache} where possible. Otherwise every hop, i.e. the
+     * References of one type followed from one Node, every Browse, and every BrowseName read is done at most once for
+     * the whole request, so BrowsePaths that share a prefix, or end in siblings, only resolve it once.
+     */
+    private class Translation {
 
-        NodeId startingNode = browsePath.getStartingNode();
-        RelativePath relativePath = browsePath.getRelativePath();
+        private final ConcurrentMap<HopKey, CompletableFuture<Hop>> hops = Maps.newConcurrentMap();
+        private final ConcurrentMap<NodeId, CompletableFuture<List<Reference>>> browses = Maps.newConcurrentMap();
+        private final ConcurrentMap<NodeId, CompletableFuture<TargetName>> targetNames = Maps.newConcurrentMap();
 
-        follow(startingNode, l(relativePath.getElements())).whenComplete((targets, ex) -> {
-            if (targets != null) {
-                BrowsePathResult result;
+        private final AddressSpaceManager addressSpaceManager = server.getAddressSpaceManager();
+        private final BrowsePathCache cache = addressSpaceManager.getBrowsePathCache();
 
-                if (!targets.isEmpty()) {
-                    result = new BrowsePathResult(
-                        StatusCode.GOOD, a(targets, BrowsePathTarget.class));
+        CompletableFuture<BrowsePathResult> translate(BrowsePath browsePath) {
+            BrowsePathResult cached = cache.get(browsePath);
+
+            if (cached != null) {
+                return completedFuture(cached);
+            }
+
+            CompletableFuture<BrowsePathResult> future = new CompletableFuture<>();
+
+            NodeId startingNode = browsePath.getStartingNode();
+            RelativePath relativePath = browsePath.getRelativePath();
+
+            Resolution resolution = new Resolution();
+
+            follow(startingNode, l(relativePath.getElements()), resolution).whenComplete((targets, ex) -> {
+                if (targets != null) {
+                    BrowsePathResult result;
+
+                    if (!targets.isEmpty()) {
+                        result = new BrowsePathResult(
+                            StatusCode.GOOD, a(targets, BrowsePathTarget.class));
+                    } else {
+                        result = new BrowsePathResult(
+                            new StatusCode(StatusCodes.Bad_NoMatch), new BrowsePathTarget[0]);
+                    }
+
+                    if (resolution.cacheable && addressSpaceManager.isReportingChanges()) {
+                        cache.put(browsePath, result, resolution.dependencies);
+                    }
+
+                    future.complete(result);
                 } else {
-                    result = new BrowsePathResult(
-                        new StatusCode(StatusCodes.Bad_NoMatch), new BrowsePathTarget[0]);
-                }
+                    StatusCode statusCode = new StatusCode(StatusCodes.Bad_NoMatch);
 
-                future.complete(result);
-            } else {
-                StatusCode statusCode = new StatusCode(StatusCodes.Bad_NoMatch);
+                    if (ex instanceof UaException) {
+                        statusCode = ((UaException) ex).getStatusCode();
+                    }
 
-                if (ex instanceof UaException) {
-                    statusCode = ((UaException) ex).getStatusCode();
+                    BrowsePathResult result = new BrowsePathResult(
+                        statusCode, new BrowsePathTarget[0]);
+
+                    future.complete(result);
                 }
+            });
+
+            return future;
+        }
 
-                BrowsePathResult result = new BrowsePathResult(
-                    statusCode, new BrowsePathTarget[0]);
+        private CompletableFuture<List<BrowsePathTarget>> follow(
+            NodeId nodeId,
+            List<RelativePathElement> elements,
+            Resolution resolution) {
 
-                future.complete(result);
+            if (elements.isEmpty()) {
+                return completedFuture(Collections.emptyList());
             }
-        });
 
-        return future;
-    }
+            RelativePathElement e = elements.get(0);
+            QualifiedName targetName = e.getTargetName();
 
-    private CompletableFuture<List<BrowsePathTarget>> follow(NodeId nodeId,
-                                                             List<RelativePathElement> elements) {
+            return hop(nodeId, e).thenCompose(hop -> {
+                resolution.add(hop);
 
-        if (elements.isEmpty()) {
-            return completedFuture(Collections.emptyList());
-        } else if (elements.size() == 1) {
-            return target(nodeId, elements.get(0)).thenApply(targets ->
-                targets.stream()
-                    .map(n -> new BrowsePathTarget(n, UInteger.MAX))
-                    .collect(toList()));
-        } else {
-            RelativePathElement e = elements.get(0);
+                if (elements.size() == 1) {
+                    List<BrowsePathTarget> targets = new ArrayList<>();
+
+                    for (int i = 0; i < hop.targetNodeIds.size(); i++) {
+                        if (matchesTarget(hop.targetNames.get(i).browseName, targetName)) {
+                            targets.add(new BrowsePathTarget(hop.targetNodeIds.get(i), UInteger.MAX));
+                        }
+                    }
+
+                    return completedFuture(targets);
+                }
+
+                ExpandedNodeId nextExId = null;
+
+                for (int i = 0; i < hop.targetNodeIds.size(); i++) {
+                    if (Objects.equals(hop.targetNames.get(i).browseName, targetName)) {
+                        nextExId = hop.targetNodeIds.get(i);
+                        break;
+                    }
+                }
+
+                if (nextExId == null) {
+                    return completedFuture(Collections.emptyList());
+                }
 
-            return next(nodeId, e).thenCompose(nextExId -> {
                 List<RelativePathElement> nextElements = elements.subList(1, elements.size());
 
                 Optional<NodeId> nextId = nextExId.local(server.getNamespaceTable());
 
                 if (nextId.isPresent()) {
-                    return follow(nextId.get(), nextElements);
+                    return follow(nextId.get(), nextElements, resolution);
                 } else {
-                    UInteger remaining = nextElements.isEmpty() ?
-                        UInteger.MAX : uint(nextElements.size());
-
-                    List<BrowsePathTarget> targets = newArrayList(
-                        new BrowsePathTarget(nextExId, remaining));
+                    List<BrowsePathTarget> targets = Collections.singletonList(
+                        new BrowsePathTarget(nextExId, uint(nextElements.size())));
 
                     return completedFuture(targets);
                 }
             });
         }
-    }
 
-    private CompletableFuture<ExpandedNodeId> next(NodeId nodeId, RelativePathElement element) {
-        NodeId referenceTypeId = element.getReferenceTypeId();
-        boolean includeSubtypes = element.getIncludeSubtypes();
-        QualifiedName targetName = element.getTargetName();
+        /**
+         * Get the targets of the References from {@code nodeId} that match the type and direction of
+         * {@code element}, and their BrowseNames.
+         */
+        private CompletableFuture<Hop> hop(NodeId nodeId, RelativePathElement element) {
+            NodeId referenceTypeId = element.getReferenceTypeId();
+            boolean includeSubtypes = element.getIncludeSubtypes();
+            boolean isInverse = element.getIsInverse();
+
+            HopKey key = new HopKey(nodeId, referenceTypeId, includeSubtypes, isInverse);
+
+            return memoize(hops, key, () -> {
+                long stamp = cache.stamp(nodeId);
+                boolean managed = addressSpaceManager.containsManagedNode(nodeId);
+
+                return browse(nodeId).thenCompose(references -> {
+                    List<ExpandedNodeId> targetNodeIds = new ArrayList<>();
+
+                    for (Reference r : references) {
+                        /* Filter for references of the requested type or its subtype, if allowed... */
+                        boolean typeMatches = referenceTypeId.isNull() ||
+                            r.getReferenceTypeId().equals(referenceTypeId) ||
+                            (includeSubtypes && r.subtypeOf(referenceTypeId, server.getReferenceTypes()));
+
+                        /* Filter for reference direction... */
+                        if (typeMatches && r.isInverse() == isInverse) {
+                            targetNodeIds.add(r.getTargetNodeId());
+                        }
+                    }
 
-        BrowseContext browseContext = new BrowseContext(
-            server,
-            context.getSession().orElse(null)
-        );
+                    return readTargetNames(targetNodeIds).thenApply(names ->
+                        new Hop(nodeId, stamp, managed, targetNodeIds, names)
+                    );
+                });
+            });
+        }
+
+        private CompletableFuture<List<Reference>> browse(NodeId nodeId) {
+            return memoize(browses, nodeId, () -> {
+                BrowseContext browseContext = new BrowseContext(
+                    server,
+                    context.getSession().orElse(null)
+                );
+
+                addressSpaceManager.browse(browseContext, nodeId);
+
+                return browseContext.getFuture();
+            });
+        }
+
+        /**
+         * Get the BrowseNames of {@code targetNodeIds}, reading the ones not read yet in this request with a single
+         * Read.
+         */
+        private CompletableFuture<List<TargetName>> readTargetNames(List<ExpandedNodeId> targetNodeIds) {
+            List<CompletableFuture<TargetName>> futures = newArrayListWithCapacity(targetNodeIds.size());
 
-        server.getAddressSpaceManager().browse(browseContext, nodeId);
+            List<NodeId> toRead = new ArrayList<>();
+            List<CompletableFuture<TargetName>> toComplete = new ArrayList<>();
 
-        CompletableFuture<List<Reference>> future = browseContext.getFuture();
+            for (ExpandedNodeId xni : targetNodeIds) {
+                Optional<NodeId> local = xni.local(server.getNamespaceTable());
 
-        return future.thenCompose(references -> {
-            List<ExpandedNodeId> targetNodeIds = references.stream()
-                /* Filter for references of the requested type or its subtype, if allowed... */
-                .filter(r -> referenceTypeId.isNull() ||
-                    r.getReferenceTypeId().equals(referenceTypeId) ||
-                    (includeSubtypes && r.subtypeOf(referenceTypeId, server.getReferenceTypes())))
+                if (local.isPresent()) {
+                    NodeId nodeId = local.get();
 
-                /* Filter for reference direction... */
-                .filter(r -> r.isInverse() == element.getIsInverse())
+                    CompletableFuture<TargetName> future = targetNames.get(nodeId);
 
-                /* Map to target ExpandedNodeId... */
-                .map(Reference::getTargetNodeId)
-                .collect(toList());
+                    if (future == null) {
+                        CompletableFuture<TargetName> newFuture = new CompletableFuture<>();
+                        future = targetNames.putIfAbsent(nodeId, newFuture);
 
-            return readTargetBrowseNames(targetNodeIds).thenApply(browseNames -> {
-                for (int i = 0; i < targetNodeIds.size(); i++) {
-                    ExpandedNodeId targetNodeId = targetNodeIds.get(i);
-                    QualifiedName browseName = browseNames.get(i);
-                    if (browseName.equals(targetName)) {
-                        return targetNodeId;
+                        if (future == null) {
+                            future = newFuture;
+                            toRead.add(nodeId);
+                            toComplete.add(newFuture);
+                        }
                     }
+
+                    futures.add(future);
+                } else {
+                    futures.add(completedFuture(TargetName.NOT_LOCAL));
                 }
+            }
 
-                return ExpandedNodeId.NULL_VALUE;
+            if (!toRead.isEmpty()) {
+                readBrowseNames(toRead, toComplete);
+            }
+
+            return sequence(futures);
+        }
+
+        private void readBrowseNames(List<NodeId> nodeIds, List<CompletableFuture<TargetName>> futures) {
+            long[] stamps = new long[nodeIds.size()];
+            boolean[] managed = new boolean[nodeIds.size()];
+            List<ReadValueId> readValueIds = newArrayListWithCapacity(nodeIds.size());
+
+            for (int i = 0; i < nodeIds.size(); i++) {
+                NodeId nodeId = nodeIds.get(i);
+
+                stamps[i] = cache.stamp(nodeId);
+                managed[i] = addressSpaceManager.containsManagedNode(nodeId);
+
+                readValueIds.add(new ReadValueId(
+                    nodeId,
+                    AttributeId.BrowseName.uid(),
+                    null,
+                    QualifiedName.NULL_VALUE
+                ));
+            }
+
+            ReadContext context = new ReadContext(server, null);
+
+            addressSpaceManager.read(
+                context,
+                0.0,
+                TimestampsToReturn.Neither,
+                readValueIds
+            );
+
+            context.getFuture().whenComplete((values, ex) -> {
+                for (int i = 0; i < futures.size(); i++) {
+                    if (values != null) {
+                        DataValue value = values.get(i);
+
+                        Object browseName = value.getValue().getValue();
+
+                        futures.get(i).complete(new TargetName(
+                            nodeIds.get(i),
+                            browseName instanceof QualifiedName ? (QualifiedName) browseName : null,
+                            stamps[i],
+                            managed[i]
+                        ));
+                    } else {
+                        futures.get(i).completeExceptionally(ex);
+                    }
+                }
             });
-        });
+        }
+
     }
 
-    private CompletableFuture<List<ExpandedNodeId>> target(NodeId nodeId, RelativePathElement element) {
-        NodeId referenceTypeId = element.getReferenceTypeId();
-        boolean includeSubtypes = element.getIncludeSubtypes();
-        QualifiedName targetName = element.getTargetName();
+    /**
+     * The Nodes one BrowsePath was resolved from, and whether the result can be cached.
+     * <p>
+     * Only modified by the callbacks of a single BrowsePath, one after the other.
+     */
+    private static class Resolution {
+
+        final Map<NodeId, Long> dependencies = new HashMap<>();
+
+        /**
+         * Results can be cached only if every Node they depend on is managed by a NodeManager, whose changes
+         * invalidate the cache.
+         */
+        boolean cacheable = true;
 
-        BrowseContext browseContext = new BrowseContext(
-            server,
-            context.getSession().orElse(null)
-        );
+        void add(Hop hop) {
+            add(hop.nodeId, hop.stamp, hop.managed);
 
-        server.getAddressSpaceManager().browse(browseContext, nodeId);
+            for (TargetName targetName : hop.targetNames) {
+                if (targetName.nodeId != null) {
+                    add(targetName.nodeId, targetName.stamp, targetName.managed);
+                }
+            }
+        }
 
-        CompletableFuture<List<Reference>> future = browseContext.getFuture();
+        private void add(NodeId nodeId, long stamp, boolean managed) {
+            dependencies.putIfAbsent(nodeId, stamp);
 
-        return future.thenCompose(references -> {
-            List<ExpandedNodeId> targetNodeIds = references.stream()
-                /* Filter for references of the requested type or its subtype, if allowed... */
-                .filter(r -> referenceTypeId.isNull() ||
-                    r.getReferenceTypeId().equals(referenceTypeId) ||
-                    (includeSubtypes && r.subtypeOf(referenceTypeId, server.getReferenceTypes())))
+            cacheable &= managed;
+        }
 
-                /* Filter for reference direction... */
-                .filter(r -> r.isInverse() == element.getIsInverse())
+    }
 
-                /* Map to target ExpandedNodeId... */
-                .map(Reference::getTargetNodeId)
-                .collect(toList());
+    private static class Hop {
 
-            return readTargetBrowseNames(targetNodeIds).thenApply(browseNames -> {
-                List<ExpandedNodeId> targets = newArrayList();
+        final NodeId nodeId;
+        final long stamp;
+        final boolean managed;
 
-                for (int i = 0; i < targetNodeIds.size(); i++) {
-                    ExpandedNodeId targetNodeId = targetNodeIds.get(i);
-                    QualifiedName browseName = browseNames.get(i);
-                    if (matchesTarget(browseName, targetName)) {
-                        targets.add(targetNodeId);
-                    }
-                }
+        final List<ExpandedNodeId> targetNodeIds;
+        final List<TargetName> targetNames;
+
+        Hop(
+            NodeId nodeId,
+            long stamp,
+            boolean managed,
+            List<ExpandedNodeId> targetNodeIds,
+            List<TargetName> targetNames) {
+
+            this.nodeId = nodeId;
+            this.stamp = stamp;
+            this.managed = managed;
+            this.targetNodeIds = targetNodeIds;
+            this.targetNames = targetNames;
+        }
 
-                return targets;
-            });
-        });
     }
 
-    private CompletableFuture<List<QualifiedName>> readTargetBrowseNames(List<ExpandedNodeId> targetNodeIds) {
-        List<CompletableFuture<List<DataValue>>> futures = newArrayListWithCapacity(targetNodeIds.size());
-
-        for (ExpandedNodeId xni : targetNodeIds) {
-            CompletableFuture<List<DataValue>> future = xni.local(server.getNamespaceTable())
-                .map(nodeId -> {
-                    ReadValueId readValueId = new ReadValueId(
-                        nodeId,
-                        AttributeId.BrowseName.uid(),
-                        null,
-                        QualifiedName.NULL_VALUE
-                    );
+    private static class TargetName {
 
-                    ReadContext context = new ReadContext(server, null);
+        static final TargetName NOT_LOCAL = new TargetName(null, null, 0L, true);
 
-                    server.getAddressSpaceManager().read(
-                        context,
-                        0.0,
-                        TimestampsToReturn.Neither,
-                        newArrayList(readValueId)
-                    );
+        @Nullable
+        final NodeId nodeId;
 
-                    return context.getFuture();
-                })
-                .orElse(completedFuture(newArrayList(new DataValue(StatusCodes.Bad_NodeIdUnknown))));
+        @Nullable
+        final QualifiedName browseName;
 
-            futures.add(future);
+        final long stamp;
+        final boolean managed;
+
+        TargetName(@Nullable NodeId nodeId, @Nullable QualifiedName browseName, long stamp, boolean managed) {
+            this.nodeId = nodeId;
+            this.browseName = browseName;
+            this.stamp = stamp;
+            this.managed = managed;
         }
 
-        return sequence(futures).thenApply(values ->
-            values.stream().map(l -> {
-                DataValue v = l.get(0);
-                return (QualifiedName) v.getValue().getValue();
-            }).collect(toList()));
     }
 
-    private boolean matchesTarget(QualifiedName browseName, QualifiedName targetName) {
-        return targetName == null ||
-            targetName.equals(QualifiedName.NULL_VALUE) ||
-            targetName.equals(browseName);
+    private static class HopKey {
+
+        final NodeId nodeId;
+        final NodeId referenceTypeId;
+        final boolean includeSubtypes;
+        final boolean isInverse;
+
+        HopKey(NodeId nodeId, NodeId referenceTypeId, boolean includeSubtypes, boolean isInverse) {
+            this.nodeId = nodeId;
+            this.referenceTypeId = referenceTypeId;
+            this.includeSubtypes = includeSubtypes;
+            this.isInverse = isInverse;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            HopKey hopKey = (HopKey) o;
+            return includeSubtypes == hopKey.includeSubtypes &&
+                isInverse == hopKey.isInverse &&
+                Objects.equals(nodeId, hopKey.nodeId) &&
+                Objects.equals(referenceTypeId, hopKey.referenceTypeId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(nodeId, referenceTypeId, includeSubtypes, isInverse);
+        }
+
     }
 
 }
@@ -0,0 +1,515 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.services.helpers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+
+import com.google.common.primitives.Ints;
+import org.eclipse.milo.opcua.sdk.core.NumericRange;
+import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
+import org.eclipse.milo.opcua.sdk.server.Session;
+import org.eclipse.milo.opcua.sdk.server.events.FilterContext;
+import org.eclipse.milo.opcua.sdk.server.events.QueryContentFilter;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaNode;
+import org.eclipse.milo.opcua.sdk.server.services.ServiceAttributes;
+import org.eclipse.milo.opcua.sdk.server.util.TypeDefinitionIndex;
+import org.eclipse.milo.opcua.stack.core.AttributeId;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.UaException;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DiagnosticInfo;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.NodeClass;
+import org.eclipse.milo.opcua.stack.core.types.structured.ContentFilterResult;
+import org.eclipse.milo.opcua.stack.core.types.structured.NodeTypeDescription;
+import org.eclipse.milo.opcua.stack.core.types.structured.ParsingResult;
+import org.eclipse.milo.opcua.stack.core.types.structured.QueryDataDescription;
+import org.eclipse.milo.opcua.stack.core.types.structured.QueryDataSet;
+import org.eclipse.milo.opcua.stack.core.types.structured.QueryFirstRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.QueryFirstResponse;
+import org.eclipse.milo.opcua.stack.core.types.structured.QueryNextRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.QueryNextResponse;
+import org.eclipse.milo.opcua.stack.core.types.structured.ResponseHeader;
+import org.eclipse.milo.opcua.stack.core.types.structured.ViewDescription;
+import org.eclipse.milo.opcua.stack.core.util.NonceUtil;
+import org.eclipse.milo.opcua.stack.server.services.ServiceRequest;
+import org.slf4j.LoggerFactory;
+
+import static org.eclipse.milo.opcua.stack.core.util.ConversionUtil.l;
+
+/**
+ * Answers QueryFirst and QueryNext from the managed Nodes.
+ * <p>
+ * The Nodes to consider are taken from the server's {@link TypeDefinitionIndex} rather than by browsing: only the
+ * instances of the requested types, and of their subtypes if requested, are evaluated against the filter. They're
+ * evaluated lazily, a page at a time, as QueryFirst and QueryNext ask for them.
+ * <p>
+ * The index can only cover Nodes whose {@link org.eclipse.milo.opcua.sdk.server.api.NodeManager} can enumerate them.
+ * While a NodeManager that can't, e.g. one that creates its Nodes on demand, is registered, QueryFirst fails with
+ * Bad_ServiceUnsupported rather than return incomplete results.
+ */
+public class QueryHelper {
+
+    public void queryFirst(ServiceRequest service) {
+        OpcUaServer server = service.attr(ServiceAttributes.SERVER_KEY).get();
+
+        server.getExecutorService().execute(() -> {
+            try {
+                onQueryFirst(server, service);
+            } catch (UaException e) {
+                service.setServiceFault(e);
+            } catch (Throwable t) {
+                LoggerFactory.getLogger(QueryHelper.class).warn("QueryFirst failed", t);
+
+                service.setServiceFault(StatusCodes.Bad_InternalError);
+            }
+        });
+    }
+
+    public void queryNext(ServiceRequest service) {
+        OpcUaServer server = service.attr(ServiceAttributes.SERVER_KEY).get();
+
+        server.getExecutorService().execute(() -> {
+            try {
+                onQueryNext(server, service);
+            } catch (UaException e) {
+                service.setServiceFault(e);
+            } catch (Throwable t) {
+                LoggerFactory.getLogger(QueryHelper.class).warn("QueryNext failed", t);
+
+                service.setServiceFault(StatusCodes.Bad_InternalError);
+            }
+        });
+    }
+
+    private static void onQueryFirst(OpcUaServer server, ServiceRequest service) throws UaException {
+        Session session = service.attr(ServiceAttributes.SESSION_KEY).get();
+
+        QueryFirstRequest request = (QueryFirstRequest) service.getRequest();
+
+        List<NodeTypeDescription> nodeTypes = l(request.getNodeTypes());
+
+        if (nodeTypes.isEmpty()) {
+            throw new UaException(StatusCodes.Bad_NothingToDo);
+        }
+
+        if (!server.getAddressSpaceManager().isEnumerable()) {
+            throw new UaException(StatusCodes.Bad_ServiceUnsupported);
+        }
+
+        ViewDescription view = request.getView();
+
+        if (view != null && view.getViewId() != null && view.getViewId().isNotNull()) {
+            throw new UaException(StatusCodes.Bad_ViewIdUnknown);
+        }
+
+        FilterContext context = new FilterContext() {
+            @Override
+            public OpcUaServer getServer() {
+                return server;
+            }
+
+            @Override
+            public Optional<Session> getSession() {
+                return Optional.of(session);
+            }
+        };
+
+        QueryContentFilter filter = new QueryContentFilter(context, request.getFilter());
+        ContentFilterResult filterResult = filter.validate();
+
+        if (!QueryContentFilter.isValid(filterResult)) {
+            ResponseHeader header = service.createResponseHeader(StatusCodes.Bad_ContentFilterInvalid);
+
+            service.setResponse(new QueryFirstResponse(
+                header,
+                new QueryDataSet[0],
+                ByteString.NULL_VALUE,
+                new ParsingResult[0],
+                new DiagnosticInfo[0],
+                filterResult
+            ));
+
+            return;
+        }
+
+        ParsingResult[] parsingResults = new ParsingResult[nodeTypes.size()];
+        boolean parsingFailed = false;
+
+        TypeDefinitionIndex index = server.getAddressSpaceManager().getTypeDefinitionIndex();
+
+        // The NodeType each instance is returned as; the first one that selects it.
+        Map<NodeId, Candidate> candidates = new LinkedHashMap<>();
+
+        for (int i = 0; i < nodeTypes.size(); i++) {
+            NodeTypeDescription nodeType = nodeTypes.get(i);
+
+            parsingResults[i] = parse(server, nodeType);
+
+            if (parsingResults[i].getStatusCode().isBad()) {
+                parsingFailed = true;
+                continue;
+            }
+
+            NodeId typeDefinitionId = nodeType.getTypeDefinitionNode()
+                .local(server.getNamespaceTable())
+                .orElseThrow(() -> new UaException(StatusCodes.Bad_NodeIdUnknown));
+
+            Set<NodeId> typeDefinitionIds = Boolean.TRUE.equals(nodeType.getIncludeSubTypes()) ?
+                QueryContentFilter.subtypesOf(server, typeDefinitionId) :
+                Collections.singleton(typeDefinitionId);
+
+            for (NodeId id : typeDefinitionIds) {
+                for (NodeId nodeId : index.getInstances(id)) {
+                    candidates.putIfAbsent(nodeId, new Candidate(nodeId, id, nodeType));
+                }
+            }
+        }
+
+        int max = maxDataSets(
+            server,
+            request.getMaxDataSetsToReturn() != null ? request.getMaxDataSetsToReturn().longValue() : 0L
+        );
+
+        Map<ByteString, QueryContinuationPoint> continuationPoints = getContinuationPoints(server, session);
+
+        int maxContinuationPoints = maxContinuationPoints(server);
+
+        // Only more candidates than fit in a page can need a continuation point; fail before building the page.
+        if (candidates.size() > max && continuationPoints.size() >= maxContinuationPoints) {
+            throw new UaException(StatusCodes.Bad_NoContinuationPoints);
+        }
+
+        Query query = new Query(context, filter, new ArrayList<>(candidates.values()), max);
+
+        List<QueryDataSet> page = query.nextPage();
+
+        ByteString continuationPoint = ByteString.NULL_VALUE;
+
+        if (query.hasMore()) {
+            if (continuationPoints.size() >= maxContinuationPoints) {
+                // Taken by a concurrent QueryFirst of the same Session.
+                throw new UaException(StatusCodes.Bad_NoContinuationPoints);
+            }
+
+            QueryContinuationPoint c = new QueryContinuationPoint(query);
+            continuationPoints.put(c.identifier, c);
+
+            continuationPoint = c.identifier;
+        }
+
+        ResponseHeader header = service.createResponseHeader();
+
+        service.setResponse(new QueryFirstResponse(
+            header,
+            page.toArray(new QueryDataSet[0]),
+            continuationPoint,
+            parsingFailed ? parsingResults : new ParsingResult[0],
+            new DiagnosticInfo[0],
+            filterResult
+        ));
+    }
+
+    private static void onQueryNext(OpcUaServer server, ServiceRequest service) throws UaException {
+        Session session = service.attr(ServiceAttributes.SESSION_KEY).get();
+
+        QueryNextRequest request = (QueryNextRequest) service.getRequest();
+
+        Map<ByteString, QueryContinuationPoint> continuationPoints = getContinuationPoints(server, session);
+
+        // Removing it claims it; a concurrent QueryNext with the same continuation point finds it invalid.
+        QueryContinuationPoint c = request.getContinuationPoint() != null ?
+            continuationPoints.remove(request.getContinuationPoint()) : null;
+
+        if (c == null) {
+            throw new UaException(StatusCodes.Bad_ContinuationPointInvalid);
+        }
+
+        if (Boolean.TRUE.equals(request.getReleaseContinuationPoint())) {
+            service.setResponse(new QueryNextResponse(
+                service.createResponseHeader(),
+                new QueryDataSet[0],
+                ByteString.NULL_VALUE
+            ));
+
+            return;
+        }
+
+        List<QueryDataSet> page = c.query.nextPage();
+
+        ByteString revisedContinuationPoint = ByteString.NULL_VALUE;
+
+        if (c.query.hasMore()) {
+            c.lastUsed = System.nanoTime();
+            continuationPoints.put(c.identifier, c);
+
+            revisedContinuationPoint = c.identifier;
+        }
+
+        service.setResponse(new QueryNextResponse(
+            service.createResponseHeader(),
+            page.toArray(new QueryDataSet[0]),
+            revisedContinuationPoint
+        ));
+    }
+
+    private static ParsingResult parse(OpcUaServer server, NodeTypeDescription nodeType) {
+        UaNode typeDefinitionNode = nodeType.getTypeDefinitionNode() != null ?
+            server.getAddressSpaceManager().getManagedNode(nodeType.getTypeDefinitionNode()).orElse(null) : null;
+
+        List<QueryDataDescription> dataToReturn = l(nodeType.getDataToReturn());
+
+        StatusCode[] dataStatusCodes = new StatusCode[dataToReturn.size()];
+
+        for (int i = 0; i < dataToReturn.size(); i++) {
+            QueryDataDescription data = dataToReturn.get(i);
+
+            if (!AttributeId.isValid(data.getAttributeId())) {
+                dataStatusCodes[i] = new StatusCode(StatusCodes.Bad_AttributeIdInvalid);
+            } else {
+                dataStatusCodes[i] = StatusCode.GOOD;
+
+                if (data.getIndexRange() != null) {
+                    try {
+                        NumericRange.parse(data.getIndexRange());
+                    } catch (UaException e) {
+                        dataStatusCodes[i] = new StatusCode(StatusCodes.Bad_IndexRangeInvalid);
+                    }
+                }
+            }
+        }
+
+        StatusCode statusCode;
+
+        if (typeDefinitionNode == null) {
+            statusCode = new StatusCode(StatusCodes.Bad_NodeIdUnknown);
+        } else if (typeDefinitionNode.getNodeClass() != NodeClass.ObjectType &&
+            typeDefinitionNode.getNodeClass() != NodeClass.VariableType) {
+
+            statusCode = new StatusCode(StatusCodes.Bad_NotTypeDefinition);
+        } else {
+            statusCode = StatusCode.GOOD;
+
+            for (StatusCode dataStatusCode : dataStatusCodes) {
+                if (dataStatusCode.isBad()) {
+                    statusCode = new StatusCode(StatusCodes.Bad_InvalidArgument);
+                }
+            }
+        }
+
+        return new ParsingResult(statusCode, dataStatusCodes, new DiagnosticInfo[0]);
+    }
+
+    /**
+     * @return the number of QueryDataSets to return per page; a limit of 0, requested or configured, means no limit.
+     */
+    private static int maxDataSets(OpcUaServer server, long requested) {
+        long configured = server.getConfig().getLimits().getMaxQueryDataSets().longValue();
+
+        int limit = configured == 0 ? Integer.MAX_VALUE : Ints.saturatedCast(configured);
+
+        return requested == 0 ? limit : Math.min(Ints.saturatedCast(requested), limit);
+    }
+
+    /**
+     * @return the number of Query continuation points a Session can hold; a configured limit of 0 means no limit.
+     */
+    private static int maxContinuationPoints(OpcUaServer server) {
+        int configured = server.getConfig().getLimits().getMaxQueryContinuationPoints().intValue();
+
+        return configured == 0 ? Integer.MAX_VALUE : configured;
+    }
+
+    /**
+     * Get the Query continuation points of {@code session}, after releasing the ones that expired.
+     */
+    private static Map<ByteString, QueryContinuationPoint> getContinuationPoints(
+        OpcUaServer server,
+        Session session) {
+
+        Map<ByteString, QueryContinuationPoint> continuationPoints = session.getQueryContinuationPoints();
+
+        long timeout = (long) (server.getConfig().getLimits().getQueryContinuationPointTimeout() *
+            TimeUnit.MILLISECONDS.toNanos(1));
+
+        long now = System.nanoTime();
+
+        continuationPoints.values().removeIf(c -> now - c.lastUsed > timeout);
+
+        return continuationPoints;
+    }
+
+    private static class Candidate {
+
+        final NodeId nodeId;
+        final NodeId typeDefinitionId;
+        final NodeTypeDescription nodeType;
+
+        Candidate(NodeId nodeId, NodeId typeDefinitionId, NodeTypeDescription nodeType) {
+            this.nodeId = nodeId;
+            this.typeDefinitionId = typeDefinitionId;
+            this.nodeType = nodeType;
+        }
+
+    }
+
+    /**
+     * The instances selected by a QueryFirst request and a position among them.
+     * <p>
+     * Instances are evaluated against the filter as pages are requested. The position is always left on an instance
+     * that passed the filter, or past the end, so {@link #hasMore()} doesn't hand out a continuation point for nothing.
+     */
+    private static class Query {
+
+        private final FilterContext context;
+        private final QueryContentFilter filter;
+        private final List<Candidate> candidates;
+        private final int max;
+
+        private int position = 0;
+        private QueryDataSet next;
+
+        Query(FilterContext context, QueryContentFilter filter, List<Candidate> candidates, int max) {
+            this.context = context;
+            this.filter = filter;
+            this.candidates = candidates;
+            this.max = max;
+        }
+
+        synchronized List<QueryDataSet> nextPage() {
+            List<QueryDataSet> page = new ArrayList<>();
+
+            while (page.size() < max) {
+                QueryDataSet dataSet = takeNextMatch();
+
+                if (dataSet == null) break;
+
+                page.add(dataSet);
+            }
+
+            if (next == null) {
+                next = findNextMatch();
+            }
+
+            return page;
+        }
+
+        synchronized boolean hasMore() {
+            return next != null;
+        }
+
+        @Nullable
+        private QueryDataSet takeNextMatch() {
+            QueryDataSet dataSet = next != null ? next : findNextMatch();
+            next = null;
+            return dataSet;
+        }
+
+        @Nullable
+        private QueryDataSet findNextMatch() {
+            while (position < candidates.size()) {
+                Candidate candidate = candidates.get(position++);
+
+                UaNode node = context.getServer().getAddressSpaceManager()
+                    .getManagedNode(candidate.nodeId)
+                    .orElse(null);
+
+                if (node == null) continue;
+
+                boolean matches;
+                try {
+                    matches = filter.evaluate(node, candidate.typeDefinitionId);
+                } catch (UaException e) {
+                    matches = false;
+                }
+
+                if (matches) {
+                    return new QueryDataSet(
+                        candidate.nodeId.expanded(),
+                        candidate.typeDefinitionId.expanded(),
+                        values(node, candidate.nodeType)
+                    );
+                }
+            }
+
+            return null;
+        }
+
+        private Variant[] values(UaNode node, NodeTypeDescription nodeType) {
+            List<QueryDataDescription> dataToReturn = l(nodeType.getDataToReturn());
+
+            Variant[] values = new Variant[dataToReturn.size()];
+
+            for (int i = 0; i < values.length; i++) {
+                QueryDataDescription data = dataToReturn.get(i);
+
+                UaNode target = QueryContentFilter.getRelativeNode(
+                    context.getServer(),
+                    node,
+                    data.getRelativePath()
+                );
+
+                if (target == null) {
+                    values[i] = Variant.NULL_VALUE;
+                } else {
+                    DataValue value = QueryContentFilter.readAttribute(
+                        context,
+                        target,
+                        data.getAttributeId(),
+                        data.getIndexRange()
+                    );
+
+                    StatusCode statusCode = value.getStatusCode();
+
+                    // A bad value is returned as its StatusCode.
+                    values[i] = statusCode == null || statusCode.isGood() ?
+                        value.getValue() : new Variant(statusCode);
+                }
+            }
+
+            return values;
+        }
+
+    }
+
+    /**
+     * A cursor over the instances selected by a QueryFirst request.
+     */
+    public static class QueryContinuationPoint {
+
+        private final Query query;
+        private final ByteString identifier;
+
+        private volatile long lastUsed = System.nanoTime();
+
+        private QueryContinuationPoint(Query query) {
+            this.query = query;
+            this.identifier = NonceUtil.generateNonce(16);
+        }
+
+        public ByteString getIdentifier() {
+            return identifier;
+        }
+
+    }
+
+}
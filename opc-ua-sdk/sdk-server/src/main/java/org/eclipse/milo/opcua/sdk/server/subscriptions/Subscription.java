@@ -27,6 +27,7 @@ import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.PeekingIterator;
+import com.google.common.collect.Sets;
 import com.google.common.math.DoubleMath;
 import com.google.common.primitives.Ints;
 import org.eclipse.milo.opcua.sdk.server.Session;
@@ -35,7 +36,6 @@ import org.eclipse.milo.opcua.sdk.server.items.BaseMonitoredItem;
 import org.eclipse.milo.opcua.stack.core.StatusCodes;
 import org.eclipse.milo.opcua.stack.core.serialization.SerializationContext;
 import org.eclipse.milo.opcua.stack.core.serialization.UaStructure;
-import org.eclipse.milo.opcua.stack.core.types.OpcUaDefaultBinaryEncoding;
 import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
 import org.eclipse.milo.opcua.stack.core.types.builtin.DiagnosticInfo;
 import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
@@ -69,6 +69,12 @@ public class Subscription {
     private final AtomicLong itemIds = new AtomicLong(1L);
     private final Map<UInteger, BaseMonitoredItem<?>> itemsById = Maps.newConcurrentMap();
 
+    /**
+     * The items that may have notifications to publish. Items add themselves when they enqueue a value or are
+     * triggered; the publishing timer and {@link #returnNotifications(ServiceRequest)} remove the ones that don't.
+     */
+    private final Set<BaseMonitoredItem<?>> readyItems = Sets.newConcurrentHashSet();
+
     private final AtomicReference<State> state = new AtomicReference<>(State.Normal);
     private final AtomicReference<StateListener> stateListener = new AtomicReference<>();
 
@@ -150,6 +156,9 @@ public class Subscription {
 
         logger.debug("[id={}] subscription deleted.", subscriptionId);
 
+        itemsById.values().forEach(item -> item.setReadyItems(null));
+        readyItems.clear();
+
         return Lists.newArrayList(itemsById.values());
     }
 
@@ -164,6 +173,7 @@ public class Subscription {
     public synchronized void addMonitoredItems(List<BaseMonitoredItem<?>> createdItems) {
         for (BaseMonitoredItem<?> item : createdItems) {
             itemsById.put(item.getId(), item);
+            item.setReadyItems(readyItems);
         }
 
         resetLifetimeCounter();
@@ -174,6 +184,8 @@ public class Subscription {
     public synchronized void removeMonitoredItems(List<BaseMonitoredItem<?>> deletedItems) {
         for (BaseMonitoredItem<?> item : deletedItems) {
             itemsById.remove(item.getId());
+            item.setReadyItems(null);
+            readyItems.remove(item);
         }
 
         resetLifetimeCounter();
@@ -365,7 +377,7 @@ public class Subscription {
         NotificationMessage notificationMessage = new NotificationMessage(
             sequenceNumber,
             new DateTime(),
-            new ExtensionObject[]{ExtensionObject.encode(serializationContext, statusChange)}
+            new ExtensionObject[]{ExtensionObject.encodeDeferred(serializationContext, statusChange)}
         );
 
         ResponseHeader header = service.createResponseHeader();
@@ -385,9 +397,18 @@ public class Subscription {
 
         lastIterator.forEachRemaining(items::add);
 
-        itemsById.values().stream()
-            .filter(item -> item.hasNotifications() || item.isTriggered())
-            .forEach(items::add);
+        Iterator<BaseMonitoredItem<?>> readyIterator = readyItems.iterator();
+
+        while (readyIterator.hasNext()) {
+            BaseMonitoredItem<?> item = readyIterator.next();
+
+            // Removed before checking; an item enqueueing after the check adds itself back.
+            readyIterator.remove();
+
+            if (isReady(item)) {
+                items.add(item);
+            }
+        }
 
         PeekingIterator<BaseMonitoredItem<?>> iterator = Iterators.peekingIterator(items.iterator());
 
@@ -464,12 +485,7 @@ public class Subscription {
                 new DiagnosticInfo[0]
             );
 
-            notificationData.add(ExtensionObject.encode(
-                serializationContext,
-                dataChange,
-                dataChange.getBinaryEncodingId(),
-                OpcUaDefaultBinaryEncoding.getInstance()
-            ));
+            notificationData.add(ExtensionObject.encodeDeferred(serializationContext, dataChange));
         }
 
         if (eventNotifications.size() > 0) {
@@ -477,12 +493,7 @@ public class Subscription {
                 eventNotifications.toArray(new EventFieldList[0])
             );
 
-            notificationData.add(ExtensionObject.encode(
-                serializationContext,
-                eventChange,
-                eventChange.getBinaryEncodingId(),
-                OpcUaDefaultBinaryEncoding.getInstance()
-            ));
+            notificationData.add(ExtensionObject.encodeDeferred(serializationContext, eventChange));
         }
 
         UInteger sequenceNumber = uint(nextSequenceNumber());
@@ -520,9 +531,32 @@ public class Subscription {
             eventNotifications.size(), sequenceNumber, moreNotifications);
     }
 
+    /**
+     * @return {@code true} if any item has notifications to publish. Only the items in {@link #readyItems} are
+     * checked; those found to have nothing to publish are dropped from it.
+     */
     private boolean notificationsAvailable() {
-        return itemsById.values().stream()
-            .anyMatch(item -> item.hasNotifications() || item.isTriggered());
+        Iterator<BaseMonitoredItem<?>> iterator = readyItems.iterator();
+
+        while (iterator.hasNext()) {
+            BaseMonitoredItem<?> item = iterator.next();
+
+            if (isReady(item)) return true;
+
+            iterator.remove();
+
+            // Check again in case the item enqueued between the first check and its removal.
+            if (isReady(item)) {
+                readyItems.add(item);
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isReady(BaseMonitoredItem<?> item) {
+        return item.hasNotifications() || item.isTriggered();
     }
 
     private void setState(State state) {
@@ -373,6 +373,9 @@ public class SubscriptionManager {
         UInteger attributeId = request.getItemToMonitor().getAttributeId();
         QualifiedName dataEncoding = request.getItemToMonitor().getDataEncoding();
 
+        // Items outlive the handles registered by this Session (e.g. when transferred), so they monitor the NodeId.
+        ReadValueId itemToMonitor = session.getRegisteredNodes().resolve(request.getItemToMonitor());
+
         if (!AttributeId.isValid(attributeId)) {
             throw new UaException(StatusCodes.Bad_AttributeIdInvalid);
         }
@@ -404,7 +407,7 @@ public class SubscriptionManager {
 
             try {
                 server.getAddressSpaceManager().onCreateEventItem(
-                    request.getItemToMonitor(),
+                    itemToMonitor,
                     requestedQueueSize,
                     revisedQueueSize::set
                 );
@@ -417,7 +420,7 @@ public class SubscriptionManager {
                 session,
                 uint(subscription.nextItemId()),
                 subscription.getId(),
-                request.getItemToMonitor(),
+                itemToMonitor,
                 request.getMonitoringMode(),
                 timestamps,
                 request.getRequestedParameters().getClientHandle(),
@@ -446,7 +449,7 @@ public class SubscriptionManager {
             }
 
             // Validate the requested index range by parsing it.
-            String indexRange = request.getItemToMonitor().getIndexRange();
+            String indexRange = itemToMonitor.getIndexRange();
             if (indexRange != null) NumericRange.parse(indexRange);
 
             Double minimumSamplingInterval = 0.0;
@@ -474,7 +477,7 @@ public class SubscriptionManager {
 
             try {
                 server.getAddressSpaceManager().onCreateDataItem(
-                    request.getItemToMonitor(),
+                    itemToMonitor,
                     requestedSamplingInterval,
                     requestedQueueSize,
                     (rsi, rqs) -> {
@@ -491,7 +494,7 @@ public class SubscriptionManager {
                 session,
                 uint(subscription.nextItemId()),
                 subscription.getId(),
-                request.getItemToMonitor(),
+                itemToMonitor,
                 request.getMonitoringMode(),
                 timestamps,
                 request.getRequestedParameters().getClientHandle(),
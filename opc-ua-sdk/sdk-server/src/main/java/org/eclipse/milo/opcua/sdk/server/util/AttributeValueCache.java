@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.util;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
+
+/**
+ * A cache of attribute values that lets an address space honor the {@code maxAge} parameter of the Read service.
+ * <p>
+ * Values are grouped by NodeId, and within a node keyed by (AttributeId, IndexRange, DataEncoding), so all values of
+ * a node can be invalidated at once. When more than {@code maxSize} nodes have cached values, the values of the least
+ * recently used node are evicted.
+ * <p>
+ * The age of a cached value is the time since the cache read it from its source, i.e. what its ServerTimestamp would
+ * be, so a value whose SourceTimestamp is old because it has not changed can still be served from the cache.
+ * <p>
+ * Concurrent misses for the same key are coalesced: only the first caller reads the value, and the rest complete
+ * with the result of that read. This requires the read to complete asynchronously; a read that completes before
+ * {@link #get} returns leaves nothing in flight to share.
+ * <p>
+ * Values must not depend on the Session reading them; checking the Session's access to a cached value is up to the
+ * caller.
+ */
+public class AttributeValueCache {
+
+    public static final int DEFAULT_MAX_SIZE = 65536;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    private final Cache<NodeId, ConcurrentMap<Key, Entry>> entries;
+
+    public AttributeValueCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param maxSize the maximum number of nodes to cache values of.
+     */
+    public AttributeValueCache(int maxSize) {
+        entries = CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .build();
+    }
+
+    /**
+     * Get the value for {@code readValueId}, from the cache if a value no older than {@code maxAge} is cached or being
+     * read, otherwise from {@code read}.
+     *
+     * @param readValueId the {@link ReadValueId} identifying the value.
+     * @param maxAge      the maximum age of the value, in milliseconds. A value of 0 or less always reads a new value.
+     * @param read        reads the value from its source.
+     * @return the value.
+     */
+    public CompletableFuture<DataValue> get(
+        ReadValueId readValueId,
+        double maxAge,
+        Supplier<CompletableFuture<DataValue>> read) {
+
+        Key key = new Key(readValueId);
+
+        long now = System.nanoTime();
+        long maxAgeNanos = (long) (maxAge * TimeUnit.MILLISECONDS.toNanos(1));
+
+        while (true) {
+            ConcurrentMap<Key, Entry> nodeEntries = entries.asMap().computeIfAbsent(
+                readValueId.getNodeId(),
+                nodeId -> new ConcurrentHashMap<>()
+            );
+
+            Entry entry = nodeEntries.get(key);
+
+            if (entry != null && entry.isFresh(now, maxAgeNanos)) {
+                hitCount.increment();
+
+                return entry.future;
+            }
+
+            Entry newEntry = new Entry();
+
+            if (entry == null) {
+                if (nodeEntries.putIfAbsent(key, newEntry) != null) {
+                    continue;
+                }
+            } else if (!nodeEntries.replace(key, entry, newEntry)) {
+                continue;
+            }
+
+            missCount.increment();
+
+            load(nodeEntries, key, newEntry, read);
+
+            return newEntry.future;
+        }
+    }
+
+    /**
+     * Remove all cached values of the node identified by {@code nodeId}, e.g. after it has been written.
+     *
+     * @param nodeId the {@link NodeId} of the node.
+     */
+    public void invalidate(NodeId nodeId) {
+        entries.invalidate(nodeId);
+    }
+
+    /**
+     * Remove all cached values.
+     */
+    public void clear() {
+        entries.invalidateAll();
+    }
+
+    /**
+     * @return the number of values currently cached.
+     */
+    public int size() {
+        return entries.asMap().values().stream().mapToInt(ConcurrentMap::size).sum();
+    }
+
+    /**
+     * @return the number of reads served from the cache, including reads coalesced with one in progress.
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return the number of reads that had to read the value from its source.
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    private static void load(
+        ConcurrentMap<Key, Entry> nodeEntries,
+        Key key,
+        Entry entry,
+        Supplier<CompletableFuture<DataValue>> read) {
+
+        CompletableFuture<DataValue> future;
+
+        try {
+            future = read.get();
+        } catch (Throwable t) {
+            nodeEntries.remove(key, entry);
+            entry.future.completeExceptionally(t);
+            return;
+        }
+
+        future.whenComplete((value, ex) -> {
+            entry.readTime = System.nanoTime();
+
+            if (ex == null) {
+                entry.future.complete(value);
+            } else {
+                nodeEntries.remove(key, entry);
+                entry.future.completeExceptionally(ex);
+            }
+        });
+    }
+
+    private static class Entry {
+
+        final CompletableFuture<DataValue> future = new CompletableFuture<>();
+
+        volatile long readTime;
+
+        boolean isFresh(long now, long maxAgeNanos) {
+            if (maxAgeNanos <= 0) {
+                return false;
+            } else if (!future.isDone()) {
+                // Still being read, so it will be newer than maxAge when done.
+                return true;
+            } else {
+                return !future.isCompletedExceptionally() && now - readTime <= maxAgeNanos;
+            }
+        }
+
+    }
+
+    private static class Key {
+
+        final UInteger attributeId;
+        final String indexRange;
+        final QualifiedName dataEncoding;
+
+        Key(ReadValueId readValueId) {
+            this.attributeId = readValueId.getAttributeId();
+            this.indexRange = readValueId.getIndexRange();
+            this.dataEncoding = normalize(readValueId.getDataEncoding());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(attributeId, key.attributeId) &&
+                Objects.equals(indexRange, key.indexRange) &&
+                Objects.equals(dataEncoding, key.dataEncoding);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(attributeId, indexRange, dataEncoding);
+        }
+
+        @Nullable
+        private static QualifiedName normalize(@Nullable QualifiedName dataEncoding) {
+            return dataEncoding != null && dataEncoding.isNotNull() ? dataEncoding : null;
+        }
+
+    }
+
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nullable;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import org.eclipse.milo.opcua.sdk.server.api.NodeManager;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.structured.BrowsePath;
+import org.eclipse.milo.opcua.stack.core.types.structured.BrowsePathResult;
+import org.eclipse.milo.opcua.stack.core.types.structured.RelativePathElement;
+
+import static org.eclipse.milo.opcua.stack.core.util.ConversionUtil.l;
+
+/**
+ * A cache of TranslateBrowsePathsToNodeIds results, keyed by starting {@link NodeId} and RelativePath.
+ * <p>
+ * Each result is cached along with the Nodes it was resolved from: every Node browsed on the way and every Node whose
+ * BrowseName was read. The result is removed as soon as one of those Nodes, or the References that have it as their
+ * source, is added to or removed from a {@link NodeManager} this cache is listening to. When the cache is full, the
+ * least recently used results are evicted.
+ * <p>
+ * Changes to the BrowseName of an existing Node are not tracked; whoever makes them must call
+ * {@link #invalidate(NodeId)}.
+ * <p>
+ * Invalidation takes no lock of its own, so listening to a {@link NodeManager} adds no contention to its mutations.
+ */
+public class BrowsePathCache implements NodeManager.ChangeListener {
+
+    public static final int DEFAULT_MAX_SIZE = 65536;
+
+    private static final int STRIPES = 1024;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    private final Cache<Key, Entry> entries;
+
+    /**
+     * The entries that depend on each Node.
+     */
+    private final ConcurrentMap<NodeId, Set<Entry>> dependents = new ConcurrentHashMap<>();
+
+    /**
+     * Invalidation counters, striped by NodeId, used to detect a Node changing while a result depending on it was
+     * being resolved.
+     */
+    private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);
+
+    public BrowsePathCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param maxSize the maximum number of results to cache.
+     */
+    public BrowsePathCache(int maxSize) {
+        entries = CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .removalListener((RemovalNotification<Key, Entry> n) -> unlink(n.getValue()))
+            .build();
+    }
+
+    /**
+     * Get the cached result for {@code browsePath}, if there is one.
+     *
+     * @param browsePath the {@link BrowsePath} to get the result for.
+     * @return the cached {@link BrowsePathResult}, or {@code null} if there isn't one.
+     */
+    @Nullable
+    public BrowsePathResult get(BrowsePath browsePath) {
+        Entry entry = entries.getIfPresent(new Key(browsePath));
+
+        if (entry != null) {
+            hitCount.increment();
+
+            return entry.result;
+        } else {
+            missCount.increment();
+
+            return null;
+        }
+    }
+
+    /**
+     * Get the current invalidation stamp for {@code nodeId}.
+     * <p>
+     * Take the stamp of each Node before reading from it, and pass them to
+     * {@link #put(BrowsePath, BrowsePathResult, Map)}.
+     *
+     * @param nodeId the {@link NodeId} of the Node about to be read.
+     * @return the current invalidation stamp for {@code nodeId}.
+     */
+    public long stamp(NodeId nodeId) {
+        return stamps.get(stripe(nodeId));
+    }
+
+    /**
+     * Cache {@code result} for {@code browsePath}, unless one of the Nodes it was resolved from changed since its
+     * stamp was taken.
+     *
+     * @param browsePath   the {@link BrowsePath} that was resolved.
+     * @param result       the {@link BrowsePathResult}.
+     * @param dependencies the Nodes {@code result} was resolved from, mapped to the stamps taken before reading
+     *                     them.
+     */
+    public void put(BrowsePath browsePath, BrowsePathResult result, Map<NodeId, Long> dependencies) {
+        if (!isCurrent(dependencies)) return;
+
+        Entry entry = new Entry(new Key(browsePath), result, new ArrayList<>(dependencies.keySet()));
+
+        // Link before publishing, so an invalidation that misses the link is one that already bumped a stamp.
+        for (NodeId nodeId : entry.dependencies) {
+            dependents.compute(nodeId, (k, set) -> {
+                if (set == null) set = ConcurrentHashMap.newKeySet();
+                set.add(entry);
+                return set;
+            });
+        }
+
+        entries.put(entry.key, entry);
+
+        if (!isCurrent(dependencies)) {
+            entries.asMap().remove(entry.key, entry);
+        }
+    }
+
+    /**
+     * Remove all cached results that depend on the Node identified by {@code nodeId}.
+     *
+     * @param nodeId the {@link NodeId} of the Node that changed.
+     */
+    public void invalidate(NodeId nodeId) {
+        stamps.incrementAndGet(stripe(nodeId));
+
+        Set<Entry> entrySet = dependents.remove(nodeId);
+
+        if (entrySet != null) {
+            for (Entry entry : entrySet) {
+                entries.asMap().remove(entry.key, entry);
+            }
+        }
+    }
+
+    /**
+     * Remove all cached results.
+     */
+    public void clear() {
+        for (int i = 0; i < STRIPES; i++) {
+            stamps.incrementAndGet(i);
+        }
+
+        entries.invalidateAll();
+        dependents.clear();
+    }
+
+    @Override
+    public void onNodeChanged(NodeId nodeId) {
+        invalidate(nodeId);
+    }
+
+    /**
+     * @return the number of results currently cached.
+     */
+    public int size() {
+        return (int) entries.size();
+    }
+
+    /**
+     * @return the number of lookups answered from the cache.
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return the number of lookups that found no cached result.
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    private boolean isCurrent(Map<NodeId, Long> dependencies) {
+        for (Map.Entry<NodeId, Long> dependency : dependencies.entrySet()) {
+            if (stamp(dependency.getKey()) != dependency.getValue()) return false;
+        }
+
+        return true;
+    }
+
+    private void unlink(Entry entry) {
+        for (NodeId nodeId : entry.dependencies) {
+            dependents.computeIfPresent(nodeId, (k, set) -> {
+                set.remove(entry);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    private static int stripe(NodeId nodeId) {
+        int h = nodeId.hashCode();
+
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+    /**
+     * A cached result. Compared by identity, so unlinking one never unlinks another cached for the same key.
+     */
+    private static class Entry {
+
+        final Key key;
+        final BrowsePathResult result;
+        final List<NodeId> dependencies;
+
+        Entry(Key key, BrowsePathResult result, List<NodeId> dependencies) {
+            this.key = key;
+            this.result = result;
+            this.dependencies = dependencies;
+        }
+
+    }
+
+    private static class Key {
+
+        final NodeId startingNode;
+        final List<ElementKey> elements;
+
+        Key(BrowsePath browsePath) {
+            startingNode = browsePath.getStartingNode();
+
+            List<RelativePathElement> relativePathElements = browsePath.getRelativePath() != null ?
+                l(browsePath.getRelativePath().getElements()) : new ArrayList<>();
+
+            elements = new ArrayList<>(relativePathElements.size());
+            for (RelativePathElement element : relativePathElements) {
+                elements.add(new ElementKey(element));
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(startingNode, key.startingNode) &&
+                Objects.equals(elements, key.elements);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(startingNode, elements);
+        }
+
+    }
+
+    private static class ElementKey {
+
+        final NodeId referenceTypeId;
+        final Boolean isInverse;
+        final Boolean includeSubtypes;
+        final QualifiedName targetName;
+
+        ElementKey(RelativePathElement element) {
+            this.referenceTypeId = element.getReferenceTypeId();
+            this.isInverse = element.getIsInverse();
+            this.includeSubtypes = element.getIncludeSubtypes();
+            this.targetName = element.getTargetName();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ElementKey that = (ElementKey) o;
+            return Objects.equals(referenceTypeId, that.referenceTypeId) &&
+                Objects.equals(isInverse, that.isInverse) &&
+                Objects.equals(includeSubtypes, that.includeSubtypes) &&
+                Objects.equals(targetName, that.targetName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(referenceTypeId, isInverse, includeSubtypes, targetName);
+        }
+
+    }
+
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.UnaryOperator;
+
+import javax.annotation.Nullable;
+
+/**
+ * A bounded, lock-free ring buffer for one producer and any number of consumers, that makes room for new elements
+ * when full by discarding either the oldest or the newest element.
+ * <p>
+ * Calls to {@link #add(Object, boolean, UnaryOperator)} must not be concurrent with each other; every other method
+ * may be called from any thread at any time, and never waits for the producer.
+ * <p>
+ * Each element is stored in a cell tagged with its position in the buffer, and is claimed by setting its slot to
+ * {@code null}. Consumers and a producer discarding the oldest element race to claim the head slot; a producer
+ * replacing the newest element races a consumer for the tail slot. Whoever loses sees the buffer has changed and
+ * tries again.
+ */
+public class ConcurrentRingBuffer<E> {
+
+    private final AtomicLong head = new AtomicLong(0L);
+
+    /**
+     * Only written by the producer.
+     */
+    private volatile long tail = 0L;
+
+    private final AtomicReferenceArray<Cell<E>> slots;
+    private final int maxSize;
+
+    public ConcurrentRingBuffer(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize: " + maxSize);
+        }
+
+        this.maxSize = maxSize;
+
+        slots = new AtomicReferenceArray<>(maxSize);
+    }
+
+    /**
+     * Add an element to the buffer.
+     * <p>
+     * If the buffer is full {@code overflow} is applied to {@code e}, and the result replaces either the oldest
+     * element, which is discarded, or the newest element, which is overwritten.
+     *
+     * @param e             the element to add.
+     * @param discardOldest {@code true} to discard the oldest element when full, {@code false} to replace the newest.
+     * @param overflow      applied to {@code e} when an element has to be discarded to make room for it.
+     * @return {@code true} if an element was discarded.
+     */
+    public boolean add(E e, boolean discardOldest, UnaryOperator<E> overflow) {
+        final long t = tail;
+
+        while (true) {
+            long h = head.get();
+
+            if (t - h < maxSize) {
+                // Position t - maxSize has been claimed, so its slot is free.
+                slots.set(index(t), new Cell<>(e, t));
+                tail = t + 1;
+
+                return false;
+            }
+
+            if (discardOldest) {
+                if (claim(h) != null) {
+                    slots.set(index(t), new Cell<>(overflow.apply(e), t));
+                    tail = t + 1;
+
+                    return true;
+                }
+            } else {
+                long p = t - 1;
+                int index = index(p);
+                Cell<E> newest = slots.get(index);
+
+                if (newest != null && newest.position == p &&
+                    slots.compareAndSet(index, newest, new Cell<>(overflow.apply(e), p))) {
+
+                    return true;
+                }
+            }
+
+            // A consumer claimed the element we were after; the buffer is no longer full.
+        }
+    }
+
+    /**
+     * Remove and return the oldest element.
+     *
+     * @return the oldest element, or {@code null} if the buffer is empty.
+     */
+    @Nullable
+    public E poll() {
+        while (true) {
+            long h = head.get();
+
+            if (h >= tail) {
+                return null;
+            }
+
+            Cell<E> cell = claim(h);
+
+            if (cell != null) {
+                return cell.value;
+            }
+        }
+    }
+
+    /**
+     * Remove every element.
+     */
+    public void clear() {
+        //noinspection StatementWithEmptyBody
+        while (poll() != null) {}
+    }
+
+    /**
+     * @return {@code true} if the buffer is empty (size == 0).
+     */
+    public boolean isEmpty() {
+        return head.get() >= tail;
+    }
+
+    /**
+     * @return The maximum allowed size (number of elements).
+     */
+    public int maxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return The current size (number of elements). Only a snapshot when the buffer is concurrently modified.
+     */
+    public int size() {
+        long t = tail;
+        long h = head.get();
+
+        return (int) Math.max(0L, Math.min(t - h, maxSize));
+    }
+
+    /**
+     * Try to claim the element at position {@code h}, which was the head when last read.
+     *
+     * @return the claimed cell, or {@code null} if the head moved on first; the caller should read it again.
+     */
+    @Nullable
+    private Cell<E> claim(long h) {
+        int index = index(h);
+        Cell<E> cell = slots.get(index);
+
+        if (cell != null && cell.position == h) {
+            if (slots.compareAndSet(index, cell, null)) {
+                head.compareAndSet(h, h + 1);
+
+                return cell;
+            }
+        } else if (cell == null) {
+            // Claimed by someone that hasn't moved the head yet; move it for them.
+            head.compareAndSet(h, h + 1);
+        }
+
+        return null;
+    }
+
+    private int index(long position) {
+        return (int) (position % maxSize);
+    }
+
+    private static final class Cell<E> {
+
+        private final E value;
+        private final long position;
+
+        private Cell(E value, long position) {
+            this.value = value;
+            this.position = position;
+        }
+
+    }
+
+}
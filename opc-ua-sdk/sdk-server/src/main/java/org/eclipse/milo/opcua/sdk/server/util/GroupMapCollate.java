@@ -11,8 +11,10 @@
 package org.eclipse.milo.opcua.sdk.server.util;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -23,20 +25,57 @@ import org.slf4j.LoggerFactory;
 
 public class GroupMapCollate {
 
+    /**
+     * Group {@code items} by the key {@code grouper} assigns them, map each group with the {@link Mapper} for its key,
+     * and collate the results back into the order of {@code items}.
+     * <p>
+     * When every item has the same key the grouping and collating steps are skipped and {@code items} is mapped as-is.
+     *
+     * @param items   the items to map.
+     * @param grouper assigns each item a key. Called exactly once per item.
+     * @param mappers gets the {@link Mapper} for a key.
+     * @return a CompletableFuture containing the results, in the same order as {@code items}.
+     */
     public static <T, K, R> CompletableFuture<List<R>> groupMapCollate(
         List<T> items,
         Function<T, K> grouper,
         Function<K, Mapper<T, R>> mappers
     ) {
 
-        List<Pending<T, R>> pending = new ArrayList<>();
+        List<K> keys = new ArrayList<>(items.size());
+        boolean singleKey = true;
 
-        for (int i = 0; i < items.size(); i++) {
-            pending.add(new Pending<>(items.get(i), i));
+        for (T item : items) {
+            K key = grouper.apply(item);
+
+            if (singleKey && !keys.isEmpty() && !Objects.equals(keys.get(0), key)) {
+                singleKey = false;
+            }
+
+            keys.add(key);
+        }
+
+        if (keys.isEmpty()) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        } else if (singleKey) {
+            Mapper<T, R> mapper = mappers.apply(keys.get(0));
+
+            return mapper.map(items).thenApply(results -> {
+                checkSize(results.size(), items.size());
+
+                return results;
+            });
         }
 
-        Map<K, List<Pending<T, R>>> grouped = pending.stream()
-            .collect(Collectors.groupingBy(p -> grouper.apply(p.item)));
+        Map<K, List<Pending<T, R>>> grouped = new LinkedHashMap<>();
+        List<Pending<T, R>> pending = new ArrayList<>(items.size());
+
+        for (int i = 0; i < items.size(); i++) {
+            Pending<T, R> p = new Pending<>(items.get(i), i);
+
+            pending.add(p);
+            grouped.computeIfAbsent(keys.get(i), k -> new ArrayList<>()).add(p);
+        }
 
         Stream<CompletableFuture<Void>> futures = grouped.entrySet().stream().map(entry -> {
             K key = entry.getKey();
@@ -51,13 +90,7 @@ public class GroupMapCollate {
             );
 
             return future.thenAccept(results -> {
-                if (results.size() != pendingForKey.size()) {
-                    String message = String.format(
-                        "result size (%s) does not match pending size (%s)",
-                        results.size(), pendingForKey.size());
-                    LoggerFactory.getLogger(GroupMapCollate.class).error(message);
-                    throw new RuntimeException(message);
-                }
+                checkSize(results.size(), pendingForKey.size());
 
                 for (int i = 0; i < pendingForKey.size(); i++) {
                     pendingForKey.get(i).result = results.get(i);
@@ -73,6 +106,16 @@ public class GroupMapCollate {
         );
     }
 
+    private static void checkSize(int resultSize, int pendingSize) {
+        if (resultSize != pendingSize) {
+            String message = String.format(
+                "result size (%s) does not match pending size (%s)",
+                resultSize, pendingSize);
+            LoggerFactory.getLogger(GroupMapCollate.class).error(message);
+            throw new RuntimeException(message);
+        }
+    }
+
     private static CompletableFuture<Void> allOf(Stream<CompletableFuture<Void>> futureStream) {
         CompletableFuture[] fa = futureStream.toArray(CompletableFuture[]::new);
 
@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.util;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+import com.google.common.math.DoubleMath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Schedules the sampling of items on a hashed timing wheel.
+ * <p>
+ * Items are grouped into buckets by sampling interval, rounded up to a whole number of ticks. Each bucket sits in the
+ * wheel slot of its next deadline, so adding or removing items only touches their buckets, and a bucket keeps its
+ * phase as items come and go. Buckets due on the same tick are sampled together, with one call to the sampler.
+ * <p>
+ * A bucket whose previous sample hasn't completed yet skips its deadline rather than piling up reads.
+ */
+class SamplingWheel<T> {
+
+    static final long DEFAULT_TICK_MILLIS = 10L;
+
+    private static final int WHEEL_SIZE = 512;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    /**
+     * Guarded by {@code this}.
+     */
+    private final Map<Long, Bucket<T>> buckets = new HashMap<>();
+    private final Map<T, Bucket<T>> bucketsByItem = new HashMap<>();
+    private final List<List<Bucket<T>>> wheel = new ArrayList<>(WHEEL_SIZE);
+
+    private ScheduledFuture<?> ticker;
+    private long startNanos;
+    private long currentTick;
+
+    private final ScheduledExecutorService scheduler;
+    private final long tickMillis;
+    private final ToDoubleFunction<T> samplingInterval;
+    private final Function<List<T>, CompletableFuture<?>> sampler;
+
+    /**
+     * @param scheduler        the {@link ScheduledExecutorService} the wheel ticks on.
+     * @param tickMillis       the length of a tick; sampling intervals are rounded up to a multiple of it.
+     * @param samplingInterval the sampling interval of an item, in milliseconds. Must not change while the item is
+     *                         in the wheel.
+     * @param sampler          samples a list of items, completing the returned future when done. Called on the
+     *                         {@code scheduler} and must not block.
+     */
+    SamplingWheel(
+        ScheduledExecutorService scheduler,
+        long tickMillis,
+        ToDoubleFunction<T> samplingInterval,
+        Function<List<T>, CompletableFuture<?>> sampler) {
+
+        this.scheduler = scheduler;
+        this.tickMillis = tickMillis;
+        this.samplingInterval = samplingInterval;
+        this.sampler = sampler;
+
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Start sampling {@code items}. Each is sampled once right away, then with the other items of its sampling
+     * interval.
+     *
+     * @param items the items to add.
+     */
+    void addAll(Collection<T> items) {
+        List<T> added = new ArrayList<>(items.size());
+
+        synchronized (this) {
+            for (T item : items) {
+                if (bucketsByItem.containsKey(item)) continue;
+
+                long intervalTicks = Math.max(
+                    1L,
+                    DoubleMath.roundToLong(samplingInterval.applyAsDouble(item) / tickMillis, RoundingMode.UP)
+                );
+
+                Bucket<T> bucket = buckets.computeIfAbsent(intervalTicks, this::newBucket);
+                bucket.items.add(item);
+                bucketsByItem.put(item, bucket);
+
+                added.add(item);
+            }
+        }
+
+        if (!added.isEmpty()) {
+            sample(added);
+        }
+    }
+
+    /**
+     * Stop sampling {@code items}.
+     *
+     * @param items the items to remove.
+     */
+    synchronized void removeAll(Collection<T> items) {
+        for (T item : items) {
+            Bucket<T> bucket = bucketsByItem.remove(item);
+
+            if (bucket != null) {
+                bucket.items.remove(item);
+
+                if (bucket.items.isEmpty()) {
+                    // Left in its slot; dropped when the slot is next visited.
+                    bucket.removed = true;
+                    buckets.remove(bucket.intervalTicks);
+                }
+            }
+        }
+
+        if (buckets.isEmpty()) {
+            stop();
+        }
+    }
+
+    /**
+     * @return the number of items being sampled.
+     */
+    synchronized int size() {
+        return bucketsByItem.size();
+    }
+
+    /**
+     * @return the number of distinct sampling intervals, in ticks, of the items being sampled.
+     */
+    synchronized int getBucketCount() {
+        return buckets.size();
+    }
+
+    private Bucket<T> newBucket(long intervalTicks) {
+        if (ticker == null) {
+            start();
+        }
+
+        Bucket<T> bucket = new Bucket<>(intervalTicks);
+
+        // Align the deadline to a multiple of the interval, so that buckets whose intervals are multiples of each
+        // other come due on the same ticks and are sampled together.
+        bucket.deadline = (currentTick / intervalTicks + 1) * intervalTicks;
+        slot(bucket.deadline).add(bucket);
+
+        return bucket;
+    }
+
+    private void start() {
+        startNanos = System.nanoTime();
+        currentTick = 0L;
+
+        ticker = scheduler.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void stop() {
+        if (ticker != null) {
+            ticker.cancel(false);
+            ticker = null;
+
+            wheel.forEach(List::clear);
+        }
+    }
+
+    private void tick() {
+        Set<Bucket<T>> due = new LinkedHashSet<>();
+        List<T> items = new ArrayList<>();
+
+        synchronized (this) {
+            if (ticker == null) return;
+
+            long targetTick = (System.nanoTime() - startNanos) / TimeUnit.MILLISECONDS.toNanos(tickMillis);
+
+            // Visit every tick since the last run, so a late run catches up; buckets due more than once in that
+            // time are sampled once.
+            while (currentTick < targetTick) {
+                currentTick++;
+
+                Iterator<Bucket<T>> iterator = slot(currentTick).iterator();
+
+                List<Bucket<T>> rescheduled = new ArrayList<>();
+
+                while (iterator.hasNext()) {
+                    Bucket<T> bucket = iterator.next();
+
+                    if (bucket.removed) {
+                        iterator.remove();
+                    } else if (bucket.deadline <= currentTick) {
+                        iterator.remove();
+
+                        bucket.deadline += bucket.intervalTicks;
+                        rescheduled.add(bucket);
+
+                        due.add(bucket);
+                    }
+                }
+
+                // Re-slotted after iterating; a bucket whose interval is a multiple of the wheel size lands back in
+                // the same slot.
+                rescheduled.forEach(bucket -> slot(bucket.deadline).add(bucket));
+            }
+
+            Iterator<Bucket<T>> iterator = due.iterator();
+
+            while (iterator.hasNext()) {
+                Bucket<T> bucket = iterator.next();
+
+                if (bucket.inFlight) {
+                    iterator.remove();
+                } else {
+                    bucket.inFlight = true;
+                    items.addAll(bucket.items);
+                }
+            }
+        }
+
+        if (!due.isEmpty()) {
+            sample(items).whenComplete((v, ex) -> {
+                synchronized (SamplingWheel.this) {
+                    due.forEach(bucket -> bucket.inFlight = false);
+                }
+            });
+        }
+    }
+
+    private CompletableFuture<?> sample(List<T> items) {
+        try {
+            return sampler.apply(items);
+        } catch (Throwable t) {
+            logger.warn("Sampling {} items failed.", items.size(), t);
+
+            CompletableFuture<?> f = new CompletableFuture<>();
+            f.completeExceptionally(t);
+            return f;
+        }
+    }
+
+    private List<Bucket<T>> slot(long tick) {
+        return wheel.get((int) (tick & WHEEL_MASK));
+    }
+
+    private static class Bucket<T> {
+
+        /**
+         * Guarded by the enclosing {@link SamplingWheel}.
+         */
+        private final Set<T> items = new LinkedHashSet<>();
+        private long deadline;
+        private boolean inFlight = false;
+        private boolean removed = false;
+
+        private final long intervalTicks;
+
+        private Bucket(long intervalTicks) {
+            this.intervalTicks = intervalTicks;
+        }
+
+    }
+
+}
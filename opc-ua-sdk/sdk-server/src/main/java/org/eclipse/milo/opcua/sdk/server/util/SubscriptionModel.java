@@ -11,26 +11,41 @@
 package org.eclipse.milo.opcua.sdk.server.util;
 
 import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
-import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.math.DoubleMath;
 import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
 import org.eclipse.milo.opcua.sdk.server.api.DataItem;
 import org.eclipse.milo.opcua.sdk.server.api.MonitoredItem;
+import org.eclipse.milo.opcua.sdk.server.api.NodeManager;
 import org.eclipse.milo.opcua.sdk.server.api.services.AttributeServices;
 import org.eclipse.milo.opcua.sdk.server.api.services.AttributeServices.ReadContext;
+import org.eclipse.milo.opcua.sdk.server.nodes.AttributeContext;
+import org.eclipse.milo.opcua.sdk.server.nodes.AttributeObserver;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaNode;
 import org.eclipse.milo.opcua.stack.core.AttributeId;
 import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
 import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
 import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
 import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
@@ -38,124 +53,463 @@ import org.eclipse.milo.opcua.stack.core.util.ExecutionQueue;
 
 public class SubscriptionModel {
 
+    /**
+     * The items sampled by polling, whether or not sampling is enabled.
+     */
     private final Set<DataItem> itemSet = Collections.newSetFromMap(Maps.newConcurrentMap());
 
-    private final List<ScheduledUpdate> schedule = Lists.newCopyOnWriteArrayList();
+    /**
+     * The polled items with sampling enabled, grouped by what they sample; each {@link SampledSource} is read once per
+     * sampling interval, however many items share it.
+     * <p>
+     * Only modified on the {@link #executionQueue}.
+     */
+    private final ConcurrentMap<SampledSource.Key, SampledSource> sources = Maps.newConcurrentMap();
+    private final ConcurrentMap<DataItem, SampledSource> sourcesByItem = Maps.newConcurrentMap();
+
+    /**
+     * The items sampled when the attribute they monitor changes, by item and by the {@link NodeId} of their Node.
+     * <p>
+     * Only modified on the {@link #executionQueue}.
+     */
+    private final ConcurrentMap<DataItem, PushedItem> pushedItems = Maps.newConcurrentMap();
+    private final ConcurrentMap<NodeId, Set<PushedItem>> pushedItemsByNode = Maps.newConcurrentMap();
 
     private final ExecutorService executor;
     private final ScheduledExecutorService scheduler;
     private final ExecutionQueue executionQueue;
+    private final SamplingWheel<SampledSource> samplingWheel;
 
     private final OpcUaServer server;
     private final AttributeServices attributeServices;
+    private final NodeManager<UaNode> nodeManager;
 
     public SubscriptionModel(OpcUaServer server, AttributeServices attributeServices) {
+        this(server, attributeServices, null);
+    }
+
+    /**
+     * Create a {@link SubscriptionModel} that samples items monitoring Nodes in {@code nodeManager} when the
+     * monitored attribute changes, rather than by reading it every sampling interval.
+     * <p>
+     * Only attributes for which {@link UaNode#isAttributeChangeReported(AttributeId)} is {@code true} are sampled this
+     * way, i.e. by default those of Nodes with the default
+     * {@link org.eclipse.milo.opcua.sdk.server.nodes.delegates.AttributeDelegate} whose getter isn't overridden; items
+     * monitoring any other attribute, or a Node not in {@code nodeManager}, are still polled. An item is sampled at
+     * most once per sampling interval, getting the latest value when changes come faster.
+     * <p>
+     * An AttributeDelegate set on a Node after items on it were created takes effect for those items when they are
+     * modified, or when the Node is replaced in {@code nodeManager}.
+     *
+     * @param server            the {@link OpcUaServer}.
+     * @param attributeServices the {@link AttributeServices} polled items are read from.
+     * @param nodeManager       the {@link NodeManager} holding the Nodes to sample on change, or {@code null} to
+     *                          poll every item.
+     */
+    public SubscriptionModel(
+        OpcUaServer server,
+        AttributeServices attributeServices,
+        @Nullable NodeManager<UaNode> nodeManager) {
+
         this.server = server;
 
         this.attributeServices = attributeServices;
+        this.nodeManager = nodeManager;
 
         executor = server.getExecutorService();
         scheduler = server.getScheduledExecutorService();
 
         executionQueue = new ExecutionQueue(executor);
+        samplingWheel = new SamplingWheel<>(
+            scheduler,
+            SamplingWheel.DEFAULT_TICK_MILLIS,
+            source -> source.samplingInterval,
+            this::read
+        );
+
+        if (nodeManager != null) {
+            nodeManager.addChangeListener(nodeId -> {
+                if (pushedItemsByNode.containsKey(nodeId)) {
+                    executionQueue.submit(() -> onNodeChanged(nodeId));
+                }
+            });
+        }
     }
 
     public void onDataItemsCreated(List<DataItem> items) {
-        executionQueue.submit(() -> {
-            itemSet.addAll(items);
-            reschedule();
-        });
+        executionQueue.submit(() -> bind(items));
     }
 
     public void onDataItemsModified(List<DataItem> items) {
-        executionQueue.submit(this::reschedule);
+        executionQueue.submit(() -> rebind(items));
     }
 
     public void onDataItemsDeleted(List<DataItem> items) {
+        executionQueue.submit(() -> unbind(items));
+    }
+
+    public void onMonitoringModeChanged(List<MonitoredItem> items) {
         executionQueue.submit(() -> {
-            itemSet.removeAll(items);
-            reschedule();
+            List<DataItem> dataItems = items.stream()
+                .filter(item -> pushedItems.containsKey(item) || itemSet.contains(item))
+                .map(DataItem.class::cast)
+                .collect(Collectors.toList());
+
+            rebind(dataItems);
         });
     }
 
-    public void onMonitoringModeChanged(List<MonitoredItem> items) {
-        executionQueue.submit(this::reschedule);
+    private void bind(List<DataItem> items) {
+        Set<SampledSource> added = new LinkedHashSet<>();
+        Map<SampledSource, List<DataItem>> joined = new LinkedHashMap<>();
+
+        for (DataItem item : items) {
+            if (bindPushed(item)) continue;
+
+            itemSet.add(item);
+
+            if (item.isSamplingEnabled()) {
+                SampledSource source = sources.get(SampledSource.key(item));
+
+                if (source == null) {
+                    source = new SampledSource(item);
+                    sources.put(source.key, source);
+                    added.add(source);
+                } else if (!added.contains(source)) {
+                    joined.computeIfAbsent(source, s -> new ArrayList<>()).add(item);
+                }
+
+                source.items.add(item);
+                sourcesByItem.put(item, source);
+            }
+        }
+
+        // New sources are sampled right away by the wheel; items joining an existing one get a sample of their own
+        // rather than waiting for its next tick.
+        samplingWheel.addAll(added);
+
+        if (!joined.isEmpty()) {
+            read(new ArrayList<>(joined.keySet()), new ArrayList<>(joined.values()));
+        }
+    }
+
+    private void unbind(List<DataItem> items) {
+        List<SampledSource> removed = new ArrayList<>();
+
+        for (DataItem item : items) {
+            if (itemSet.remove(item)) {
+                SampledSource source = sourcesByItem.remove(item);
+
+                if (source != null) {
+                    source.items.remove(item);
+
+                    if (source.items.isEmpty()) {
+                        sources.remove(source.key);
+                        removed.add(source);
+                    }
+                }
+            } else {
+                unbindPushed(item);
+            }
+        }
+
+        samplingWheel.removeAll(removed);
+    }
+
+    private void rebind(List<DataItem> items) {
+        unbind(items);
+        bind(items);
+    }
+
+    /**
+     * Start sampling {@code item} on change, if its Node allows it.
+     *
+     * @return {@code true} if {@code item} is sampled on change, {@code false} if it must be polled.
+     */
+    private boolean bindPushed(DataItem item) {
+        UaNode node = nodeManager != null ? nodeManager.get(item.getReadValueId().getNodeId()) : null;
+        AttributeId attributeId = AttributeId.from(item.getReadValueId().getAttributeId()).orElse(null);
+
+        if (node != null && attributeId != null && node.isAttributeChangeReported(attributeId)) {
+            PushedItem pushedItem = new PushedItem(item, node, attributeId);
+
+            pushedItems.put(item, pushedItem);
+            pushedItemsByNode
+                .computeIfAbsent(node.getNodeId(), k -> ConcurrentHashMap.newKeySet())
+                .add(pushedItem);
+
+            if (item.isSamplingEnabled()) {
+                pushedItem.start();
+            }
+
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    private void unbindPushed(DataItem item) {
+        PushedItem pushedItem = pushedItems.remove(item);
+
+        if (pushedItem != null) {
+            pushedItem.stop();
+
+            pushedItemsByNode.computeIfPresent(pushedItem.node.getNodeId(), (nodeId, pushed) -> {
+                pushed.remove(pushedItem);
+
+                return pushed.isEmpty() ? null : pushed;
+            });
+        }
+    }
+
+    /**
+     * The Node identified by {@code nodeId} was added, removed or replaced, or its References changed; rebind the
+     * items sampling it on change if it's no longer the Node they observe.
+     */
+    private void onNodeChanged(NodeId nodeId) {
+        Set<PushedItem> pushed = pushedItemsByNode.get(nodeId);
+
+        if (pushed == null) return;
+
+        UaNode node = nodeManager.get(nodeId);
+
+        List<DataItem> stale = pushed.stream()
+            .filter(p -> p.node != node || !node.isAttributeChangeReported(p.attributeId))
+            .map(p -> p.item)
+            .collect(Collectors.toList());
+
+        if (!stale.isEmpty()) {
+            rebind(stale);
+        }
     }
 
-    private void reschedule() {
-        Map<Double, List<DataItem>> bySamplingInterval = itemSet.stream()
-            .filter(DataItem::isSamplingEnabled)
-            .collect(Collectors.groupingBy(DataItem::getSamplingInterval));
+    /**
+     * Read {@code sources} with one call to {@link AttributeServices#read}, setting the value of every item sharing
+     * each.
+     */
+    private CompletableFuture<Void> read(List<SampledSource> sources) {
+        List<Collection<DataItem>> targets = sources.stream()
+            .map(source -> source.items)
+            .collect(Collectors.toList());
 
-        List<ScheduledUpdate> updates = bySamplingInterval.keySet().stream()
-            .map(samplingInterval -> {
-                List<DataItem> items = bySamplingInterval.get(samplingInterval);
+        return read(sources, targets);
+    }
 
-                return new ScheduledUpdate(samplingInterval, items);
-            })
+    /**
+     * Read {@code sources} with one call to {@link AttributeServices#read}, setting the value of the items in the
+     * matching element of {@code targets}. Each item applies its own timestamps and filter to the shared value.
+     */
+    private CompletableFuture<Void> read(List<SampledSource> sources, List<? extends Collection<DataItem>> targets) {
+        List<ReadValueId> ids = sources.stream()
+            .map(source -> source.readValueId)
             .collect(Collectors.toList());
 
-        schedule.forEach(ScheduledUpdate::cancel);
-        schedule.clear();
-        schedule.addAll(updates);
-        schedule.forEach(scheduler::execute);
+        ReadContext context = new ReadContext(server, null);
+
+        CompletableFuture<Void> sampled = context.getFuture().thenAcceptAsync(values -> {
+            Iterator<? extends Collection<DataItem>> ti = targets.iterator();
+            Iterator<DataValue> vi = values.iterator();
+
+            while (ti.hasNext() && vi.hasNext()) {
+                Collection<DataItem> items = ti.next();
+                DataValue value = vi.next();
+
+                for (DataItem item : items) {
+                    item.setValue(sampledValue(item, value));
+                }
+            }
+        }, executor);
+
+        executor.execute(() -> attributeServices.read(context, 0d, TimestampsToReturn.Both, ids));
+
+        return sampled;
     }
 
-    private class ScheduledUpdate implements Runnable {
+    /**
+     * Apply the TimestampsToReturn of {@code item} to a {@code value} read with {@link TimestampsToReturn#Both}.
+     */
+    private static DataValue sampledValue(DataItem item, DataValue value) {
+        TimestampsToReturn timestamps = item.getTimestampsToReturn();
 
-        private volatile boolean cancelled = false;
+        if (timestamps != null) {
+            UInteger attributeId = item.getReadValueId().getAttributeId();
 
-        private final long samplingInterval;
-        private final List<DataItem> items;
+            value = (AttributeId.Value.isEqual(attributeId)) ?
+                DataValue.derivedValue(value, timestamps) :
+                DataValue.derivedNonValue(value, timestamps);
+        }
 
-        private ScheduledUpdate(double samplingInterval, List<DataItem> items) {
-            this.samplingInterval = DoubleMath.roundToLong(samplingInterval, RoundingMode.UP);
-            this.items = items;
+        return value;
+    }
+
+    /**
+     * What a polled item samples: an attribute of a Node, with an index range and data encoding, at a sampling
+     * interval. Items of different sessions monitoring the same source share one read per interval.
+     */
+    private static class SampledSource {
+
+        private final Set<DataItem> items = ConcurrentHashMap.newKeySet();
+
+        private final Key key;
+        private final ReadValueId readValueId;
+        private final double samplingInterval;
+
+        private SampledSource(DataItem item) {
+            this.key = key(item);
+            this.readValueId = item.getReadValueId();
+            this.samplingInterval = item.getSamplingInterval();
         }
 
-        private void cancel() {
-            cancelled = true;
+        private static Key key(DataItem item) {
+            return new Key(item.getReadValueId(), item.getSamplingInterval());
         }
 
-        @Override
-        public void run() {
-            List<PendingRead> pending = items.stream()
-                .map(item -> new PendingRead(item.getReadValueId()))
-                .collect(Collectors.toList());
+        private static class Key {
+
+            final NodeId nodeId;
+            final UInteger attributeId;
+            final String indexRange;
+            final QualifiedName dataEncoding;
+            final double samplingInterval;
+
+            Key(ReadValueId readValueId, double samplingInterval) {
+                this.nodeId = readValueId.getNodeId();
+                this.attributeId = readValueId.getAttributeId();
+                this.indexRange = readValueId.getIndexRange();
+                this.dataEncoding = normalize(readValueId.getDataEncoding());
+                this.samplingInterval = samplingInterval;
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                if (this == o) return true;
+                if (o == null || getClass() != o.getClass()) return false;
+                Key key = (Key) o;
+                return Double.compare(key.samplingInterval, samplingInterval) == 0 &&
+                    Objects.equals(nodeId, key.nodeId) &&
+                    Objects.equals(attributeId, key.attributeId) &&
+                    Objects.equals(indexRange, key.indexRange) &&
+                    Objects.equals(dataEncoding, key.dataEncoding);
+            }
+
+            @Override
+            public int hashCode() {
+                return Objects.hash(nodeId, attributeId, indexRange, dataEncoding, samplingInterval);
+            }
+
+            @Nullable
+            private static QualifiedName normalize(@Nullable QualifiedName dataEncoding) {
+                return dataEncoding != null && dataEncoding.isNotNull() ? dataEncoding : null;
+            }
 
-            List<ReadValueId> ids = pending.stream()
-                .map(PendingRead::getInput)
-                .collect(Collectors.toList());
+        }
 
-            ReadContext context = new ReadContext(server, null);
+    }
 
-            context.getFuture().thenAcceptAsync(values -> {
-                Iterator<DataItem> ii = items.iterator();
-                Iterator<DataValue> vi = values.iterator();
+    /**
+     * An item sampled when the attribute it monitors changes.
+     * <p>
+     * A change is sampled right away, on the thread that made it, unless the item was sampled less than a sampling
+     * interval ago; then one sample is scheduled for the end of the interval, and reads whatever the value is by then.
+     */
+    private class PushedItem implements AttributeObserver {
+
+        private final DataItem item;
+        private final UaNode node;
+        private final AttributeId attributeId;
+        private final long samplingIntervalNanos;
+
+        /**
+         * Guarded by {@code this}.
+         */
+        private long nextSampleTime;
+        private ScheduledFuture<?> pending;
+        private boolean stopped = false;
+
+        private PushedItem(DataItem item, UaNode node, AttributeId attributeId) {
+            this.item = item;
+            this.node = node;
+            this.attributeId = attributeId;
+
+            samplingIntervalNanos = TimeUnit.NANOSECONDS.convert(
+                DoubleMath.roundToLong(item.getSamplingInterval(), RoundingMode.UP),
+                TimeUnit.MILLISECONDS
+            );
+        }
 
-                while (ii.hasNext() && vi.hasNext()) {
-                    DataItem item = ii.next();
-                    DataValue value = vi.next();
+        private void start() {
+            synchronized (this) {
+                nextSampleTime = System.nanoTime() + samplingIntervalNanos;
+            }
 
-                    TimestampsToReturn timestamps = item.getTimestampsToReturn();
+            node.addAttributeObserver(this);
 
-                    if (timestamps != null) {
-                        UInteger attributeId = item.getReadValueId().getAttributeId();
+            sample();
+        }
 
-                        value = (AttributeId.Value.isEqual(attributeId)) ?
-                            DataValue.derivedValue(value, timestamps) :
-                            DataValue.derivedNonValue(value, timestamps);
-                    }
+        private void stop() {
+            synchronized (this) {
+                stopped = true;
 
-                    item.setValue(value);
+                if (pending != null) {
+                    pending.cancel(false);
+                    pending = null;
                 }
+            }
+
+            node.removeAttributeObserver(this);
+        }
+
+        @Override
+        public void attributeChanged(UaNode node, AttributeId attributeId, Object value) {
+            if (attributeId != this.attributeId) return;
 
-                if (!cancelled) {
-                    scheduler.schedule(this, samplingInterval, TimeUnit.MILLISECONDS);
+            synchronized (this) {
+                if (stopped || pending != null) return;
+
+                long now = System.nanoTime();
+                long delay = nextSampleTime - now;
+
+                if (delay > 0) {
+                    pending = scheduler.schedule(this::sampleDeferred, delay, TimeUnit.NANOSECONDS);
+
+                    return;
                 }
-            }, executor);
 
-            executor.execute(() -> attributeServices.read(context, 0d, TimestampsToReturn.Both, ids));
+                nextSampleTime = now + samplingIntervalNanos;
+            }
+
+            sample();
+        }
+
+        private void sampleDeferred() {
+            synchronized (this) {
+                pending = null;
+
+                if (stopped) return;
+
+                nextSampleTime = System.nanoTime() + samplingIntervalNanos;
+            }
+
+            sample();
+        }
+
+        /**
+         * Must not be called holding the lock on {@code this}; reading the Node may need the Node's lock, which is
+         * held while observers are notified.
+         */
+        private void sample() {
+            ReadValueId readValueId = item.getReadValueId();
+
+            DataValue value = node.readAttribute(
+                new AttributeContext(server),
+                attributeId,
+                TimestampsToReturn.Both,
+                readValueId.getIndexRange(),
+                readValueId.getDataEncoding()
+            );
+
+            item.setValue(sampledValue(item, value));
         }
 
     }
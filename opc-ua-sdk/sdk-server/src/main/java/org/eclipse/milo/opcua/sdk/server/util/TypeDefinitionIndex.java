@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.eclipse.milo.opcua.sdk.server.api.NodeManager;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+
+/**
+ * An index of the instances of each TypeDefinition, kept up to date by listening to {@link NodeManager}s.
+ * <p>
+ * The index isn't built until it's first used, so servers that never look up instances by type don't pay for it.
+ * After that, changes are only recorded as they happen; the affected Nodes are re-indexed the next time the index is
+ * used, or once enough of them have accumulated.
+ */
+public class TypeDefinitionIndex implements NodeManager.ChangeListener {
+
+    /**
+     * Re-index as soon as this many Nodes have changed, rather than waiting for the next lookup.
+     */
+    private static final int MAX_PENDING = 16384;
+
+    private final Set<NodeId> pending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Guarded by {@code this}.
+     */
+    private final Map<NodeId, NodeId> typeDefinitions = new HashMap<>();
+
+    /**
+     * Guarded by {@code this}.
+     */
+    private final Map<NodeId, Set<NodeId>> instances = new HashMap<>();
+
+    private volatile boolean enabled = false;
+
+    private final Supplier<Collection<NodeId>> nodeIds;
+    private final Function<NodeId, NodeId> typeDefinitionOf;
+
+    /**
+     * @param nodeIds          supplies the {@link NodeId}s of all Nodes to index when the index is built.
+     * @param typeDefinitionOf the {@link NodeId} of the TypeDefinition of a Node, or {@code null} if it has none or
+     *                         doesn't exist.
+     */
+    public TypeDefinitionIndex(Supplier<Collection<NodeId>> nodeIds, Function<NodeId, NodeId> typeDefinitionOf) {
+        this.nodeIds = nodeIds;
+        this.typeDefinitionOf = typeDefinitionOf;
+    }
+
+    /**
+     * Get the {@link NodeId}s of the instances whose TypeDefinition is {@code typeDefinitionId}, excluding instances of
+     * its subtypes.
+     *
+     * @param typeDefinitionId the {@link NodeId} of the TypeDefinition.
+     * @return the {@link NodeId}s of the instances of {@code typeDefinitionId}.
+     */
+    public List<NodeId> getInstances(NodeId typeDefinitionId) {
+        if (!enabled) {
+            enable();
+        }
+
+        synchronized (this) {
+            update();
+
+            Set<NodeId> nodeIds = instances.get(typeDefinitionId);
+
+            return nodeIds != null ? new ArrayList<>(nodeIds) : Collections.emptyList();
+        }
+    }
+
+    @Override
+    public void onNodeChanged(NodeId nodeId) {
+        if (enabled) {
+            pending.add(nodeId);
+
+            if (pending.size() > MAX_PENDING) {
+                synchronized (this) {
+                    update();
+                }
+            }
+        }
+    }
+
+    /**
+     * Discard the index; it's rebuilt the next time it's used.
+     */
+    public synchronized void reset() {
+        enabled = false;
+
+        pending.clear();
+        typeDefinitions.clear();
+        instances.clear();
+    }
+
+    private synchronized void enable() {
+        if (!enabled) {
+            // Enable first so changes made while the existing Nodes are collected aren't missed.
+            enabled = true;
+
+            pending.addAll(nodeIds.get());
+        }
+    }
+
+    private void update() {
+        Iterator<NodeId> iterator = pending.iterator();
+
+        while (iterator.hasNext()) {
+            NodeId nodeId = iterator.next();
+            iterator.remove();
+
+            NodeId typeDefinitionId = typeDefinitionOf.apply(nodeId);
+            NodeId previousTypeDefinitionId = typeDefinitionId != null ?
+                typeDefinitions.put(nodeId, typeDefinitionId) :
+                typeDefinitions.remove(nodeId);
+
+            if (Objects.equals(typeDefinitionId, previousTypeDefinitionId)) continue;
+
+            if (previousTypeDefinitionId != null) {
+                Set<NodeId> nodeIds = instances.get(previousTypeDefinitionId);
+
+                if (nodeIds != null) {
+                    nodeIds.remove(nodeId);
+
+                    if (nodeIds.isEmpty()) {
+                        instances.remove(previousTypeDefinitionId);
+                    }
+                }
+            }
+
+            if (typeDefinitionId != null) {
+                instances.computeIfAbsent(typeDefinitionId, k -> new LinkedHashSet<>()).add(nodeId);
+            }
+        }
+    }
+
+}
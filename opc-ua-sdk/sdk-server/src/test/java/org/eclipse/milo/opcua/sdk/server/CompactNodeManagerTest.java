@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.milo.opcua.sdk.server.nodes.UaNode;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaNodeContext;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaObjectNode;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaVariableNode;
+import org.eclipse.milo.opcua.sdk.server.nodes.delegates.AttributeDelegate;
+import org.eclipse.milo.opcua.stack.core.Identifiers;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.testng.annotations.Test;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.ubyte;
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class CompactNodeManagerTest {
+
+    private final UaNodeContext context = mock(UaNodeContext.class);
+
+    @Test
+    public void testVariablesAreCompacted() {
+        CompactNodeManager nodeManager = new CompactNodeManager();
+
+        for (int i = 0; i < 1000; i++) {
+            nodeManager.addNode(variable(i));
+        }
+
+        assertEquals(nodeManager.getCompactNodeCount(), 1000);
+        assertEquals(nodeManager.getNodeIds().size(), 1000);
+
+        for (int i = 0; i < 1000; i++) {
+            UaVariableNode node = (UaVariableNode) nodeManager.get(new NodeId(2, i));
+
+            assertNotNull(node);
+            assertEquals(node.getBrowseName(), new QualifiedName(2, "Variable" + i));
+            assertEquals(node.getDisplayName(), LocalizedText.english("Variable" + i));
+            assertEquals(node.getDataType(), Identifiers.Int32);
+            assertEquals(node.getValue().getValue().getValue(), i);
+            assertSame(node.getNodeContext(), context);
+        }
+    }
+
+    @Test
+    public void testNodesAreSharedWhileReferenced() {
+        CompactNodeManager nodeManager = new CompactNodeManager();
+
+        UaVariableNode added = variable(0);
+        nodeManager.addNode(added);
+
+        assertSame(nodeManager.get(added.getNodeId()), added);
+
+        added.setValue(new DataValue(new Variant(42)));
+
+        assertEquals(((UaVariableNode) nodeManager.get(added.getNodeId())).getValue().getValue().getValue(), 42);
+    }
+
+    @Test
+    public void testChangesAreWrittenBack() {
+        CompactNodeManager nodeManager = new CompactNodeManager();
+
+        nodeManager.addNode(variable(0));
+
+        WeakReference<UaNode> ref = changeAndForget(nodeManager);
+
+        for (int i = 0; i < 10 && ref.get() != null; i++) {
+            System.gc();
+        }
+
+        UaVariableNode node = (UaVariableNode) nodeManager.get(new NodeId(2, 0));
+
+        assertNotNull(node);
+        assertEquals(node.getValue().getValue().getValue(), 42);
+        assertEquals(node.getDisplayName(), LocalizedText.english("Renamed"));
+        assertEquals(node.getAccessLevel(), ubyte(3));
+        assertTrue(node.getHistorizing());
+    }
+
+    private WeakReference<UaNode> changeAndForget(CompactNodeManager nodeManager) {
+        UaVariableNode node = (UaVariableNode) nodeManager.get(new NodeId(2, 0));
+        assertNotNull(node);
+
+        node.setValue(new DataValue(new Variant(42)));
+        node.setDisplayName(LocalizedText.english("Renamed"));
+        node.setAccessLevel(ubyte(3));
+        node.setHistorizing(true);
+
+        return new WeakReference<>(node);
+    }
+
+    @Test
+    public void testNodesWithBehaviorAreKept() {
+        CompactNodeManager nodeManager = new CompactNodeManager();
+
+        UaVariableNode delegated = variable(0);
+        delegated.setAttributeDelegate(new AttributeDelegate() {});
+
+        nodeManager.addNode(delegated);
+        nodeManager.addNode(new UaObjectNode(context, new NodeId(2, "Object"), new QualifiedName(2, "Object"),
+            LocalizedText.english("Object")));
+
+        assertEquals(nodeManager.getCompactNodeCount(), 1);
+        assertSame(nodeManager.get(delegated.getNodeId()), delegated);
+        assertTrue(nodeManager.containsNode(new NodeId(2, "Object")));
+
+        // Replacing a compacted Node with one that must be kept as it is.
+        UaVariableNode replacement = variable(1);
+        replacement.setAttributeDelegate(new AttributeDelegate() {});
+
+        nodeManager.addNode(variable(1));
+        assertEquals(nodeManager.getCompactNodeCount(), 2);
+
+        nodeManager.addNode(replacement);
+        assertEquals(nodeManager.getCompactNodeCount(), 1);
+        assertSame(nodeManager.get(replacement.getNodeId()), replacement);
+    }
+
+    @Test
+    public void testUnstorableChangeKeepsNode() {
+        CompactNodeManager nodeManager = new CompactNodeManager();
+
+        UaVariableNode node = variable(0);
+        nodeManager.addNode(node);
+
+        node.setValueRank(null);
+
+        assertEquals(nodeManager.getCompactNodeCount(), 0);
+        assertSame(nodeManager.get(node.getNodeId()), node);
+    }
+
+    @Test
+    public void testRemove() {
+        CompactNodeManager nodeManager = new CompactNodeManager();
+
+        for (int i = 0; i < 1000; i++) {
+            nodeManager.addNode(variable(i));
+        }
+
+        for (int i = 0; i < 1000; i += 2) {
+            assertTrue(nodeManager.removeNode(new NodeId(2, i)).isPresent());
+        }
+
+        assertEquals(nodeManager.getCompactNodeCount(), 500);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(nodeManager.containsNode(new NodeId(2, i)), i % 2 != 0);
+        }
+
+        // Freed slots are reused.
+        for (int i = 0; i < 1000; i += 2) {
+            nodeManager.addNode(variable(i));
+        }
+
+        assertEquals(nodeManager.getCompactNodeCount(), 1000);
+
+        for (int i = 0; i < 1000; i++) {
+            UaVariableNode node = (UaVariableNode) nodeManager.get(new NodeId(2, i));
+
+            assertNotNull(node);
+            assertEquals(node.getValue().getValue().getValue(), i);
+        }
+
+        assertFalse(nodeManager.removeNode(new NodeId(2, 1000)).isPresent());
+    }
+
+    @Test
+    public void testConcurrentWritesWhileGrowing() throws Exception {
+        CompactNodeManager nodeManager = new CompactNodeManager();
+
+        for (int i = 0; i < 100; i++) {
+            nodeManager.addNode(variable(i));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (int t = 0; t < 4; t++) {
+                int first = t * 25;
+
+                futures.add(executor.submit(() -> {
+                    for (int n = 0; n < 1000; n++) {
+                        for (int i = first; i < first + 25; i++) {
+                            UaVariableNode node = (UaVariableNode) nodeManager.get(new NodeId(2, i));
+                            assertNotNull(node);
+                            node.setValue(new DataValue(new Variant(i + n)));
+                        }
+                    }
+                }));
+            }
+
+            // Grow and rehash the columns while they're being written to.
+            futures.add(executor.submit(() -> {
+                for (int i = 100; i < 10000; i++) {
+                    nodeManager.addNode(variable(i));
+                }
+            }));
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(nodeManager.getCompactNodeCount(), 10000);
+
+        for (int i = 0; i < 100; i++) {
+            UaVariableNode node = (UaVariableNode) nodeManager.get(new NodeId(2, i));
+
+            assertNotNull(node);
+            assertEquals(node.getValue().getValue().getValue(), i + 999);
+        }
+    }
+
+    private UaVariableNode variable(int i) {
+        UaVariableNode node = new UaVariableNode(
+            context,
+            new NodeId(2, i),
+            new QualifiedName(2, "Variable" + i),
+            LocalizedText.english("Variable" + i)
+        );
+
+        node.setDataType(Identifiers.Int32);
+        node.setValue(new DataValue(new Variant(i)));
+
+        return node;
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server;
+
+import org.eclipse.milo.opcua.sdk.server.RegisteredNodes.RegisteredNode;
+import org.eclipse.milo.opcua.sdk.server.api.AddressSpace;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class RegisteredNodesTest {
+
+    private final AddressSpace addressSpace = mock(AddressSpace.class);
+
+    @Test
+    public void testRegisterAndGet() {
+        RegisteredNodes registeredNodes = new RegisteredNodes();
+
+        NodeId nodeId = new NodeId(2, "foo");
+        NodeId handle = registeredNodes.register(nodeId, addressSpace);
+
+        assertEquals(handle.getNamespaceIndex(), nodeId.getNamespaceIndex());
+        assertSame(registeredNodes.register(nodeId, addressSpace), handle);
+        assertEquals(registeredNodes.size(), 1);
+
+        RegisteredNode registered = registeredNodes.get(handle);
+        assertNotNull(registered);
+        assertEquals(registered.getNodeId(), nodeId);
+        assertSame(registered.getAddressSpace(), addressSpace);
+
+        assertEquals(registeredNodes.resolve(handle), nodeId);
+        assertEquals(registeredNodes.resolve(nodeId), nodeId);
+    }
+
+    @Test
+    public void testForeignHandlesAreRejected() {
+        RegisteredNodes registeredNodes = new RegisteredNodes();
+        RegisteredNodes other = new RegisteredNodes();
+
+        NodeId handle = registeredNodes.register(new NodeId(2, "foo"), addressSpace);
+
+        assertNull(other.get(handle));
+        assertNull(registeredNodes.get(new NodeId(3, (ByteString) handle.getIdentifier())));
+        assertNull(registeredNodes.get(new NodeId(2, ByteString.of(new byte[]{1, 2, 3}))));
+        assertNull(registeredNodes.get(new NodeId(2, "foo")));
+    }
+
+    @Test
+    public void testUnregisteredHandleIsNotReused() {
+        RegisteredNodes registeredNodes = new RegisteredNodes();
+
+        NodeId foo = registeredNodes.register(new NodeId(2, "foo"), addressSpace);
+
+        assertTrue(registeredNodes.unregister(foo));
+        assertFalse(registeredNodes.unregister(foo));
+        assertNull(registeredNodes.get(foo));
+
+        // The index is reused, but the handle of the new registration differs.
+        NodeId bar = registeredNodes.register(new NodeId(2, "bar"), addressSpace);
+
+        assertNotEquals(bar, foo);
+        assertNull(registeredNodes.get(foo));
+        assertEquals(registeredNodes.resolve(bar), new NodeId(2, "bar"));
+    }
+
+    @Test
+    public void testGrowAndClear() {
+        RegisteredNodes registeredNodes = new RegisteredNodes();
+
+        NodeId[] handles = new NodeId[100];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = registeredNodes.register(new NodeId(2, i), addressSpace);
+        }
+
+        for (int i = 0; i < handles.length; i++) {
+            assertEquals(registeredNodes.resolve(handles[i]), new NodeId(2, i));
+        }
+
+        registeredNodes.clear();
+
+        assertEquals(registeredNodes.size(), 0);
+        assertNull(registeredNodes.get(handles[0]));
+        assertNotEquals(registeredNodes.register(new NodeId(2, 0), addressSpace), handles[0]);
+    }
+
+}
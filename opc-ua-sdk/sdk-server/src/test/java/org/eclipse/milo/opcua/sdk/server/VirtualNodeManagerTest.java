@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.milo.opcua.sdk.core.Reference;
+import org.eclipse.milo.opcua.sdk.server.VirtualNodeManager.NodeProvider;
+import org.eclipse.milo.opcua.sdk.server.VirtualNodeManager.ProvidedNode;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaNode;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaNodeContext;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaVariableNode;
+import org.eclipse.milo.opcua.stack.core.Identifiers;
+import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class VirtualNodeManagerTest {
+
+    private final UaNodeContext context = mock(UaNodeContext.class);
+
+    @Test
+    public void testNodesAreProvidedOnDemand() {
+        TestProvider provider = new TestProvider();
+        VirtualNodeManager nodeManager = new VirtualNodeManager(provider, 100);
+
+        assertEquals(nodeManager.getProvidedNodeCount(), 0);
+
+        UaNode node = nodeManager.get(new NodeId(2, 1));
+        assertNotNull(node);
+        assertSame(nodeManager.get(new NodeId(2, 1)), node);
+        assertEquals(provider.requests, Collections.singletonList(Collections.singletonList(new NodeId(2, 1))));
+
+        List<Reference> references = nodeManager.getReferences(new NodeId(2, 1));
+        assertEquals(references.size(), 1);
+        assertEquals(references.get(0).getReferenceTypeId(), Identifiers.HasTypeDefinition);
+
+        // Other namespaces and missing Nodes.
+        assertFalse(nodeManager.containsNode(new NodeId(3, 1)));
+        assertFalse(nodeManager.containsNode(new NodeId(2, -1)));
+        assertEquals(provider.requests.size(), 2);
+
+        // Only some of the provided Nodes are in memory, so they can't be enumerated.
+        assertFalse(nodeManager.enumerateNodeIds().isPresent());
+    }
+
+    @Test
+    public void testPrefetchIsBatched() {
+        TestProvider provider = new TestProvider();
+        VirtualNodeManager nodeManager = new VirtualNodeManager(provider, 100);
+
+        nodeManager.get(new NodeId(2, 1));
+
+        nodeManager.prefetchNodes(Arrays.asList(
+            new NodeId(2, 1), new NodeId(2, 2), new NodeId(3, 3), new NodeId(2, 4)));
+
+        assertEquals(provider.requests.size(), 2);
+        assertEquals(provider.requests.get(1), Arrays.asList(new NodeId(2, 2), new NodeId(2, 4)));
+
+        assertTrue(nodeManager.containsNode(new NodeId(2, 2)));
+        assertTrue(nodeManager.containsNode(new NodeId(2, 4)));
+        assertEquals(provider.requests.size(), 2);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedAreDropped() {
+        TestProvider provider = new TestProvider();
+        VirtualNodeManager nodeManager = new VirtualNodeManager(provider, 2);
+
+        nodeManager.get(new NodeId(2, 1));
+        nodeManager.get(new NodeId(2, 2));
+        nodeManager.get(new NodeId(2, 1));
+        nodeManager.get(new NodeId(2, 3));
+
+        assertEquals(nodeManager.getProvidedNodeCount(), 2);
+        assertTrue(nodeManager.getNodeIds().containsAll(Arrays.asList(new NodeId(2, 1), new NodeId(2, 3))));
+
+        // A dropped Node, and its References, are provided again.
+        int requests = provider.requests.size();
+        assertEquals(nodeManager.getReferences(new NodeId(2, 2)).size(), 1);
+        assertEquals(provider.requests.size(), requests + 1);
+    }
+
+    @Test
+    public void testPinnedNodesAreKept() {
+        TestProvider provider = new TestProvider();
+        VirtualNodeManager nodeManager = new VirtualNodeManager(provider, 1);
+
+        assertTrue(nodeManager.pin(new NodeId(2, 1)));
+        assertFalse(nodeManager.pin(new NodeId(2, -1)));
+        assertFalse(nodeManager.pin(new NodeId(3, 1)));
+
+        for (int i = 2; i < 10; i++) {
+            nodeManager.get(new NodeId(2, i));
+        }
+
+        assertEquals(nodeManager.getProvidedNodeCount(), 2);
+        assertTrue(nodeManager.getNodeIds().contains(new NodeId(2, 1)));
+
+        nodeManager.unpin(new NodeId(2, 1));
+
+        nodeManager.get(new NodeId(2, 10));
+
+        assertEquals(nodeManager.getProvidedNodeCount(), 1);
+        assertEquals(nodeManager.getNodeIds(), Collections.singletonList(new NodeId(2, 10)));
+    }
+
+    @Test
+    public void testReferencedNodeIsReused() {
+        TestProvider provider = new TestProvider();
+        VirtualNodeManager nodeManager = new VirtualNodeManager(provider, 1);
+
+        UaNode node = nodeManager.get(new NodeId(2, 1));
+        nodeManager.get(new NodeId(2, 2));
+
+        assertFalse(nodeManager.getNodeIds().contains(new NodeId(2, 1)));
+
+        assertSame(nodeManager.get(new NodeId(2, 1)), node);
+        assertEquals(nodeManager.getReferences(new NodeId(2, 1)).size(), 1);
+    }
+
+    @Test
+    public void testProvidedAndDroppedNodesAreReported() {
+        TestProvider provider = new TestProvider();
+        VirtualNodeManager nodeManager = new VirtualNodeManager(provider, 1);
+
+        List<NodeId> changed = new ArrayList<>();
+        nodeManager.addChangeListener(changed::add);
+
+        nodeManager.get(new NodeId(2, 1));
+        assertEquals(changed, Collections.singletonList(new NodeId(2, 1)));
+
+        changed.clear();
+        nodeManager.get(new NodeId(2, 2));
+        assertEquals(changed, Arrays.asList(new NodeId(2, 2), new NodeId(2, 1)));
+
+        changed.clear();
+        nodeManager.removeNode(new NodeId(2, 2));
+        assertEquals(changed, Collections.singletonList(new NodeId(2, 2)));
+    }
+
+    private class TestProvider implements NodeProvider {
+
+        final List<List<NodeId>> requests = new ArrayList<>();
+
+        @Override
+        public boolean provides(NodeId nodeId) {
+            return nodeId.getNamespaceIndex().intValue() == 2;
+        }
+
+        @Override
+        public synchronized Map<NodeId, ProvidedNode> provide(List<NodeId> nodeIds) {
+            requests.add(new ArrayList<>(nodeIds));
+
+            Map<NodeId, ProvidedNode> nodes = new HashMap<>();
+
+            for (NodeId nodeId : nodeIds) {
+                if (((Number) nodeId.getIdentifier()).intValue() < 0) continue;
+
+                UaVariableNode node = new UaVariableNode(
+                    context,
+                    nodeId,
+                    new QualifiedName(2, "Tag" + nodeId.getIdentifier()),
+                    LocalizedText.english("Tag" + nodeId.getIdentifier())
+                );
+
+                Reference reference = new Reference(
+                    nodeId,
+                    Identifiers.HasTypeDefinition,
+                    Identifiers.BaseDataVariableType.expanded(),
+                    true
+                );
+
+                nodes.put(nodeId, new ProvidedNode(node, Collections.singletonList(reference)));
+            }
+
+            return nodes;
+        }
+
+    }
+
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.api;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
+import org.eclipse.milo.opcua.sdk.server.api.services.AttributeServices.ReadContext;
+import org.eclipse.milo.opcua.stack.core.AttributeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static java.util.Collections.singletonList;
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.ushort;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+public class AddressSpaceCompositeTest {
+
+    private static final NodeId NS2_SPECIAL = new NodeId(2, "Special");
+    private static final NodeId NS2_OTHER = new NodeId(2, "Other");
+    private static final NodeId NS3_OTHER = new NodeId(3, "Other");
+    private static final NodeId NS5_OTHER = new NodeId(5, "Other");
+
+    private final OpcUaServer server = mock(OpcUaServer.class);
+
+    private AddressSpaceComposite composite;
+
+    @BeforeMethod
+    public void setUp() {
+        composite = new AddressSpaceComposite(server) {};
+    }
+
+    @Test
+    public void testUndeclaredRegisteredBeforeDeclaredIsTestedFirst() throws Exception {
+        composite.register(undeclared("special", nodeId -> nodeId.equals(NS2_SPECIAL)));
+        composite.register(declared("ns2", 2));
+
+        assertEquals(route(NS2_SPECIAL), "special");
+        assertEquals(route(NS2_OTHER), "ns2");
+    }
+
+    @Test
+    public void testUndeclaredRegisteredAfterDeclaredIsNotReached() throws Exception {
+        composite.register(declared("ns2", 2));
+        composite.register(undeclared("all", nodeId -> true));
+
+        assertEquals(route(NS2_SPECIAL), "ns2");
+        assertEquals(route(NS2_OTHER), "ns2");
+
+        // Namespaces nobody declares, inside and beyond the routing table, go to the undeclared AddressSpace.
+        assertEquals(route(NodeId.NULL_VALUE), "all");
+        assertEquals(route(NS5_OTHER), "all");
+    }
+
+    @Test
+    public void testFirstDeclaredWins() throws Exception {
+        AddressSpace first = declared("first", 2);
+
+        composite.register(first);
+        composite.register(declared("second", 2));
+        composite.register(declared("ns3", 3));
+
+        assertEquals(route(NS2_OTHER), "first");
+        assertEquals(route(NS3_OTHER), "ns3");
+
+        composite.unregister(first);
+
+        assertEquals(route(NS2_OTHER), "second");
+        assertEquals(route(NS3_OTHER), "ns3");
+    }
+
+    @Test
+    public void testRegisterFirst() throws Exception {
+        composite.register(declared("ns2", 2));
+        composite.register(undeclared("all", nodeId -> true));
+
+        AddressSpace special = undeclared("special", nodeId -> nodeId.equals(NS2_SPECIAL));
+        composite.registerFirst(special);
+
+        assertEquals(route(NS2_SPECIAL), "special");
+        assertEquals(route(NS2_OTHER), "ns2");
+
+        composite.registerFirst(declared("front", 2));
+
+        assertEquals(route(NS2_SPECIAL), "front");
+        assertEquals(route(NS2_OTHER), "front");
+        assertEquals(route(NS3_OTHER), "all");
+    }
+
+    @Test
+    public void testUnregisterDeclaredExposesLaterAddressSpaces() throws Exception {
+        AddressSpace special = undeclared("special", nodeId -> nodeId.equals(NS2_SPECIAL));
+        AddressSpace ns2 = declared("ns2", 2);
+
+        composite.register(special);
+        composite.register(ns2);
+        composite.register(undeclared("all", nodeId -> true));
+
+        assertEquals(route(NS2_OTHER), "ns2");
+
+        composite.unregister(ns2);
+
+        assertEquals(route(NS2_SPECIAL), "special");
+        assertEquals(route(NS2_OTHER), "all");
+
+        composite.unregister(special);
+
+        assertEquals(route(NS2_SPECIAL), "all");
+
+        composite.register(ns2);
+
+        // Re-registered at the end, behind the undeclared AddressSpace that matches everything.
+        assertEquals(route(NS2_OTHER), "all");
+    }
+
+    /**
+     * @return the name of the AddressSpace a Read of {@code nodeId} is routed to.
+     */
+    private String route(NodeId nodeId) throws Exception {
+        ReadContext context = new ReadContext(server, null);
+
+        composite.read(
+            context,
+            0.0,
+            TimestampsToReturn.Neither,
+            singletonList(new ReadValueId(nodeId, AttributeId.Value.uid(), null, QualifiedName.NULL_VALUE))
+        );
+
+        return (String) context.getFuture().get().get(0).getValue().getValue();
+    }
+
+    private static AddressSpace declared(String name, int namespaceIndex) {
+        return addressSpace(name, new NamespaceAddressSpaceFilter(ushort(namespaceIndex)));
+    }
+
+    private static AddressSpace undeclared(String name, Predicate<NodeId> predicate) {
+        return addressSpace(name, new SimpleAddressSpaceFilter() {
+            @Override
+            protected boolean filter(NodeId nodeId) {
+                return predicate.test(nodeId);
+            }
+        });
+    }
+
+    /**
+     * @return an AddressSpace that answers every Read with its own name.
+     */
+    private static AddressSpace addressSpace(String name, AddressSpaceFilter filter) {
+        AddressSpace addressSpace = mock(AddressSpace.class);
+
+        when(addressSpace.getFilter()).thenReturn(filter);
+        when(addressSpace.toString()).thenReturn(name);
+
+        doAnswer(invocation -> {
+            ReadContext context = invocation.getArgument(0);
+            List<ReadValueId> readValueIds = invocation.getArgument(3);
+
+            context.success(
+                readValueIds.stream()
+                    .map(readValueId -> new DataValue(new Variant(name)))
+                    .collect(Collectors.toList())
+            );
+
+            return null;
+        }).when(addressSpace).read(any(ReadContext.class), anyDouble(), any(TimestampsToReturn.class), anyList());
+
+        return addressSpace;
+    }
+
+}
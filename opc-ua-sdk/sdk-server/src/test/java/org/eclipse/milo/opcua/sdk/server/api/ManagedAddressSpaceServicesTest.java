@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.api;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+
+import com.google.common.collect.ImmutableList;
+import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
+import org.eclipse.milo.opcua.sdk.server.UaNodeManager;
+import org.eclipse.milo.opcua.sdk.server.api.nodes.VariableNode;
+import org.eclipse.milo.opcua.sdk.server.api.services.AttributeServices.ReadContext;
+import org.eclipse.milo.opcua.sdk.server.nodes.AttributeContext;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaNodeContext;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaVariableNode;
+import org.eclipse.milo.opcua.sdk.server.nodes.delegates.AttributeDelegate;
+import org.eclipse.milo.opcua.stack.core.AttributeId;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+public class ManagedAddressSpaceServicesTest {
+
+    private final OpcUaServer server = mock(OpcUaServer.class);
+    private final UaNodeContext context = mock(UaNodeContext.class);
+
+    private final UaNodeManager nodeManager = new UaNodeManager();
+    private final TestAddressSpaceServices services = new TestAddressSpaceServices(server, nodeManager);
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @BeforeClass
+    public void setUp() {
+        when(server.getExecutorService()).thenReturn(executor);
+    }
+
+    @AfterClass
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testFailedCachedReadCompletes() throws Exception {
+        UaVariableNode node = new UaVariableNode(
+            context,
+            new NodeId(2, "Failing"),
+            new QualifiedName(2, "Failing"),
+            LocalizedText.english("Failing")) {
+
+            @Override
+            public DataValue readAttribute(
+                AttributeContext context,
+                AttributeId attributeId,
+                @Nullable TimestampsToReturn timestamps,
+                @Nullable String indexRange,
+                @Nullable QualifiedName dataEncoding) {
+
+                if (attributeId == AttributeId.Value) {
+                    throw new IllegalStateException("read failed");
+                }
+
+                return super.readAttribute(context, attributeId, timestamps, indexRange, dataEncoding);
+            }
+        };
+
+        nodeManager.addNode(node);
+
+        List<DataValue> values = read(node.getNodeId(), 1000.0);
+
+        assertEquals(values.size(), 1);
+        assertEquals(values.get(0).getStatusCode().getValue(), StatusCodes.Bad_InternalError);
+    }
+
+    @Test
+    public void testDelegatedValueIsNotCached() throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+
+        UaVariableNode node = new UaVariableNode(
+            context,
+            new NodeId(2, "Delegated"),
+            new QualifiedName(2, "Delegated"),
+            LocalizedText.english("Delegated")
+        );
+
+        node.setAttributeDelegate(new AttributeDelegate() {
+            @Override
+            public DataValue getValue(AttributeContext context, VariableNode node) {
+                return new DataValue(new Variant(reads.incrementAndGet()));
+            }
+        });
+
+        nodeManager.addNode(node);
+
+        assertEquals(read(node.getNodeId(), 60_000.0).get(0).getValue().getValue(), 1);
+        assertEquals(read(node.getNodeId(), 60_000.0).get(0).getValue().getValue(), 2);
+        assertEquals(services.getValueCache().size(), 0);
+    }
+
+    @Test
+    public void testSessionIndependentDelegatedValueIsCached() throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+
+        UaVariableNode node = new UaVariableNode(
+            context,
+            new NodeId(2, "SessionIndependent"),
+            new QualifiedName(2, "SessionIndependent"),
+            LocalizedText.english("SessionIndependent")
+        );
+
+        node.setAttributeDelegate(new AttributeDelegate() {
+            @Override
+            public DataValue getValue(AttributeContext context, VariableNode node) {
+                return new DataValue(new Variant(reads.incrementAndGet()));
+            }
+
+            @Override
+            public boolean isSessionIndependent() {
+                return true;
+            }
+        });
+
+        nodeManager.addNode(node);
+
+        assertEquals(read(node.getNodeId(), 60_000.0).get(0).getValue().getValue(), 1);
+        assertEquals(read(node.getNodeId(), 60_000.0).get(0).getValue().getValue(), 1);
+        assertEquals(services.getValueCache().size(), 1);
+    }
+
+    private List<DataValue> read(NodeId nodeId, double maxAge) throws Exception {
+        ReadContext readContext = new ReadContext(server, null);
+
+        services.read(
+            readContext,
+            maxAge,
+            TimestampsToReturn.Both,
+            ImmutableList.of(
+                new ReadValueId(nodeId, AttributeId.Value.uid(), null, QualifiedName.NULL_VALUE)
+            )
+        );
+
+        return readContext.getFuture().get(5, TimeUnit.SECONDS);
+    }
+
+    private static class TestAddressSpaceServices extends ManagedAddressSpaceServices {
+
+        TestAddressSpaceServices(OpcUaServer server, UaNodeManager nodeManager) {
+            super(server, nodeManager);
+        }
+
+        @Override
+        public void onDataItemsCreated(List<DataItem> dataItems) {}
+
+        @Override
+        public void onDataItemsModified(List<DataItem> dataItems) {}
+
+        @Override
+        public void onDataItemsDeleted(List<DataItem> dataItems) {}
+
+        @Override
+        public void onMonitoringModeChanged(List<MonitoredItem> monitoredItems) {}
+
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.api;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.milo.opcua.sdk.core.Reference;
+import org.eclipse.milo.opcua.stack.core.Identifiers;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class ReferenceStoreTest {
+
+    private final NodeId source = new NodeId(2, "source");
+
+    @Test
+    public void testAddPreservesOrderAndSnapshots() {
+        ReferenceStore store = new ReferenceStore();
+
+        Reference r0 = reference(Identifiers.HasComponent, "a", true);
+        Reference r1 = reference(Identifiers.HasProperty, "b", true);
+        Reference r2 = reference(Identifiers.Organizes, "c", false);
+
+        store.add(r0);
+        List<Reference> snapshot = store.getReferences(source);
+        store.add(r1);
+        store.add(r2);
+
+        assertEquals(snapshot, Collections.singletonList(r0));
+        assertEquals(store.getReferences(source), Arrays.asList(r0, r1, r2));
+
+        // Appending after a removal must not disturb the snapshot taken before it.
+        store.remove(r1);
+        List<Reference> afterRemove = store.getReferences(source);
+        store.add(r1);
+
+        assertEquals(afterRemove, Arrays.asList(r0, r2));
+        assertEquals(store.getReferences(source), Arrays.asList(r0, r2, r1));
+    }
+
+    @Test
+    public void testDuplicatesAreRemovedOneAtATime() {
+        ReferenceStore store = new ReferenceStore();
+
+        Reference r0 = reference(Identifiers.HasComponent, "a", true);
+
+        store.add(r0);
+        store.add(r0);
+        store.remove(r0);
+        assertEquals(store.getReferences(source), Collections.singletonList(r0));
+
+        store.remove(r0);
+        assertTrue(store.getReferences(source).isEmpty());
+    }
+
+    @Test
+    public void testIndexedLookup() {
+        ReferenceStore store = new ReferenceStore();
+
+        Reference component = reference(Identifiers.HasComponent, "a", true);
+        Reference property = reference(Identifiers.HasProperty, "b", true);
+        Reference inverseComponent = reference(Identifiers.HasComponent, "c", false);
+        Reference organizes = reference(Identifiers.Organizes, "d", true);
+
+        store.add(component);
+        store.add(property);
+        store.add(inverseComponent);
+        store.add(organizes);
+
+        assertEquals(
+            store.getReferences(
+                source,
+                Reference.Direction.FORWARD,
+                Arrays.asList(Identifiers.HasComponent, Identifiers.HasProperty)
+            ),
+            Arrays.asList(component, property)
+        );
+
+        assertEquals(
+            store.getReferences(source, null, Collections.singleton(Identifiers.HasComponent)),
+            Arrays.asList(component, inverseComponent)
+        );
+
+        assertEquals(
+            store.getReferences(source, Reference.Direction.INVERSE, Collections.singleton(Identifiers.Organizes)),
+            Collections.emptyList()
+        );
+
+        // The index follows changes.
+        store.remove(component);
+        assertEquals(
+            store.getReferences(source, Reference.Direction.FORWARD, Collections.singleton(Identifiers.HasComponent)),
+            Collections.emptyList()
+        );
+    }
+
+    private Reference reference(NodeId referenceTypeId, String target, boolean forward) {
+        return new Reference(source, referenceTypeId, new NodeId(2, target).expanded(), forward);
+    }
+
+}
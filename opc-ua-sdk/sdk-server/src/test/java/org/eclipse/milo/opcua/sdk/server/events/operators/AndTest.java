@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.events.operators;
+
+import java.util.Arrays;
+
+import org.eclipse.milo.opcua.sdk.server.events.OperatorContext;
+import org.eclipse.milo.opcua.sdk.server.events.ValidationException;
+import org.eclipse.milo.opcua.sdk.server.model.nodes.objects.BaseEventNode;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.structured.FilterOperand;
+import org.eclipse.milo.opcua.stack.core.types.structured.LiteralOperand;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+
+public class AndTest {
+
+    @Test
+    public void testTruthTable() throws Exception {
+        Boolean[] values = {true, false, null};
+
+        for (Boolean value0 : values) {
+            for (Boolean value1 : values) {
+                assertEquals(apply(value0, value1), expected(value0, value1), value0 + " AND " + value1);
+            }
+        }
+    }
+
+    @Test
+    public void testShortCircuit() throws Exception {
+        OperatorContext context = mock(OperatorContext.class);
+        BaseEventNode eventNode = mock(BaseEventNode.class);
+
+        FilterOperand op0 = new LiteralOperand(new Variant(false));
+        FilterOperand op1 = new LiteralOperand(new Variant(null));
+
+        when(context.resolve(op0, eventNode)).thenReturn(false);
+
+        assertEquals(Operators.AND.apply(context, eventNode, new FilterOperand[]{op0, op1}), Boolean.FALSE);
+
+        verify(context, never()).resolve(op1, eventNode);
+    }
+
+    @Test
+    public void testOperandCountMismatch() throws Exception {
+        OperatorContext context = mock(OperatorContext.class);
+
+        FilterOperand operand = new LiteralOperand(new Variant(true));
+
+        for (int count : new int[]{0, 1, 3}) {
+            FilterOperand[] operands = new FilterOperand[count];
+            Arrays.fill(operands, operand);
+
+            try {
+                Operators.AND.validate(context, operands);
+                fail(count + " operands");
+            } catch (ValidationException e) {
+                assertEquals(e.getStatusCode().getValue(), StatusCodes.Bad_FilterOperandCountMismatch);
+            }
+        }
+
+        Operators.AND.validate(context, new FilterOperand[]{operand, operand});
+    }
+
+    private static Boolean apply(Boolean value0, Boolean value1) throws Exception {
+        OperatorContext context = mock(OperatorContext.class);
+        BaseEventNode eventNode = mock(BaseEventNode.class);
+
+        FilterOperand op0 = new LiteralOperand(new Variant(value0));
+        FilterOperand op1 = new LiteralOperand(new Variant(value1));
+
+        when(context.resolve(op0, eventNode)).thenReturn(value0);
+        when(context.resolve(op1, eventNode)).thenReturn(value1);
+
+        return Operators.AND.apply(context, eventNode, new FilterOperand[]{op0, op1});
+    }
+
+    private static Boolean expected(Boolean value0, Boolean value1) {
+        if (Boolean.FALSE.equals(value0) || Boolean.FALSE.equals(value1)) {
+            return false;
+        } else if (value0 == null || value1 == null) {
+            return null;
+        } else {
+            return true;
+        }
+    }
+
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.items;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.Sets;
+import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
+import org.eclipse.milo.opcua.sdk.server.Session;
+import org.eclipse.milo.opcua.stack.core.AttributeId;
+import org.eclipse.milo.opcua.stack.core.UaException;
+import org.eclipse.milo.opcua.stack.core.serialization.UaStructure;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.MonitoringMode;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
+import org.eclipse.milo.opcua.stack.core.types.structured.MonitoredItemNotification;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
+import org.testng.annotations.Test;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class MonitoredDataItemTest {
+
+    private final OpcUaServer server = mock(OpcUaServer.class);
+    private final Session session = mock(Session.class);
+
+    @Test
+    public void testEnqueueAddsToReadyItems() throws UaException {
+        Set<BaseMonitoredItem<?>> readyItems = Sets.newConcurrentHashSet();
+
+        MonitoredDataItem item = item(1, MonitoringMode.Reporting);
+        item.setReadyItems(readyItems);
+        readyItems.clear();
+
+        item.setValue(new DataValue(new Variant(1)));
+
+        assertTrue(readyItems.contains(item));
+        assertTrue(item.hasNotifications());
+
+        readyItems.clear();
+        List<UaStructure> notifications = new ArrayList<>();
+        assertTrue(item.getNotifications(notifications, 10));
+        assertEquals(notifications.size(), 1);
+
+        // The same value doesn't pass the filter and isn't enqueued.
+        item.setValue(new DataValue(new Variant(1)));
+
+        assertTrue(readyItems.isEmpty());
+        assertFalse(item.hasNotifications());
+    }
+
+    @Test
+    public void testTriggeredItemIsReady() throws UaException {
+        Set<BaseMonitoredItem<?>> readyItems = Sets.newConcurrentHashSet();
+
+        MonitoredDataItem triggering = item(1, MonitoringMode.Reporting);
+        MonitoredDataItem triggered = item(2, MonitoringMode.Sampling);
+        triggering.getTriggeredItems().put(triggered.getId(), triggered);
+
+        triggering.setReadyItems(readyItems);
+        triggered.setReadyItems(readyItems);
+        readyItems.clear();
+
+        triggering.setValue(new DataValue(new Variant(1)));
+
+        assertTrue(readyItems.contains(triggering));
+        assertTrue(readyItems.contains(triggered));
+        assertTrue(triggered.isTriggered());
+    }
+
+    @Test
+    public void testRemovedItemIsNotReady() throws UaException {
+        Set<BaseMonitoredItem<?>> readyItems = Sets.newConcurrentHashSet();
+
+        MonitoredDataItem item = item(1, MonitoringMode.Reporting);
+        item.setReadyItems(readyItems);
+        item.setReadyItems(null);
+        readyItems.clear();
+
+        item.setValue(new DataValue(new Variant(1)));
+
+        assertTrue(readyItems.isEmpty());
+    }
+
+    @Test
+    public void testOverflowBit() throws UaException {
+        MonitoredDataItem discardOldest = item(1, MonitoringMode.Reporting, 2, true);
+        MonitoredDataItem discardNewest = item(2, MonitoringMode.Reporting, 2, false);
+
+        for (int i = 0; i < 3; i++) {
+            discardOldest.setValue(new DataValue(new Variant(i)));
+            discardNewest.setValue(new DataValue(new Variant(i)));
+        }
+
+        List<UaStructure> oldest = new ArrayList<>();
+        discardOldest.getNotifications(oldest, 10);
+
+        assertEquals(values(oldest), Arrays.asList(1, 2));
+        assertFalse(value(oldest.get(0)).getStatusCode().isOverflowSet());
+        assertTrue(value(oldest.get(1)).getStatusCode().isOverflowSet());
+
+        List<UaStructure> newest = new ArrayList<>();
+        discardNewest.getNotifications(newest, 10);
+
+        assertEquals(values(newest), Arrays.asList(0, 2));
+        assertFalse(value(newest.get(0)).getStatusCode().isOverflowSet());
+        assertTrue(value(newest.get(1)).getStatusCode().isOverflowSet());
+    }
+
+    @Test
+    public void testNoOverflowBitForQueueSizeOne() throws UaException {
+        MonitoredDataItem item = item(1, MonitoringMode.Reporting, 1, true);
+
+        item.setValue(new DataValue(new Variant(0)));
+        item.setValue(new DataValue(new Variant(1)));
+
+        List<UaStructure> notifications = new ArrayList<>();
+        item.getNotifications(notifications, 10);
+
+        assertEquals(values(notifications), Arrays.asList(1));
+        assertFalse(value(notifications.get(0)).getStatusCode().isOverflowSet());
+    }
+
+    private static DataValue value(UaStructure notification) {
+        return ((MonitoredItemNotification) notification).getValue();
+    }
+
+    private static List<Object> values(List<UaStructure> notifications) {
+        List<Object> values = new ArrayList<>();
+        notifications.forEach(n -> values.add(value(n).getValue().getValue()));
+        return values;
+    }
+
+    private MonitoredDataItem item(int id, MonitoringMode monitoringMode) throws UaException {
+        return item(id, monitoringMode, 10, true);
+    }
+
+    private MonitoredDataItem item(
+        int id,
+        MonitoringMode monitoringMode,
+        int queueSize,
+        boolean discardOldest) throws UaException {
+
+        return new MonitoredDataItem(
+            server,
+            session,
+            uint(id),
+            uint(1),
+            new ReadValueId(new NodeId(2, id), AttributeId.Value.uid(), null, QualifiedName.NULL_VALUE),
+            monitoringMode,
+            TimestampsToReturn.Both,
+            uint(id),
+            100.0,
+            null,
+            uint(queueSize),
+            discardOldest
+        );
+    }
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.namespaces.loader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
+import org.eclipse.milo.opcua.sdk.server.UaNodeManager;
+import org.eclipse.milo.opcua.sdk.server.api.NodeManager;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaNode;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaNodeContext;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaObjectNode;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaReferenceTypeNode;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaVariableNode;
+import org.eclipse.milo.opcua.stack.core.NamespaceTable;
+import org.eclipse.milo.opcua.stack.core.serialization.EncodingLimits;
+import org.eclipse.milo.opcua.stack.core.serialization.SerializationContext;
+import org.eclipse.milo.opcua.stack.core.types.DataTypeManager;
+import org.eclipse.milo.opcua.stack.core.types.OpcUaDataTypeManager;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
+import org.mockito.Mockito;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+
+public class UaNodeSnapshotTest {
+
+    private OpcUaServer server;
+    private SerializationContext serializationContext;
+
+    @BeforeTest
+    public void setup() {
+        server = Mockito.mock(OpcUaServer.class);
+
+        NamespaceTable namespaceTable = new NamespaceTable();
+
+        serializationContext = new SerializationContext() {
+            @Override
+            public EncodingLimits getEncodingLimits() {
+                return EncodingLimits.DEFAULT;
+            }
+
+            @Override
+            public NamespaceTable getNamespaceTable() {
+                return namespaceTable;
+            }
+
+            @Override
+            public DataTypeManager getDataTypeManager() {
+                return OpcUaDataTypeManager.getInstance();
+            }
+        };
+
+        Mockito.when(server.getNamespaceTable()).thenReturn(namespaceTable);
+        Mockito.when(server.getSerializationContext()).thenReturn(serializationContext);
+    }
+
+    @Test
+    public void testWriteAndLoad() throws Exception {
+        UaNodeManager generated = new UaNodeManager();
+        new UaNodeLoader(newContext(generated), generated).loadGeneratedNodes();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        UaNodeSnapshot.write(generated.getNodes(), generated, serializationContext, outputStream);
+
+        UaNodeManager loaded = new UaNodeManager();
+        int count = UaNodeSnapshot.load(
+            newContext(loaded),
+            loaded,
+            new ByteArrayInputStream(outputStream.toByteArray())
+        );
+
+        assertEquals(count, generated.getNodes().size());
+        assertEquals(new HashSet<>(loaded.getNodeIds()), new HashSet<>(generated.getNodeIds()));
+
+        for (UaNode expected : generated.getNodes()) {
+            UaNode actual = loaded.get(expected.getNodeId());
+
+            assertNotNull(actual);
+            assertEquals(actual.getClass(), expected.getClass());
+            assertEquals(actual.getBrowseName(), expected.getBrowseName());
+            assertEquals(actual.getDisplayName(), expected.getDisplayName());
+            assertEquals(actual.getDescription(), expected.getDescription());
+            assertEquals(actual.getWriteMask(), expected.getWriteMask());
+
+            assertEquals(
+                new HashSet<>(loaded.getReferences(actual.getNodeId())),
+                new HashSet<>(generated.getReferences(expected.getNodeId()))
+            );
+
+            if (expected instanceof UaObjectNode) {
+                assertEquals(
+                    ((UaObjectNode) actual).getEventNotifier(),
+                    ((UaObjectNode) expected).getEventNotifier()
+                );
+            } else if (expected instanceof UaVariableNode) {
+                UaVariableNode expectedVariable = (UaVariableNode) expected;
+                UaVariableNode actualVariable = (UaVariableNode) actual;
+
+                assertEquals(actualVariable.getDataType(), expectedVariable.getDataType());
+                assertEquals(actualVariable.getValueRank(), expectedVariable.getValueRank());
+                assertEquals(actualVariable.getArrayDimensions(), expectedVariable.getArrayDimensions());
+                assertEquals(actualVariable.getAccessLevel(), expectedVariable.getAccessLevel());
+                assertEquals(actualVariable.getHistorizing(), expectedVariable.getHistorizing());
+
+                Object expectedValue = expectedVariable.getValue().getValue().getValue();
+                Object actualValue = actualVariable.getValue().getValue().getValue();
+
+                assertEquals(normalize(actualValue), normalize(expectedValue));
+            } else if (expected instanceof UaReferenceTypeNode) {
+                assertEquals(
+                    ((UaReferenceTypeNode) actual).getInverseName(),
+                    ((UaReferenceTypeNode) expected).getInverseName()
+                );
+            }
+        }
+    }
+
+    @Test
+    public void testExtensionObjectValuesAreBinary() throws Exception {
+        UaNodeManager generated = new UaNodeManager();
+        new UaNodeLoader(newContext(generated), generated).loadGeneratedNodes();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        UaNodeSnapshot.write(generated.getNodes(), generated, serializationContext, outputStream);
+
+        UaNodeManager loaded = new UaNodeManager();
+        UaNodeSnapshot.load(newContext(loaded), loaded, new ByteArrayInputStream(outputStream.toByteArray()));
+
+        for (UaNode node : loaded.getNodes()) {
+            if (node instanceof UaVariableNode) {
+                Object value = ((UaVariableNode) node).getValue().getValue().getValue();
+
+                if (value instanceof ExtensionObject[]) {
+                    for (ExtensionObject xo : (ExtensionObject[]) value) {
+                        assertEquals(xo.getBodyType(), ExtensionObject.BodyType.ByteString);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Structures don't implement equals, and the snapshot transcodes XML bodies to binary, so compare the
+     * decoded values' string forms.
+     */
+    private Object normalize(Object value) {
+        if (value instanceof ExtensionObject) {
+            return String.valueOf(((ExtensionObject) value).decode(serializationContext));
+        } else if (value instanceof Object[]) {
+            List<Object> values = new ArrayList<>();
+            for (Object v : (Object[]) value) {
+                values.add(normalize(v));
+            }
+            return values;
+        } else {
+            return value;
+        }
+    }
+
+    private UaNodeContext newContext(UaNodeManager nodeManager) {
+        return new UaNodeContext() {
+            @Override
+            public OpcUaServer getServer() {
+                return server;
+            }
+
+            @Override
+            public NodeManager<UaNode> getNodeManager() {
+                return nodeManager;
+            }
+        };
+    }
+
+}
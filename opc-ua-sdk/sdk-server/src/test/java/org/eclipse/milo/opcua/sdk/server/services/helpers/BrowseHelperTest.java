@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.services.helpers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.eclipse.milo.opcua.sdk.core.Reference;
+import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
+import org.eclipse.milo.opcua.sdk.server.Session;
+import org.eclipse.milo.opcua.sdk.server.api.AddressSpaceManager;
+import org.eclipse.milo.opcua.sdk.server.api.config.OpcUaServerConfig;
+import org.eclipse.milo.opcua.sdk.server.api.config.OpcUaServerConfigLimits;
+import org.eclipse.milo.opcua.sdk.server.api.services.AttributeServices.ReadContext;
+import org.eclipse.milo.opcua.sdk.server.api.services.ViewServices.BrowseContext;
+import org.eclipse.milo.opcua.sdk.server.services.ServiceAttributes;
+import org.eclipse.milo.opcua.sdk.server.services.helpers.BrowseHelper.BrowseContinuationPoint;
+import org.eclipse.milo.opcua.stack.core.Identifiers;
+import org.eclipse.milo.opcua.stack.core.NamespaceTable;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
+import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UShort;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.BrowseDirection;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.BrowseResultMask;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.NodeClass;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
+import org.eclipse.milo.opcua.stack.core.types.structured.BrowseDescription;
+import org.eclipse.milo.opcua.stack.core.types.structured.BrowseNextRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.BrowseNextResponse;
+import org.eclipse.milo.opcua.stack.core.types.structured.BrowseResult;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
+import org.eclipse.milo.opcua.stack.core.types.structured.RequestHeader;
+import org.eclipse.milo.opcua.stack.core.types.structured.ViewDescription;
+import org.eclipse.milo.opcua.stack.server.services.ServiceRequest;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.ushort;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class BrowseHelperTest {
+
+    private static final NodeId SOURCE = new NodeId(2, "source");
+
+    private final AtomicInteger nodesRead = new AtomicInteger();
+    private final Map<ByteString, BrowseContinuationPoint> continuationPoints = new ConcurrentHashMap<>();
+    private final Map<NodeId, NodeClass> nodeClasses = new ConcurrentHashMap<>();
+
+    private OpcUaServer server;
+    private Session session;
+    private List<Reference> references;
+    private volatile double timeout;
+
+    @BeforeMethod
+    public void setup() {
+        nodesRead.set(0);
+        continuationPoints.clear();
+        nodeClasses.clear();
+        timeout = 60_000.0;
+
+        references = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            references.add(new Reference(
+                SOURCE,
+                Identifiers.HasComponent,
+                new NodeId(2, "target" + i).expanded(),
+                true
+            ));
+        }
+
+        OpcUaServerConfigLimits limits = new OpcUaServerConfigLimits() {
+            @Override
+            public Double getBrowseContinuationPointTimeout() {
+                return timeout;
+            }
+
+            @Override
+            public UShort getMaxBrowseContinuationPoints() {
+                return ushort(2);
+            }
+        };
+
+        OpcUaServerConfig config = Mockito.mock(OpcUaServerConfig.class);
+        Mockito.when(config.getLimits()).thenReturn(limits);
+
+        AddressSpaceManager addressSpaceManager = Mockito.mock(AddressSpaceManager.class);
+
+        Mockito.doAnswer((Answer<Void>) invocation -> {
+            BrowseContext context = invocation.getArgument(0);
+            context.success(references);
+            return null;
+        }).when(addressSpaceManager).browse(
+            Mockito.any(BrowseContext.class),
+            Mockito.any(ViewDescription.class),
+            Mockito.any(NodeId.class)
+        );
+
+        Mockito.doAnswer((Answer<Void>) invocation -> {
+            ReadContext context = invocation.getArgument(0);
+            List<ReadValueId> readValueIds = invocation.getArgument(3);
+            nodesRead.incrementAndGet();
+
+            NodeId nodeId = readValueIds.get(0).getNodeId();
+            context.success(Arrays.asList(
+                new DataValue(new Variant(new QualifiedName(2, nodeId.getIdentifier().toString()))),
+                new DataValue(new Variant(LocalizedText.english(nodeId.getIdentifier().toString()))),
+                new DataValue(new Variant(nodeClasses.getOrDefault(nodeId, NodeClass.Method)))
+            ));
+            return null;
+        }).when(addressSpaceManager).read(
+            Mockito.any(ReadContext.class),
+            Mockito.anyDouble(),
+            Mockito.any(TimestampsToReturn.class),
+            Mockito.anyList()
+        );
+
+        server = Mockito.mock(OpcUaServer.class);
+        Mockito.when(server.getConfig()).thenReturn(config);
+        Mockito.when(server.getNamespaceTable()).thenReturn(new NamespaceTable());
+        Mockito.when(server.getReferenceTypes()).thenReturn(Collections.emptyMap());
+        Mockito.when(server.getAddressSpaceManager()).thenReturn(addressSpaceManager);
+        Mockito.when(server.getExecutorService()).thenReturn(MoreExecutors.newDirectExecutorService());
+
+        session = Mockito.mock(Session.class);
+        Mockito.when(session.getBrowseContinuationPoints()).thenReturn(continuationPoints);
+    }
+
+    @Test
+    public void testOnlyPageIsRead() throws Exception {
+        BrowseResult result = browse(4);
+
+        assertEquals(result.getReferences().length, 4);
+        assertEquals(nodesRead.get(), 4);
+        assertNotNull(result.getContinuationPoint());
+        assertEquals(continuationPoints.size(), 1);
+
+        BrowseResult next = browseNext(result.getContinuationPoint(), false);
+        assertEquals(next.getReferences().length, 4);
+        assertEquals(next.getReferences()[0].getBrowseName(), new QualifiedName(2, "target4"));
+        assertEquals(nodesRead.get(), 8);
+
+        BrowseResult last = browseNext(next.getContinuationPoint(), false);
+        assertEquals(last.getReferences().length, 2);
+        assertTrue(last.getContinuationPoint() == null || last.getContinuationPoint().isNull());
+        assertEquals(nodesRead.get(), 10);
+        assertTrue(continuationPoints.isEmpty());
+    }
+
+    @Test
+    public void testNoContinuationPointWhenEverythingFits() throws Exception {
+        BrowseResult result = browse(0);
+
+        assertEquals(result.getReferences().length, 10);
+        assertNull(result.getContinuationPoint());
+        assertTrue(continuationPoints.isEmpty());
+    }
+
+    @Test
+    public void testContinuationPointLimitPerSession() throws Exception {
+        browse(4);
+        browse(4);
+
+        BrowseResult result = browse(4);
+        assertEquals(result.getStatusCode().getValue(), StatusCodes.Bad_NoContinuationPoints);
+        assertEquals(continuationPoints.size(), 2);
+    }
+
+    @Test
+    public void testReleaseAndExpiry() throws Exception {
+        BrowseResult result = browse(4);
+
+        BrowseResult released = browseNext(result.getContinuationPoint(), true);
+        assertTrue(released.getStatusCode().isGood());
+        assertTrue(continuationPoints.isEmpty());
+
+        result = browse(4);
+        timeout = 0.0;
+        Thread.sleep(1);
+
+        BrowseResult expired = browseNext(result.getContinuationPoint(), false);
+        assertEquals(expired.getStatusCode().getValue(), StatusCodes.Bad_ContinuationPointInvalid);
+        assertTrue(continuationPoints.isEmpty());
+    }
+
+    @Test
+    public void testNoContinuationPointWhenRestIsFilteredByNodeClass() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            nodeClasses.put(new NodeId(2, "target" + i), NodeClass.ObjectType);
+        }
+
+        BrowseResult result = browse(4, NodeClass.ObjectType.getValue());
+
+        assertEquals(result.getReferences().length, 4);
+        assertNull(result.getContinuationPoint());
+        assertTrue(continuationPoints.isEmpty());
+    }
+
+    @Test
+    public void testNodeClassFilteredPageIsNeverEmpty() throws Exception {
+        for (int i : new int[]{0, 1, 2, 3, 9}) {
+            nodeClasses.put(new NodeId(2, "target" + i), NodeClass.ObjectType);
+        }
+
+        BrowseResult result = browse(4, NodeClass.ObjectType.getValue());
+
+        assertEquals(result.getReferences().length, 4);
+        assertNotNull(result.getContinuationPoint());
+
+        BrowseResult next = browseNext(result.getContinuationPoint(), false);
+        assertEquals(next.getReferences().length, 1);
+        assertEquals(next.getReferences()[0].getBrowseName(), new QualifiedName(2, "target9"));
+        assertTrue(next.getContinuationPoint() == null || next.getContinuationPoint().isNull());
+        assertTrue(continuationPoints.isEmpty());
+
+        // Every target is read once, including the ones looked at to find the first reference of the next page.
+        assertEquals(nodesRead.get(), 10);
+    }
+
+    private BrowseResult browse(int maxReferencesPerNode) throws Exception {
+        return browse(maxReferencesPerNode, 0);
+    }
+
+    private BrowseResult browse(int maxReferencesPerNode, int nodeClassMask) throws Exception {
+        BrowseDescription browseDescription = new BrowseDescription(
+            SOURCE,
+            BrowseDirection.Forward,
+            NodeId.NULL_VALUE,
+            true,
+            uint(nodeClassMask),
+            uint(BrowseResultMask.All.getValue())
+        );
+
+        return BrowseHelper.browse(
+            () -> Optional.of(session),
+            server,
+            new ViewDescription(NodeId.NULL_VALUE, DateTime.NULL_VALUE, uint(0)),
+            uint(maxReferencesPerNode),
+            browseDescription
+        ).get();
+    }
+
+    private BrowseResult browseNext(ByteString continuationPoint, boolean release) throws Exception {
+        BrowseNextRequest request = new BrowseNextRequest(
+            new RequestHeader(NodeId.NULL_VALUE, DateTime.now(), uint(0), uint(0), null, uint(0), null),
+            release,
+            new ByteString[]{continuationPoint}
+        );
+
+        ServiceRequest service = new ServiceRequest(null, request, null, 0L, null, null);
+        service.attr(ServiceAttributes.SERVER_KEY).set(server);
+        service.attr(ServiceAttributes.SESSION_KEY).set(session);
+
+        new BrowseHelper().browseNext(service);
+
+        BrowseNextResponse response = (BrowseNextResponse) service.getFuture().get();
+
+        return response.getResults()[0];
+    }
+
+}
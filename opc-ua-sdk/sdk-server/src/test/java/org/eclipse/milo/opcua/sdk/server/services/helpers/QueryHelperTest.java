@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.services.helpers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
+import org.eclipse.milo.opcua.sdk.server.Session;
+import org.eclipse.milo.opcua.sdk.server.api.AddressSpaceManager;
+import org.eclipse.milo.opcua.sdk.server.api.config.OpcUaServerConfig;
+import org.eclipse.milo.opcua.sdk.server.api.config.OpcUaServerConfigLimits;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaNode;
+import org.eclipse.milo.opcua.sdk.server.services.ServiceAttributes;
+import org.eclipse.milo.opcua.sdk.server.services.helpers.QueryHelper.QueryContinuationPoint;
+import org.eclipse.milo.opcua.sdk.server.util.TypeDefinitionIndex;
+import org.eclipse.milo.opcua.stack.core.NamespaceTable;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.UaException;
+import org.eclipse.milo.opcua.stack.core.serialization.UaRequestMessage;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ExpandedNodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UShort;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.NodeClass;
+import org.eclipse.milo.opcua.stack.core.types.structured.ContentFilter;
+import org.eclipse.milo.opcua.stack.core.types.structured.NodeTypeDescription;
+import org.eclipse.milo.opcua.stack.core.types.structured.QueryDataDescription;
+import org.eclipse.milo.opcua.stack.core.types.structured.QueryFirstRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.QueryFirstResponse;
+import org.eclipse.milo.opcua.stack.core.types.structured.QueryNextRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.QueryNextResponse;
+import org.eclipse.milo.opcua.stack.core.types.structured.RequestHeader;
+import org.eclipse.milo.opcua.stack.core.types.structured.ViewDescription;
+import org.eclipse.milo.opcua.stack.server.services.ServiceRequest;
+import org.mockito.Mockito;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.ushort;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class QueryHelperTest {
+
+    private static final NodeId TYPE = new NodeId(2, "Type");
+
+    private final Map<ByteString, QueryContinuationPoint> continuationPoints = new ConcurrentHashMap<>();
+
+    private OpcUaServer server;
+    private Session session;
+    private AddressSpaceManager addressSpaceManager;
+
+    private volatile UInteger maxQueryDataSets;
+    private volatile UShort maxQueryContinuationPoints;
+
+    @BeforeMethod
+    public void setup() {
+        continuationPoints.clear();
+        maxQueryDataSets = uint(1000);
+        maxQueryContinuationPoints = ushort(2);
+
+        List<NodeId> instances = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            instances.add(new NodeId(2, "Instance" + i));
+        }
+
+        OpcUaServerConfigLimits limits = new OpcUaServerConfigLimits() {
+            @Override
+            public UInteger getMaxQueryDataSets() {
+                return maxQueryDataSets;
+            }
+
+            @Override
+            public UShort getMaxQueryContinuationPoints() {
+                return maxQueryContinuationPoints;
+            }
+        };
+
+        OpcUaServerConfig config = Mockito.mock(OpcUaServerConfig.class);
+        Mockito.when(config.getLimits()).thenReturn(limits);
+
+        UaNode typeNode = Mockito.mock(UaNode.class);
+        Mockito.when(typeNode.getNodeClass()).thenReturn(NodeClass.ObjectType);
+
+        UaNode instanceNode = Mockito.mock(UaNode.class);
+
+        addressSpaceManager = Mockito.mock(AddressSpaceManager.class);
+        Mockito.when(addressSpaceManager.isEnumerable()).thenReturn(true);
+        Mockito.when(addressSpaceManager.getTypeDefinitionIndex())
+            .thenReturn(new TypeDefinitionIndex(() -> instances, nodeId -> TYPE));
+        Mockito.when(addressSpaceManager.getManagedNode(Mockito.any(ExpandedNodeId.class)))
+            .thenReturn(Optional.of(typeNode));
+        Mockito.when(addressSpaceManager.getManagedNode(Mockito.any(NodeId.class)))
+            .thenReturn(Optional.of(instanceNode));
+
+        server = Mockito.mock(OpcUaServer.class);
+        Mockito.when(server.getConfig()).thenReturn(config);
+        Mockito.when(server.getNamespaceTable()).thenReturn(new NamespaceTable());
+        Mockito.when(server.getAddressSpaceManager()).thenReturn(addressSpaceManager);
+        Mockito.when(server.getExecutorService()).thenReturn(MoreExecutors.newDirectExecutorService());
+
+        session = Mockito.mock(Session.class);
+        Mockito.when(session.getQueryContinuationPoints()).thenReturn(continuationPoints);
+    }
+
+    @Test
+    public void testServiceUnsupportedWhenNotEnumerable() throws Exception {
+        Mockito.when(addressSpaceManager.isEnumerable()).thenReturn(false);
+
+        assertFault(() -> queryFirst(0), StatusCodes.Bad_ServiceUnsupported);
+    }
+
+    @Test
+    public void testPagingThroughContinuationPoint() throws Exception {
+        Set<ExpandedNodeId> returned = new HashSet<>();
+
+        QueryFirstResponse first = queryFirst(4);
+
+        assertEquals(first.getQueryDataSets().length, 4);
+        assertTrue(first.getContinuationPoint().isNotNull());
+        assertEquals(continuationPoints.size(), 1);
+        Arrays.stream(first.getQueryDataSets()).forEach(dataSet -> returned.add(dataSet.getNodeId()));
+
+        QueryNextResponse next = queryNext(first.getContinuationPoint(), false);
+        ByteString revised = next.getRevisedContinuationPoint();
+
+        assertEquals(next.getQueryDataSets().length, 4);
+        assertTrue(revised.isNotNull());
+        Arrays.stream(next.getQueryDataSets()).forEach(dataSet -> returned.add(dataSet.getNodeId()));
+
+        QueryNextResponse last = queryNext(revised, false);
+
+        assertEquals(last.getQueryDataSets().length, 2);
+        assertTrue(last.getRevisedContinuationPoint().isNull());
+        assertTrue(continuationPoints.isEmpty());
+        Arrays.stream(last.getQueryDataSets()).forEach(dataSet -> returned.add(dataSet.getNodeId()));
+
+        // Each instance is returned exactly once across the pages.
+        assertEquals(returned.size(), 10);
+
+        assertFault(() -> queryNext(revised, false), StatusCodes.Bad_ContinuationPointInvalid);
+    }
+
+    @Test
+    public void testReleaseContinuationPoint() throws Exception {
+        QueryFirstResponse first = queryFirst(4);
+
+        QueryNextResponse released = queryNext(first.getContinuationPoint(), true);
+        assertEquals(released.getQueryDataSets().length, 0);
+        assertTrue(continuationPoints.isEmpty());
+    }
+
+    @Test
+    public void testMaxQueryDataSets() throws Exception {
+        maxQueryDataSets = uint(3);
+        maxQueryContinuationPoints = ushort(10);
+
+        assertEquals(queryFirst(0).getQueryDataSets().length, 3);
+        assertEquals(queryFirst(5).getQueryDataSets().length, 3);
+        assertEquals(queryFirst(2).getQueryDataSets().length, 2);
+    }
+
+    @Test
+    public void testZeroMaxQueryDataSetsIsNoLimit() throws Exception {
+        maxQueryDataSets = uint(0);
+
+        QueryFirstResponse response = queryFirst(0);
+        assertEquals(response.getQueryDataSets().length, 10);
+        assertTrue(response.getContinuationPoint().isNull());
+        assertTrue(continuationPoints.isEmpty());
+
+        assertEquals(queryFirst(4).getQueryDataSets().length, 4);
+    }
+
+    @Test
+    public void testContinuationPointLimitPerSession() throws Exception {
+        queryFirst(4);
+        queryFirst(4);
+
+        assertFault(() -> queryFirst(4), StatusCodes.Bad_NoContinuationPoints);
+        assertEquals(continuationPoints.size(), 2);
+
+        // Results that fit in one page don't need a continuation point.
+        QueryFirstResponse response = queryFirst(0);
+        assertEquals(response.getQueryDataSets().length, 10);
+        assertTrue(response.getContinuationPoint().isNull());
+    }
+
+    @Test
+    public void testZeroMaxContinuationPointsIsNoLimit() throws Exception {
+        maxQueryContinuationPoints = ushort(0);
+
+        for (int i = 0; i < 5; i++) {
+            assertFalse(queryFirst(4).getContinuationPoint().isNull());
+        }
+
+        assertEquals(continuationPoints.size(), 5);
+    }
+
+    private QueryFirstResponse queryFirst(int maxDataSetsToReturn) throws Exception {
+        QueryFirstRequest request = new QueryFirstRequest(
+            header(),
+            new ViewDescription(NodeId.NULL_VALUE, DateTime.NULL_VALUE, uint(0)),
+            new NodeTypeDescription[]{
+                new NodeTypeDescription(TYPE.expanded(), false, new QueryDataDescription[0])
+            },
+            new ContentFilter(null),
+            uint(maxDataSetsToReturn),
+            uint(0)
+        );
+
+        ServiceRequest service = serviceRequest(request);
+
+        new QueryHelper().queryFirst(service);
+
+        return (QueryFirstResponse) service.getFuture().get();
+    }
+
+    private QueryNextResponse queryNext(ByteString continuationPoint, boolean release) throws Exception {
+        QueryNextRequest request = new QueryNextRequest(header(), release, continuationPoint);
+
+        ServiceRequest service = serviceRequest(request);
+
+        new QueryHelper().queryNext(service);
+
+        return (QueryNextResponse) service.getFuture().get();
+    }
+
+    private ServiceRequest serviceRequest(UaRequestMessage request) {
+        ServiceRequest service = new ServiceRequest(null, request, null, 0L, null, null);
+        service.attr(ServiceAttributes.SERVER_KEY).set(server);
+        service.attr(ServiceAttributes.SESSION_KEY).set(session);
+        return service;
+    }
+
+    private static RequestHeader header() {
+        return new RequestHeader(NodeId.NULL_VALUE, DateTime.now(), uint(0), uint(0), null, uint(0), null);
+    }
+
+    private static void assertFault(Call call, long statusCode) throws Exception {
+        try {
+            call.call();
+            fail("expected a ServiceFault");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof UaException);
+            assertEquals(((UaException) e.getCause()).getStatusCode().getValue(), statusCode);
+        }
+    }
+
+    private interface Call {
+
+        void call() throws Exception;
+
+    }
+
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.milo.opcua.stack.core.AttributeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class AttributeValueCacheTest {
+
+    private final ReadValueId readValueId = new ReadValueId(
+        new NodeId(2, "foo"),
+        AttributeId.Value.uid(),
+        null,
+        QualifiedName.NULL_VALUE
+    );
+
+    @Test
+    public void testHitWithinMaxAge() {
+        AttributeValueCache cache = new AttributeValueCache();
+        AtomicInteger reads = new AtomicInteger();
+
+        for (int i = 0; i < 10; i++) {
+            DataValue value = cache.get(readValueId, 60_000, () -> read(reads)).join();
+
+            assertEquals(value.getValue().getValue(), 1);
+        }
+
+        assertEquals(reads.get(), 1);
+        assertEquals(cache.getMissCount(), 1);
+        assertEquals(cache.getHitCount(), 9);
+    }
+
+    @Test
+    public void testZeroMaxAgeAlwaysReads() {
+        AttributeValueCache cache = new AttributeValueCache();
+        AtomicInteger reads = new AtomicInteger();
+
+        cache.get(readValueId, 60_000, () -> read(reads)).join();
+        DataValue value = cache.get(readValueId, 0, () -> read(reads)).join();
+
+        assertEquals(value.getValue().getValue(), 2);
+        assertEquals(cache.getHitCount(), 0);
+
+        // The new value replaced the cached one.
+        value = cache.get(readValueId, 60_000, () -> read(reads)).join();
+        assertEquals(value.getValue().getValue(), 2);
+    }
+
+    @Test
+    public void testExpiredValueIsReadAgain() throws InterruptedException {
+        AttributeValueCache cache = new AttributeValueCache();
+        AtomicInteger reads = new AtomicInteger();
+
+        cache.get(readValueId, 1, () -> read(reads)).join();
+        Thread.sleep(10);
+        DataValue value = cache.get(readValueId, 1, () -> read(reads)).join();
+
+        assertEquals(value.getValue().getValue(), 2);
+        assertEquals(cache.getMissCount(), 2);
+    }
+
+    @Test
+    public void testConcurrentMissesAreCoalesced() {
+        AttributeValueCache cache = new AttributeValueCache();
+        AtomicInteger reads = new AtomicInteger();
+        CompletableFuture<DataValue> pending = new CompletableFuture<>();
+
+        CompletableFuture<DataValue> f1 = cache.get(readValueId, 1000, () -> {
+            reads.incrementAndGet();
+            return pending;
+        });
+        CompletableFuture<DataValue> f2 = cache.get(readValueId, 1000, () -> read(reads));
+
+        assertFalse(f1.isDone());
+        assertFalse(f2.isDone());
+
+        DataValue value = new DataValue(new Variant(42));
+        pending.complete(value);
+
+        assertSame(f1.join(), value);
+        assertSame(f2.join(), value);
+        assertEquals(reads.get(), 1);
+        assertEquals(cache.getMissCount(), 1);
+        assertEquals(cache.getHitCount(), 1);
+    }
+
+    @Test
+    public void testFailedReadIsNotCached() {
+        AttributeValueCache cache = new AttributeValueCache();
+        AtomicInteger reads = new AtomicInteger();
+
+        CompletableFuture<DataValue> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new Exception("failed"));
+
+        assertTrue(cache.get(readValueId, 1000, () -> failed).isCompletedExceptionally());
+        assertEquals(cache.size(), 0);
+
+        DataValue value = cache.get(readValueId, 1000, () -> read(reads)).join();
+        assertEquals(value.getValue().getValue(), 1);
+    }
+
+    @Test
+    public void testKeyIncludesIndexRangeAndInvalidate() {
+        AttributeValueCache cache = new AttributeValueCache();
+        AtomicInteger reads = new AtomicInteger();
+
+        ReadValueId ranged = new ReadValueId(
+            readValueId.getNodeId(),
+            readValueId.getAttributeId(),
+            "0:1",
+            QualifiedName.NULL_VALUE
+        );
+
+        cache.get(readValueId, 1000, () -> read(reads)).join();
+        cache.get(ranged, 1000, () -> read(reads)).join();
+        assertEquals(cache.size(), 2);
+        assertEquals(reads.get(), 2);
+
+        cache.invalidate(readValueId.getNodeId());
+        assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void testMaxSize() {
+        AttributeValueCache cache = new AttributeValueCache(0);
+        AtomicInteger reads = new AtomicInteger();
+
+        cache.get(readValueId, 1000, () -> read(reads)).join();
+        cache.get(readValueId, 1000, () -> read(reads)).join();
+
+        assertEquals(reads.get(), 2);
+        assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedNodeIsEvicted() {
+        AttributeValueCache cache = new AttributeValueCache(2);
+        AtomicInteger reads = new AtomicInteger();
+
+        ReadValueId a = valueOf(new NodeId(2, "a"));
+        ReadValueId b = valueOf(new NodeId(2, "b"));
+        ReadValueId c = valueOf(new NodeId(2, "c"));
+
+        cache.get(a, 60_000, () -> read(reads)).join();
+        cache.get(b, 60_000, () -> read(reads)).join();
+        cache.get(a, 60_000, () -> read(reads)).join();
+        cache.get(c, 60_000, () -> read(reads)).join();
+
+        assertEquals(reads.get(), 3);
+        assertEquals(cache.size(), 2);
+
+        // a was used more recently than b, so b was evicted to make room for c.
+        assertEquals(cache.get(a, 60_000, () -> read(reads)).join().getValue().getValue(), 1);
+        assertEquals(cache.get(b, 60_000, () -> read(reads)).join().getValue().getValue(), 4);
+    }
+
+    private static ReadValueId valueOf(NodeId nodeId) {
+        return new ReadValueId(nodeId, AttributeId.Value.uid(), null, QualifiedName.NULL_VALUE);
+    }
+
+    private static CompletableFuture<DataValue> read(AtomicInteger reads) {
+        return CompletableFuture.completedFuture(new DataValue(new Variant(reads.incrementAndGet())));
+    }
+
+}
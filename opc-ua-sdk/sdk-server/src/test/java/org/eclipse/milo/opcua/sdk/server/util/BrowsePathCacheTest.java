@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.milo.opcua.sdk.core.Reference;
+import org.eclipse.milo.opcua.sdk.server.UaNodeManager;
+import org.eclipse.milo.opcua.stack.core.Identifiers;
+import org.eclipse.milo.opcua.stack.core.NamespaceTable;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.structured.BrowsePath;
+import org.eclipse.milo.opcua.stack.core.types.structured.BrowsePathResult;
+import org.eclipse.milo.opcua.stack.core.types.structured.BrowsePathTarget;
+import org.eclipse.milo.opcua.stack.core.types.structured.RelativePath;
+import org.eclipse.milo.opcua.stack.core.types.structured.RelativePathElement;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+public class BrowsePathCacheTest {
+
+    private final NodeId start = new NodeId(2, "start");
+    private final NodeId middle = new NodeId(2, "middle");
+    private final NodeId target = new NodeId(2, "target");
+
+    private final BrowsePathResult result = new BrowsePathResult(
+        StatusCode.GOOD,
+        new BrowsePathTarget[]{new BrowsePathTarget(target.expanded(), UInteger.MAX)}
+    );
+
+    @Test
+    public void testEqualPathsHit() {
+        BrowsePathCache cache = new BrowsePathCache();
+
+        cache.put(path("a", "b"), result, stamps(cache, start, middle, target));
+
+        assertSame(cache.get(path("a", "b")), result);
+        assertNull(cache.get(path("a", "c")));
+        assertEquals(cache.getHitCount(), 1);
+        assertEquals(cache.getMissCount(), 1);
+    }
+
+    @Test
+    public void testInvalidatedByDependency() {
+        BrowsePathCache cache = new BrowsePathCache();
+
+        cache.put(path("a", "b"), result, stamps(cache, start, middle, target));
+        cache.invalidate(new NodeId(2, "unrelated"));
+        assertEquals(cache.size(), 1);
+
+        cache.invalidate(middle);
+        assertNull(cache.get(path("a", "b")));
+        assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void testStaleResultIsNotCached() {
+        BrowsePathCache cache = new BrowsePathCache();
+
+        Map<NodeId, Long> stamps = stamps(cache, start, middle, target);
+
+        // A dependency changed while the path was being resolved.
+        cache.invalidate(target);
+
+        cache.put(path("a", "b"), result, stamps);
+        assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void testNodeManagerChangesInvalidate() {
+        BrowsePathCache cache = new BrowsePathCache();
+
+        UaNodeManager nodeManager = new UaNodeManager();
+        nodeManager.addChangeListener(cache);
+
+        cache.put(path("a", "b"), result, stamps(cache, start, middle, target));
+
+        // Adding a Reference and its inverse changes both of their source Nodes.
+        nodeManager.addReferences(
+            new Reference(target, Identifiers.HasComponent, new NodeId(2, "child").expanded(), true),
+            new NamespaceTable()
+        );
+
+        assertEquals(cache.size(), 0);
+
+        nodeManager.removeChangeListener(cache);
+        cache.put(path("a", "b"), result, stamps(cache, start, middle, target));
+        nodeManager.addReference(new Reference(start, Identifiers.Organizes, target.expanded(), true));
+
+        assertEquals(cache.size(), 1);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedResultIsEvicted() {
+        BrowsePathCache cache = new BrowsePathCache(2);
+
+        cache.put(path("a"), result, stamps(cache, start, target));
+        cache.put(path("b"), result, stamps(cache, start, target));
+        cache.get(path("a"));
+        cache.put(path("c"), result, stamps(cache, start, target));
+
+        assertEquals(cache.size(), 2);
+        assertSame(cache.get(path("a")), result);
+        assertSame(cache.get(path("c")), result);
+        assertNull(cache.get(path("b")));
+
+        // The evicted result no longer depends on anything; the remaining ones are still invalidated.
+        cache.invalidate(target);
+        assertEquals(cache.size(), 0);
+    }
+
+    private BrowsePath path(String... names) {
+        RelativePathElement[] elements = new RelativePathElement[names.length];
+
+        for (int i = 0; i < names.length; i++) {
+            elements[i] = new RelativePathElement(
+                Identifiers.HierarchicalReferences,
+                false,
+                true,
+                new QualifiedName(2, names[i])
+            );
+        }
+
+        return new BrowsePath(start, new RelativePath(elements));
+    }
+
+    private static Map<NodeId, Long> stamps(BrowsePathCache cache, NodeId... nodeIds) {
+        Map<NodeId, Long> stamps = new HashMap<>();
+
+        for (NodeId nodeId : nodeIds) {
+            stamps.put(nodeId, cache.stamp(nodeId));
+        }
+
+        return stamps;
+    }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class ConcurrentRingBufferTest {
+
+    @Test
+    public void testAddAndPoll() {
+        ConcurrentRingBuffer<Integer> buffer = new ConcurrentRingBuffer<>(3);
+
+        assertTrue(buffer.isEmpty());
+        assertNull(buffer.poll());
+
+        assertFalse(buffer.add(1, true, v -> -v));
+        assertFalse(buffer.add(2, true, v -> -v));
+        assertEquals(buffer.size(), 2);
+
+        assertEquals(buffer.poll(), Integer.valueOf(1));
+        assertEquals(buffer.poll(), Integer.valueOf(2));
+        assertNull(buffer.poll());
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void testDiscardOldest() {
+        ConcurrentRingBuffer<Integer> buffer = new ConcurrentRingBuffer<>(3);
+
+        for (int i = 1; i <= 3; i++) {
+            assertFalse(buffer.add(i, true, v -> -v));
+        }
+
+        assertTrue(buffer.add(4, true, v -> -v));
+        assertTrue(buffer.add(5, true, v -> -v));
+        assertEquals(buffer.size(), 3);
+
+        assertEquals(drain(buffer), list(3, -4, -5));
+    }
+
+    @Test
+    public void testDiscardNewest() {
+        ConcurrentRingBuffer<Integer> buffer = new ConcurrentRingBuffer<>(3);
+
+        for (int i = 1; i <= 3; i++) {
+            assertFalse(buffer.add(i, false, v -> -v));
+        }
+
+        assertTrue(buffer.add(4, false, v -> -v));
+        assertTrue(buffer.add(5, false, v -> -v));
+        assertEquals(buffer.size(), 3);
+
+        assertEquals(drain(buffer), list(1, 2, -5));
+    }
+
+    @Test
+    public void testSizeOne() {
+        ConcurrentRingBuffer<Integer> buffer = new ConcurrentRingBuffer<>(1);
+
+        assertFalse(buffer.add(1, false, v -> -v));
+        assertTrue(buffer.add(2, false, v -> -v));
+        assertEquals(drain(buffer), list(-2));
+
+        assertFalse(buffer.add(3, true, v -> -v));
+        assertTrue(buffer.add(4, true, v -> -v));
+        assertEquals(drain(buffer), list(-4));
+    }
+
+    @Test
+    public void testClear() {
+        ConcurrentRingBuffer<Integer> buffer = new ConcurrentRingBuffer<>(4);
+
+        for (int i = 0; i < 10; i++) {
+            buffer.add(i, true, v -> v);
+        }
+
+        buffer.clear();
+
+        assertTrue(buffer.isEmpty());
+        assertEquals(buffer.size(), 0);
+
+        buffer.add(10, true, v -> v);
+        assertEquals(drain(buffer), list(10));
+    }
+
+    @Test
+    public void testConcurrentDiscardOldest() throws InterruptedException {
+        testConcurrent(true);
+    }
+
+    @Test
+    public void testConcurrentDiscardNewest() throws InterruptedException {
+        testConcurrent(false);
+    }
+
+    /**
+     * One producer adds increasing values while two consumers poll; every value must be either consumed exactly once,
+     * in order, or accounted for as discarded.
+     */
+    private void testConcurrent(boolean discardOldest) throws InterruptedException {
+        final int count = 200_000;
+
+        ConcurrentRingBuffer<Integer> buffer = new ConcurrentRingBuffer<>(8);
+        AtomicBoolean done = new AtomicBoolean(false);
+
+        List<List<Integer>> consumed = new ArrayList<>();
+        List<Thread> consumers = new ArrayList<>();
+
+        for (int i = 0; i < 2; i++) {
+            List<Integer> values = new ArrayList<>();
+            consumed.add(values);
+
+            Thread consumer = new Thread(() -> {
+                while (true) {
+                    boolean finished = done.get();
+                    Integer value = buffer.poll();
+
+                    if (value != null) {
+                        values.add(value);
+                    } else if (finished) {
+                        break;
+                    }
+                }
+            });
+
+            consumers.add(consumer);
+            consumer.start();
+        }
+
+        int discarded = 0;
+
+        for (int i = 0; i < count; i++) {
+            if (buffer.add(i, discardOldest, v -> v)) {
+                discarded++;
+            }
+        }
+
+        done.set(true);
+
+        for (Thread consumer : consumers) {
+            consumer.join();
+        }
+
+        int total = 0;
+
+        for (List<Integer> values : consumed) {
+            for (int i = 1; i < values.size(); i++) {
+                assertTrue(values.get(i) > values.get(i - 1));
+            }
+
+            total += values.size();
+        }
+
+        assertEquals(total + discarded, count);
+        assertTrue(buffer.isEmpty());
+    }
+
+    private static List<Integer> drain(ConcurrentRingBuffer<Integer> buffer) {
+        List<Integer> values = new ArrayList<>();
+
+        Integer value;
+        while ((value = buffer.poll()) != null) {
+            values.add(value);
+        }
+
+        return values;
+    }
+
+    private static List<Integer> list(Integer... values) {
+        List<Integer> list = new ArrayList<>();
+
+        for (Integer value : values) {
+            list.add(value);
+        }
+
+        return list;
+    }
+
+}
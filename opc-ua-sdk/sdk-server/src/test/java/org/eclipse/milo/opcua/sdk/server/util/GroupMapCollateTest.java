@@ -11,6 +11,7 @@ import org.testng.annotations.Test;
 import static java.util.stream.Collectors.toList;
 import static org.eclipse.milo.opcua.sdk.server.util.GroupMapCollate.groupMapCollate;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
 
 public class GroupMapCollateTest {
 
@@ -45,4 +46,31 @@ public class GroupMapCollateTest {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testSingleGroupIsMappedDirectly() throws ExecutionException, InterruptedException {
+        List<Integer> items = new ArrayList<>();
+        IntStream.range(0, 10).forEach(items::add);
+
+        List<List<Integer>> groups = new ArrayList<>();
+
+        List<String> strings = groupMapCollate(
+            items,
+            item -> "key",
+            key -> group -> {
+                groups.add(group);
+
+                return CompletableFuture.completedFuture(
+                    group.stream().map(Object::toString).collect(toList())
+                );
+            }
+        ).get();
+
+        assertEquals(groups.size(), 1);
+        assertSame(groups.get(0), items);
+
+        for (int j = 0; j < strings.size(); j++) {
+            assertEquals(String.valueOf(j), strings.get(j));
+        }
+    }
+
+}
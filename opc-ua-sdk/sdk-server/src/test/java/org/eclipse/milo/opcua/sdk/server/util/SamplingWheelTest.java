@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
+
+import com.google.common.collect.ImmutableList;
+import org.eclipse.milo.opcua.sdk.server.api.DataItem;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class SamplingWheelTest {
+
+    private ScheduledExecutorService scheduler;
+
+    @BeforeClass
+    public void setup() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterClass
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testItemsAreSampledOnAddAndEveryInterval() throws InterruptedException {
+        List<List<DataItem>> samples = new CopyOnWriteArrayList<>();
+        SamplingWheel<DataItem> wheel = newWheel(items -> record(samples, items));
+
+        DataItem item = item(50.0);
+        wheel.addAll(ImmutableList.of(item));
+
+        assertEquals(samples.size(), 1);
+        assertEquals(samples.get(0), ImmutableList.of(item));
+
+        Thread.sleep(500);
+
+        wheel.removeAll(ImmutableList.of(item));
+        int sampled = samples.size();
+
+        // One sample on add, then one every 50ms, allowing for a late scheduler.
+        assertTrue(sampled >= 5 && sampled <= 13, "sampled=" + sampled);
+
+        Thread.sleep(200);
+        assertEquals(samples.size(), sampled);
+    }
+
+    @Test
+    public void testIntervalsAreBucketedByTick() {
+        SamplingWheel<DataItem> wheel = newWheel(items -> CompletableFuture.completedFuture(null));
+
+        List<DataItem> items = new ArrayList<>();
+        items.add(item(91.0));
+        items.add(item(100.0));
+        items.add(item(101.0));
+        items.add(item(0.0));
+        items.add(item(1.0));
+
+        wheel.addAll(items);
+
+        assertEquals(wheel.size(), 5);
+        assertEquals(wheel.getBucketCount(), 3);
+
+        wheel.removeAll(items.subList(0, 2));
+
+        assertEquals(wheel.size(), 3);
+        assertEquals(wheel.getBucketCount(), 2);
+
+        wheel.removeAll(items);
+
+        assertEquals(wheel.size(), 0);
+        assertEquals(wheel.getBucketCount(), 0);
+    }
+
+    @Test
+    public void testAlignedBucketsAreSampledTogether() throws InterruptedException {
+        List<List<DataItem>> samples = new CopyOnWriteArrayList<>();
+        SamplingWheel<DataItem> wheel = newWheel(items -> record(samples, items));
+
+        DataItem fast = item(50.0);
+        DataItem slow = item(100.0);
+        wheel.addAll(ImmutableList.of(fast, slow));
+
+        Thread.sleep(500);
+        wheel.removeAll(ImmutableList.of(fast, slow));
+
+        boolean together = samples.stream()
+            .skip(1)
+            .anyMatch(items -> items.contains(fast) && items.contains(slow));
+
+        boolean slowAlone = samples.stream()
+            .skip(1)
+            .anyMatch(items -> items.contains(slow) && !items.contains(fast));
+
+        assertTrue(together);
+        assertFalse(slowAlone);
+    }
+
+    @Test
+    public void testIncompleteSampleIsNotRepeated() throws InterruptedException {
+        List<List<DataItem>> samples = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> never = new CompletableFuture<>();
+
+        SamplingWheel<DataItem> wheel = newWheel(items -> {
+            samples.add(items);
+            return samples.size() == 1 ? CompletableFuture.completedFuture(null) : never;
+        });
+
+        DataItem item = item(10.0);
+        wheel.addAll(ImmutableList.of(item));
+
+        Thread.sleep(200);
+        wheel.removeAll(ImmutableList.of(item));
+
+        // The sample on add, then the first tick's, which never completes.
+        assertEquals(samples.size(), 2);
+    }
+
+    private SamplingWheel<DataItem> newWheel(Function<List<DataItem>, CompletableFuture<?>> sampler) {
+        return new SamplingWheel<>(scheduler, 10L, DataItem::getSamplingInterval, sampler);
+    }
+
+    private static CompletableFuture<?> record(List<List<DataItem>> samples, List<DataItem> items) {
+        samples.add(items);
+
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private static DataItem item(double samplingInterval) {
+        DataItem item = mock(DataItem.class);
+        when(item.getSamplingInterval()).thenReturn(samplingInterval);
+        return item;
+    }
+
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.util;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableList;
+import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
+import org.eclipse.milo.opcua.sdk.server.UaNodeManager;
+import org.eclipse.milo.opcua.sdk.server.api.DataItem;
+import org.eclipse.milo.opcua.sdk.server.api.services.AttributeServices;
+import org.eclipse.milo.opcua.sdk.server.api.services.AttributeServices.ReadContext;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaNodeContext;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaVariableNode;
+import org.eclipse.milo.opcua.sdk.server.nodes.delegates.AttributeDelegate;
+import org.eclipse.milo.opcua.stack.core.AttributeId;
+import org.eclipse.milo.opcua.stack.core.Identifiers;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class SubscriptionModelTest {
+
+    private final UaNodeContext context = mock(UaNodeContext.class);
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduler;
+    private OpcUaServer server;
+
+    @BeforeClass
+    public void setup() {
+        executor = Executors.newCachedThreadPool();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+
+        server = mock(OpcUaServer.class);
+        when(server.getExecutorService()).thenReturn(executor);
+        when(server.getScheduledExecutorService()).thenReturn(scheduler);
+    }
+
+    @AfterClass
+    public void tearDown() {
+        executor.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testChangesAreSampled() throws InterruptedException {
+        UaNodeManager nodeManager = new UaNodeManager();
+        UaVariableNode node = variable(nodeManager);
+
+        AttributeServices attributeServices = mock(AttributeServices.class);
+        SubscriptionModel subscriptionModel = new SubscriptionModel(server, attributeServices, nodeManager);
+
+        TestDataItem item = new TestDataItem(node.getNodeId(), 0.0);
+        subscriptionModel.onDataItemsCreated(ImmutableList.of(item));
+
+        awaitTrue(() -> item.values.size() == 1);
+
+        node.setValue(new DataValue(new Variant(1)));
+        node.setValue(new DataValue(new Variant(2)));
+
+        awaitTrue(() -> item.values.size() == 3);
+        assertEquals(item.values.get(2).getValue().getValue(), 2);
+
+        subscriptionModel.onDataItemsDeleted(ImmutableList.of(item));
+        Thread.sleep(100);
+
+        node.setValue(new DataValue(new Variant(3)));
+        assertEquals(item.values.size(), 3);
+    }
+
+    @Test
+    public void testChangesAreRateLimited() throws InterruptedException {
+        UaNodeManager nodeManager = new UaNodeManager();
+        UaVariableNode node = variable(nodeManager);
+
+        AttributeServices attributeServices = mock(AttributeServices.class);
+        SubscriptionModel subscriptionModel = new SubscriptionModel(server, attributeServices, nodeManager);
+
+        TestDataItem item = new TestDataItem(node.getNodeId(), 250.0);
+        subscriptionModel.onDataItemsCreated(ImmutableList.of(item));
+
+        awaitTrue(() -> item.values.size() == 1);
+
+        for (int i = 1; i <= 10; i++) {
+            node.setValue(new DataValue(new Variant(i)));
+        }
+
+        // Changes within the sampling interval are coalesced into one sample of the latest value.
+        awaitTrue(() -> item.values.size() == 2);
+        Thread.sleep(500);
+
+        assertEquals(item.values.size(), 2);
+        assertEquals(item.values.get(1).getValue().getValue(), 10);
+
+        subscriptionModel.onDataItemsDeleted(ImmutableList.of(item));
+    }
+
+    @Test
+    public void testDelegatedNodesArePolled() {
+        UaNodeManager nodeManager = new UaNodeManager();
+        UaVariableNode node = variable(nodeManager);
+        node.setAttributeDelegate(new AttributeDelegate() {});
+
+        AttributeServices attributeServices = mock(AttributeServices.class);
+        SubscriptionModel subscriptionModel = new SubscriptionModel(server, attributeServices, nodeManager);
+
+        TestDataItem item = new TestDataItem(node.getNodeId(), 100.0);
+        subscriptionModel.onDataItemsCreated(ImmutableList.of(item));
+
+        verify(attributeServices, timeout(5000).atLeastOnce())
+            .read(any(), anyDouble(), any(), anyList());
+
+        subscriptionModel.onDataItemsDeleted(ImmutableList.of(item));
+
+        assertTrue(item.values.isEmpty());
+    }
+
+    @Test
+    public void testComputedValuesArePolled() {
+        UaNodeManager nodeManager = new UaNodeManager();
+
+        UaVariableNode node = new UaVariableNode(
+            context,
+            new NodeId(2, "Computed"),
+            new QualifiedName(2, "Computed"),
+            LocalizedText.english("Computed")) {
+
+            @Override
+            public DataValue getValue() {
+                return new DataValue(new Variant(System.nanoTime()));
+            }
+        };
+        nodeManager.addNode(node);
+
+        assertFalse(node.isAttributeChangeReported(AttributeId.Value));
+        assertTrue(node.isAttributeChangeReported(AttributeId.BrowseName));
+
+        AttributeServices attributeServices = mock(AttributeServices.class);
+        SubscriptionModel subscriptionModel = new SubscriptionModel(server, attributeServices, nodeManager);
+
+        TestDataItem item = new TestDataItem(node.getNodeId(), 100.0);
+        subscriptionModel.onDataItemsCreated(ImmutableList.of(item));
+
+        verify(attributeServices, timeout(5000).atLeast(2))
+            .read(any(), anyDouble(), any(), anyList());
+
+        subscriptionModel.onDataItemsDeleted(ImmutableList.of(item));
+
+        assertTrue(item.values.isEmpty());
+    }
+
+    @Test
+    public void testIdenticalItemsShareOneRead() throws InterruptedException {
+        List<List<ReadValueId>> reads = new CopyOnWriteArrayList<>();
+
+        AttributeServices attributeServices = mock(AttributeServices.class);
+        doAnswer(invocation -> {
+            ReadContext context = invocation.getArgument(0);
+            List<ReadValueId> ids = invocation.getArgument(3);
+
+            reads.add(ids);
+            context.success(
+                ids.stream()
+                    .map(id -> new DataValue(new Variant(42)))
+                    .collect(Collectors.toList())
+            );
+
+            return null;
+        }).when(attributeServices).read(any(), anyDouble(), any(), anyList());
+
+        SubscriptionModel subscriptionModel = new SubscriptionModel(server, attributeServices);
+
+        NodeId nodeId = new NodeId(2, "Shared");
+
+        List<TestDataItem> items = ImmutableList.of(
+            new TestDataItem(nodeId, 60_000.0),
+            new TestDataItem(nodeId, 60_000.0),
+            new TestDataItem(nodeId, 60_000.0),
+            new TestDataItem(nodeId, 30_000.0)
+        );
+
+        subscriptionModel.onDataItemsCreated(ImmutableList.copyOf(items));
+
+        awaitTrue(() -> items.stream().allMatch(item -> item.values.size() == 1));
+
+        // One read of the two distinct sources, fanned out to all four items.
+        assertEquals(reads.size(), 1);
+        assertEquals(reads.get(0).size(), 2);
+
+        items.forEach(item -> assertEquals(item.values.get(0).getValue().getValue(), 42));
+
+        // An item joining an existing source is sampled on its own.
+        TestDataItem joining = new TestDataItem(nodeId, 60_000.0);
+        subscriptionModel.onDataItemsCreated(ImmutableList.of(joining));
+
+        awaitTrue(() -> joining.values.size() == 1);
+        assertEquals(reads.size(), 2);
+        assertEquals(reads.get(1).size(), 1);
+        items.forEach(item -> assertEquals(item.values.size(), 1));
+
+        List<DataItem> all = ImmutableList.<DataItem>builder().addAll(items).add(joining).build();
+        subscriptionModel.onDataItemsDeleted(all);
+    }
+
+    private UaVariableNode variable(UaNodeManager nodeManager) {
+        UaVariableNode node = new UaVariableNode(
+            context,
+            new NodeId(2, "Variable"),
+            new QualifiedName(2, "Variable"),
+            LocalizedText.english("Variable")
+        );
+
+        node.setDataType(Identifiers.Int32);
+        node.setValue(new DataValue(new Variant(0)));
+
+        nodeManager.addNode(node);
+
+        return node;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("condition not met within 5s");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static class TestDataItem implements DataItem {
+
+        private final List<DataValue> values = new CopyOnWriteArrayList<>();
+
+        private final ReadValueId readValueId;
+        private final double samplingInterval;
+
+        TestDataItem(NodeId nodeId, double samplingInterval) {
+            this.readValueId = new ReadValueId(nodeId, AttributeId.Value.uid(), null, QualifiedName.NULL_VALUE);
+            this.samplingInterval = samplingInterval;
+        }
+
+        @Override
+        public void setValue(DataValue value) {
+            values.add(value);
+        }
+
+        @Override
+        public void setQuality(StatusCode quality) {}
+
+        @Override
+        public double getSamplingInterval() {
+            return samplingInterval;
+        }
+
+        @Override
+        public UInteger getId() {
+            return uint(1);
+        }
+
+        @Override
+        public UInteger getSubscriptionId() {
+            return uint(1);
+        }
+
+        @Override
+        public ReadValueId getReadValueId() {
+            return readValueId;
+        }
+
+        @Override
+        public TimestampsToReturn getTimestampsToReturn() {
+            return TimestampsToReturn.Both;
+        }
+
+        @Override
+        public boolean isSamplingEnabled() {
+            return true;
+        }
+
+    }
+
+}
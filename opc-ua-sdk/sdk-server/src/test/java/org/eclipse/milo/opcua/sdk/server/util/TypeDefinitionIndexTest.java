@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.server.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TypeDefinitionIndexTest {
+
+    private final NodeId typeA = new NodeId(2, "TypeA");
+    private final NodeId typeB = new NodeId(2, "TypeB");
+
+    private final NodeId foo = new NodeId(2, "foo");
+    private final NodeId bar = new NodeId(2, "bar");
+
+    @Test
+    public void testBuiltOnFirstUse() {
+        Map<NodeId, NodeId> nodes = new HashMap<>();
+        nodes.put(foo, typeA);
+        nodes.put(bar, typeA);
+
+        AtomicInteger lookups = new AtomicInteger();
+
+        TypeDefinitionIndex index = new TypeDefinitionIndex(
+            nodes::keySet,
+            nodeId -> {
+                lookups.incrementAndGet();
+                return nodes.get(nodeId);
+            }
+        );
+
+        // Changes before the first lookup cost nothing.
+        index.onNodeChanged(foo);
+        assertEquals(lookups.get(), 0);
+
+        assertEquals(index.getInstances(typeA).size(), 2);
+        assertTrue(index.getInstances(typeB).isEmpty());
+        assertEquals(lookups.get(), 2);
+    }
+
+    @Test
+    public void testChangesAreApplied() {
+        Map<NodeId, NodeId> nodes = new HashMap<>();
+        nodes.put(foo, typeA);
+
+        TypeDefinitionIndex index = new TypeDefinitionIndex(nodes::keySet, nodes::get);
+
+        assertEquals(index.getInstances(typeA), Collections.singletonList(foo));
+
+        // bar added, foo's TypeDefinition changed.
+        nodes.put(bar, typeA);
+        nodes.put(foo, typeB);
+        index.onNodeChanged(bar);
+        index.onNodeChanged(foo);
+
+        assertEquals(index.getInstances(typeA), Collections.singletonList(bar));
+        assertEquals(index.getInstances(typeB), Collections.singletonList(foo));
+
+        // foo removed.
+        nodes.remove(foo);
+        index.onNodeChanged(foo);
+
+        assertTrue(index.getInstances(typeB).isEmpty());
+
+        // Reset discards the index; it's rebuilt from the Nodes that exist now.
+        nodes.put(foo, typeA);
+        index.reset();
+
+        assertEquals(index.getInstances(typeA).size(), 2);
+        assertTrue(index.getInstances(typeA).containsAll(Arrays.asList(foo, bar)));
+    }
+
+}
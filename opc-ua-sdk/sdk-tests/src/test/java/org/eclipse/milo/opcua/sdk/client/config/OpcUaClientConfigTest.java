@@ -33,6 +33,7 @@ public class OpcUaClientConfigTest {
             .setIdentityProvider(new AnonymousProvider())
             .setBsdParser(new GenericBsdParser())
             .setSessionLocaleIds(new String[]{"en", "es"})
+            .setLazyNotificationDecoding(true)
             .build();
 
         OpcUaClientConfig copy = OpcUaClientConfig.copy(original).build();
@@ -48,6 +49,7 @@ public class OpcUaClientConfigTest {
         assertEquals(copy.getKeepAliveInterval(), original.getKeepAliveInterval());
         assertEquals(copy.getKeepAliveTimeout(), original.getKeepAliveTimeout());
         assertEquals(copy.getSessionLocaleIds(), original.getSessionLocaleIds());
+        assertEquals(copy.isLazyNotificationDecoding(), original.isLazyNotificationDecoding());
     }
 
     @Test
@@ -74,6 +76,7 @@ public class OpcUaClientConfigTest {
                     .setKeepAliveInterval(uint(10000))
                     .setKeepAliveTimeout(uint(15000))
                     .setSessionLocaleIds(new String[]{"en", "es"})
+                    .setLazyNotificationDecoding(true)
         );
 
         assertNotEquals(copy.getSessionName(), original.getSessionName());
@@ -89,6 +92,7 @@ public class OpcUaClientConfigTest {
         assertEquals(copy.getKeepAliveInterval(), uint(10000));
         assertEquals(copy.getKeepAliveTimeout(), uint(15000));
         assertEquals(copy.getSessionLocaleIds(), new String[]{"en", "es"});
+        assertEquals(copy.isLazyNotificationDecoding(), true);
     }
 
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.sdk.client.subscriptions;
+
+import org.eclipse.milo.opcua.stack.core.NamespaceTable;
+import org.eclipse.milo.opcua.stack.core.UaSerializationException;
+import org.eclipse.milo.opcua.stack.core.serialization.EncodingLimits;
+import org.eclipse.milo.opcua.stack.core.serialization.SerializationContext;
+import org.eclipse.milo.opcua.stack.core.types.DataTypeManager;
+import org.eclipse.milo.opcua.stack.core.types.OpcUaDataTypeManager;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.structured.DataChangeNotification;
+import org.eclipse.milo.opcua.stack.core.types.structured.MonitoredItemNotification;
+import org.testng.annotations.Test;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+public class LazyDataChangeNotificationTest {
+
+    private final SerializationContext context = new SerializationContext() {
+        private final NamespaceTable namespaceTable = new NamespaceTable();
+
+        @Override
+        public EncodingLimits getEncodingLimits() {
+            return EncodingLimits.DEFAULT;
+        }
+
+        @Override
+        public NamespaceTable getNamespaceTable() {
+            return namespaceTable;
+        }
+
+        @Override
+        public DataTypeManager getDataTypeManager() {
+            return OpcUaDataTypeManager.getInstance();
+        }
+    };
+
+    @Test
+    public void testDecode() {
+        MonitoredItemNotification[] notifications = new MonitoredItemNotification[]{
+            new MonitoredItemNotification(uint(1), new DataValue(new Variant(42))),
+            new MonitoredItemNotification(uint(2), new DataValue(new Variant("foo"), StatusCode.GOOD, DateTime.now())),
+            new MonitoredItemNotification(uint(3), new DataValue(new Variant(new Double[]{1.0, 2.0, 3.0}))),
+            new MonitoredItemNotification(uint(4), new DataValue(StatusCode.BAD))
+        };
+
+        LazyDataChangeNotification dcn = LazyDataChangeNotification.decode(context, encode(notifications));
+
+        assertEquals(dcn.size(), notifications.length);
+
+        // Decode out of order; each value is only decoded from its own slice.
+        for (int i = notifications.length - 1; i >= 0; i--) {
+            assertEquals(dcn.getClientHandle(i), notifications[i].getClientHandle());
+            assertEquals(dcn.getValue(i).get(), notifications[i].getValue());
+        }
+
+        assertSame(dcn.getValue(0).get(), dcn.getValue(0).get());
+    }
+
+    @Test
+    public void testDecodeEmpty() {
+        LazyDataChangeNotification dcn = LazyDataChangeNotification.decode(context, encode(null));
+
+        assertEquals(dcn.size(), 0);
+    }
+
+    @Test(expectedExceptions = UaSerializationException.class)
+    public void testDecodeTruncated() {
+        ByteString body = encode(new MonitoredItemNotification[]{
+            new MonitoredItemNotification(uint(1), new DataValue(new Variant("hello, world")))
+        });
+
+        byte[] bs = body.bytesOrEmpty();
+        byte[] truncated = new byte[bs.length - 8];
+        System.arraycopy(bs, 0, truncated, 0, truncated.length);
+
+        LazyDataChangeNotification.decode(context, ByteString.of(truncated));
+    }
+
+    private ByteString encode(MonitoredItemNotification[] notifications) {
+        ExtensionObject xo = ExtensionObject.encode(
+            context,
+            new DataChangeNotification(notifications, null)
+        );
+
+        return (ByteString) xo.getBody();
+    }
+
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.stack.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.ReferenceCountUtil;
+import org.eclipse.milo.opcua.stack.core.UaException;
+import org.eclipse.milo.opcua.stack.core.channel.ChannelParameters;
+import org.eclipse.milo.opcua.stack.core.channel.ChunkDecoder;
+import org.eclipse.milo.opcua.stack.core.channel.ChunkEncoder;
+import org.eclipse.milo.opcua.stack.core.channel.MessageAbortedException;
+import org.eclipse.milo.opcua.stack.core.channel.SecureChannel;
+import org.eclipse.milo.opcua.stack.core.channel.messages.MessageType;
+import org.eclipse.milo.opcua.stack.core.security.SecurityPolicy;
+import org.eclipse.milo.opcua.stack.core.serialization.EncodingLimits;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.MessageSecurityMode;
+import org.eclipse.milo.opcua.stack.core.util.BufferUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.eclipse.milo.opcua.stack.core.channel.MessageLimits.DEFAULT_MAX_CHUNK_SIZE;
+
+/**
+ * Throughput of {@link ChunkEncoder#encodeAsymmetric} and {@link ChunkDecoder#decodeAsymmetric} for each
+ * {@link SecurityPolicy}, using a message about the size of an OpenSecureChannelRequest.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AsymmetricChunkCodecBenchmark {
+
+    private static final int MESSAGE_SIZE = 256;
+
+    @Benchmark
+    public int encodeAsymmetric(ChannelState state) {
+        state.releaseEncodedChunks();
+
+        state.encodeMessage();
+
+        return state.encodedChunks.size();
+    }
+
+    @Benchmark
+    public int decodeAsymmetric(DecodeState state) {
+        List<ByteBuf> chunks = new ArrayList<>(state.encodedChunks);
+        state.encodedChunks.clear();
+
+        state.chunkDecoder.decodeAsymmetric(state.serverChannel, chunks, state.decoderCallback);
+
+        return state.decodedSize;
+    }
+
+    @State(Scope.Thread)
+    public static class ChannelState {
+
+        @Param({
+            "None",
+            "Basic128Rsa15",
+            "Basic256",
+            "Basic256Sha256",
+            "Aes128_Sha256_RsaOaep",
+            "Aes256_Sha256_RsaPss"
+        })
+        public String securityPolicy;
+
+        final ChannelParameters parameters = new ChannelParameters(
+            0,
+            DEFAULT_MAX_CHUNK_SIZE,
+            DEFAULT_MAX_CHUNK_SIZE,
+            0,
+            0,
+            DEFAULT_MAX_CHUNK_SIZE,
+            DEFAULT_MAX_CHUNK_SIZE,
+            0
+        );
+
+        final List<ByteBuf> encodedChunks = new ArrayList<>();
+
+        final ChunkEncoder.Callback encoderCallback = new ChunkEncoder.Callback() {
+            @Override
+            public void onEncodingError(UaException ex) {
+                throw new IllegalStateException(ex);
+            }
+
+            @Override
+            public void onMessageEncoded(List<ByteBuf> messageChunks, long requestId) {
+                encodedChunks.addAll(messageChunks);
+            }
+        };
+
+        final ChunkDecoder.Callback decoderCallback = new ChunkDecoder.Callback() {
+            @Override
+            public void onDecodingError(UaException ex) {
+                throw new IllegalStateException(ex);
+            }
+
+            @Override
+            public void onMessageAborted(MessageAbortedException ex) {
+                throw new IllegalStateException(ex);
+            }
+
+            @Override
+            public void onMessageDecoded(ByteBuf message, long requestId) {
+                decodedSize = message.readableBytes();
+
+                message.release();
+            }
+        };
+
+        SecureChannel clientChannel;
+        SecureChannel serverChannel;
+
+        ChunkEncoder chunkEncoder;
+        ChunkDecoder chunkDecoder;
+
+        ByteBuf messageBuffer;
+
+        long requestId = 1L;
+        int decodedSize;
+
+        @Setup(Level.Trial)
+        public void setup() throws Exception {
+            SecurityPolicy policy = SecurityPolicy.valueOf(securityPolicy);
+
+            SecureChannelPair channels = SecureChannelPair.create(
+                policy,
+                policy == SecurityPolicy.None ? MessageSecurityMode.None : MessageSecurityMode.SignAndEncrypt
+            );
+
+            clientChannel = channels.getClientChannel();
+            serverChannel = channels.getServerChannel();
+
+            chunkEncoder = new ChunkEncoder(parameters);
+            chunkDecoder = new ChunkDecoder(
+                parameters,
+                EncodingLimits.DEFAULT_MAX_ARRAY_LENGTH,
+                EncodingLimits.DEFAULT_MAX_STRING_LENGTH
+            );
+
+            byte[] messageBytes = new byte[MESSAGE_SIZE];
+            for (int i = 0; i < messageBytes.length; i++) {
+                messageBytes[i] = (byte) i;
+            }
+
+            messageBuffer = BufferUtil.pooledBuffer(MESSAGE_SIZE).writeBytes(messageBytes);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            releaseEncodedChunks();
+
+            messageBuffer.release();
+        }
+
+        void encodeMessage() {
+            chunkEncoder.encodeAsymmetric(
+                clientChannel,
+                requestId++,
+                messageBuffer.readerIndex(0),
+                MessageType.OpenSecureChannel,
+                encoderCallback
+            );
+        }
+
+        void releaseEncodedChunks() {
+            encodedChunks.forEach(ReferenceCountUtil::safeRelease);
+            encodedChunks.clear();
+        }
+
+    }
+
+    @State(Scope.Thread)
+    public static class DecodeState extends ChannelState {
+
+        /**
+         * Chunks are decrypted in place and each one carries a sequence number the decoder verifies, so every
+         * invocation needs a freshly encoded message.
+         */
+        @Setup(Level.Invocation)
+        public void encodeChunks() {
+            releaseEncodedChunks();
+
+            encodeMessage();
+        }
+
+    }
+
+}
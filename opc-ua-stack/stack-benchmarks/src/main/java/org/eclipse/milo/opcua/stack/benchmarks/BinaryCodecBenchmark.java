@@ -0,0 +1,352 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.stack.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Strings;
+import io.netty.buffer.ByteBuf;
+import org.eclipse.milo.opcua.stack.core.AttributeId;
+import org.eclipse.milo.opcua.stack.core.Identifiers;
+import org.eclipse.milo.opcua.stack.core.serialization.OpcUaBinaryStreamDecoder;
+import org.eclipse.milo.opcua.stack.core.serialization.OpcUaBinaryStreamEncoder;
+import org.eclipse.milo.opcua.stack.core.serialization.SerializationContext;
+import org.eclipse.milo.opcua.stack.core.serialization.UaMessage;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.structured.DataChangeNotification;
+import org.eclipse.milo.opcua.stack.core.types.structured.MonitoredItemNotification;
+import org.eclipse.milo.opcua.stack.core.types.structured.NotificationMessage;
+import org.eclipse.milo.opcua.stack.core.types.structured.PublishResponse;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadResponse;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
+import org.eclipse.milo.opcua.stack.core.types.structured.ResponseHeader;
+import org.eclipse.milo.opcua.stack.core.util.BufferUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+
+/**
+ * Throughput of {@link OpcUaBinaryStreamEncoder} and {@link OpcUaBinaryStreamDecoder} for built-in scalars,
+ * strings, {@link Variant} arrays, {@link ExtensionObject}s and complete Read and Publish responses.
+ * <p>
+ * {@code itemCount} controls the length of the array Variants and the number of results/notifications in each
+ * response message.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BinaryCodecBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int itemCount;
+
+    private final SerializationContext context = new BenchmarkSerializationContext();
+
+    private OpcUaBinaryStreamEncoder encoder;
+    private OpcUaBinaryStreamDecoder decoder;
+    private OpcUaBinaryStreamDecoder primitiveArrayDecoder;
+
+    private ByteBuf encodeBuffer;
+
+    private String stringValue;
+    private Variant doubleArrayVariant;
+    private Variant primitiveDoubleArrayVariant;
+    private Variant int32ArrayVariant;
+    private ReadValueId structValue;
+    private ReadResponse readResponse;
+    private DataChangeNotification dataChangeNotification;
+
+    private ByteBuf scalarsEncoded;
+    private ByteBuf stringEncoded;
+    private ByteBuf doubleArrayEncoded;
+    private ByteBuf int32ArrayEncoded;
+    private ByteBuf extensionObjectEncoded;
+    private ByteBuf readResponseEncoded;
+    private ByteBuf publishResponseEncoded;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        encoder = new OpcUaBinaryStreamEncoder(context);
+        decoder = new OpcUaBinaryStreamDecoder(context);
+        primitiveArrayDecoder = new OpcUaBinaryStreamDecoder(context).setPrimitiveArrays(true);
+
+        encodeBuffer = BufferUtil.pooledBuffer();
+
+        stringValue = Strings.repeat("milo", 16);
+
+        Double[] doubles = new Double[itemCount];
+        double[] primitiveDoubles = new double[itemCount];
+        Integer[] ints = new Integer[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            doubles[i] = i * 1.5d;
+            primitiveDoubles[i] = i * 1.5d;
+            ints[i] = i;
+        }
+        doubleArrayVariant = new Variant(doubles);
+        primitiveDoubleArrayVariant = new Variant(primitiveDoubles);
+        int32ArrayVariant = new Variant(ints);
+
+        structValue = new ReadValueId(
+            new NodeId(2, "Devices/Device1/Tag1"),
+            AttributeId.Value.uid(),
+            null,
+            QualifiedName.NULL_VALUE
+        );
+
+        readResponse = newReadResponse(itemCount);
+        dataChangeNotification = newDataChangeNotification(itemCount);
+
+        scalarsEncoded = encode(this::writeScalars);
+        stringEncoded = encode(() -> encoder.writeString(stringValue));
+        doubleArrayEncoded = encode(() -> encoder.writeVariant(doubleArrayVariant));
+        int32ArrayEncoded = encode(() -> encoder.writeVariant(int32ArrayVariant));
+        extensionObjectEncoded = encode(() ->
+            encoder.writeExtensionObject(ExtensionObject.encode(context, structValue)));
+        readResponseEncoded = encode(() -> encoder.writeMessage(null, readResponse));
+        publishResponseEncoded = encode(() -> encoder.writeMessage(null, newPublishResponse(false)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        encodeBuffer.release();
+        scalarsEncoded.release();
+        stringEncoded.release();
+        doubleArrayEncoded.release();
+        int32ArrayEncoded.release();
+        extensionObjectEncoded.release();
+        readResponseEncoded.release();
+        publishResponseEncoded.release();
+    }
+
+    @Benchmark
+    public ByteBuf encodeScalars() {
+        encoder.setBuffer(encodeBuffer.clear());
+        writeScalars();
+        return encodeBuffer;
+    }
+
+    @Benchmark
+    public Object decodeScalars() {
+        decoder.setBuffer(scalarsEncoded.readerIndex(0));
+
+        decoder.readBoolean();
+        decoder.readInt32();
+        decoder.readUInt32();
+        decoder.readInt64();
+        decoder.readFloat();
+        decoder.readDouble();
+        decoder.readDateTime();
+        decoder.readStatusCode();
+        return decoder.readNodeId();
+    }
+
+    @Benchmark
+    public ByteBuf encodeString() {
+        encoder.setBuffer(encodeBuffer.clear());
+        encoder.writeString(stringValue);
+        return encodeBuffer;
+    }
+
+    @Benchmark
+    public String decodeString() {
+        return decoder.setBuffer(stringEncoded.readerIndex(0)).readString();
+    }
+
+    @Benchmark
+    public ByteBuf encodeDoubleArrayVariant() {
+        encoder.setBuffer(encodeBuffer.clear());
+        encoder.writeVariant(doubleArrayVariant);
+        return encodeBuffer;
+    }
+
+    @Benchmark
+    public Variant decodeDoubleArrayVariant() {
+        return decoder.setBuffer(doubleArrayEncoded.readerIndex(0)).readVariant();
+    }
+
+    @Benchmark
+    public ByteBuf encodePrimitiveDoubleArrayVariant() {
+        encoder.setBuffer(encodeBuffer.clear());
+        encoder.writeVariant(primitiveDoubleArrayVariant);
+        return encodeBuffer;
+    }
+
+    @Benchmark
+    public Variant decodePrimitiveDoubleArrayVariant() {
+        return primitiveArrayDecoder.setBuffer(doubleArrayEncoded.readerIndex(0)).readVariant();
+    }
+
+    @Benchmark
+    public ByteBuf encodeInt32ArrayVariant() {
+        encoder.setBuffer(encodeBuffer.clear());
+        encoder.writeVariant(int32ArrayVariant);
+        return encodeBuffer;
+    }
+
+    @Benchmark
+    public Variant decodeInt32ArrayVariant() {
+        return decoder.setBuffer(int32ArrayEncoded.readerIndex(0)).readVariant();
+    }
+
+    @Benchmark
+    public ByteBuf encodeExtensionObject() {
+        encoder.setBuffer(encodeBuffer.clear());
+        encoder.writeExtensionObject(ExtensionObject.encode(context, structValue));
+        return encodeBuffer;
+    }
+
+    @Benchmark
+    public Object decodeExtensionObject() {
+        ExtensionObject xo = decoder.setBuffer(extensionObjectEncoded.readerIndex(0)).readExtensionObject();
+
+        return xo.decode(context);
+    }
+
+    @Benchmark
+    public ByteBuf encodeReadResponse() {
+        encoder.setBuffer(encodeBuffer.clear());
+        encoder.writeMessage(null, readResponse);
+        return encodeBuffer;
+    }
+
+    @Benchmark
+    public UaMessage decodeReadResponse() {
+        return decoder.setBuffer(readResponseEncoded.readerIndex(0)).readMessage(null);
+    }
+
+    /**
+     * Encode a PublishResponse the way a server subscription does, starting from the
+     * {@link DataChangeNotification} that has to be wrapped in an {@link ExtensionObject}.
+     */
+    @Benchmark
+    public ByteBuf encodePublishResponse() {
+        encoder.setBuffer(encodeBuffer.clear());
+        encoder.writeMessage(null, newPublishResponse(false));
+        return encodeBuffer;
+    }
+
+    /**
+     * Same as {@link #encodePublishResponse()}, but the {@link DataChangeNotification} is encoded directly into the
+     * destination buffer via {@link ExtensionObject#encodeDeferred}.
+     */
+    @Benchmark
+    public ByteBuf encodePublishResponseDeferred() {
+        encoder.setBuffer(encodeBuffer.clear());
+        encoder.writeMessage(null, newPublishResponse(true));
+        return encodeBuffer;
+    }
+
+    /**
+     * Decode a PublishResponse, including the {@link DataChangeNotification} in its {@link NotificationMessage},
+     * the way a client has to before it can deliver values.
+     */
+    @Benchmark
+    public Object decodePublishResponse() {
+        PublishResponse response = (PublishResponse) decoder
+            .setBuffer(publishResponseEncoded.readerIndex(0))
+            .readMessage(null);
+
+        ExtensionObject[] notificationData = response.getNotificationMessage().getNotificationData();
+
+        assert notificationData != null;
+
+        return notificationData[0].decode(context);
+    }
+
+    private void writeScalars() {
+        encoder.writeBoolean(true);
+        encoder.writeInt32(42);
+        encoder.writeUInt32(uint(42));
+        encoder.writeInt64(42L);
+        encoder.writeFloat(42.0f);
+        encoder.writeDouble(42.0d);
+        encoder.writeDateTime(DateTime.now());
+        encoder.writeStatusCode(StatusCode.GOOD);
+        encoder.writeNodeId(Identifiers.Server_ServerStatus_CurrentTime);
+    }
+
+    private ByteBuf encode(Runnable write) {
+        ByteBuf buffer = BufferUtil.pooledBuffer();
+        encoder.setBuffer(buffer);
+        write.run();
+        return buffer;
+    }
+
+    private static ReadResponse newReadResponse(int itemCount) {
+        DataValue[] results = new DataValue[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            results[i] = new DataValue(new Variant(i * 1.5d), StatusCode.GOOD, DateTime.now(), DateTime.now());
+        }
+
+        return new ReadResponse(newResponseHeader(), results, null);
+    }
+
+    private PublishResponse newPublishResponse(boolean deferred) {
+        ExtensionObject notificationData = deferred ?
+            ExtensionObject.encodeDeferred(context, dataChangeNotification) :
+            ExtensionObject.encode(context, dataChangeNotification);
+
+        NotificationMessage notificationMessage = new NotificationMessage(
+            uint(1),
+            DateTime.now(),
+            new ExtensionObject[]{notificationData}
+        );
+
+        return new PublishResponse(
+            newResponseHeader(),
+            uint(1),
+            new UInteger[]{uint(1)},
+            false,
+            notificationMessage,
+            new StatusCode[0],
+            null
+        );
+    }
+
+    private static DataChangeNotification newDataChangeNotification(int itemCount) {
+        MonitoredItemNotification[] notifications = new MonitoredItemNotification[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            notifications[i] = new MonitoredItemNotification(
+                uint(i),
+                new DataValue(new Variant(i * 1.5d), StatusCode.GOOD, DateTime.now(), DateTime.now())
+            );
+        }
+
+        return new DataChangeNotification(notifications, null);
+    }
+
+    private static ResponseHeader newResponseHeader() {
+        return new ResponseHeader(DateTime.now(), uint(1), StatusCode.GOOD, null, null, null);
+    }
+
+}
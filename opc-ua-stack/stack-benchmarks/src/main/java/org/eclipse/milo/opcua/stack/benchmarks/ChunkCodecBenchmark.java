@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.stack.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.ReferenceCountUtil;
+import org.eclipse.milo.opcua.stack.core.UaException;
+import org.eclipse.milo.opcua.stack.core.channel.ChannelParameters;
+import org.eclipse.milo.opcua.stack.core.channel.ChunkDecoder;
+import org.eclipse.milo.opcua.stack.core.channel.ChunkEncoder;
+import org.eclipse.milo.opcua.stack.core.channel.MessageAbortedException;
+import org.eclipse.milo.opcua.stack.core.channel.SecureChannel;
+import org.eclipse.milo.opcua.stack.core.channel.messages.MessageType;
+import org.eclipse.milo.opcua.stack.core.security.SecurityPolicy;
+import org.eclipse.milo.opcua.stack.core.serialization.EncodingLimits;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.MessageSecurityMode;
+import org.eclipse.milo.opcua.stack.core.util.BufferUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.eclipse.milo.opcua.stack.core.channel.MessageLimits.DEFAULT_MAX_CHUNK_SIZE;
+
+/**
+ * Throughput of {@link ChunkEncoder#encodeSymmetric} and {@link ChunkDecoder#decodeSymmetric} for every valid
+ * {@link SecurityPolicy}/{@link MessageSecurityMode} combination and a range of message sizes.
+ * <p>
+ * {@code security} is a {@code SecurityPolicy:MessageSecurityMode} pair so that invalid combinations, e.g. a
+ * {@code None} policy in {@code SignAndEncrypt} mode, are never generated.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChunkCodecBenchmark {
+
+    @Benchmark
+    public int encodeSymmetric(ChannelState state) {
+        state.releaseEncodedChunks();
+
+        state.encodeMessage();
+
+        return state.encodedChunks.size();
+    }
+
+    @Benchmark
+    public int decodeSymmetric(DecodeState state) {
+        List<ByteBuf> chunks = new ArrayList<>(state.encodedChunks);
+        state.encodedChunks.clear();
+
+        state.chunkDecoder.decodeSymmetric(state.serverChannel, chunks, state.decoderCallback);
+
+        return state.decodedSize;
+    }
+
+    @State(Scope.Thread)
+    public static class ChannelState {
+
+        @Param({
+            "None:None",
+            "Basic128Rsa15:Sign",
+            "Basic128Rsa15:SignAndEncrypt",
+            "Basic256:Sign",
+            "Basic256:SignAndEncrypt",
+            "Basic256Sha256:Sign",
+            "Basic256Sha256:SignAndEncrypt",
+            "Aes128_Sha256_RsaOaep:Sign",
+            "Aes128_Sha256_RsaOaep:SignAndEncrypt",
+            "Aes256_Sha256_RsaPss:Sign",
+            "Aes256_Sha256_RsaPss:SignAndEncrypt"
+        })
+        public String security;
+
+        @Param({"1024", "65536", "1048576"})
+        public int messageSize;
+
+        final ChannelParameters parameters = new ChannelParameters(
+            0,
+            DEFAULT_MAX_CHUNK_SIZE,
+            DEFAULT_MAX_CHUNK_SIZE,
+            0,
+            0,
+            DEFAULT_MAX_CHUNK_SIZE,
+            DEFAULT_MAX_CHUNK_SIZE,
+            0
+        );
+
+        final List<ByteBuf> encodedChunks = new ArrayList<>();
+
+        final ChunkEncoder.Callback encoderCallback = new ChunkEncoder.Callback() {
+            @Override
+            public void onEncodingError(UaException ex) {
+                throw new IllegalStateException(ex);
+            }
+
+            @Override
+            public void onMessageEncoded(List<ByteBuf> messageChunks, long requestId) {
+                encodedChunks.addAll(messageChunks);
+            }
+        };
+
+        final ChunkDecoder.Callback decoderCallback = new ChunkDecoder.Callback() {
+            @Override
+            public void onDecodingError(UaException ex) {
+                throw new IllegalStateException(ex);
+            }
+
+            @Override
+            public void onMessageAborted(MessageAbortedException ex) {
+                throw new IllegalStateException(ex);
+            }
+
+            @Override
+            public void onMessageDecoded(ByteBuf message, long requestId) {
+                decodedSize = message.readableBytes();
+
+                message.release();
+            }
+        };
+
+        SecureChannel clientChannel;
+        SecureChannel serverChannel;
+
+        ChunkEncoder chunkEncoder;
+        ChunkDecoder chunkDecoder;
+
+        ByteBuf messageBuffer;
+
+        long requestId = 1L;
+        int decodedSize;
+
+        @Setup(Level.Trial)
+        public void setup() throws Exception {
+            String[] ss = security.split(":");
+            SecurityPolicy securityPolicy = SecurityPolicy.valueOf(ss[0]);
+            MessageSecurityMode messageSecurityMode = MessageSecurityMode.valueOf(ss[1]);
+
+            SecureChannelPair channels = SecureChannelPair.create(securityPolicy, messageSecurityMode);
+            clientChannel = channels.getClientChannel();
+            serverChannel = channels.getServerChannel();
+
+            chunkEncoder = new ChunkEncoder(parameters);
+            chunkDecoder = new ChunkDecoder(
+                parameters,
+                EncodingLimits.DEFAULT_MAX_ARRAY_LENGTH,
+                EncodingLimits.DEFAULT_MAX_STRING_LENGTH
+            );
+
+            byte[] messageBytes = new byte[messageSize];
+            for (int i = 0; i < messageBytes.length; i++) {
+                messageBytes[i] = (byte) i;
+            }
+
+            messageBuffer = BufferUtil.pooledBuffer(messageSize).writeBytes(messageBytes);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            releaseEncodedChunks();
+
+            messageBuffer.release();
+        }
+
+        void encodeMessage() {
+            chunkEncoder.encodeSymmetric(
+                clientChannel,
+                requestId++,
+                messageBuffer.readerIndex(0),
+                MessageType.SecureMessage,
+                encoderCallback
+            );
+        }
+
+        void releaseEncodedChunks() {
+            encodedChunks.forEach(ReferenceCountUtil::safeRelease);
+            encodedChunks.clear();
+        }
+
+    }
+
+    @State(Scope.Thread)
+    public static class DecodeState extends ChannelState {
+
+        /**
+         * Chunks are decrypted in place and each one carries a sequence number the decoder verifies, so every
+         * invocation needs a freshly encoded message. The cost of this per-invocation setup is negligible relative
+         * to chunk verification and decryption.
+         */
+        @Setup(Level.Invocation)
+        public void encodeChunks() {
+            releaseEncodedChunks();
+
+            encodeMessage();
+        }
+
+    }
+
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.stack.benchmarks;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.eclipse.milo.opcua.stack.core.transport.NettyTransport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Round trips over loopback TCP between a client and an echo server with the {@link NettyTransport#NIO} and
+ * {@link NettyTransport#EPOLL} transports, using the same bootstrap options as the stack.
+ * <p>
+ * Each benchmark thread round-trips on its own connection, and all connections share one client and one server
+ * event loop group, so the event loop overhead with several busy channels shows up alongside the per-message
+ * syscall overhead.
+ * <p>
+ * Where epoll is not available the {@code EPOLL} trials fail rather than silently measure NIO.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class NettyTransportBenchmark {
+
+    @Benchmark
+    public int roundTrip(ConnectionState connection) throws Exception {
+        return connection.roundTrip();
+    }
+
+    @State(Scope.Benchmark)
+    public static class TransportState {
+
+        @Param({"NIO", "EPOLL"})
+        public String transport;
+
+        @Param({"64", "8192"})
+        public int payloadSize;
+
+        EventLoopGroup serverEventLoop;
+        EventLoopGroup clientEventLoop;
+        NettyTransport resolvedTransport;
+        Channel serverChannel;
+
+        @Setup(Level.Trial)
+        public void setup() throws Exception {
+            resolvedTransport = NettyTransport.valueOf(transport);
+
+            if (!resolvedTransport.isAvailable()) {
+                throw new IllegalStateException(transport + " transport not available on this platform");
+            }
+
+            serverEventLoop = resolvedTransport.newEventLoopGroup(new DefaultThreadFactory("benchmark-server"));
+            clientEventLoop = resolvedTransport.newEventLoopGroup(new DefaultThreadFactory("benchmark-client"));
+
+            ServerBootstrap bootstrap = new ServerBootstrap()
+                .group(serverEventLoop)
+                .channel(resolvedTransport.getServerSocketChannelClass())
+                .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+                .childOption(ChannelOption.TCP_NODELAY, true)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel channel) {
+                        channel.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+                            @Override
+                            public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                                ctx.writeAndFlush(msg, ctx.voidPromise());
+                            }
+                        });
+                    }
+                });
+
+            serverChannel = bootstrap.bind(new InetSocketAddress("localhost", 0)).sync().channel();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            serverChannel.close().sync();
+
+            clientEventLoop.shutdownGracefully().sync();
+            serverEventLoop.shutdownGracefully().sync();
+        }
+
+    }
+
+    @State(Scope.Thread)
+    public static class ConnectionState {
+
+        private volatile CompletableFuture<Integer> response;
+        private int expected;
+
+        // Only touched on the client event loop.
+        private int received;
+
+        private Channel channel;
+        private ByteBuf payload;
+
+        @Setup(Level.Trial)
+        public void setup(TransportState transportState) throws Exception {
+            Bootstrap bootstrap = new Bootstrap()
+                .group(transportState.clientEventLoop)
+                .channel(transportState.resolvedTransport.getSocketChannelClass())
+                .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+                .option(ChannelOption.TCP_NODELAY, true)
+                .handler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel channel) {
+                        channel.pipeline().addLast(new SimpleChannelInboundHandler<ByteBuf>() {
+                            @Override
+                            protected void channelRead0(ChannelHandlerContext ctx, ByteBuf msg) {
+                                received += msg.readableBytes();
+
+                                if (received >= expected) {
+                                    int n = received;
+                                    received = 0;
+                                    response.complete(n);
+                                }
+                            }
+                        });
+                    }
+                });
+
+            channel = bootstrap.connect(transportState.serverChannel.localAddress()).sync().channel();
+
+            expected = transportState.payloadSize;
+
+            byte[] bs = new byte[transportState.payloadSize];
+            for (int i = 0; i < bs.length; i++) {
+                bs[i] = (byte) i;
+            }
+            payload = PooledByteBufAllocator.DEFAULT.directBuffer(bs.length).writeBytes(bs);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            channel.close().sync();
+
+            payload.release();
+        }
+
+        int roundTrip() throws Exception {
+            CompletableFuture<Integer> f = new CompletableFuture<>();
+            response = f;
+
+            channel.writeAndFlush(payload.retainedDuplicate(), channel.voidPromise());
+
+            return f.get(5, TimeUnit.SECONDS);
+        }
+
+    }
+
+}
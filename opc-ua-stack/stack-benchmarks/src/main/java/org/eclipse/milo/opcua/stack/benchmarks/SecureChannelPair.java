@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.stack.benchmarks;
+
+import java.security.KeyPair;
+import java.security.Security;
+import java.security.cert.X509Certificate;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.eclipse.milo.opcua.stack.client.transport.uasc.ClientSecureChannel;
+import org.eclipse.milo.opcua.stack.core.channel.ChannelSecurity;
+import org.eclipse.milo.opcua.stack.core.channel.ServerSecureChannel;
+import org.eclipse.milo.opcua.stack.core.security.SecurityPolicy;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.MessageSecurityMode;
+import org.eclipse.milo.opcua.stack.core.types.structured.ChannelSecurityToken;
+import org.eclipse.milo.opcua.stack.core.util.SelfSignedCertificateBuilder;
+import org.eclipse.milo.opcua.stack.core.util.SelfSignedCertificateGenerator;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.eclipse.milo.opcua.stack.core.util.NonceUtil.generateNonce;
+
+/**
+ * A connected client/server {@link ClientSecureChannel}/{@link ServerSecureChannel} pair with symmetric keys already
+ * derived, as they would be after a successful OpenSecureChannel exchange.
+ */
+public final class SecureChannelPair {
+
+    static {
+        // Required for SecurityPolicy.Aes256_Sha256_RsaPss
+        Security.addProvider(new BouncyCastleProvider());
+    }
+
+    private static volatile Credentials credentials;
+
+    private final ClientSecureChannel clientChannel;
+    private final ServerSecureChannel serverChannel;
+
+    private SecureChannelPair(ClientSecureChannel clientChannel, ServerSecureChannel serverChannel) {
+        this.clientChannel = clientChannel;
+        this.serverChannel = serverChannel;
+    }
+
+    public ClientSecureChannel getClientChannel() {
+        return clientChannel;
+    }
+
+    public ServerSecureChannel getServerChannel() {
+        return serverChannel;
+    }
+
+    public static SecureChannelPair create(
+        SecurityPolicy securityPolicy,
+        MessageSecurityMode messageSecurityMode) throws Exception {
+
+        boolean secured = securityPolicy != SecurityPolicy.None;
+
+        Credentials credentials = secured ? getCredentials() : null;
+
+        ByteString clientNonce = generateNonce(securityPolicy);
+        ByteString serverNonce = generateNonce(securityPolicy);
+
+        ClientSecureChannel clientChannel = new ClientSecureChannel(
+            secured ? credentials.clientKeyPair : null,
+            secured ? credentials.clientCertificate : null,
+            secured ? newArrayList(credentials.clientCertificate) : null,
+            secured ? credentials.serverCertificate : null,
+            secured ? newArrayList(credentials.serverCertificate) : null,
+            securityPolicy,
+            messageSecurityMode
+        );
+
+        clientChannel.setLocalNonce(clientNonce);
+        clientChannel.setRemoteNonce(serverNonce);
+
+        ServerSecureChannel serverChannel = new ServerSecureChannel();
+        serverChannel.setSecurityPolicy(securityPolicy);
+        serverChannel.setMessageSecurityMode(messageSecurityMode);
+        serverChannel.setLocalNonce(serverNonce);
+        serverChannel.setRemoteNonce(clientNonce);
+
+        if (secured) {
+            serverChannel.setKeyPair(credentials.serverKeyPair);
+            serverChannel.setLocalCertificate(credentials.serverCertificate);
+            serverChannel.setLocalCertificateChain(new X509Certificate[]{credentials.serverCertificate});
+            serverChannel.setRemoteCertificate(credentials.clientCertificate.getEncoded());
+
+            if (messageSecurityMode != MessageSecurityMode.None) {
+                ChannelSecurityToken token = new ChannelSecurityToken(
+                    uint(0), uint(1), DateTime.now(), uint(60000));
+
+                ChannelSecurity.SecurityKeys clientKeys = ChannelSecurity.generateKeyPair(
+                    clientChannel,
+                    clientChannel.getLocalNonce(),
+                    clientChannel.getRemoteNonce()
+                );
+
+                clientChannel.setChannelSecurity(new ChannelSecurity(clientKeys, token));
+
+                ChannelSecurity.SecurityKeys serverKeys = ChannelSecurity.generateKeyPair(
+                    serverChannel,
+                    serverChannel.getRemoteNonce(),
+                    serverChannel.getLocalNonce()
+                );
+
+                serverChannel.setChannelSecurity(new ChannelSecurity(serverKeys, token));
+            }
+        }
+
+        return new SecureChannelPair(clientChannel, serverChannel);
+    }
+
+    private static Credentials getCredentials() throws Exception {
+        if (credentials == null) {
+            synchronized (SecureChannelPair.class) {
+                if (credentials == null) {
+                    credentials = new Credentials();
+                }
+            }
+        }
+        return credentials;
+    }
+
+    private static class Credentials {
+
+        final KeyPair clientKeyPair;
+        final X509Certificate clientCertificate;
+
+        final KeyPair serverKeyPair;
+        final X509Certificate serverCertificate;
+
+        Credentials() throws Exception {
+            clientKeyPair = SelfSignedCertificateGenerator.generateRsaKeyPair(2048);
+            clientCertificate = new SelfSignedCertificateBuilder(clientKeyPair)
+                .setCommonName("Eclipse Milo Benchmark Client")
+                .setApplicationUri("urn:eclipse:milo:benchmark:client")
+                .build();
+
+            serverKeyPair = SelfSignedCertificateGenerator.generateRsaKeyPair(2048);
+            serverCertificate = new SelfSignedCertificateBuilder(serverKeyPair)
+                .setCommonName("Eclipse Milo Benchmark Server")
+                .setApplicationUri("urn:eclipse:milo:benchmark:server")
+                .build();
+        }
+
+    }
+
+}
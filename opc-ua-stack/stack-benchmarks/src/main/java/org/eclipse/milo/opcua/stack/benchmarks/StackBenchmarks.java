@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.stack.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point for the benchmarks jar.
+ * <p>
+ * Accepts the same command line as {@link org.openjdk.jmh.Main} (benchmark regex, {@code -p}, {@code -f}, etc.) but
+ * always attaches the {@link GCProfiler} so every result reports allocation rate alongside ops/s.
+ * <p>
+ * Build with {@code mvn package -pl opc-ua-stack/stack-benchmarks -am}, then run, e.g.:
+ * <pre>
+ * java -jar opc-ua-stack/stack-benchmarks/target/benchmarks.jar ChunkCodecBenchmark -p security=None:None
+ * </pre>
+ */
+public class StackBenchmarks {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+
+        Options options = new OptionsBuilder()
+            .parent(commandLineOptions)
+            .addProfiler(GCProfiler.class)
+            .build();
+
+        new Runner(options).run();
+    }
+
+}
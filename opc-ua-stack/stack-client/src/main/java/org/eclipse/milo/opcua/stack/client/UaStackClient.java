@@ -19,6 +19,7 @@ import com.google.common.collect.Maps;
 import org.eclipse.milo.opcua.stack.client.transport.UaTransport;
 import org.eclipse.milo.opcua.stack.client.transport.http.OpcHttpTransport;
 import org.eclipse.milo.opcua.stack.client.transport.tcp.OpcTcpTransport;
+import org.eclipse.milo.opcua.stack.client.transport.websocket.OpcWebSocketJsonTransport;
 import org.eclipse.milo.opcua.stack.client.transport.websocket.OpcWebSocketTransport;
 import org.eclipse.milo.opcua.stack.core.NamespaceTable;
 import org.eclipse.milo.opcua.stack.core.StatusCodes;
@@ -304,13 +305,13 @@ public class UaStackClient {
      * Experimentally supported:
      * <ul>
      * <li>WebSocket + UA Binary</li>
+     * <li>HTTP(s) + UA JSON</li>
+     * <li>WebSocket + UA JSON</li>
      * </ul>
      * <p>
      * Not supported:
      * <ul>
-     * <li>HTTP(s) + UA JSON</li>
      * <li>HTTP(s) + UA XML</li>
-     * <li>WebSocket + UA JSON</li>
      * </ul>
      *
      * @param config the {@link UaStackClientConfig}.
@@ -332,6 +333,7 @@ public class UaStackClient {
                 break;
 
             case HTTPS_UABINARY:
+            case HTTPS_UAJSON:
                 transportFactory = OpcHttpTransport::new;
                 break;
 
@@ -339,9 +341,11 @@ public class UaStackClient {
                 transportFactory = OpcWebSocketTransport::new;
                 break;
 
-            case HTTPS_UAXML:
-            case HTTPS_UAJSON:
             case WSS_UAJSON:
+                transportFactory = OpcWebSocketJsonTransport::new;
+                break;
+
+            case HTTPS_UAXML:
             default:
                 throw new UaException(
                     StatusCodes.Bad_InternalError,
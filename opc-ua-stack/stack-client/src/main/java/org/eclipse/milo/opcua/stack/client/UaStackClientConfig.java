@@ -16,11 +16,13 @@ import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
 
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.util.HashedWheelTimer;
 import org.eclipse.milo.opcua.stack.core.channel.MessageLimits;
 import org.eclipse.milo.opcua.stack.core.security.CertificateValidator;
 import org.eclipse.milo.opcua.stack.core.serialization.EncodingLimits;
+import org.eclipse.milo.opcua.stack.core.transport.NettyTransport;
 import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
 import org.eclipse.milo.opcua.stack.core.types.structured.EndpointDescription;
 
@@ -77,9 +79,30 @@ public interface UaStackClientConfig {
 
     /**
      * @return the {@link NioEventLoopGroup} the transport will use.
+     * @throws IllegalStateException if the transport is not {@link NettyTransport#NIO}.
+     * @deprecated use {@link #getEventLoopGroup()}, which supports every {@link NettyTransport}.
      */
+    @Deprecated
     NioEventLoopGroup getEventLoop();
 
+    /**
+     * @return the {@link EventLoopGroup} the transport will use.
+     */
+    default EventLoopGroup getEventLoopGroup() {
+        return getEventLoop();
+    }
+
+    /**
+     * Get the Netty transport the client connects with.
+     * <p>
+     * This is always the transport of {@link #getEventLoopGroup()}.
+     *
+     * @return the {@link NettyTransport} the client connects with.
+     */
+    default NettyTransport getTransport() {
+        return NettyTransport.of(getEventLoopGroup());
+    }
+
     /**
      * @return the {@link HashedWheelTimer} the transport will use.
      */
@@ -134,7 +157,7 @@ public interface UaStackClientConfig {
         builder.setMessageLimits(config.getMessageLimits());
         builder.setChannelLifetime(config.getChannelLifetime());
         builder.setExecutor(config.getExecutor());
-        builder.setEventLoop(config.getEventLoop());
+        builder.setEventLoopGroup(config.getEventLoopGroup());
         builder.setWheelTimer(config.getWheelTimer());
         builder.setConnectTimeout(config.getConnectTimeout());
         builder.setAcknowledgeTimeout(config.getAcknowledgeTimeout());
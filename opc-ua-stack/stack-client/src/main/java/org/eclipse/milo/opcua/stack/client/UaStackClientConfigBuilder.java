@@ -16,6 +16,7 @@ import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import javax.annotation.Nullable;
 
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.util.HashedWheelTimer;
 import org.eclipse.milo.opcua.stack.core.Stack;
@@ -23,6 +24,7 @@ import org.eclipse.milo.opcua.stack.core.channel.MessageLimits;
 import org.eclipse.milo.opcua.stack.core.security.CertificateValidator;
 import org.eclipse.milo.opcua.stack.core.security.InsecureCertificateValidator;
 import org.eclipse.milo.opcua.stack.core.serialization.EncodingLimits;
+import org.eclipse.milo.opcua.stack.core.transport.NettyTransport;
 import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
 import org.eclipse.milo.opcua.stack.core.types.structured.EndpointDescription;
 
@@ -37,8 +39,9 @@ public class UaStackClientConfigBuilder {
     private CertificateValidator certificateValidator = new InsecureCertificateValidator();
 
     private ExecutorService executor;
-    private NioEventLoopGroup eventLoop;
+    private EventLoopGroup eventLoop;
     private HashedWheelTimer wheelTimer;
+    private NettyTransport transport = NettyTransport.NIO;
 
     private EncodingLimits encodingLimits = EncodingLimits.DEFAULT;
     private UInteger connectTimeout = uint(5_000);
@@ -77,11 +80,33 @@ public class UaStackClientConfigBuilder {
         return this;
     }
 
+    /**
+     * @deprecated use {@link #setEventLoopGroup(EventLoopGroup)}.
+     */
+    @Deprecated
     public UaStackClientConfigBuilder setEventLoop(NioEventLoopGroup eventLoop) {
+        return setEventLoopGroup(eventLoop);
+    }
+
+    public UaStackClientConfigBuilder setEventLoopGroup(EventLoopGroup eventLoop) {
         this.eventLoop = eventLoop;
         return this;
     }
 
+    /**
+     * Set the {@link NettyTransport} to connect with, when no {@link EventLoopGroup} is set.
+     * <p>
+     * The shared {@link EventLoopGroup} for this transport is used, falling back to {@link NettyTransport#NIO} if
+     * it is not available on this platform. Ignored if an {@link EventLoopGroup} is set.
+     *
+     * @param transport the {@link NettyTransport} to connect with.
+     * @return this {@link UaStackClientConfigBuilder}.
+     */
+    public UaStackClientConfigBuilder setTransport(NettyTransport transport) {
+        this.transport = transport;
+        return this;
+    }
+
     public UaStackClientConfigBuilder setWheelTimer(HashedWheelTimer wheelTimer) {
         this.wheelTimer = wheelTimer;
         return this;
@@ -122,7 +147,7 @@ public class UaStackClientConfigBuilder {
             executor = Stack.sharedExecutor();
         }
         if (eventLoop == null) {
-            eventLoop = Stack.sharedEventLoop();
+            eventLoop = Stack.sharedEventLoop(transport);
         }
         if (wheelTimer == null) {
             wheelTimer = Stack.sharedWheelTimer();
@@ -156,7 +181,7 @@ public class UaStackClientConfigBuilder {
 
         private final EncodingLimits encodingLimits;
         private final ExecutorService executor;
-        private final NioEventLoopGroup eventLoop;
+        private final EventLoopGroup eventLoop;
         private final HashedWheelTimer wheelTimer;
         private final UInteger connectTimeout;
         private final UInteger acknowledgeTimeout;
@@ -172,7 +197,7 @@ public class UaStackClientConfigBuilder {
             CertificateValidator certificateValidator,
             EncodingLimits encodingLimits,
             ExecutorService executor,
-            NioEventLoopGroup eventLoop,
+            EventLoopGroup eventLoop,
             HashedWheelTimer wheelTimer,
             UInteger connectTimeout,
             UInteger acknowledgeTimeout,
@@ -251,6 +276,15 @@ public class UaStackClientConfigBuilder {
 
         @Override
         public NioEventLoopGroup getEventLoop() {
+            if (eventLoop instanceof NioEventLoopGroup) {
+                return (NioEventLoopGroup) eventLoop;
+            } else {
+                throw new IllegalStateException("transport is not NIO: " + getTransport());
+            }
+        }
+
+        @Override
+        public EventLoopGroup getEventLoopGroup() {
             return eventLoop;
         }
 
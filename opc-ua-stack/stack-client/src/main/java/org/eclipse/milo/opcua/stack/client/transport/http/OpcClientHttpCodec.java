@@ -33,6 +33,8 @@ import org.eclipse.milo.opcua.stack.core.StatusCodes;
 import org.eclipse.milo.opcua.stack.core.UaException;
 import org.eclipse.milo.opcua.stack.core.serialization.OpcUaBinaryStreamDecoder;
 import org.eclipse.milo.opcua.stack.core.serialization.OpcUaBinaryStreamEncoder;
+import org.eclipse.milo.opcua.stack.core.serialization.OpcUaJsonStreamDecoder;
+import org.eclipse.milo.opcua.stack.core.serialization.OpcUaJsonStreamEncoder;
 import org.eclipse.milo.opcua.stack.core.serialization.UaResponseMessage;
 import org.eclipse.milo.opcua.stack.core.transport.TransportProfile;
 import org.eclipse.milo.opcua.stack.core.types.structured.EndpointDescription;
@@ -48,6 +50,8 @@ public class OpcClientHttpCodec extends MessageToMessageCodec<HttpResponse, UaTr
     private static final String UABINARY_CONTENT_TYPE =
         HttpHeaderValues.APPLICATION_OCTET_STREAM.toString();
 
+    private static final String UAJSON_CONTENT_TYPE = "application/opcua+uajson";
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
     private final UaStackClientConfig config;
@@ -84,6 +88,13 @@ public class OpcClientHttpCodec extends MessageToMessageCodec<HttpResponse, UaTr
                 break;
             }
 
+            case HTTPS_UAJSON: {
+                OpcUaJsonStreamEncoder encoder = new OpcUaJsonStreamEncoder(client.getSerializationContext());
+                encoder.setBuffer(content);
+                encoder.writeMessage(null, transportRequest.getRequest());
+                break;
+            }
+
             case HTTPS_UAXML: {
                 // TODO put document into a SOAP message.
                 throw new UaException(StatusCodes.Bad_InternalError,
@@ -106,7 +117,10 @@ public class OpcClientHttpCodec extends MessageToMessageCodec<HttpResponse, UaTr
 
         httpRequest.headers().set(HttpHeaderNames.HOST, EndpointUtil.getHost(endpointUrl));
         httpRequest.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
-        httpRequest.headers().set(HttpHeaderNames.CONTENT_TYPE, UABINARY_CONTENT_TYPE);
+        httpRequest.headers().set(
+            HttpHeaderNames.CONTENT_TYPE,
+            transportProfile == TransportProfile.HTTPS_UAJSON ? UAJSON_CONTENT_TYPE : UABINARY_CONTENT_TYPE
+        );
         httpRequest.headers().set(HttpHeaderNames.CONTENT_LENGTH, content.readableBytes());
         httpRequest.headers().set("OPCUA-SecurityPolicy", config.getEndpoint().getSecurityPolicyUri());
 
@@ -146,6 +160,20 @@ public class OpcClientHttpCodec extends MessageToMessageCodec<HttpResponse, UaTr
                     break;
                 }
 
+                case HTTPS_UAJSON: {
+                    if (contentType == null ||
+                        !contentType.regionMatches(true, 0, UAJSON_CONTENT_TYPE, 0, UAJSON_CONTENT_TYPE.length())) {
+
+                        throw new UaException(StatusCodes.Bad_DecodingError,
+                            "unexpected content-type: " + contentType);
+                    }
+
+                    OpcUaJsonStreamDecoder decoder = new OpcUaJsonStreamDecoder(client.getSerializationContext());
+                    decoder.setBuffer(content);
+                    responseMessage = (UaResponseMessage) decoder.readMessage(null);
+                    break;
+                }
+
                 case HTTPS_UAXML: {
                     // TODO extract document from SOAP message body
                     throw new UaException(StatusCodes.Bad_InternalError,
@@ -17,7 +17,6 @@ import io.netty.channel.Channel;
 import io.netty.channel.pool.AbstractChannelPoolHandler;
 import io.netty.channel.pool.ChannelPool;
 import io.netty.channel.pool.SimpleChannelPool;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.http.HttpClientCodec;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.logging.LogLevel;
@@ -118,8 +117,8 @@ public class OpcHttpTransport extends AbstractTransport {
         LOGGER.debug("createChannelPool() host={} port={}", host, port);
 
         Bootstrap bootstrap = new Bootstrap()
-            .channel(NioSocketChannel.class)
-            .group(client.getConfig().getEventLoop())
+            .channel(client.getConfig().getTransport().getSocketChannelClass())
+            .group(client.getConfig().getEventLoopGroup())
             .remoteAddress(host, port);
 
         return new SimpleChannelPool(
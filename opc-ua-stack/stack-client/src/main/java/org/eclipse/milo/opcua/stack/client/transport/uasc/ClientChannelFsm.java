@@ -32,7 +32,6 @@ import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ConnectTimeoutException;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.util.Timeout;
 import io.netty.util.TimerTask;
 import org.eclipse.milo.opcua.stack.client.UaStackClient;
@@ -103,8 +102,8 @@ public class ClientChannelFsm {
 
             Bootstrap bootstrap = new Bootstrap();
 
-            bootstrap.group(config.getEventLoop())
-                .channel(NioSocketChannel.class)
+            bootstrap.group(config.getEventLoopGroup())
+                .channel(config.getTransport().getSocketChannelClass())
                 .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, config.getConnectTimeout().intValue())
                 .option(ChannelOption.TCP_NODELAY, true)
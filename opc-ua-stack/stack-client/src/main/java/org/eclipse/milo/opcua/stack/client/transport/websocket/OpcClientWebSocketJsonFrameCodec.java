@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.stack.client.transport.websocket;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageCodec;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import org.eclipse.milo.opcua.stack.client.UaStackClient;
+import org.eclipse.milo.opcua.stack.client.transport.UaTransportRequest;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.UaException;
+import org.eclipse.milo.opcua.stack.core.serialization.OpcUaJsonStreamDecoder;
+import org.eclipse.milo.opcua.stack.core.serialization.OpcUaJsonStreamEncoder;
+import org.eclipse.milo.opcua.stack.core.serialization.UaResponseMessage;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static io.netty.handler.codec.http.websocketx.WebSocketClientProtocolHandler.ClientHandshakeStateEvent;
+
+/**
+ * Encodes {@link UaTransportRequest}s as UA JSON text frames and completes them with the response that carries the
+ * same request handle.
+ */
+public class OpcClientWebSocketJsonFrameCodec extends MessageToMessageCodec<WebSocketFrame, UaTransportRequest> {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final Map<UInteger, UaTransportRequest> pending = new ConcurrentHashMap<>();
+
+    private final UaStackClient client;
+    private final CompletableFuture<Channel> handshake;
+
+    public OpcClientWebSocketJsonFrameCodec(UaStackClient client, CompletableFuture<Channel> handshake) {
+        this.client = client;
+        this.handshake = handshake;
+    }
+
+    @Override
+    public void userEventTriggered(ChannelHandlerContext ctx, Object event) throws Exception {
+        if (event instanceof ClientHandshakeStateEvent) {
+            logger.debug("WebSocket handshake event: " + event);
+
+            if (event == ClientHandshakeStateEvent.HANDSHAKE_COMPLETE) {
+                handshake.complete(ctx.channel());
+            }
+        }
+
+        super.userEventTriggered(ctx, event);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        logger.error("[remote={}] Exception caught: {}", ctx.channel().remoteAddress(), cause.getMessage(), cause);
+
+        handshake.completeExceptionally(cause);
+
+        ctx.close();
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        UaException exception = new UaException(StatusCodes.Bad_ConnectionClosed, "connection closed");
+
+        handshake.completeExceptionally(exception);
+
+        pending.values().forEach(request -> request.getFuture().completeExceptionally(exception));
+        pending.clear();
+
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, UaTransportRequest transportRequest, List<Object> out) {
+        UInteger requestHandle = transportRequest.getRequest().getRequestHeader().getRequestHandle();
+
+        ByteBuf buffer = ctx.alloc().buffer();
+
+        try {
+            OpcUaJsonStreamEncoder encoder = new OpcUaJsonStreamEncoder(client.getSerializationContext());
+            encoder.setBuffer(buffer);
+            encoder.writeMessage(null, transportRequest.getRequest());
+        } catch (Throwable t) {
+            buffer.release();
+            transportRequest.getFuture().completeExceptionally(t);
+            return;
+        }
+
+        pending.put(requestHandle, transportRequest);
+        transportRequest.getFuture().whenComplete((r, ex) -> pending.remove(requestHandle, transportRequest));
+
+        out.add(new TextWebSocketFrame(buffer));
+    }
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, WebSocketFrame msg, List<Object> out) {
+        if (msg instanceof TextWebSocketFrame) {
+            UaResponseMessage response;
+
+            try {
+                OpcUaJsonStreamDecoder decoder = new OpcUaJsonStreamDecoder(client.getSerializationContext());
+                decoder.setBuffer(msg.content());
+                response = (UaResponseMessage) decoder.readMessage(null);
+            } catch (Throwable t) {
+                logger.error("Error decoding UaResponseMessage", t);
+                ctx.close();
+                return;
+            }
+
+            UInteger requestHandle = response.getResponseHeader().getRequestHandle();
+            UaTransportRequest transportRequest = pending.remove(requestHandle);
+
+            if (transportRequest != null) {
+                transportRequest.getFuture().complete(response);
+            } else {
+                logger.debug("No pending request for requestHandle={}", requestHandle);
+            }
+        } else {
+            logger.error("Received unexpected WebSocket frame: " + msg);
+            ctx.close();
+        }
+    }
+
+}
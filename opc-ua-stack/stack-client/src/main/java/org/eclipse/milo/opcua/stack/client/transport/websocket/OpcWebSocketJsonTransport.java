@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.stack.client.transport.websocket;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.websocketx.WebSocketClientHandshakerFactory;
+import io.netty.handler.codec.http.websocketx.WebSocketClientProtocolHandler;
+import io.netty.handler.codec.http.websocketx.WebSocketFrameAggregator;
+import io.netty.handler.codec.http.websocketx.WebSocketVersion;
+import io.netty.handler.logging.LogLevel;
+import io.netty.handler.logging.LoggingHandler;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import org.eclipse.milo.opcua.stack.client.UaStackClient;
+import org.eclipse.milo.opcua.stack.client.transport.AbstractTransport;
+import org.eclipse.milo.opcua.stack.client.transport.UaTransport;
+import org.eclipse.milo.opcua.stack.core.Stack;
+import org.eclipse.milo.opcua.stack.core.util.EndpointUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link UaTransport} for the WebSocket + UA JSON transport profile.
+ * <p>
+ * There is no secure channel; requests are sent as UA JSON text frames on a single WebSocket connection, which is
+ * re-established on demand if it closes.
+ */
+public class OpcWebSocketJsonTransport extends AbstractTransport {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OpcWebSocketJsonTransport.class);
+
+    private CompletableFuture<Channel> channelFuture = null;
+
+    private final UaStackClient client;
+
+    public OpcWebSocketJsonTransport(UaStackClient client) {
+        super(client.getConfig());
+
+        this.client = client;
+    }
+
+    @Override
+    public CompletableFuture<UaTransport> connect() {
+        return channel().thenApply(ch -> OpcWebSocketJsonTransport.this);
+    }
+
+    @Override
+    public synchronized CompletableFuture<UaTransport> disconnect() {
+        CompletableFuture<UaTransport> future = new CompletableFuture<>();
+
+        if (channelFuture != null) {
+            CompletableFuture<Channel> cf = channelFuture;
+            channelFuture = null;
+
+            cf.whenComplete((ch, ex) -> {
+                if (ch != null) {
+                    ch.close().addListener(f -> future.complete(OpcWebSocketJsonTransport.this));
+                } else {
+                    future.complete(OpcWebSocketJsonTransport.this);
+                }
+            });
+        } else {
+            future.complete(OpcWebSocketJsonTransport.this);
+        }
+
+        return future;
+    }
+
+    @Override
+    public synchronized CompletableFuture<Channel> channel() {
+        CompletableFuture<Channel> cf = channelFuture;
+
+        boolean reconnect = cf == null ||
+            cf.isCompletedExceptionally() ||
+            (cf.isDone() && !cf.getNow(null).isActive());
+
+        if (reconnect) {
+            channelFuture = cf = newChannel(client);
+        }
+
+        return cf;
+    }
+
+    private static CompletableFuture<Channel> newChannel(UaStackClient client) {
+        String endpointUrl = client.getConfig().getEndpoint().getEndpointUrl();
+
+        String host = EndpointUtil.getHost(endpointUrl);
+        if (host == null) host = "";
+
+        int port = EndpointUtil.getPort(endpointUrl);
+
+        LOGGER.debug("newChannel() host={} port={}", host, port);
+
+        CompletableFuture<Channel> handshake = new CompletableFuture<>();
+
+        Bootstrap bootstrap = new Bootstrap()
+            .channel(client.getConfig().getTransport().getSocketChannelClass())
+            .group(client.getConfig().getEventLoopGroup())
+            .remoteAddress(host, port)
+            .handler(new ChannelInitializer<SocketChannel>() {
+                @Override
+                protected void initChannel(SocketChannel channel) throws Exception {
+                    String scheme = EndpointUtil.getScheme(endpointUrl);
+
+                    if ("opc.wss".equalsIgnoreCase(scheme)) {
+                        SslContext sslContext = SslContextBuilder.forClient()
+                            .trustManager(InsecureTrustManagerFactory.INSTANCE)
+                            .build();
+
+                        channel.pipeline().addLast(sslContext.newHandler(channel.alloc()));
+                    }
+
+                    int maxMessageSize = client.getConfig().getMessageLimits().getMaxMessageSize();
+
+                    channel.pipeline().addLast(new LoggingHandler(LogLevel.TRACE));
+                    channel.pipeline().addLast(new HttpClientCodec());
+                    channel.pipeline().addLast(new HttpObjectAggregator(maxMessageSize));
+
+                    channel.pipeline().addLast(
+                        new WebSocketClientProtocolHandler(
+                            WebSocketClientHandshakerFactory.newHandshaker(
+                                new URI(endpointUrl),
+                                WebSocketVersion.V13,
+                                Stack.WSS_PROTOCOL_JSON,
+                                true,
+                                new DefaultHttpHeaders(),
+                                client.getConfig().getMessageLimits().getMaxChunkSize()
+                            )
+                        )
+                    );
+
+                    channel.pipeline().addLast(new WebSocketFrameAggregator(maxMessageSize));
+                    channel.pipeline().addLast(new OpcClientWebSocketJsonFrameCodec(client, handshake));
+                }
+            });
+
+        bootstrap.connect().addListener((ChannelFuture f) -> {
+            if (!f.isSuccess()) {
+                handshake.completeExceptionally(f.cause());
+            }
+        });
+
+        return handshake;
+    }
+
+}
@@ -20,9 +20,11 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nonnull;
 
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.util.HashedWheelTimer;
 import io.netty.util.Timeout;
+import org.eclipse.milo.opcua.stack.core.transport.NettyTransport;
 import org.eclipse.milo.opcua.stack.core.util.ManifestUtil;
 import org.slf4j.LoggerFactory;
 
@@ -58,9 +60,11 @@ public final class Stack {
     public static final int DEFAULT_HTTPS_PORT = 8443;
 
     private static NioEventLoopGroup EVENT_LOOP;
+    private static EventLoopGroup EPOLL_EVENT_LOOP;
     private static ExecutorService EXECUTOR_SERVICE;
     private static ScheduledExecutorService SCHEDULED_EXECUTOR_SERVICE;
     private static HashedWheelTimer WHEEL_TIMER;
+    private static ExecutorService CHUNK_CRYPTO_EXECUTOR;
     private static ClassLoader CUSTOM_CLASS_LOADER;
 
     /**
@@ -85,6 +89,36 @@ public final class Stack {
         return EVENT_LOOP;
     }
 
+    /**
+     * Get a shared {@link EventLoopGroup} for {@code transport}, or the shared {@link NioEventLoopGroup} if
+     * {@code transport} is not available on this platform.
+     *
+     * @param transport the {@link NettyTransport} to get a shared {@link EventLoopGroup} for.
+     * @return a shared {@link EventLoopGroup} for {@link NettyTransport#resolve() transport.resolve()}.
+     */
+    public static synchronized EventLoopGroup sharedEventLoop(NettyTransport transport) {
+        if (transport.resolve() == NettyTransport.NIO) {
+            return sharedEventLoop();
+        }
+
+        if (EPOLL_EVENT_LOOP == null) {
+            ThreadFactory threadFactory = new ThreadFactory() {
+                private final AtomicLong threadNumber = new AtomicLong(0L);
+
+                @Override
+                public Thread newThread(@Nonnull Runnable r) {
+                    Thread thread = new Thread(r, "milo-netty-epoll-event-loop-" + threadNumber.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            };
+
+            EPOLL_EVENT_LOOP = NettyTransport.EPOLL.newEventLoopGroup(threadFactory);
+        }
+
+        return EPOLL_EVENT_LOOP;
+    }
+
     /**
      * @return a shared {@link ExecutorService}.
      */
@@ -163,6 +197,32 @@ public final class Stack {
         return WHEEL_TIMER;
     }
 
+    /**
+     * @return a shared, bounded {@link ExecutorService} for securing the chunks of large messages in parallel.
+     * @see ChunkCryptoLimits
+     */
+    public static synchronized ExecutorService sharedChunkCryptoExecutor() {
+        if (CHUNK_CRYPTO_EXECUTOR == null) {
+            ThreadFactory threadFactory = new ThreadFactory() {
+                private final AtomicLong threadNumber = new AtomicLong(0L);
+
+                @Override
+                public Thread newThread(@Nonnull Runnable r) {
+                    Thread thread = new Thread(r, "milo-chunk-crypto-" + threadNumber.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            };
+
+            CHUNK_CRYPTO_EXECUTOR = Executors.newFixedThreadPool(
+                Math.max(1, ChunkCryptoLimits.MAX_PARALLELISM),
+                threadFactory
+            );
+        }
+
+        return CHUNK_CRYPTO_EXECUTOR;
+    }
+
     /**
      * @return if configured, the {@link ClassLoader} to be used when reflectively loading classes.
      */
@@ -180,15 +240,16 @@ public final class Stack {
     }
 
     /**
-     * Release shared resources, waiting at most 5 seconds for the {@link NioEventLoopGroup} to shutdown gracefully.
+     * Release shared resources, waiting at most 5 seconds for the shared {@link EventLoopGroup}s to shutdown
+     * gracefully.
      */
     public static synchronized void releaseSharedResources() {
         releaseSharedResources(5, TimeUnit.SECONDS);
     }
 
     /**
-     * Release shared resources, waiting at most the specified timeout for the {@link NioEventLoopGroup} to shutdown
-     * gracefully.
+     * Release shared resources, waiting at most the specified timeout for the shared {@link EventLoopGroup}s to
+     * shutdown gracefully.
      *
      * @param timeout the duration of the timeout.
      * @param unit    the unit of the timeout duration.
@@ -204,6 +265,16 @@ public final class Stack {
             EVENT_LOOP = null;
         }
 
+        if (EPOLL_EVENT_LOOP != null) {
+            try {
+                EPOLL_EVENT_LOOP.shutdownGracefully().await(timeout, unit);
+            } catch (InterruptedException e) {
+                LoggerFactory.getLogger(Stack.class)
+                    .warn("Interrupted awaiting epoll event loop shutdown.", e);
+            }
+            EPOLL_EVENT_LOOP = null;
+        }
+
         if (SCHEDULED_EXECUTOR_SERVICE != null) {
             SCHEDULED_EXECUTOR_SERVICE.shutdown();
         }
@@ -236,6 +307,11 @@ public final class Stack {
             WHEEL_TIMER.stop().forEach(Timeout::cancel);
             WHEEL_TIMER = null;
         }
+
+        if (CHUNK_CRYPTO_EXECUTOR != null) {
+            CHUNK_CRYPTO_EXECUTOR.shutdown();
+            CHUNK_CRYPTO_EXECUTOR = null;
+        }
     }
 
     public static final class ConnectionLimits {
@@ -272,6 +348,54 @@ public final class Stack {
          */
         public static int RATE_LIMIT_MAX_CONNECTIONS_PER_ADDRESS = 100;
 
+        /**
+         * The number of server channels bound to each address and port, with {@code SO_REUSEPORT}, when a server
+         * uses the {@link NettyTransport#EPOLL} transport. The kernel spreads incoming connections across them.
+         * <p>
+         * Ignored by the {@link NettyTransport#NIO} transport, which always binds once.
+         */
+        public static volatile int REUSE_PORT_BIND_COUNT = 1;
+
+    }
+
+    public static final class ChunkCryptoLimits {
+
+        private ChunkCryptoLimits() {}
+
+        /**
+         * Allows the symmetric signing and encryption, or verification and decryption, of the chunks of a large
+         * message to be spread across {@link #sharedChunkCryptoExecutor()} instead of done one chunk at a time.
+         */
+        public static volatile boolean PARALLEL_ENABLED = false;
+
+        /**
+         * The minimum number of chunks a message must have before its chunks are secured in parallel.
+         */
+        public static volatile int PARALLEL_MIN_CHUNK_COUNT = 8;
+
+        /**
+         * The maximum number of threads that secure the chunks of one message, including the calling thread. Also
+         * the size of {@link #sharedChunkCryptoExecutor()}, if set before it is first used.
+         */
+        public static volatile int MAX_PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+    }
+
+    public static final class ChunkStreamingLimits {
+
+        private ChunkStreamingLimits() {}
+
+        /**
+         * Allows servers to sign, encrypt and write the chunks of a response one at a time, as soon as each one has
+         * been encoded, instead of encoding the whole response and securing every chunk of it before writing any of
+         * them. Writing waits for the channel to become writable again whenever its outbound buffer is above its high
+         * water mark.
+         * <p>
+         * Chunks written this way are always secured on the calling thread, one at a time. A response that fails to
+         * encode after its first chunks have been written is ended with an abort chunk instead of a ServiceFault.
+         */
+        public static volatile boolean STREAMING_ENABLED = false;
+
     }
 
 }
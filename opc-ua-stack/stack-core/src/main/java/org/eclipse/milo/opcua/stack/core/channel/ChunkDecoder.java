@@ -16,10 +16,13 @@ import java.security.GeneralSecurityException;
 import java.security.InvalidKeyException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
 import java.security.Signature;
 import java.security.SignatureException;
 import java.util.List;
 import javax.crypto.Cipher;
+import javax.crypto.Mac;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 
@@ -104,6 +107,17 @@ public final class ChunkDecoder {
         });
     }
 
+    /**
+     * The decryption and verification used to unsecure chunks on one thread.
+     */
+    private interface ChunkCrypto {
+
+        Cipher getCipher() throws UaException;
+
+        void verifyChunk(ByteBuf chunkBuffer) throws UaException;
+
+    }
+
     public interface Callback {
 
         void onDecodingError(UaException ex);
@@ -132,24 +146,46 @@ public final class ChunkDecoder {
 
             long requestId = -1L;
 
+            boolean parallel = (signed || encrypted) &&
+                ParallelChunks.isParallel(chunkBuffers.size()) &&
+                readSecurityHeaders(channel, chunkBuffers);
+
+            if (parallel) {
+                ParallelChunks.run(chunkBuffers.size(), (from, to) -> {
+                    ChunkCrypto crypto = newChunkCrypto(channel);
+
+                    for (int i = from; i < to; i++) {
+                        unsecureChunk(channel, chunkBuffers.get(i), crypto);
+                    }
+                });
+            }
+
+            ChunkCrypto crypto = new ChunkCrypto() {
+                @Override
+                public Cipher getCipher() throws UaException {
+                    return AbstractDecoder.this.getCipher(channel);
+                }
+
+                @Override
+                public void verifyChunk(ByteBuf chunkBuffer) throws UaException {
+                    AbstractDecoder.this.verifyChunk(channel, chunkBuffer);
+                }
+            };
+
             for (ByteBuf chunkBuffer : chunkBuffers) {
                 final char chunkType = (char) chunkBuffer.getByte(3);
 
-                chunkBuffer.skipBytes(SecureMessageHeader.SECURE_MESSAGE_HEADER_SIZE);
+                if (!parallel) {
+                    chunkBuffer.skipBytes(SecureMessageHeader.SECURE_MESSAGE_HEADER_SIZE);
 
-                readSecurityHeader(channel, chunkBuffer);
+                    readSecurityHeader(channel, chunkBuffer);
 
-                if (encrypted) {
-                    decryptChunk(channel, chunkBuffer);
+                    unsecureChunk(channel, chunkBuffer, crypto);
                 }
 
                 int encryptedStart = chunkBuffer.readerIndex();
                 chunkBuffer.readerIndex(0);
 
-                if (signed) {
-                    verifyChunk(channel, chunkBuffer);
-                }
-
                 final int paddingSize = encrypted ? getPaddingSize(cipherTextBlockSize, signatureSize, chunkBuffer) : 0;
                 final int bodyEnd = chunkBuffer.readableBytes() - signatureSize - paddingSize;
 
@@ -198,12 +234,92 @@ public final class ChunkDecoder {
             callback.onMessageDecoded(composite, requestId);
         }
 
-        private void decryptChunk(SecureChannel channel, ByteBuf chunkBuffer) throws UaException {
+        /**
+         * Read the security header of every chunk, leaving each reader index at the start of the encrypted part.
+         *
+         * @return {@code true} if every chunk is secured with the same keys. If not, every reader index is reset to
+         * 0 so the chunks can be read again one at a time.
+         */
+        private boolean readSecurityHeaders(SecureChannel channel, List<ByteBuf> chunkBuffers) throws UaException {
+            long tokenId = -1L;
+
+            for (int i = 0; i < chunkBuffers.size(); i++) {
+                ByteBuf chunkBuffer = chunkBuffers.get(i);
+
+                chunkBuffer.skipBytes(SecureMessageHeader.SECURE_MESSAGE_HEADER_SIZE);
+
+                readSecurityHeader(channel, chunkBuffer);
+
+                if (i == 0) {
+                    tokenId = getSecurityTokenId();
+                } else if (tokenId != getSecurityTokenId()) {
+                    chunkBuffers.forEach(b -> b.readerIndex(0));
+
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        /**
+         * Decrypt and verify a chunk whose reader index is at the start of the encrypted part, leaving it there.
+         */
+        private void unsecureChunk(SecureChannel channel, ByteBuf chunkBuffer, ChunkCrypto crypto) throws UaException {
+            if (isEncryptionEnabled(channel)) {
+                decryptChunk(channel, chunkBuffer, crypto.getCipher());
+            }
+
+            if (isSigningEnabled(channel)) {
+                int encryptedStart = chunkBuffer.readerIndex();
+                chunkBuffer.readerIndex(0);
+
+                crypto.verifyChunk(chunkBuffer);
+
+                chunkBuffer.readerIndex(encryptedStart);
+            }
+        }
+
+        private void decryptChunk(SecureChannel channel, ByteBuf chunkBuffer, Cipher cipher) throws UaException {
             int cipherTextBlockSize = getCipherTextBlockSize(channel);
             int blockCount = chunkBuffer.readableBytes() / cipherTextBlockSize;
 
             int plainTextBufferSize = cipherTextBlockSize * blockCount;
 
+            if (chunkBuffer.nioBufferCount() != 1) {
+                decryptChunkCopy(channel, chunkBuffer, cipher, blockCount, plainTextBufferSize);
+                return;
+            }
+
+            /*
+             * Decrypt in place: the plaintext is written over the ciphertext it came from. Cipher's ByteBuffer
+             * methods are copy-safe, and plaintext never outruns ciphertext, so no unread input is overwritten.
+             */
+            int start = chunkBuffer.readerIndex();
+
+            ByteBuffer chunkNioBuffer = chunkBuffer.nioBuffer(start, plainTextBufferSize);
+            ByteBuffer plainTextNioBuffer = chunkBuffer.nioBuffer(start, plainTextBufferSize);
+
+            try {
+                decrypt(channel, cipher, chunkNioBuffer, plainTextNioBuffer, blockCount);
+
+                chunkBuffer.writerIndex(start + plainTextNioBuffer.position());
+            } catch (GeneralSecurityException e) {
+                throw new UaException(StatusCodes.Bad_SecurityChecksFailed, e);
+            }
+        }
+
+        /**
+         * Decrypt a chunk whose memory can't be exposed as a single {@link ByteBuffer} by decrypting into a
+         * temporary buffer and then writing the plaintext back into the chunk buffer.
+         */
+        private void decryptChunkCopy(
+            SecureChannel channel,
+            ByteBuf chunkBuffer,
+            Cipher cipher,
+            int blockCount,
+            int plainTextBufferSize) throws UaException {
+
             ByteBuf plainTextBuffer = BufferUtil.pooledBuffer(plainTextBufferSize);
 
             ByteBuffer plainTextNioBuffer = plainTextBuffer
@@ -213,19 +329,7 @@ public final class ChunkDecoder {
             ByteBuffer chunkNioBuffer = chunkBuffer.nioBuffer();
 
             try {
-                Cipher cipher = getCipher(channel);
-
-                assert (chunkBuffer.readableBytes() % cipherTextBlockSize == 0);
-
-                if (isAsymmetric()) {
-                    for (int blockNumber = 0; blockNumber < blockCount; blockNumber++) {
-                        ((Buffer) chunkNioBuffer).limit(chunkNioBuffer.position() + cipherTextBlockSize);
-
-                        cipher.doFinal(chunkNioBuffer, plainTextNioBuffer);
-                    }
-                } else {
-                    cipher.doFinal(chunkNioBuffer, plainTextNioBuffer);
-                }
+                decrypt(channel, cipher, chunkNioBuffer, plainTextNioBuffer, blockCount);
 
                 /* Write plainTextBuffer back into the chunk buffer we decrypted from. */
                 ((Buffer) plainTextNioBuffer).flip(); // limit = pos, pos = 0
@@ -239,6 +343,28 @@ public final class ChunkDecoder {
             }
         }
 
+        private void decrypt(
+            SecureChannel channel,
+            Cipher cipher,
+            ByteBuffer cipherText,
+            ByteBuffer plainText,
+            int blockCount) throws GeneralSecurityException {
+
+            assert (cipherText.remaining() % getCipherTextBlockSize(channel) == 0);
+
+            if (isAsymmetric()) {
+                int cipherTextBlockSize = getCipherTextBlockSize(channel);
+
+                for (int blockNumber = 0; blockNumber < blockCount; blockNumber++) {
+                    ((Buffer) cipherText).limit(cipherText.position() + cipherTextBlockSize);
+
+                    cipher.doFinal(cipherText, plainText);
+                }
+            } else {
+                cipher.doFinal(cipherText, plainText);
+            }
+        }
+
         private int getPaddingSize(int cipherTextBlockSize, int signatureSize, ByteBuf buffer) {
             int lastPaddingByteOffset = buffer.readableBytes() - signatureSize - 1;
 
@@ -249,6 +375,21 @@ public final class ChunkDecoder {
 
         protected abstract void readSecurityHeader(SecureChannel channel, ByteBuf chunkBuffer) throws UaException;
 
+        /**
+         * @return the id of the security token whose keys the last chunk read by
+         * {@link #readSecurityHeader(SecureChannel, ByteBuf)} is secured with.
+         */
+        protected long getSecurityTokenId() {
+            return -1L;
+        }
+
+        /**
+         * Create a {@link ChunkCrypto} with its own decryption and verification instances, independent of the ones
+         * used by {@link #getCipher(SecureChannel)} and {@link #verifyChunk(SecureChannel, ByteBuf)}, so chunks can
+         * be unsecured on another thread.
+         */
+        protected abstract ChunkCrypto newChunkCrypto(SecureChannel channel) throws UaException;
+
         protected abstract Cipher getCipher(SecureChannel channel) throws UaException;
 
         protected abstract int getCipherTextBlockSize(SecureChannel channel);
@@ -267,6 +408,16 @@ public final class ChunkDecoder {
 
     private final class AsymmetricDecoder extends AbstractDecoder {
 
+        /*
+         * Initialized on first use and reused for every chunk, and every message, decrypted with the same private
+         * key or verified with the same remote certificate.
+         */
+        private volatile Cipher cipher = null;
+        private volatile PrivateKey cipherKey = null;
+
+        private volatile Signature signature = null;
+        private volatile PublicKey signatureKey = null;
+
         @Override
         public void readSecurityHeader(SecureChannel channel, ByteBuf chunkBuffer) {
             AsymmetricSecurityHeader.decode(chunkBuffer, maxArrayLength, maxStringLength);
@@ -274,17 +425,82 @@ public final class ChunkDecoder {
 
         @Override
         public Cipher getCipher(SecureChannel channel) throws UaException {
+            PrivateKey privateKey = channel.getKeyPair().getPrivate();
+
+            if (cipher != null && cipherKey == privateKey) {
+                return cipher;
+            }
+
+            Cipher cipher = newCipher(channel, privateKey);
+
+            this.cipher = cipher;
+            this.cipherKey = privateKey;
+
+            return cipher;
+        }
+
+        @Override
+        protected ChunkCrypto newChunkCrypto(SecureChannel channel) throws UaException {
+            Cipher cipher = isEncryptionEnabled(channel) ?
+                newCipher(channel, channel.getKeyPair().getPrivate()) : null;
+
+            return new ChunkCrypto() {
+                // Initialized by the first chunk, and again after a chunk fails to verify.
+                private Signature signature = null;
+
+                @Override
+                public Cipher getCipher() {
+                    assert cipher != null;
+                    return cipher;
+                }
+
+                @Override
+                public void verifyChunk(ByteBuf chunkBuffer) throws UaException {
+                    PublicKey publicKey = channel.getRemoteCertificate().getPublicKey();
+
+                    if (signature == null) {
+                        signature = newSignature(channel, publicKey);
+                    }
+
+                    try {
+                        AsymmetricDecoder.this.verifyChunk(channel, chunkBuffer, signature);
+                    } catch (UaException e) {
+                        signature = null;
+
+                        throw e;
+                    }
+                }
+            };
+        }
+
+        private Cipher newCipher(SecureChannel channel, PrivateKey privateKey) throws UaException {
             try {
                 String transformation = channel.getSecurityPolicy()
                     .getAsymmetricEncryptionAlgorithm().getTransformation();
                 Cipher cipher = Cipher.getInstance(transformation);
-                cipher.init(Cipher.DECRYPT_MODE, channel.getKeyPair().getPrivate());
+                cipher.init(Cipher.DECRYPT_MODE, privateKey);
+
                 return cipher;
             } catch (GeneralSecurityException e) {
                 throw new UaException(StatusCodes.Bad_InternalError, e);
             }
         }
 
+        private Signature newSignature(SecureChannel channel, PublicKey publicKey) throws UaException {
+            String transformation = channel.getSecurityPolicy().getAsymmetricSignatureAlgorithm().getTransformation();
+
+            try {
+                Signature signature = Signature.getInstance(transformation);
+                signature.initVerify(publicKey);
+
+                return signature;
+            } catch (NoSuchAlgorithmException e) {
+                throw new UaException(StatusCodes.Bad_InternalError, e);
+            } catch (InvalidKeyException e) {
+                throw new UaException(StatusCodes.Bad_CertificateInvalid, e);
+            }
+        }
+
         @Override
         public int getCipherTextBlockSize(SecureChannel channel) {
             return channel.getLocalAsymmetricCipherTextBlockSize();
@@ -297,7 +513,28 @@ public final class ChunkDecoder {
 
         @Override
         public void verifyChunk(SecureChannel channel, ByteBuf chunkBuffer) throws UaException {
-            String transformation = channel.getSecurityPolicy().getAsymmetricSignatureAlgorithm().getTransformation();
+            PublicKey publicKey = channel.getRemoteCertificate().getPublicKey();
+
+            Signature signature = this.signature;
+
+            if (signature == null || !publicKey.equals(signatureKey)) {
+                signature = newSignature(channel, publicKey);
+
+                this.signature = signature;
+                this.signatureKey = publicKey;
+            }
+
+            try {
+                verifyChunk(channel, chunkBuffer, signature);
+            } catch (UaException e) {
+                // A failed verify() may leave the Signature mid-operation; start over with the next chunk.
+                this.signature = null;
+
+                throw e;
+            }
+        }
+
+        private void verifyChunk(SecureChannel channel, ByteBuf chunkBuffer, Signature signature) throws UaException {
             int signatureSize = channel.getRemoteAsymmetricSignatureSize();
 
             ByteBuffer chunkNioBuffer = chunkBuffer.nioBuffer(0, chunkBuffer.writerIndex());
@@ -305,9 +542,6 @@ public final class ChunkDecoder {
             ((Buffer) chunkNioBuffer).limit(chunkBuffer.writerIndex() - signatureSize);
 
             try {
-                Signature signature = Signature.getInstance(transformation);
-
-                signature.initVerify(channel.getRemoteCertificate().getPublicKey());
                 signature.update(chunkNioBuffer);
 
                 byte[] signatureBytes = new byte[signatureSize];
@@ -317,12 +551,8 @@ public final class ChunkDecoder {
                 if (!signature.verify(signatureBytes)) {
                     throw new UaException(StatusCodes.Bad_SecurityChecksFailed, "could not verify signature");
                 }
-            } catch (NoSuchAlgorithmException e) {
-                throw new UaException(StatusCodes.Bad_InternalError, e);
             } catch (SignatureException e) {
                 throw new UaException(StatusCodes.Bad_ApplicationSignatureInvalid, e);
-            } catch (InvalidKeyException e) {
-                throw new UaException(StatusCodes.Bad_CertificateInvalid, e);
             }
         }
 
@@ -346,8 +576,14 @@ public final class ChunkDecoder {
     private final class SymmetricDecoder extends AbstractDecoder {
 
         private volatile ChannelSecurity.SecurityKeys securityKeys;
+
+        /*
+         * The Cipher and Mac are initialized once per security token and reused for every chunk until a chunk
+         * arrives with a different token; both reset to their initialized state after each doFinal().
+         */
         private volatile Cipher cipher = null;
-        private volatile long cipherId = -1;
+        private volatile Mac mac = null;
+        private volatile long keysTokenId = -1;
 
         @Override
         public void readSecurityHeader(SecureChannel channel, ByteBuf chunkBuffer) throws UaException {
@@ -386,9 +622,10 @@ public final class ChunkDecoder {
                     }
                 }
 
-                if (cipherId != receivedTokenId && channel.isSymmetricEncryptionEnabled()) {
-                    cipher = initCipher(channel);
-                    cipherId = receivedTokenId;
+                if (keysTokenId != receivedTokenId) {
+                    cipher = channel.isSymmetricEncryptionEnabled() ? initCipher(channel) : null;
+                    mac = channel.isSymmetricSigningEnabled() ? initMac(channel) : null;
+                    keysTokenId = receivedTokenId;
                 }
             }
         }
@@ -399,6 +636,31 @@ public final class ChunkDecoder {
             return cipher;
         }
 
+        @Override
+        protected long getSecurityTokenId() {
+            return keysTokenId;
+        }
+
+        @Override
+        protected ChunkCrypto newChunkCrypto(SecureChannel channel) throws UaException {
+            Cipher cipher = channel.isSymmetricEncryptionEnabled() ? initCipher(channel) : null;
+            Mac mac = channel.isSymmetricSigningEnabled() ? initMac(channel) : null;
+
+            return new ChunkCrypto() {
+                @Override
+                public Cipher getCipher() {
+                    assert cipher != null;
+                    return cipher;
+                }
+
+                @Override
+                public void verifyChunk(ByteBuf chunkBuffer) throws UaException {
+                    assert mac != null;
+                    SymmetricDecoder.this.verifyChunk(channel, chunkBuffer, mac);
+                }
+            };
+        }
+
         @Override
         public int getCipherTextBlockSize(SecureChannel channel) {
             return channel.getSymmetricBlockSize();
@@ -411,15 +673,18 @@ public final class ChunkDecoder {
 
         @Override
         public void verifyChunk(SecureChannel channel, ByteBuf chunkBuffer) throws UaException {
-            SecurityAlgorithm securityAlgorithm = channel.getSecurityPolicy().getSymmetricSignatureAlgorithm();
-            byte[] secretKey = channel.getDecryptionKeys(securityKeys).getSignatureKey();
+            assert mac != null;
+            verifyChunk(channel, chunkBuffer, mac);
+        }
+
+        private void verifyChunk(SecureChannel channel, ByteBuf chunkBuffer, Mac mac) throws UaException {
             int signatureSize = channel.getSymmetricSignatureSize();
 
             ByteBuffer chunkNioBuffer = chunkBuffer.nioBuffer(0, chunkBuffer.writerIndex());
             ((Buffer) chunkNioBuffer).position(0);
             ((Buffer) chunkNioBuffer).limit(chunkBuffer.writerIndex() - signatureSize);
 
-            byte[] signature = SignatureUtil.hmac(securityAlgorithm, secretKey, chunkNioBuffer);
+            byte[] signature = SignatureUtil.hmac(mac, chunkNioBuffer);
 
             byte[] signatureBytes = new byte[signatureSize];
             ((Buffer) chunkNioBuffer).limit(chunkNioBuffer.position() + signatureSize);
@@ -464,6 +729,13 @@ public final class ChunkDecoder {
             }
         }
 
+        private Mac initMac(SecureChannel channel) throws UaException {
+            SecurityAlgorithm signatureAlgorithm = channel.getSecurityPolicy().getSymmetricSignatureAlgorithm();
+            byte[] signatureKey = channel.getDecryptionKeys(securityKeys).getSignatureKey();
+
+            return SignatureUtil.newHmac(signatureAlgorithm, signatureKey);
+        }
+
     }
 
 }
@@ -13,10 +13,14 @@ package org.eclipse.milo.opcua.stack.core.channel;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
 import java.security.cert.Certificate;
 import java.util.ArrayList;
 import java.util.List;
 import javax.crypto.Cipher;
+import javax.crypto.Mac;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 
@@ -28,6 +32,7 @@ import org.eclipse.milo.opcua.stack.core.channel.headers.AsymmetricSecurityHeade
 import org.eclipse.milo.opcua.stack.core.channel.headers.SecureMessageHeader;
 import org.eclipse.milo.opcua.stack.core.channel.headers.SequenceHeader;
 import org.eclipse.milo.opcua.stack.core.channel.headers.SymmetricSecurityHeader;
+import org.eclipse.milo.opcua.stack.core.channel.messages.ErrorMessage;
 import org.eclipse.milo.opcua.stack.core.channel.messages.MessageType;
 import org.eclipse.milo.opcua.stack.core.security.SecurityAlgorithm;
 import org.eclipse.milo.opcua.stack.core.util.BufferUtil;
@@ -71,6 +76,54 @@ public final class ChunkEncoder {
         encode(symmetricEncoder, channel, requestId, messageBuffer, messageType, callback);
     }
 
+    /**
+     * Encode {@code messageBuffer} as symmetric chunks that are encoded, signed and encrypted one at a time, as they
+     * are taken from the returned {@link ChunkStream}.
+     * <p>
+     * The chunks take their sequence numbers from this encoder as they are taken, so no other message may be encoded
+     * until the {@link ChunkStream} has been exhausted or released.
+     *
+     * @param channel       the {@link SecureChannel} to encode for.
+     * @param requestId     the request id of the message.
+     * @param messageBuffer the encoded message. It is retained until the {@link ChunkStream} is exhausted or released.
+     * @param messageType   the {@link MessageType} of the message.
+     * @return a {@link ChunkStream} over the chunks of the message.
+     * @throws UaException if the message would exceed the remote max chunk count.
+     */
+    public ChunkStream encodeSymmetricStream(
+        SecureChannel channel,
+        long requestId,
+        ByteBuf messageBuffer,
+        MessageType messageType) throws UaException {
+
+        return new ChunkStream(symmetricEncoder, channel, requestId, messageBuffer, messageType, true);
+    }
+
+    /**
+     * Open a {@link ChunkStream} over a symmetric message that is still being encoded into {@code messageBuffer}.
+     * <p>
+     * Until {@link ChunkStream#complete()} is called only full chunks that are known not to be the final chunk are
+     * available, so they can be written while the rest of the message is encoded. The bytes of the chunks taken are
+     * consumed from {@code messageBuffer}.
+     *
+     * @param channel       the {@link SecureChannel} to encode for.
+     * @param requestId     the request id of the message.
+     * @param messageBuffer the buffer the message is being encoded into. It is retained until the
+     *                      {@link ChunkStream} is exhausted or released.
+     * @param messageType   the {@link MessageType} of the message.
+     * @return a {@link ChunkStream} over the chunks of the message.
+     * @throws UaException if the chunk layout for {@code channel} could not be determined.
+     * @see #encodeSymmetricStream(SecureChannel, long, ByteBuf, MessageType)
+     */
+    public ChunkStream openSymmetricStream(
+        SecureChannel channel,
+        long requestId,
+        ByteBuf messageBuffer,
+        MessageType messageType) throws UaException {
+
+        return new ChunkStream(symmetricEncoder, channel, requestId, messageBuffer, messageType, false);
+    }
+
     private static void encode(
         AbstractEncoder encoder,
         SecureChannel channel,
@@ -90,6 +143,204 @@ public final class ChunkEncoder {
         }
     }
 
+    /**
+     * The signing and encryption used to secure chunks on one thread.
+     */
+    private interface ChunkCrypto {
+
+        byte[] signChunk(ByteBuffer chunkNioBuffer) throws UaException;
+
+        Cipher getCipher() throws UaException;
+
+    }
+
+    /**
+     * The chunks of one message, each encoded, signed and encrypted when it is taken by {@link #next()}.
+     *
+     * @see #encodeSymmetricStream(SecureChannel, long, ByteBuf, MessageType)
+     */
+    public final class ChunkStream {
+
+        private final AbstractEncoder encoder;
+        private final AbstractEncoder.ChunkLayout layout;
+
+        private final SecureChannel channel;
+        private final long requestId;
+        private final ByteBuf messageBuffer;
+        private final MessageType messageType;
+
+        private boolean complete;
+        private boolean released = false;
+
+        private int chunkCount = 0;
+        private long bytesTaken = 0L;
+
+        private ChunkStream(
+            AbstractEncoder encoder,
+            SecureChannel channel,
+            long requestId,
+            ByteBuf messageBuffer,
+            MessageType messageType,
+            boolean complete) throws UaException {
+
+            this.encoder = encoder;
+            this.channel = channel;
+            this.requestId = requestId;
+            this.messageType = messageType;
+            this.complete = complete;
+
+            layout = encoder.new ChunkLayout(channel);
+
+            if (complete) {
+                encoder.checkChunkCount(layout, messageBuffer);
+            }
+
+            this.messageBuffer = messageBuffer.retain();
+        }
+
+        public long getRequestId() {
+            return requestId;
+        }
+
+        /**
+         * @return the maximum number of message bytes in one chunk.
+         */
+        public int getMaxBodySize() {
+            return layout.maxBodySize;
+        }
+
+        /**
+         * @return the number of chunks taken so far.
+         */
+        public int getChunkCount() {
+            return chunkCount;
+        }
+
+        /**
+         * @return the size of the message encoded so far, including the bytes of the chunks already taken.
+         */
+        public long getMessageSize() {
+            return bytesTaken + (released ? 0 : messageBuffer.readableBytes());
+        }
+
+        /**
+         * Mark the message as completely encoded, making the rest of it, including the final chunk, available.
+         *
+         * @throws UaException if the message would exceed the remote max chunk count.
+         */
+        public void complete() throws UaException {
+            complete = true;
+
+            int remoteMaxChunkCount = parameters.getRemoteMaxChunkCount();
+
+            if (remoteMaxChunkCount > 0 &&
+                chunkCount + layout.getChunkCount(messageBuffer.readableBytes()) > remoteMaxChunkCount) {
+
+                throw new UaException(
+                    StatusCodes.Bad_EncodingLimitsExceeded,
+                    "remote chunk count exceeded: " + remoteMaxChunkCount);
+            }
+        }
+
+        /**
+         * @return {@code true} if there are chunks left to take.
+         */
+        public boolean hasNext() {
+            if (released) {
+                return false;
+            } else if (complete) {
+                return messageBuffer.readableBytes() > 0;
+            } else {
+                return messageBuffer.readableBytes() > layout.maxBodySize;
+            }
+        }
+
+        /**
+         * Encode, sign and encrypt the next chunk. The message is released after its last chunk is taken.
+         *
+         * @return the next chunk, which the caller is responsible for releasing.
+         * @throws UaException if the chunk could not be encoded or secured.
+         */
+        public ByteBuf next() throws UaException {
+            if (!hasNext()) {
+                throw new UaException(StatusCodes.Bad_InternalError, "no chunks remaining");
+            }
+
+            int remoteMaxChunkCount = parameters.getRemoteMaxChunkCount();
+
+            // A chunk taken before the message is complete is never the last one, the final or abort chunk follows.
+            int maxChunkCount = complete ? remoteMaxChunkCount : remoteMaxChunkCount - 1;
+
+            if (remoteMaxChunkCount > 0 && chunkCount >= maxChunkCount) {
+                throw new UaException(
+                    StatusCodes.Bad_EncodingLimitsExceeded,
+                    "remote chunk count exceeded: " + remoteMaxChunkCount);
+            }
+
+            int readableBytes = messageBuffer.readableBytes();
+
+            ByteBuf chunkBuffer = secure(
+                encoder.encodeChunk(channel, layout, requestId, messageBuffer, messageType, false)
+            );
+
+            chunkCount++;
+            bytesTaken += readableBytes - messageBuffer.readableBytes();
+
+            if (complete && messageBuffer.readableBytes() == 0) {
+                release();
+            }
+
+            return chunkBuffer;
+        }
+
+        /**
+         * Release the message and encode, sign and encrypt an abort chunk that ends it instead of its final chunk.
+         *
+         * @param error  the status code of the error that aborted the message.
+         * @param reason the reason the message was aborted.
+         * @return the abort chunk, which the caller is responsible for releasing.
+         * @throws UaException if the chunk could not be encoded or secured.
+         */
+        public ByteBuf abort(long error, String reason) throws UaException {
+            release();
+
+            ByteBuf errorBuffer = BufferUtil.pooledBuffer();
+
+            try {
+                ErrorMessage.encode(new ErrorMessage(error, reason), errorBuffer);
+
+                return secure(encoder.encodeChunk(channel, layout, requestId, errorBuffer, messageType, true));
+            } finally {
+                errorBuffer.release();
+            }
+        }
+
+        private ByteBuf secure(ByteBuf chunkBuffer) throws UaException {
+            try {
+                if (encoder.isSigningEnabled(channel) || layout.encrypted) {
+                    encoder.secureChunk(channel, chunkBuffer, encoder.sequentialCrypto(channel));
+                }
+            } catch (UaException | RuntimeException e) {
+                chunkBuffer.release();
+
+                throw e;
+            }
+
+            return chunkBuffer;
+        }
+
+        /**
+         * Release the message without taking its remaining chunks.
+         */
+        public void release() {
+            if (!released) {
+                released = true;
+                messageBuffer.release();
+            }
+        }
+
+    }
+
     public interface Callback {
 
         void onEncodingError(UaException ex);
@@ -108,60 +359,94 @@ public final class ChunkEncoder {
             MessageType messageType,
             ChunkEncoder.Callback callback) throws UaException {
 
-            boolean encrypted = isEncryptionEnabled(channel);
+            ChunkLayout layout = new ChunkLayout(channel);
 
-            int securityHeaderSize = getSecurityHeaderSize(channel);
-            int cipherTextBlockSize = getCipherTextBlockSize(channel);
-            int plainTextBlockSize = getPlainTextBlockSize(channel);
-            int signatureSize = getSignatureSize(channel);
-
-            int maxChunkSize = parameters.getLocalSendBufferSize();
-            int paddingOverhead = encrypted ? (cipherTextBlockSize > 256 ? 2 : 1) : 0;
-
-            int maxCipherTextSize = maxChunkSize - SECURE_MESSAGE_HEADER_SIZE - securityHeaderSize;
-            int maxCipherTextBlocks = maxCipherTextSize / cipherTextBlockSize;
-            int maxPlainTextSize = maxCipherTextBlocks * plainTextBlockSize;
-            int maxBodySize = maxPlainTextSize - SEQUENCE_HEADER_SIZE - paddingOverhead - signatureSize;
-
-            assert (maxPlainTextSize + securityHeaderSize + SECURE_MESSAGE_HEADER_SIZE <= maxChunkSize);
+            checkChunkCount(layout, messageBuffer);
 
             while (messageBuffer.readableBytes() > 0) {
-                int bodySize = Math.min(messageBuffer.readableBytes(), maxBodySize);
+                chunks.add(encodeChunk(channel, layout, requestId, messageBuffer, messageType, false));
+            }
 
-                int paddingSize;
-                if (encrypted) {
-                    int plainTextSize = SEQUENCE_HEADER_SIZE + bodySize + paddingOverhead + signatureSize;
-                    int remaining = plainTextSize % plainTextBlockSize;
-                    paddingSize = remaining > 0 ? plainTextBlockSize - remaining : 0;
+            /* Signature and Encryption */
+            if (isSigningEnabled(channel) || isEncryptionEnabled(channel)) {
+                if (ParallelChunks.isParallel(chunks.size())) {
+                    ParallelChunks.run(chunks.size(), (from, to) -> {
+                        ChunkCrypto crypto = newChunkCrypto(channel);
+
+                        for (int i = from; i < to; i++) {
+                            secureChunk(channel, chunks.get(i), crypto);
+                        }
+                    });
                 } else {
-                    paddingSize = 0;
+                    ChunkCrypto crypto = sequentialCrypto(channel);
+
+                    for (ByteBuf chunkBuffer : chunks) {
+                        secureChunk(channel, chunkBuffer, crypto);
+                    }
                 }
+            }
+
+            callback.onMessageEncoded(chunks, requestId);
+        }
+
+        private void checkChunkCount(ChunkLayout layout, ByteBuf messageBuffer) throws UaException {
+            int remoteMaxChunkCount = parameters.getRemoteMaxChunkCount();
+
+            if (remoteMaxChunkCount > 0 && layout.getChunkCount(messageBuffer.readableBytes()) > remoteMaxChunkCount) {
+                throw new UaException(
+                    StatusCodes.Bad_EncodingLimitsExceeded,
+                    "remote chunk count exceeded: " + remoteMaxChunkCount);
+            }
+        }
+
+        /**
+         * Write the headers, the next part of the body and the padding of a chunk, taking the next sequence number.
+         * <p>
+         * If {@code abort} is set the chunk is an abort chunk and {@code messageBuffer} holds its ErrorMessage.
+         */
+        private ByteBuf encodeChunk(
+            SecureChannel channel,
+            ChunkLayout layout,
+            long requestId,
+            ByteBuf messageBuffer,
+            MessageType messageType,
+            boolean abort) throws UaException {
 
-                int plainTextContentSize = SEQUENCE_HEADER_SIZE + bodySize +
-                    signatureSize + paddingSize + paddingOverhead;
+            int bodySize = Math.min(messageBuffer.readableBytes(), layout.maxBodySize);
 
-                assert (plainTextContentSize % plainTextBlockSize == 0);
+            int paddingSize;
+            if (layout.encrypted) {
+                int plainTextSize = SEQUENCE_HEADER_SIZE + bodySize + layout.paddingOverhead + layout.signatureSize;
+                int remaining = plainTextSize % layout.plainTextBlockSize;
+                paddingSize = remaining > 0 ? layout.plainTextBlockSize - remaining : 0;
+            } else {
+                paddingSize = 0;
+            }
 
-                int chunkSize = SecureMessageHeader.SECURE_MESSAGE_HEADER_SIZE + securityHeaderSize +
-                    (plainTextContentSize / plainTextBlockSize) * cipherTextBlockSize;
+            int plainTextContentSize = SEQUENCE_HEADER_SIZE + bodySize +
+                layout.signatureSize + paddingSize + layout.paddingOverhead;
 
-                assert (chunkSize <= maxChunkSize);
+            assert (plainTextContentSize % layout.plainTextBlockSize == 0);
 
-                ByteBuf chunkBuffer = BufferUtil.pooledBuffer(chunkSize);
+            int chunkSize = SecureMessageHeader.SECURE_MESSAGE_HEADER_SIZE + layout.securityHeaderSize +
+                (plainTextContentSize / layout.plainTextBlockSize) * layout.cipherTextBlockSize;
 
-                chunks.add(chunkBuffer);
+            assert (chunkSize <= layout.maxChunkSize);
 
-                int remoteMaxChunkCount = parameters.getRemoteMaxChunkCount();
-                if (remoteMaxChunkCount > 0 && chunks.size() > remoteMaxChunkCount) {
-                    throw new UaException(
-                        StatusCodes.Bad_EncodingLimitsExceeded,
-                        "remote chunk count exceeded: " + remoteMaxChunkCount);
-                }
+            ByteBuf chunkBuffer = BufferUtil.pooledBuffer(chunkSize);
 
+            try {
                 /* Message Header */
+                char chunkType;
+                if (abort) {
+                    chunkType = 'A';
+                } else {
+                    chunkType = messageBuffer.readableBytes() > bodySize ? 'C' : 'F';
+                }
+
                 SecureMessageHeader messageHeader = new SecureMessageHeader(
                     messageType,
-                    messageBuffer.readableBytes() > bodySize ? 'C' : 'F',
+                    chunkType,
                     chunkSize,
                     channel.getChannelId()
                 );
@@ -182,61 +467,137 @@ public final class ChunkEncoder {
                 /* Message Body */
                 chunkBuffer.writeBytes(messageBuffer, bodySize);
 
-                /* Padding and Signature */
-                if (encrypted) {
-                    writePadding(cipherTextBlockSize, paddingSize, chunkBuffer);
+                /* Padding */
+                if (layout.encrypted) {
+                    writePadding(layout.cipherTextBlockSize, paddingSize, chunkBuffer);
                 }
 
-                if (isSigningEnabled(channel)) {
-                    ByteBuffer chunkNioBuffer = chunkBuffer.nioBuffer(0, chunkBuffer.writerIndex());
+                return chunkBuffer;
+            } catch (UaException | RuntimeException e) {
+                chunkBuffer.release();
 
-                    byte[] signature = signChunk(channel, chunkNioBuffer);
+                throw e;
+            }
+        }
 
-                    chunkBuffer.writeBytes(signature);
+        /**
+         * @return a {@link ChunkCrypto} that uses the signing and encryption instances of this encoder.
+         */
+        private ChunkCrypto sequentialCrypto(SecureChannel channel) {
+            return new ChunkCrypto() {
+                @Override
+                public byte[] signChunk(ByteBuffer chunkNioBuffer) throws UaException {
+                    return AbstractEncoder.this.signChunk(channel, chunkNioBuffer);
                 }
 
-                /* Encryption */
-                if (encrypted) {
-                    chunkBuffer.readerIndex(SECURE_MESSAGE_HEADER_SIZE + securityHeaderSize);
+                @Override
+                public Cipher getCipher() throws UaException {
+                    return AbstractEncoder.this.getCipher(channel);
+                }
+            };
+        }
 
-                    assert (chunkBuffer.readableBytes() % plainTextBlockSize == 0);
+        /**
+         * Sign and then encrypt a chunk whose headers, body and padding have been written.
+         */
+        private void secureChunk(SecureChannel channel, ByteBuf chunkBuffer, ChunkCrypto crypto) throws UaException {
+            boolean signed = isSigningEnabled(channel);
+            boolean encrypted = isEncryptionEnabled(channel);
 
-                    try {
-                        int blockCount = chunkBuffer.readableBytes() / plainTextBlockSize;
+            int securityHeaderSize = getSecurityHeaderSize(channel);
+            int cipherTextBlockSize = getCipherTextBlockSize(channel);
+            int plainTextBlockSize = getPlainTextBlockSize(channel);
 
-                        ByteBuffer chunkNioBuffer = chunkBuffer.nioBuffer(
-                            chunkBuffer.readerIndex(), blockCount * cipherTextBlockSize);
+            // MessageSize from the SecureMessageHeader
+            int chunkSize = (int) chunkBuffer.getUnsignedIntLE(4);
 
-                        ByteBuf copyBuffer = chunkBuffer.copy();
-                        ByteBuffer plainTextNioBuffer = copyBuffer.nioBuffer();
+            if (signed) {
+                ByteBuffer chunkNioBuffer = chunkBuffer.nioBuffer(0, chunkBuffer.writerIndex());
 
-                        Cipher cipher = getCipher(channel);
+                byte[] signature = crypto.signChunk(chunkNioBuffer);
 
-                        if (isAsymmetric()) {
-                            for (int blockNumber = 0; blockNumber < blockCount; blockNumber++) {
-                                int position = blockNumber * plainTextBlockSize;
-                                int limit = (blockNumber + 1) * plainTextBlockSize;
-                                ((Buffer) plainTextNioBuffer).position(position);
-                                ((Buffer) plainTextNioBuffer).limit(limit);
+                chunkBuffer.writeBytes(signature);
+            }
 
-                                int bytesWritten = cipher.doFinal(plainTextNioBuffer, chunkNioBuffer);
+            if (encrypted) {
+                chunkBuffer.readerIndex(SECURE_MESSAGE_HEADER_SIZE + securityHeaderSize);
 
-                                assert (bytesWritten == cipherTextBlockSize);
-                            }
-                        } else {
-                            cipher.doFinal(plainTextNioBuffer, chunkNioBuffer);
-                        }
+                assert (chunkBuffer.readableBytes() % plainTextBlockSize == 0);
 
-                        copyBuffer.release();
-                    } catch (GeneralSecurityException e) {
-                        throw new UaException(StatusCodes.Bad_SecurityChecksFailed, e);
+                try {
+                    int blockCount = chunkBuffer.readableBytes() / plainTextBlockSize;
+
+                    ByteBuffer chunkNioBuffer = chunkBuffer.nioBuffer(
+                        chunkBuffer.readerIndex(), blockCount * cipherTextBlockSize);
+
+                    ByteBuf copyBuffer = chunkBuffer.copy();
+                    ByteBuffer plainTextNioBuffer = copyBuffer.nioBuffer();
+
+                    Cipher cipher = crypto.getCipher();
+
+                    if (isAsymmetric()) {
+                        for (int blockNumber = 0; blockNumber < blockCount; blockNumber++) {
+                            int position = blockNumber * plainTextBlockSize;
+                            int limit = (blockNumber + 1) * plainTextBlockSize;
+                            ((Buffer) plainTextNioBuffer).position(position);
+                            ((Buffer) plainTextNioBuffer).limit(limit);
+
+                            int bytesWritten = cipher.doFinal(plainTextNioBuffer, chunkNioBuffer);
+
+                            assert (bytesWritten == cipherTextBlockSize);
+                        }
+                    } else {
+                        cipher.doFinal(plainTextNioBuffer, chunkNioBuffer);
                     }
+
+                    copyBuffer.release();
+                } catch (GeneralSecurityException e) {
+                    throw new UaException(StatusCodes.Bad_SecurityChecksFailed, e);
                 }
+            }
+
+            chunkBuffer.readerIndex(0).writerIndex(chunkSize);
+        }
+
+        /**
+         * The sizes that determine how a message is split into chunks on a channel.
+         */
+        private final class ChunkLayout {
+
+            final boolean encrypted;
+
+            final int securityHeaderSize;
+            final int cipherTextBlockSize;
+            final int plainTextBlockSize;
+            final int signatureSize;
+
+            final int maxChunkSize;
+            final int paddingOverhead;
+            final int maxBodySize;
+
+            ChunkLayout(SecureChannel channel) throws UaException {
+                encrypted = isEncryptionEnabled(channel);
+
+                securityHeaderSize = getSecurityHeaderSize(channel);
+                cipherTextBlockSize = getCipherTextBlockSize(channel);
+                plainTextBlockSize = getPlainTextBlockSize(channel);
+                signatureSize = getSignatureSize(channel);
 
-                chunkBuffer.readerIndex(0).writerIndex(chunkSize);
+                maxChunkSize = parameters.getLocalSendBufferSize();
+                paddingOverhead = encrypted ? (cipherTextBlockSize > 256 ? 2 : 1) : 0;
+
+                int maxCipherTextSize = maxChunkSize - SECURE_MESSAGE_HEADER_SIZE - securityHeaderSize;
+                int maxCipherTextBlocks = maxCipherTextSize / cipherTextBlockSize;
+                int maxPlainTextSize = maxCipherTextBlocks * plainTextBlockSize;
+                maxBodySize = maxPlainTextSize - SEQUENCE_HEADER_SIZE - paddingOverhead - signatureSize;
+
+                assert (maxPlainTextSize + securityHeaderSize + SECURE_MESSAGE_HEADER_SIZE <= maxChunkSize);
+            }
+
+            int getChunkCount(int messageSize) {
+                return (int) ((messageSize + (long) maxBodySize - 1) / maxBodySize);
             }
 
-            callback.onMessageEncoded(chunks, requestId);
         }
 
         private void writePadding(int cipherTextBlockSize, int paddingSize, ByteBuf buffer) {
@@ -260,6 +621,13 @@ public final class ChunkEncoder {
 
         protected abstract byte[] signChunk(SecureChannel channel, ByteBuffer chunkNioBuffer) throws UaException;
 
+        /**
+         * Create a {@link ChunkCrypto} with its own signing and encryption instances, independent of the ones used
+         * by {@link #signChunk(SecureChannel, ByteBuffer)} and {@link #getCipher(SecureChannel)}, so chunks can be
+         * secured on another thread.
+         */
+        protected abstract ChunkCrypto newChunkCrypto(SecureChannel channel) throws UaException;
+
         protected abstract void encodeSecurityHeader(SecureChannel channel, ByteBuf buffer) throws UaException;
 
         protected abstract Cipher getCipher(SecureChannel channel) throws UaException;
@@ -282,13 +650,34 @@ public final class ChunkEncoder {
 
     private class AsymmetricEncoder extends AbstractEncoder {
 
+        /*
+         * Initialized on first use and reused for every chunk, and every message, signed with the same private key
+         * or encrypted for the same remote certificate.
+         */
+        private volatile Signature signature = null;
+        private volatile PrivateKey signatureKey = null;
+
+        private volatile Cipher cipher = null;
+        private volatile PublicKey cipherKey = null;
+
         @Override
         public byte[] signChunk(SecureChannel channel, ByteBuffer chunkNioBuffer) throws UaException {
-            return SignatureUtil.sign(
-                channel.getSecurityPolicy().getAsymmetricSignatureAlgorithm(),
-                channel.getKeyPair().getPrivate(),
-                chunkNioBuffer
-            );
+            PrivateKey privateKey = channel.getKeyPair().getPrivate();
+
+            try {
+                if (signature == null || signatureKey != privateKey) {
+                    signature = newSignature(channel, privateKey);
+                    signatureKey = privateKey;
+                }
+
+                signature.update(chunkNioBuffer);
+
+                return signature.sign();
+            } catch (GeneralSecurityException e) {
+                signature = null;
+
+                throw new UaException(StatusCodes.Bad_InternalError, e);
+            }
         }
 
         @Override
@@ -297,11 +686,72 @@ public final class ChunkEncoder {
 
             assert (remoteCertificate != null);
 
+            PublicKey publicKey = remoteCertificate.getPublicKey();
+
+            if (cipher != null && publicKey.equals(cipherKey)) {
+                return cipher;
+            }
+
+            Cipher cipher = newCipher(channel, publicKey);
+
+            this.cipher = cipher;
+            this.cipherKey = publicKey;
+
+            return cipher;
+        }
+
+        @Override
+        protected ChunkCrypto newChunkCrypto(SecureChannel channel) throws UaException {
+            Signature signature;
+            try {
+                signature = isSigningEnabled(channel) ?
+                    newSignature(channel, channel.getKeyPair().getPrivate()) : null;
+            } catch (GeneralSecurityException e) {
+                throw new UaException(StatusCodes.Bad_InternalError, e);
+            }
+
+            Cipher cipher = isEncryptionEnabled(channel) ?
+                newCipher(channel, channel.getRemoteCertificate().getPublicKey()) : null;
+
+            return new ChunkCrypto() {
+                @Override
+                public byte[] signChunk(ByteBuffer chunkNioBuffer) throws UaException {
+                    assert signature != null;
+
+                    try {
+                        signature.update(chunkNioBuffer);
+
+                        return signature.sign();
+                    } catch (GeneralSecurityException e) {
+                        throw new UaException(StatusCodes.Bad_InternalError, e);
+                    }
+                }
+
+                @Override
+                public Cipher getCipher() {
+                    assert cipher != null;
+                    return cipher;
+                }
+            };
+        }
+
+        private Signature newSignature(SecureChannel channel, PrivateKey privateKey) throws GeneralSecurityException {
+            String transformation = channel.getSecurityPolicy()
+                .getAsymmetricSignatureAlgorithm().getTransformation();
+
+            Signature signature = Signature.getInstance(transformation);
+            signature.initSign(privateKey);
+
+            return signature;
+        }
+
+        private Cipher newCipher(SecureChannel channel, PublicKey publicKey) throws UaException {
             try {
                 String transformation = channel.getSecurityPolicy()
                     .getAsymmetricEncryptionAlgorithm().getTransformation();
                 Cipher cipher = Cipher.getInstance(transformation);
-                cipher.init(Cipher.ENCRYPT_MODE, remoteCertificate.getPublicKey());
+                cipher.init(Cipher.ENCRYPT_MODE, publicKey);
+
                 return cipher;
             } catch (GeneralSecurityException e) {
                 throw new UaException(StatusCodes.Bad_SecurityChecksFailed, e);
@@ -365,8 +815,14 @@ public final class ChunkEncoder {
     private class SymmetricEncoder extends AbstractEncoder {
 
         private volatile ChannelSecurity.SecurityKeys securityKeys;
+
+        /*
+         * The Cipher and Mac are initialized once per security token and reused for every chunk until the keys are
+         * renewed; both reset to their initialized state after each doFinal().
+         */
         private volatile Cipher cipher = null;
-        private volatile long cipherId = -1;
+        private volatile Mac mac = null;
+        private volatile long keysTokenId = -1;
 
         @Override
         public void encodeSecurityHeader(SecureChannel channel, ByteBuf buffer) throws UaException {
@@ -377,22 +833,17 @@ public final class ChunkEncoder {
 
             securityKeys = channelSecurity != null ? channelSecurity.getCurrentKeys() : null;
 
-            if (cipherId != tokenId && channel.isSymmetricEncryptionEnabled()) {
-                cipher = initCipher(channel);
-                cipherId = tokenId;
+            if (keysTokenId != tokenId) {
+                cipher = channel.isSymmetricEncryptionEnabled() ? initCipher(channel) : null;
+                mac = channel.isSymmetricSigningEnabled() ? initMac(channel) : null;
+                keysTokenId = tokenId;
             }
         }
 
         @Override
-        public byte[] signChunk(SecureChannel channel, ByteBuffer chunkNioBuffer) throws UaException {
-            SecurityAlgorithm signatureAlgorithm = channel.getSecurityPolicy().getSymmetricSignatureAlgorithm();
-            byte[] signatureKey = channel.getEncryptionKeys(securityKeys).getSignatureKey();
-
-            return SignatureUtil.hmac(
-                signatureAlgorithm,
-                signatureKey,
-                chunkNioBuffer
-            );
+        public byte[] signChunk(SecureChannel channel, ByteBuffer chunkNioBuffer) {
+            assert mac != null;
+            return SignatureUtil.hmac(mac, chunkNioBuffer);
         }
 
         @Override
@@ -401,6 +852,26 @@ public final class ChunkEncoder {
             return cipher;
         }
 
+        @Override
+        protected ChunkCrypto newChunkCrypto(SecureChannel channel) throws UaException {
+            Cipher cipher = channel.isSymmetricEncryptionEnabled() ? initCipher(channel) : null;
+            Mac mac = channel.isSymmetricSigningEnabled() ? initMac(channel) : null;
+
+            return new ChunkCrypto() {
+                @Override
+                public byte[] signChunk(ByteBuffer chunkNioBuffer) {
+                    assert mac != null;
+                    return SignatureUtil.hmac(mac, chunkNioBuffer);
+                }
+
+                @Override
+                public Cipher getCipher() {
+                    assert cipher != null;
+                    return cipher;
+                }
+            };
+        }
+
         @Override
         public int getSecurityHeaderSize(SecureChannel channel) {
             return SymmetricSecurityHeader.SYMMETRIC_SECURITY_HEADER_SIZE;
@@ -456,6 +927,13 @@ public final class ChunkEncoder {
             }
         }
 
+        private Mac initMac(SecureChannel channel) throws UaException {
+            SecurityAlgorithm signatureAlgorithm = channel.getSecurityPolicy().getSymmetricSignatureAlgorithm();
+            byte[] signatureKey = channel.getEncryptionKeys(securityKeys).getSignatureKey();
+
+            return SignatureUtil.newHmac(signatureAlgorithm, signatureKey);
+        }
+
     }
 
 }
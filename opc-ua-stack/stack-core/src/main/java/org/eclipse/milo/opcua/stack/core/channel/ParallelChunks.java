@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.stack.core.channel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+import org.eclipse.milo.opcua.stack.core.Stack;
+import org.eclipse.milo.opcua.stack.core.Stack.ChunkCryptoLimits;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.UaException;
+
+/**
+ * Splits the chunks of a message into contiguous batches and runs each batch on its own thread, blocking the calling
+ * thread, which runs the first batch, until all of them are done.
+ * <p>
+ * Chunks are still secured in order within a batch and the caller sees them all secured before it continues, so
+ * nothing about the ordering of messages or chunks changes.
+ */
+final class ParallelChunks {
+
+    private ParallelChunks() {}
+
+    @FunctionalInterface
+    interface BatchTask {
+
+        /**
+         * Secure chunks {@code [from, to)} of a message.
+         */
+        void run(int from, int to) throws UaException;
+
+    }
+
+    /**
+     * @param chunkCount the number of chunks in a message.
+     * @return {@code true} if the chunks of a message with {@code chunkCount} chunks should be secured in parallel.
+     */
+    static boolean isParallel(int chunkCount) {
+        return ChunkCryptoLimits.PARALLEL_ENABLED &&
+            ChunkCryptoLimits.MAX_PARALLELISM > 1 &&
+            chunkCount >= Math.max(2, ChunkCryptoLimits.PARALLEL_MIN_CHUNK_COUNT);
+    }
+
+    /**
+     * Run {@code task} over {@code chunkCount} chunks, split into at most
+     * {@link ChunkCryptoLimits#MAX_PARALLELISM} batches.
+     *
+     * @param chunkCount the number of chunks in the message.
+     * @param task       the {@link BatchTask} to run for each batch.
+     * @throws UaException if any batch failed.
+     */
+    static void run(int chunkCount, BatchTask task) throws UaException {
+        int batchCount = Math.max(1, Math.min(ChunkCryptoLimits.MAX_PARALLELISM, chunkCount));
+
+        ExecutorService executor = Stack.sharedChunkCryptoExecutor();
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>(batchCount - 1);
+
+        for (int i = 1; i < batchCount; i++) {
+            int from = chunkCount * i / batchCount;
+            int to = chunkCount * (i + 1) / batchCount;
+
+            futures.add(CompletableFuture.runAsync(() -> {
+                try {
+                    task.run(from, to);
+                } catch (UaException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor));
+        }
+
+        UaException failure = null;
+
+        try {
+            task.run(0, chunkCount / batchCount);
+        } catch (UaException e) {
+            failure = e;
+        }
+
+        // Always wait for every batch; the caller releases the chunk buffers on failure.
+        for (CompletableFuture<Void> future : futures) {
+            try {
+                future.join();
+            } catch (CompletionException e) {
+                if (failure == null) {
+                    failure = UaException.extract(e)
+                        .orElse(new UaException(StatusCodes.Bad_InternalError, e.getCause()));
+                }
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+}
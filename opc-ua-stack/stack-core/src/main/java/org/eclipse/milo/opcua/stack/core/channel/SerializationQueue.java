@@ -61,6 +61,27 @@ public class SerializationQueue {
         decodingQueue.submit(() -> decoder.decode(binaryDecoder, chunkDecoder));
     }
 
+    /**
+     * Stop starting queued {@link Encoder}s once the current one returns, until
+     * {@link #resumeEncoding(Encoder)} is called.
+     * <p>
+     * This lets an {@link Encoder} that has to wait before writing the rest of a message leave the queue without
+     * letting the chunks of another message get ahead of the remaining ones.
+     */
+    public void pauseEncoding() {
+        encodingQueue.pause();
+    }
+
+    /**
+     * Run {@code encoder} ahead of any queued {@link Encoder}s and resume the encoding queue.
+     *
+     * @param encoder the {@link Encoder} that continues the message that paused encoding.
+     */
+    public void resumeEncoding(Encoder encoder) {
+        encodingQueue.submitToHead(() -> encoder.encode(binaryEncoder, chunkEncoder));
+        encodingQueue.resume();
+    }
+
     public void pause() {
         encodingQueue.pause();
         decodingQueue.pause();
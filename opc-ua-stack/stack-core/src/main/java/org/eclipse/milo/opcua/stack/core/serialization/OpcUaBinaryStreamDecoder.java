@@ -63,6 +63,8 @@ public class OpcUaBinaryStreamDecoder implements UaDecoder {
     private volatile int currentByte = 0;
     private volatile int bitsRemaining = 0;
 
+    private volatile boolean primitiveArrays = false;
+
     private final AtomicInteger depth = new AtomicInteger(0);
 
     private final SerializationContext context;
@@ -76,6 +78,20 @@ public class OpcUaBinaryStreamDecoder implements UaDecoder {
         return this;
     }
 
+    /**
+     * Configure whether {@link Variant} arrays of Boolean, SByte, Int16, Int32, Int64, Float, and Double are decoded
+     * as primitive arrays (e.g. {@code double[]}) instead of arrays of the boxed type (e.g. {@code Double[]}).
+     * <p>
+     * Disabled by default; enable it only if everything consuming the decoded values can handle primitive arrays.
+     *
+     * @param primitiveArrays {@code true} to decode primitive arrays.
+     * @return this {@link OpcUaBinaryStreamDecoder}.
+     */
+    public OpcUaBinaryStreamDecoder setPrimitiveArrays(boolean primitiveArrays) {
+        this.primitiveArrays = primitiveArrays;
+        return this;
+    }
+
     public <T> T[] readArray(Supplier<T> read, Class<T> clazz) throws UaSerializationException {
         int length = readInt32();
 
@@ -395,12 +411,16 @@ public class OpcUaBinaryStreamDecoder implements UaDecoder {
                     } else {
                         checkArrayLength(length);
 
-                        Object flatArray = Array.newInstance(backingClass, length);
+                        Object flatArray = readPrimitiveArray(typeId, length);
+
+                        if (flatArray == null) {
+                            flatArray = Array.newInstance(backingClass, length);
 
-                        for (int i = 0; i < length; i++) {
-                            Object element = decodeBuiltinType(typeId);
+                            for (int i = 0; i < length; i++) {
+                                Object element = decodeBuiltinType(typeId);
 
-                            Array.set(flatArray, i, element);
+                                Array.set(flatArray, i, element);
+                            }
                         }
 
                         int[] dimensions = dimensionsEncoded ? decodeDimensions() : new int[]{length};
@@ -419,6 +439,352 @@ public class OpcUaBinaryStreamDecoder implements UaDecoder {
         }
     }
 
+    /**
+     * Advance past an encoded {@link DataValue} without decoding it.
+     * <p>
+     * Used to find the extent of a value that will be decoded later, if at all, e.g. with a decoder positioned on
+     * a slice of the same buffer.
+     */
+    public void skipDataValue() throws UaSerializationException {
+        int mask = buffer.readByte() & 0xFF;
+
+        if ((mask & 0x01) != 0) skipVariant();
+        if ((mask & 0x02) != 0) skip(1, 4);
+        if ((mask & 0x04) != 0) skip(1, 8);
+        if ((mask & 0x10) != 0) skip(1, 2);
+        if ((mask & 0x08) != 0) skip(1, 8);
+        if ((mask & 0x20) != 0) skip(1, 2);
+    }
+
+    /**
+     * Advance past an encoded {@link Variant} without decoding it.
+     */
+    public void skipVariant() throws UaSerializationException {
+        if (depth.get() >= context.getEncodingLimits().getMaxRecursionDepth()) {
+            throw new UaSerializationException(
+                StatusCodes.Bad_EncodingLimitsExceeded,
+                "max recursion depth exceeded: " +
+                    context.getEncodingLimits().getMaxRecursionDepth()
+            );
+        }
+
+        depth.incrementAndGet();
+        try {
+            int encodingMask = buffer.readByte();
+
+            if (encodingMask != 0) {
+                int typeId = encodingMask & 0x3F;
+                boolean dimensionsEncoded = (encodingMask & 0x40) == 0x40;
+                boolean arrayEncoded = (encodingMask & 0x80) == 0x80;
+
+                if (arrayEncoded) {
+                    int length = readInt32();
+
+                    if (length != -1) {
+                        checkArrayLength(length);
+
+                        int size = fixedSize(typeId);
+
+                        if (size > 0) {
+                            skip(length, size);
+                        } else {
+                            for (int i = 0; i < length; i++) {
+                                skipBuiltinType(typeId);
+                            }
+                        }
+
+                        if (dimensionsEncoded) {
+                            int dimensions = readInt32();
+
+                            if (dimensions > 0) skip(dimensions, 4);
+                        }
+                    }
+                } else {
+                    skipBuiltinType(typeId);
+                }
+            }
+        } finally {
+            depth.decrementAndGet();
+        }
+    }
+
+    private void skipBuiltinType(int typeId) throws UaSerializationException {
+        int size = fixedSize(typeId);
+
+        if (size > 0) {
+            skip(1, size);
+            return;
+        }
+
+        switch (typeId) {
+            case 12:
+            case 15:
+            case 16: {
+                skipLengthPrefixed();
+                break;
+            }
+            case 17: {
+                skipNodeId();
+                break;
+            }
+            case 18: {
+                int flags = buffer.getByte(buffer.readerIndex());
+                skipNodeId();
+                if ((flags & 0x80) == 0x80) skipLengthPrefixed();
+                if ((flags & 0x40) == 0x40) skip(1, 4);
+                break;
+            }
+            case 20: {
+                skip(1, 2);
+                skipLengthPrefixed();
+                break;
+            }
+            case 21: {
+                int mask = buffer.readByte();
+                if ((mask & 1) == 1) skipLengthPrefixed();
+                if ((mask & 2) == 2) skipLengthPrefixed();
+                break;
+            }
+            case 22: {
+                skipNodeId();
+                int encoding = buffer.readByte();
+                if (encoding == 1 || encoding == 2) {
+                    skipLengthPrefixed();
+                } else if (encoding != 0) {
+                    throw new UaSerializationException(
+                        StatusCodes.Bad_DecodingError,
+                        "unknown ExtensionObject encoding: " + encoding);
+                }
+                break;
+            }
+            case 23: {
+                skipDataValue();
+                break;
+            }
+            case 24: {
+                skipVariant();
+                break;
+            }
+            case 25: {
+                // DiagnosticInfo nesting is bounded by the recursion check in readDiagnosticInfo
+                readDiagnosticInfo();
+                break;
+            }
+            default:
+                throw new UaSerializationException(StatusCodes.Bad_DecodingError, "unknown builtin type: " + typeId);
+        }
+    }
+
+    private void skipNodeId() throws UaSerializationException {
+        int format = buffer.readByte() & 0x0F;
+
+        switch (format) {
+            case 0x00:
+                skip(1, 1);
+                break;
+            case 0x01:
+                skip(1, 3);
+                break;
+            case 0x02:
+                skip(1, 6);
+                break;
+            case 0x03:
+            case 0x05:
+                skip(1, 2);
+                skipLengthPrefixed();
+                break;
+            case 0x04:
+                skip(1, 18);
+                break;
+            default:
+                throw new UaSerializationException(StatusCodes.Bad_DecodingError, "invalid NodeId format: " + format);
+        }
+    }
+
+    private void skipLengthPrefixed() throws UaSerializationException {
+        int length = readInt32();
+
+        if (length > 0) skip(length, 1);
+    }
+
+    /**
+     * @return the encoded size of builtin type {@code typeId} if it has a fixed size, otherwise 0.
+     */
+    private static int fixedSize(int typeId) {
+        switch (typeId) {
+            case 1:
+            case 2:
+            case 3:
+                return 1;
+            case 4:
+            case 5:
+                return 2;
+            case 6:
+            case 7:
+            case 10:
+            case 19:
+                return 4;
+            case 8:
+            case 9:
+            case 11:
+            case 13:
+                return 8;
+            case 14:
+                return 16;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Read a one-dimensional array of fixed-size numeric or boolean values directly from the buffer, without going
+     * through {@link #decodeBuiltinType(int)} and {@link Array#set(Object, int, Object)} per element.
+     *
+     * @param typeId the builtin type id of the array elements.
+     * @param length the number of elements to read.
+     * @return the decoded array, or {@code null} if {@code typeId} is not a fixed-size numeric or boolean type.
+     */
+    @Nullable
+    private Object readPrimitiveArray(int typeId, int length) throws UaSerializationException {
+        switch (typeId) {
+            case 1: {
+                int index = skip(length, 1);
+                if (primitiveArrays) {
+                    boolean[] values = new boolean[length];
+                    for (int i = 0; i < length; i++) {
+                        values[i] = buffer.getByte(index + i) != 0;
+                    }
+                    return values;
+                } else {
+                    Boolean[] values = new Boolean[length];
+                    for (int i = 0; i < length; i++) {
+                        values[i] = buffer.getByte(index + i) != 0;
+                    }
+                    return values;
+                }
+            }
+            case 2: {
+                int index = skip(length, 1);
+                if (primitiveArrays) {
+                    byte[] values = new byte[length];
+                    buffer.getBytes(index, values);
+                    return values;
+                } else {
+                    Byte[] values = new Byte[length];
+                    for (int i = 0; i < length; i++) {
+                        values[i] = buffer.getByte(index + i);
+                    }
+                    return values;
+                }
+            }
+            case 4: {
+                int index = skip(length, 2);
+                if (primitiveArrays) {
+                    short[] values = new short[length];
+                    for (int i = 0; i < length; i++) {
+                        values[i] = buffer.getShortLE(index + i * 2);
+                    }
+                    return values;
+                } else {
+                    Short[] values = new Short[length];
+                    for (int i = 0; i < length; i++) {
+                        values[i] = buffer.getShortLE(index + i * 2);
+                    }
+                    return values;
+                }
+            }
+            case 6: {
+                int index = skip(length, 4);
+                if (primitiveArrays) {
+                    int[] values = new int[length];
+                    for (int i = 0; i < length; i++) {
+                        values[i] = buffer.getIntLE(index + i * 4);
+                    }
+                    return values;
+                } else {
+                    Integer[] values = new Integer[length];
+                    for (int i = 0; i < length; i++) {
+                        values[i] = buffer.getIntLE(index + i * 4);
+                    }
+                    return values;
+                }
+            }
+            case 8: {
+                int index = skip(length, 8);
+                if (primitiveArrays) {
+                    long[] values = new long[length];
+                    for (int i = 0; i < length; i++) {
+                        values[i] = buffer.getLongLE(index + i * 8);
+                    }
+                    return values;
+                } else {
+                    Long[] values = new Long[length];
+                    for (int i = 0; i < length; i++) {
+                        values[i] = buffer.getLongLE(index + i * 8);
+                    }
+                    return values;
+                }
+            }
+            case 10: {
+                int index = skip(length, 4);
+                if (primitiveArrays) {
+                    float[] values = new float[length];
+                    for (int i = 0; i < length; i++) {
+                        values[i] = Float.intBitsToFloat(buffer.getIntLE(index + i * 4));
+                    }
+                    return values;
+                } else {
+                    Float[] values = new Float[length];
+                    for (int i = 0; i < length; i++) {
+                        values[i] = Float.intBitsToFloat(buffer.getIntLE(index + i * 4));
+                    }
+                    return values;
+                }
+            }
+            case 11: {
+                int index = skip(length, 8);
+                if (primitiveArrays) {
+                    double[] values = new double[length];
+                    for (int i = 0; i < length; i++) {
+                        values[i] = Double.longBitsToDouble(buffer.getLongLE(index + i * 8));
+                    }
+                    return values;
+                } else {
+                    Double[] values = new Double[length];
+                    for (int i = 0; i < length; i++) {
+                        values[i] = Double.longBitsToDouble(buffer.getLongLE(index + i * 8));
+                    }
+                    return values;
+                }
+            }
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Advance the reader index past {@code length * elementSize} bytes.
+     *
+     * @return the reader index before it was advanced.
+     */
+    private int skip(int length, int elementSize) throws UaSerializationException {
+        long byteLength = (long) length * elementSize;
+
+        if (byteLength < 0 || byteLength > buffer.readableBytes()) {
+            throw new UaSerializationException(
+                StatusCodes.Bad_DecodingError,
+                String.format(
+                    "array length exceeds readable bytes (length=%s, readable=%s)",
+                    length, buffer.readableBytes())
+            );
+        }
+
+        int index = buffer.readerIndex();
+        buffer.skipBytes((int) byteLength);
+
+        return index;
+    }
+
     @Nullable
     private String readLengthPrefixedString(Charset charset) {
         int length = readInt32();
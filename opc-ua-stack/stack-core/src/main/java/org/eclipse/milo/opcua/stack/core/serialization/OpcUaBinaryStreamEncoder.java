@@ -60,6 +60,15 @@ public class OpcUaBinaryStreamEncoder implements UaEncoder {
     private volatile int currentByte;
     private volatile int bitCount;
 
+    private volatile FlushHandler flushHandler;
+    private volatile int flushThreshold;
+
+    /**
+     * The number of ExtensionObject bodies being written whose length prefix has not been back-patched yet. Nothing
+     * is flushed while this is non-zero.
+     */
+    private volatile int flushDeferred;
+
     private final SerializationContext context;
 
     public OpcUaBinaryStreamEncoder(SerializationContext context) {
@@ -71,6 +80,30 @@ public class OpcUaBinaryStreamEncoder implements UaEncoder {
         return this;
     }
 
+    /**
+     * Offer the bytes written so far to {@code flushHandler} whenever at least {@code threshold} of them are readable
+     * in the buffer at a point where none of them will be written again, i.e. between the elements of an array that
+     * is not inside an ExtensionObject body.
+     *
+     * @param threshold    the number of readable bytes that triggers a flush.
+     * @param flushHandler the {@link FlushHandler} to offer the buffer to, or {@code null} to stop flushing.
+     * @return this encoder.
+     */
+    public OpcUaBinaryStreamEncoder setFlushHandler(int threshold, FlushHandler flushHandler) {
+        this.flushThreshold = threshold;
+        this.flushHandler = flushHandler;
+        this.flushDeferred = 0;
+        return this;
+    }
+
+    private void maybeFlush() throws UaSerializationException {
+        FlushHandler handler = flushHandler;
+
+        if (handler != null && flushDeferred == 0 && buffer.readableBytes() >= flushThreshold) {
+            handler.flush(buffer);
+        }
+    }
+
     public <T> void writeArray(T[] values, Consumer<T> write) throws UaSerializationException {
         if (values == null) {
             buffer.writeIntLE(-1);
@@ -86,6 +119,7 @@ public class OpcUaBinaryStreamEncoder implements UaEncoder {
 
             for (T t : values) {
                 write.accept(t);
+                maybeFlush();
             }
         }
     }
@@ -453,7 +487,9 @@ public class OpcUaBinaryStreamEncoder implements UaEncoder {
     }
 
     public void writeExtensionObject(ExtensionObject value) throws UaSerializationException {
-        if (value == null || value.getBody() == null) {
+        if (value != null && value.getDeferredStructure() != null) {
+            writeStructAsExtensionObject(value.getEncodingId(), value.getDeferredStructure());
+        } else if (value == null || value.getBody() == null) {
             writeNodeId(NodeId.NULL_VALUE);
             buffer.writeByte(0); // No body is encoded
         } else {
@@ -487,6 +523,42 @@ public class OpcUaBinaryStreamEncoder implements UaEncoder {
         }
     }
 
+    /**
+     * Write {@code struct} as a binary encoded ExtensionObject, encoding the body directly into the buffer and
+     * back-patching its length prefix afterwards.
+     */
+    private void writeStructAsExtensionObject(NodeId encodingId, Object struct) throws UaSerializationException {
+        OpcUaBinaryDataTypeCodec<Object> codec = getBinaryCodec(encodingId);
+
+        writeNodeId(encodingId);
+        buffer.writeByte(1); // Body is binary encoded
+
+        int lengthIndex = buffer.writerIndex();
+        buffer.writeIntLE(0);
+
+        flushDeferred++;
+        try {
+            codec.encode(context, this, struct);
+        } finally {
+            flushDeferred--;
+        }
+
+        buffer.setIntLE(lengthIndex, buffer.writerIndex() - lengthIndex - 4);
+    }
+
+    @SuppressWarnings("unchecked")
+    private OpcUaBinaryDataTypeCodec<Object> getBinaryCodec(NodeId encodingId) throws UaSerializationException {
+        DataTypeCodec codec = context.getDataTypeManager().getCodec(encodingId);
+
+        if (codec instanceof OpcUaBinaryDataTypeCodec) {
+            return (OpcUaBinaryDataTypeCodec<Object>) codec;
+        } else {
+            throw new UaSerializationException(
+                StatusCodes.Bad_EncodingError,
+                "no codec registered for encodingId=" + encodingId);
+        }
+    }
+
     public void writeLocalizedText(LocalizedText value) throws UaSerializationException {
         if (value == null) value = LocalizedText.NULL_VALUE;
 
@@ -617,11 +689,7 @@ public class OpcUaBinaryStreamEncoder implements UaEncoder {
                     int length = Array.getLength(value);
                     buffer.writeIntLE(length);
 
-                    for (int i = 0; i < length; i++) {
-                        Object o = Array.get(value, i);
-
-                        writeValue(o, typeId, structure, enumeration);
-                    }
+                    writeFlatArray(value, length, typeId, structure, enumeration);
                 } else {
                     buffer.writeByte(typeId | 0xC0);
 
@@ -629,11 +697,7 @@ public class OpcUaBinaryStreamEncoder implements UaEncoder {
                     int length = Array.getLength(flattened);
                     buffer.writeIntLE(length);
 
-                    for (int i = 0; i < length; i++) {
-                        Object o = Array.get(flattened, i);
-
-                        writeValue(o, typeId, structure, enumeration);
-                    }
+                    writeFlatArray(flattened, length, typeId, structure, enumeration);
 
                     writeInt32(dimensions.length);
                     for (int dimension : dimensions) {
@@ -650,13 +714,136 @@ public class OpcUaBinaryStreamEncoder implements UaEncoder {
 
     // endregion
 
+    private void writeFlatArray(Object array, int length, int typeId, boolean structure, boolean enumeration) {
+        if (!structure && !enumeration && writePrimitiveArray(array, length)) {
+            return;
+        }
+
+        for (int i = 0; i < length; i++) {
+            Object o = Array.get(array, i);
+
+            writeValue(o, typeId, structure, enumeration);
+            maybeFlush();
+        }
+    }
+
+    /**
+     * Write the elements of a one-dimensional array of fixed-size numeric or boolean values directly to the buffer,
+     * without going through {@link Array#get(Object, int)} and {@link #writeBuiltinType(int, Object)} per element.
+     * <p>
+     * Both primitive arrays and their boxed counterparts are supported; {@code null} elements of a boxed array are
+     * encoded as zero/false, the same as the scalar write methods do.
+     *
+     * @param array  the one-dimensional array to write.
+     * @param length the length of {@code array}.
+     * @return {@code true} if {@code array} was written, {@code false} if it is not of a supported type.
+     */
+    private boolean writePrimitiveArray(Object array, int length) {
+        if (array instanceof double[]) {
+            double[] values = (double[]) array;
+            int index = reserve(length, 8);
+            for (double v : values) {
+                buffer.setLongLE(index, Double.doubleToRawLongBits(v));
+                index += 8;
+            }
+        } else if (array instanceof float[]) {
+            float[] values = (float[]) array;
+            int index = reserve(length, 4);
+            for (float v : values) {
+                buffer.setIntLE(index, Float.floatToRawIntBits(v));
+                index += 4;
+            }
+        } else if (array instanceof int[]) {
+            int[] values = (int[]) array;
+            int index = reserve(length, 4);
+            for (int v : values) {
+                buffer.setIntLE(index, v);
+                index += 4;
+            }
+        } else if (array instanceof long[]) {
+            long[] values = (long[]) array;
+            int index = reserve(length, 8);
+            for (long v : values) {
+                buffer.setLongLE(index, v);
+                index += 8;
+            }
+        } else if (array instanceof short[]) {
+            short[] values = (short[]) array;
+            int index = reserve(length, 2);
+            for (short v : values) {
+                buffer.setShortLE(index, v);
+                index += 2;
+            }
+        } else if (array instanceof byte[]) {
+            buffer.writeBytes((byte[]) array);
+        } else if (array instanceof boolean[]) {
+            boolean[] values = (boolean[]) array;
+            int index = reserve(length, 1);
+            for (boolean v : values) {
+                buffer.setByte(index++, v ? 1 : 0);
+            }
+        } else if (array instanceof Double[]) {
+            Double[] values = (Double[]) array;
+            int index = reserve(length, 8);
+            for (Double v : values) {
+                buffer.setLongLE(index, v != null ? Double.doubleToRawLongBits(v) : 0L);
+                index += 8;
+            }
+        } else if (array instanceof Float[]) {
+            Float[] values = (Float[]) array;
+            int index = reserve(length, 4);
+            for (Float v : values) {
+                buffer.setIntLE(index, v != null ? Float.floatToRawIntBits(v) : 0);
+                index += 4;
+            }
+        } else if (array instanceof Integer[]) {
+            Integer[] values = (Integer[]) array;
+            int index = reserve(length, 4);
+            for (Integer v : values) {
+                buffer.setIntLE(index, v != null ? v : 0);
+                index += 4;
+            }
+        } else if (array instanceof Long[]) {
+            Long[] values = (Long[]) array;
+            int index = reserve(length, 8);
+            for (Long v : values) {
+                buffer.setLongLE(index, v != null ? v : 0L);
+                index += 8;
+            }
+        } else if (array instanceof Short[]) {
+            Short[] values = (Short[]) array;
+            int index = reserve(length, 2);
+            for (Short v : values) {
+                buffer.setShortLE(index, v != null ? v : 0);
+                index += 2;
+            }
+        } else {
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Advance the writer index past {@code length * elementSize} bytes, growing the buffer if necessary.
+     *
+     * @return the writer index before it was advanced.
+     */
+    private int reserve(int length, int elementSize) {
+        int byteLength = length * elementSize;
+        buffer.ensureWritable(byteLength);
+
+        int index = buffer.writerIndex();
+        buffer.writerIndex(index + byteLength);
+
+        return index;
+    }
+
     private void writeValue(Object value, int typeId, boolean structure, boolean enumeration) {
         if (structure) {
             UaStructure struct = (UaStructure) value;
 
-            ExtensionObject extensionObject = ExtensionObject.encode(context, struct);
-
-            writeBuiltinType(typeId, extensionObject);
+            writeStructAsExtensionObject(struct.getBinaryEncodingId(), struct);
         } else if (enumeration) {
             writeBuiltinType(typeId, ((UaEnumeration) value).getValue());
         } else {
@@ -1136,6 +1323,7 @@ public class OpcUaBinaryStreamEncoder implements UaEncoder {
 
             for (T t : values) {
                 encoder.accept(field, t);
+                maybeFlush();
             }
         }
     }
@@ -1169,4 +1357,22 @@ public class OpcUaBinaryStreamEncoder implements UaEncoder {
         writeArray(values, v -> writeBuiltinStruct(field, v, clazz));
     }
 
+    /**
+     * Receives the buffer of an {@link OpcUaBinaryStreamEncoder} while a message is being encoded.
+     *
+     * @see #setFlushHandler(int, FlushHandler)
+     */
+    public interface FlushHandler {
+
+        /**
+         * Consume some or all of the readable bytes of {@code buffer}. The bytes consumed must not be accessed again
+         * by the encoder, so implementations may discard them.
+         *
+         * @param buffer the buffer being encoded into.
+         * @throws UaSerializationException to abort encoding the message.
+         */
+        void flush(ByteBuf buffer) throws UaSerializationException;
+
+    }
+
 }
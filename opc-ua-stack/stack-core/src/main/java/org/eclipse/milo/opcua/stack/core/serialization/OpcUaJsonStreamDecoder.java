@@ -0,0 +1,915 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.stack.core.serialization;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.UaSerializationException;
+import org.eclipse.milo.opcua.stack.core.serialization.codecs.BuiltinDataTypeCodec;
+import org.eclipse.milo.opcua.stack.core.serialization.codecs.DataTypeCodec;
+import org.eclipse.milo.opcua.stack.core.serialization.codecs.GenericDataTypeCodec;
+import org.eclipse.milo.opcua.stack.core.types.BuiltinDataTypeDictionary;
+import org.eclipse.milo.opcua.stack.core.types.OpcUaDefaultBinaryEncoding;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DiagnosticInfo;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ExpandedNodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
+import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.builtin.XmlElement;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UByte;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.ULong;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UShort;
+import org.eclipse.milo.opcua.stack.core.util.ArrayUtil;
+import org.eclipse.milo.opcua.stack.core.util.TypeUtil;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.ubyte;
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.ulong;
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.ushort;
+
+/**
+ * A {@link UaDecoder} that reads the reversible form of the OPC UA JSON encoding (Part 6, 5.4), as written by
+ * {@link OpcUaJsonStreamEncoder}.
+ * <p>
+ * Input is read as a stream. Fields are expected in the order the {@link DataTypeCodec} reads them, which is the
+ * order every encoder writes them in; fields that are missing are decoded as their default value. If a field turns up
+ * out of order, the remainder of the enclosing object is buffered so that it can still be decoded.
+ * <p>
+ * Structure bodies of {@link ExtensionObject}s are decoded and re-encoded using the Default Binary encoding, so the
+ * rest of the stack sees the same {@link ExtensionObject}s it would from the binary encoding.
+ */
+public class OpcUaJsonStreamDecoder implements UaDecoder {
+
+    private static final Instant MIN_DATE_TIME = DateTime.MIN_VALUE.getJavaInstant();
+
+    private final Deque<Frame> frames = new ArrayDeque<>();
+
+    /**
+     * Set when the value of a field has already been located, so the next read must not seek it again.
+     */
+    private boolean positioned = false;
+
+    private JsonReader reader;
+
+    private final SerializationContext context;
+
+    public OpcUaJsonStreamDecoder(SerializationContext context) {
+        this.context = context;
+    }
+
+    public OpcUaJsonStreamDecoder setReader(Reader reader) {
+        this.reader = new JsonReader(reader);
+        this.frames.clear();
+        this.positioned = false;
+        return this;
+    }
+
+    public OpcUaJsonStreamDecoder setBuffer(ByteBuf buffer) {
+        return setReader(new InputStreamReader(new ByteBufInputStream(buffer), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Boolean readBoolean(String field) throws UaSerializationException {
+        return readField(field, false, () -> reader.nextBoolean());
+    }
+
+    @Override
+    public Byte readSByte(String field) throws UaSerializationException {
+        return readField(field, (byte) 0, () -> (byte) reader.nextInt());
+    }
+
+    @Override
+    public Short readInt16(String field) throws UaSerializationException {
+        return readField(field, (short) 0, () -> (short) reader.nextInt());
+    }
+
+    @Override
+    public Integer readInt32(String field) throws UaSerializationException {
+        return readField(field, 0, () -> reader.nextInt());
+    }
+
+    @Override
+    public Long readInt64(String field) throws UaSerializationException {
+        return readField(field, 0L, () -> reader.nextLong());
+    }
+
+    @Override
+    public UByte readByte(String field) throws UaSerializationException {
+        return readField(field, ubyte(0), () -> ubyte(reader.nextInt()));
+    }
+
+    @Override
+    public UShort readUInt16(String field) throws UaSerializationException {
+        return readField(field, ushort(0), () -> ushort(reader.nextInt()));
+    }
+
+    @Override
+    public UInteger readUInt32(String field) throws UaSerializationException {
+        return readField(field, uint(0), () -> uint(reader.nextLong()));
+    }
+
+    @Override
+    public ULong readUInt64(String field) throws UaSerializationException {
+        return readField(field, ulong(0L), () -> ULong.valueOf(reader.nextString()));
+    }
+
+    @Override
+    public Float readFloat(String field) throws UaSerializationException {
+        return readField(field, 0f, () -> (float) nextDouble());
+    }
+
+    @Override
+    public Double readDouble(String field) throws UaSerializationException {
+        return readField(field, 0d, this::nextDouble);
+    }
+
+    @Override
+    public String readString(String field) throws UaSerializationException {
+        return readField(field, null, () -> {
+            String value = reader.nextString();
+
+            if (value.length() > context.getEncodingLimits().getMaxStringLength()) {
+                throw new UaSerializationException(
+                    StatusCodes.Bad_EncodingLimitsExceeded,
+                    String.format(
+                        "max string length exceeded (length=%s, max=%s)",
+                        value.length(), context.getEncodingLimits().getMaxStringLength())
+                );
+            }
+
+            return value;
+        });
+    }
+
+    @Override
+    public DateTime readDateTime(String field) throws UaSerializationException {
+        return readField(field, DateTime.MIN_VALUE, () -> {
+            Instant instant = OffsetDateTime.parse(reader.nextString()).toInstant();
+
+            return instant.isAfter(MIN_DATE_TIME) ? new DateTime(instant) : DateTime.MIN_VALUE;
+        });
+    }
+
+    @Override
+    public UUID readGuid(String field) throws UaSerializationException {
+        return readField(field, new UUID(0L, 0L), () -> UUID.fromString(reader.nextString()));
+    }
+
+    @Override
+    public ByteString readByteString(String field) throws UaSerializationException {
+        return readField(
+            field,
+            ByteString.NULL_VALUE,
+            () -> ByteString.of(Base64.getDecoder().decode(reader.nextString()))
+        );
+    }
+
+    @Override
+    public XmlElement readXmlElement(String field) throws UaSerializationException {
+        return readField(field, new XmlElement(null), () -> new XmlElement(reader.nextString()));
+    }
+
+    @Override
+    public NodeId readNodeId(String field) throws UaSerializationException {
+        return readObject(field, NodeId.NULL_VALUE, () -> {
+            int idType = readInt32("IdType");
+
+            switch (idType) {
+                case 0:
+                    return new NodeId(readNamespaceIndex(), readUInt32("Id"));
+                case 1:
+                    return new NodeId(readNamespaceIndex(), readString("Id"));
+                case 2:
+                    return new NodeId(readNamespaceIndex(), readGuid("Id"));
+                case 3:
+                    return new NodeId(readNamespaceIndex(), readByteString("Id"));
+                default:
+                    throw new UaSerializationException(
+                        StatusCodes.Bad_DecodingError,
+                        "unknown IdType: " + idType);
+            }
+        });
+    }
+
+    @Override
+    public ExpandedNodeId readExpandedNodeId(String field) throws UaSerializationException {
+        return readObject(field, ExpandedNodeId.NULL_VALUE, () -> {
+            int idType = readInt32("IdType");
+
+            Object identifier;
+            switch (idType) {
+                case 0:
+                    identifier = readUInt32("Id");
+                    break;
+                case 1:
+                    identifier = readString("Id");
+                    break;
+                case 2:
+                    identifier = readGuid("Id");
+                    break;
+                case 3:
+                    identifier = readByteString("Id");
+                    break;
+                default:
+                    throw new UaSerializationException(
+                        StatusCodes.Bad_DecodingError,
+                        "unknown IdType: " + idType);
+            }
+
+            // Namespace is either the index, or the URI when the index is not known to the encoder.
+            Object namespace = readField("Namespace", 0, () ->
+                reader.peek() == JsonToken.STRING ? reader.nextString() : reader.nextInt());
+
+            long serverIndex = readField("ServerUri", 0L, () -> reader.nextLong());
+
+            String namespaceUri = namespace instanceof String ? (String) namespace : null;
+            int namespaceIndex = namespace instanceof Integer ? (Integer) namespace : 0;
+
+            if (identifier instanceof UInteger) {
+                return new ExpandedNodeId(
+                    ushort(namespaceIndex), (UInteger) identifier, namespaceUri, serverIndex);
+            } else if (identifier instanceof String) {
+                return new ExpandedNodeId(
+                    ushort(namespaceIndex), (String) identifier, namespaceUri, serverIndex);
+            } else if (identifier instanceof UUID) {
+                return new ExpandedNodeId(
+                    ushort(namespaceIndex), (UUID) identifier, namespaceUri, serverIndex);
+            } else {
+                return new ExpandedNodeId(
+                    ushort(namespaceIndex), (ByteString) identifier, namespaceUri, serverIndex);
+            }
+        });
+    }
+
+    @Override
+    public StatusCode readStatusCode(String field) throws UaSerializationException {
+        return readField(field, StatusCode.GOOD, () -> new StatusCode(reader.nextLong()));
+    }
+
+    @Override
+    public QualifiedName readQualifiedName(String field) throws UaSerializationException {
+        return readObject(field, QualifiedName.NULL_VALUE, () -> {
+            String name = readString("Name");
+            UShort namespaceIndex = readUInt16("Uri");
+
+            return new QualifiedName(namespaceIndex, name);
+        });
+    }
+
+    @Override
+    public LocalizedText readLocalizedText(String field) throws UaSerializationException {
+        return readObject(field, LocalizedText.NULL_VALUE, () -> {
+            String locale = readString("Locale");
+            String text = readString("Text");
+
+            return new LocalizedText(locale, text);
+        });
+    }
+
+    @Override
+    public ExtensionObject readExtensionObject(String field) throws UaSerializationException {
+        return readObject(field, null, () -> {
+            NodeId encodingId = readNodeId("TypeId");
+            int encoding = readInt32("Encoding");
+
+            switch (encoding) {
+                case 0: {
+                    Object struct = readObject("Body", null, () -> {
+                        BuiltinDataTypeCodec<?> codec = BuiltinDataTypeDictionary.getBuiltinCodec(encodingId);
+
+                        if (codec == null) {
+                            throw new UaSerializationException(
+                                StatusCodes.Bad_DecodingError,
+                                "no codec registered: " + encodingId
+                            );
+                        }
+
+                        return codec.decode(context, this);
+                    });
+
+                    if (struct == null) {
+                        return new ExtensionObject(ByteString.NULL_VALUE, encodingId);
+                    } else {
+                        return ExtensionObject.encodeDefaultBinary(context, struct, encodingId);
+                    }
+                }
+
+                case 1:
+                    return new ExtensionObject(readByteString("Body"), encodingId);
+
+                case 2:
+                    return new ExtensionObject(readXmlElement("Body"), encodingId);
+
+                default:
+                    throw new UaSerializationException(
+                        StatusCodes.Bad_DecodingError,
+                        "unknown Encoding: " + encoding);
+            }
+        });
+    }
+
+    @Override
+    public DataValue readDataValue(String field) throws UaSerializationException {
+        return readObject(field, null, () -> {
+            Variant value = readVariant("Value");
+            StatusCode status = readStatusCode("Status");
+            DateTime sourceTime = readDateTime("SourceTimestamp");
+            UShort sourcePicoseconds = readField("SourcePicoseconds", null, () -> ushort(reader.nextInt()));
+            DateTime serverTime = readDateTime("ServerTimestamp");
+            UShort serverPicoseconds = readField("ServerPicoseconds", null, () -> ushort(reader.nextInt()));
+
+            return new DataValue(value, status, sourceTime, sourcePicoseconds, serverTime, serverPicoseconds);
+        });
+    }
+
+    @Override
+    public Variant readVariant(String field) throws UaSerializationException {
+        return readObject(field, Variant.NULL_VALUE, () -> {
+            int typeId = readInt32("Type");
+
+            if (typeId == 0) {
+                return Variant.NULL_VALUE;
+            }
+
+            Object body = readField("Body", null, () -> {
+                if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                    List<Object> elements = readElements(f -> decodeBuiltinType(f, typeId));
+
+                    Object array = Array.newInstance(TypeUtil.getBackingClass(typeId), elements.size());
+                    for (int i = 0; i < elements.size(); i++) {
+                        Array.set(array, i, elements.get(i));
+                    }
+                    return array;
+                } else {
+                    positioned = true;
+                    return decodeBuiltinType("Body", typeId);
+                }
+            });
+
+            Integer[] dimensions = readInt32Array("Dimensions");
+
+            if (body != null && dimensions != null && dimensions.length > 1) {
+                int[] ds = new int[dimensions.length];
+                for (int i = 0; i < dimensions.length; i++) {
+                    ds[i] = dimensions[i];
+                }
+                body = ArrayUtil.unflatten(body, ds);
+            }
+
+            return new Variant(body);
+        });
+    }
+
+    @Override
+    public DiagnosticInfo readDiagnosticInfo(String field) throws UaSerializationException {
+        return readObject(field, null, () -> {
+            int symbolicId = readField("SymbolicId", -1, () -> reader.nextInt());
+            int namespaceUri = readField("NamespaceUri", -1, () -> reader.nextInt());
+            int locale = readField("Locale", -1, () -> reader.nextInt());
+            int localizedText = readField("LocalizedText", -1, () -> reader.nextInt());
+            String additionalInfo = readString("AdditionalInfo");
+            StatusCode innerStatusCode = readField("InnerStatusCode", null, () -> new StatusCode(reader.nextLong()));
+            DiagnosticInfo innerDiagnosticInfo = readDiagnosticInfo("InnerDiagnosticInfo");
+
+            return new DiagnosticInfo(
+                namespaceUri,
+                symbolicId,
+                locale,
+                localizedText,
+                additionalInfo,
+                innerStatusCode,
+                innerDiagnosticInfo
+            );
+        });
+    }
+
+    @Override
+    public UaMessage readMessage(String field) throws UaSerializationException {
+        return readObject(field, null, () -> {
+            NodeId encodingId = readNodeId("TypeId");
+
+            BuiltinDataTypeCodec<?> codec = BuiltinDataTypeDictionary.getBuiltinCodec(encodingId);
+
+            if (codec == null) {
+                throw new UaSerializationException(
+                    StatusCodes.Bad_DecodingError,
+                    "no codec registered: " + encodingId
+                );
+            }
+
+            return (UaMessage) readObject("Body", null, () -> codec.decode(context, this));
+        });
+    }
+
+    @Override
+    public Object readStruct(String field, NodeId dataTypeId) throws UaSerializationException {
+        DataTypeCodec codec = context.getDataTypeManager()
+            .getCodec(OpcUaDefaultBinaryEncoding.ENCODING_NAME, dataTypeId);
+
+        GenericDataTypeCodec<?> genericCodec = getGenericCodec(codec);
+
+        if (genericCodec == null) {
+            throw new UaSerializationException(
+                StatusCodes.Bad_DecodingError,
+                "no codec registered: " + dataTypeId
+            );
+        }
+
+        return readObject(field, null, () -> genericCodec.decode(context, this));
+    }
+
+    @Override
+    public Object readStruct(String field, ExpandedNodeId dataTypeId) throws UaSerializationException {
+        NodeId localDataTypeId = dataTypeId
+            .local(context.getNamespaceTable())
+            .orElseThrow(() -> new UaSerializationException(
+                StatusCodes.Bad_DecodingError,
+                "no codec registered: " + dataTypeId
+            ));
+
+        return readStruct(field, localDataTypeId);
+    }
+
+    @Override
+    public Object readStruct(String field, DataTypeCodec codec) throws UaSerializationException {
+        if (codec instanceof GenericDataTypeCodec) {
+            GenericDataTypeCodec<?> genericCodec = (GenericDataTypeCodec<?>) codec;
+
+            return readObject(field, null, () -> genericCodec.decode(context, this));
+        } else {
+            throw new UaSerializationException(
+                StatusCodes.Bad_DecodingError,
+                new IllegalArgumentException("codec: " + codec)
+            );
+        }
+    }
+
+    @Override
+    public Boolean[] readBooleanArray(String field) throws UaSerializationException {
+        return readArray(field, this::readBoolean, Boolean.class);
+    }
+
+    @Override
+    public Byte[] readSByteArray(String field) throws UaSerializationException {
+        return readArray(field, this::readSByte, Byte.class);
+    }
+
+    @Override
+    public Short[] readInt16Array(String field) throws UaSerializationException {
+        return readArray(field, this::readInt16, Short.class);
+    }
+
+    @Override
+    public Integer[] readInt32Array(String field) throws UaSerializationException {
+        return readArray(field, this::readInt32, Integer.class);
+    }
+
+    @Override
+    public Long[] readInt64Array(String field) throws UaSerializationException {
+        return readArray(field, this::readInt64, Long.class);
+    }
+
+    @Override
+    public UByte[] readByteArray(String field) throws UaSerializationException {
+        return readArray(field, this::readByte, UByte.class);
+    }
+
+    @Override
+    public UShort[] readUInt16Array(String field) throws UaSerializationException {
+        return readArray(field, this::readUInt16, UShort.class);
+    }
+
+    @Override
+    public UInteger[] readUInt32Array(String field) throws UaSerializationException {
+        return readArray(field, this::readUInt32, UInteger.class);
+    }
+
+    @Override
+    public ULong[] readUInt64Array(String field) throws UaSerializationException {
+        return readArray(field, this::readUInt64, ULong.class);
+    }
+
+    @Override
+    public Float[] readFloatArray(String field) throws UaSerializationException {
+        return readArray(field, this::readFloat, Float.class);
+    }
+
+    @Override
+    public Double[] readDoubleArray(String field) throws UaSerializationException {
+        return readArray(field, this::readDouble, Double.class);
+    }
+
+    @Override
+    public String[] readStringArray(String field) throws UaSerializationException {
+        return readArray(field, this::readString, String.class);
+    }
+
+    @Override
+    public DateTime[] readDateTimeArray(String field) throws UaSerializationException {
+        return readArray(field, this::readDateTime, DateTime.class);
+    }
+
+    @Override
+    public UUID[] readGuidArray(String field) throws UaSerializationException {
+        return readArray(field, this::readGuid, UUID.class);
+    }
+
+    @Override
+    public ByteString[] readByteStringArray(String field) throws UaSerializationException {
+        return readArray(field, this::readByteString, ByteString.class);
+    }
+
+    @Override
+    public XmlElement[] readXmlElementArray(String field) throws UaSerializationException {
+        return readArray(field, this::readXmlElement, XmlElement.class);
+    }
+
+    @Override
+    public NodeId[] readNodeIdArray(String field) throws UaSerializationException {
+        return readArray(field, this::readNodeId, NodeId.class);
+    }
+
+    @Override
+    public ExpandedNodeId[] readExpandedNodeIdArray(String field) throws UaSerializationException {
+        return readArray(field, this::readExpandedNodeId, ExpandedNodeId.class);
+    }
+
+    @Override
+    public StatusCode[] readStatusCodeArray(String field) throws UaSerializationException {
+        return readArray(field, this::readStatusCode, StatusCode.class);
+    }
+
+    @Override
+    public QualifiedName[] readQualifiedNameArray(String field) throws UaSerializationException {
+        return readArray(field, this::readQualifiedName, QualifiedName.class);
+    }
+
+    @Override
+    public LocalizedText[] readLocalizedTextArray(String field) throws UaSerializationException {
+        return readArray(field, this::readLocalizedText, LocalizedText.class);
+    }
+
+    @Override
+    public ExtensionObject[] readExtensionObjectArray(String field) throws UaSerializationException {
+        return readArray(field, this::readExtensionObject, ExtensionObject.class);
+    }
+
+    @Override
+    public DataValue[] readDataValueArray(String field) throws UaSerializationException {
+        return readArray(field, this::readDataValue, DataValue.class);
+    }
+
+    @Override
+    public Variant[] readVariantArray(String field) throws UaSerializationException {
+        return readArray(field, this::readVariant, Variant.class);
+    }
+
+    @Override
+    public DiagnosticInfo[] readDiagnosticInfoArray(String field) throws UaSerializationException {
+        return readArray(field, this::readDiagnosticInfo, DiagnosticInfo.class);
+    }
+
+    @Override
+    public Object[] readStructArray(String field, NodeId dataTypeId) throws UaSerializationException {
+        return readArray(field, f -> readStruct(f, dataTypeId), Object.class);
+    }
+
+    @Override
+    public Object[] readStructArray(String field, ExpandedNodeId dataTypeId) throws UaSerializationException {
+        return readArray(field, f -> readStruct(f, dataTypeId), Object.class);
+    }
+
+    @Override
+    public <T> T[] readArray(
+        String field, Function<String, T> decoder, Class<T> clazz) throws UaSerializationException {
+
+        return readField(field, null, () -> {
+            List<T> elements = readElements(decoder);
+
+            @SuppressWarnings("unchecked")
+            T[] array = (T[]) Array.newInstance(clazz, elements.size());
+
+            return elements.toArray(array);
+        });
+    }
+
+    @Override
+    public <T extends UaStructure> T readBuiltinStruct(
+        String field, Class<T> clazz) throws UaSerializationException {
+
+        @SuppressWarnings("unchecked")
+        BuiltinDataTypeCodec<T> codec = (BuiltinDataTypeCodec<T>) BuiltinDataTypeDictionary.getBuiltinCodec(clazz);
+
+        if (codec == null) {
+            throw new UaSerializationException(
+                StatusCodes.Bad_DecodingError,
+                "no codec registered: " + clazz
+            );
+        }
+
+        return readObject(field, null, () -> codec.decode(context, this));
+    }
+
+    @Override
+    public <T extends UaStructure> T[] readBuiltinStructArray(
+        String field, Class<T> clazz) throws UaSerializationException {
+
+        return readArray(field, f -> readBuiltinStruct(f, clazz), clazz);
+    }
+
+    private Object decodeBuiltinType(String field, int typeId) throws UaSerializationException {
+        switch (typeId) {
+            case 1:
+                return readBoolean(field);
+            case 2:
+                return readSByte(field);
+            case 3:
+                return readByte(field);
+            case 4:
+                return readInt16(field);
+            case 5:
+                return readUInt16(field);
+            case 6:
+                return readInt32(field);
+            case 7:
+                return readUInt32(field);
+            case 8:
+                return readInt64(field);
+            case 9:
+                return readUInt64(field);
+            case 10:
+                return readFloat(field);
+            case 11:
+                return readDouble(field);
+            case 12:
+                return readString(field);
+            case 13:
+                return readDateTime(field);
+            case 14:
+                return readGuid(field);
+            case 15:
+                return readByteString(field);
+            case 16:
+                return readXmlElement(field);
+            case 17:
+                return readNodeId(field);
+            case 18:
+                return readExpandedNodeId(field);
+            case 19:
+                return readStatusCode(field);
+            case 20:
+                return readQualifiedName(field);
+            case 21:
+                return readLocalizedText(field);
+            case 22:
+                return readExtensionObject(field);
+            case 23:
+                return readDataValue(field);
+            case 24:
+                return readVariant(field);
+            case 25:
+                return readDiagnosticInfo(field);
+            default:
+                throw new UaSerializationException(
+                    StatusCodes.Bad_DecodingError,
+                    "unknown builtin type: " + typeId);
+        }
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static GenericDataTypeCodec<?> getGenericCodec(@Nullable DataTypeCodec codec) {
+        if (codec instanceof GenericDataTypeCodec) {
+            return (GenericDataTypeCodec<?>) codec;
+        } else if (codec != null && UaStructure.class.isAssignableFrom(codec.getType())) {
+            // Built-in structures are registered as binary/XML adapters of their GenericDataTypeCodec.
+            return BuiltinDataTypeDictionary.getBuiltinCodec((Class<UaStructure>) codec.getType());
+        } else {
+            return null;
+        }
+    }
+
+    private double nextDouble() throws IOException {
+        if (reader.peek() == JsonToken.STRING) {
+            // NaN, Infinity, and -Infinity are encoded as strings.
+            return Double.parseDouble(reader.nextString());
+        } else {
+            return reader.nextDouble();
+        }
+    }
+
+    private UShort readNamespaceIndex() {
+        return readUInt16("Namespace");
+    }
+
+    /**
+     * Read the elements of the array the reader is positioned at.
+     */
+    private <T> List<T> readElements(Function<String, T> decoder) throws IOException {
+        List<T> elements = new ArrayList<>();
+
+        reader.beginArray();
+        frames.push(new Frame(true, reader));
+        try {
+            while (reader.hasNext()) {
+                checkArrayLength(elements.size() + 1);
+
+                elements.add(decoder.apply(null));
+            }
+        } finally {
+            frames.pop();
+        }
+        reader.endArray();
+
+        return elements;
+    }
+
+    /**
+     * Read the object value of {@code field}, or return {@code defaultValue} if the field is absent or null.
+     */
+    private <T> T readObject(String field, T defaultValue, JsonRead<T> read) {
+        return readField(field, defaultValue, () -> {
+            if (frames.size() >= context.getEncodingLimits().getMaxRecursionDepth()) {
+                throw new UaSerializationException(
+                    StatusCodes.Bad_EncodingLimitsExceeded,
+                    "max recursion depth exceeded: " + context.getEncodingLimits().getMaxRecursionDepth()
+                );
+            }
+
+            reader.beginObject();
+            Frame frame = new Frame(false, reader);
+            frames.push(frame);
+
+            T value;
+            try {
+                value = read.read();
+            } finally {
+                frames.pop();
+            }
+
+            if (frame.buffered == null) {
+                // Skip any fields the codec didn't ask for.
+                if (frame.pendingName != null) {
+                    reader.skipValue();
+                }
+                while (reader.hasNext()) {
+                    reader.nextName();
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            return value;
+        });
+    }
+
+    /**
+     * Read the value of {@code field}, or return {@code defaultValue} if the field is absent or null.
+     * <p>
+     * Inside an array or at the top level {@code field} is ignored and the next value is read.
+     */
+    private <T> T readField(String field, T defaultValue, JsonRead<T> read) {
+        JsonReader previous = reader;
+
+        try {
+            if (!seek(field)) {
+                return defaultValue;
+            }
+
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                return defaultValue;
+            }
+
+            return read.read();
+        } catch (IOException | IllegalStateException | IllegalArgumentException | DateTimeParseException e) {
+            throw new UaSerializationException(StatusCodes.Bad_DecodingError, e);
+        } finally {
+            reader = previous;
+        }
+    }
+
+    /**
+     * Position the reader at the value of {@code field} in the current object.
+     *
+     * @return {@code true} if the reader is positioned at the value, {@code false} if the field is absent.
+     */
+    private boolean seek(String field) throws IOException {
+        if (positioned) {
+            positioned = false;
+            return true;
+        }
+
+        Frame frame = frames.peek();
+
+        if (frame == null || frame.array) {
+            return true;
+        }
+
+        if (frame.buffered == null) {
+            if (frame.pendingName == null && frame.reader.hasNext()) {
+                frame.pendingName = frame.reader.nextName();
+            }
+
+            if (frame.pendingName == null) {
+                return false;
+            } else if (frame.pendingName.equals(field)) {
+                frame.pendingName = null;
+                return true;
+            } else {
+                // Out of order or unexpected; buffer the rest of this object and look fields up by name instead.
+                JsonParser parser = new JsonParser();
+
+                frame.buffered = new HashMap<>();
+                frame.buffered.put(frame.pendingName, parser.parse(frame.reader));
+                frame.pendingName = null;
+
+                while (frame.reader.hasNext()) {
+                    String name = frame.reader.nextName();
+                    frame.buffered.put(name, parser.parse(frame.reader));
+                }
+            }
+        }
+
+        JsonElement element = frame.buffered.remove(field);
+
+        if (element == null) {
+            return false;
+        } else {
+            // Only reached for fields that arrive out of order; gson has no public reader over a JsonElement.
+            reader = new JsonReader(new StringReader(element.toString()));
+            return true;
+        }
+    }
+
+    private void checkArrayLength(int length) throws UaSerializationException {
+        if (length > context.getEncodingLimits().getMaxArrayLength()) {
+            throw new UaSerializationException(
+                StatusCodes.Bad_EncodingLimitsExceeded,
+                String.format(
+                    "max array length exceeded (length=%s, max=%s)",
+                    length, context.getEncodingLimits().getMaxArrayLength())
+            );
+        }
+    }
+
+    private static class Frame {
+
+        private String pendingName;
+        private Map<String, JsonElement> buffered;
+
+        private final boolean array;
+        private final JsonReader reader;
+
+        Frame(boolean array, JsonReader reader) {
+            this.array = array;
+            this.reader = reader;
+        }
+
+    }
+
+    private interface JsonRead<T> {
+        T read() throws IOException;
+    }
+
+}
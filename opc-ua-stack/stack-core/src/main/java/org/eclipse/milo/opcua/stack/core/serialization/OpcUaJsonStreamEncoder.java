@@ -0,0 +1,943 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.stack.core.serialization;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import javax.annotation.Nullable;
+
+import com.google.gson.stream.JsonWriter;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.UaSerializationException;
+import org.eclipse.milo.opcua.stack.core.serialization.codecs.BuiltinDataTypeCodec;
+import org.eclipse.milo.opcua.stack.core.serialization.codecs.DataTypeCodec;
+import org.eclipse.milo.opcua.stack.core.serialization.codecs.GenericDataTypeCodec;
+import org.eclipse.milo.opcua.stack.core.types.BuiltinDataTypeDictionary;
+import org.eclipse.milo.opcua.stack.core.types.OpcUaDefaultBinaryEncoding;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DiagnosticInfo;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ExpandedNodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
+import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.builtin.XmlElement;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UByte;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.ULong;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UShort;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.IdType;
+import org.eclipse.milo.opcua.stack.core.util.ArrayUtil;
+import org.eclipse.milo.opcua.stack.core.util.TypeUtil;
+
+/**
+ * A {@link UaEncoder} that writes the reversible form of the OPC UA JSON encoding (Part 6, 5.4).
+ * <p>
+ * Output is streamed to a {@link Writer} (or a {@link ByteBuf}, as UTF-8) as values are written; no intermediate
+ * document is built. Structures are encoded using their {@link GenericDataTypeCodec}, the same codecs used by the
+ * binary encoding.
+ * <p>
+ * Messages and structure bodies of {@link ExtensionObject}s are identified by their Default Binary encoding id, since
+ * that is what codecs are registered by; see {@link OpcUaJsonStreamDecoder}.
+ */
+public class OpcUaJsonStreamEncoder implements UaEncoder {
+
+    static final String MIN_DATE_TIME = "0001-01-01T00:00:00Z";
+
+    private final Deque<Boolean> containers = new ArrayDeque<>();
+
+    private JsonWriter writer;
+
+    private final SerializationContext context;
+
+    public OpcUaJsonStreamEncoder(SerializationContext context) {
+        this.context = context;
+    }
+
+    public OpcUaJsonStreamEncoder setWriter(Writer writer) {
+        this.writer = new JsonWriter(writer);
+        this.writer.setSerializeNulls(true);
+        this.containers.clear();
+        return this;
+    }
+
+    public OpcUaJsonStreamEncoder setBuffer(ByteBuf buffer) {
+        return setWriter(new OutputStreamWriter(new ByteBufOutputStream(buffer), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void writeBoolean(String field, Boolean value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else {
+            write(field, () -> writer.value(value));
+        }
+    }
+
+    @Override
+    public void writeSByte(String field, Byte value) throws UaSerializationException {
+        writeNumber(field, value);
+    }
+
+    @Override
+    public void writeInt16(String field, Short value) throws UaSerializationException {
+        writeNumber(field, value);
+    }
+
+    @Override
+    public void writeInt32(String field, Integer value) throws UaSerializationException {
+        writeNumber(field, value);
+    }
+
+    @Override
+    public void writeInt64(String field, Long value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else {
+            // 64-bit integers are strings so they survive JavaScript's double-precision numbers.
+            write(field, () -> writer.value(value.toString()));
+        }
+    }
+
+    @Override
+    public void writeByte(String field, UByte value) throws UaSerializationException {
+        writeNumber(field, value);
+    }
+
+    @Override
+    public void writeUInt16(String field, UShort value) throws UaSerializationException {
+        writeNumber(field, value);
+    }
+
+    @Override
+    public void writeUInt32(String field, UInteger value) throws UaSerializationException {
+        writeNumber(field, value);
+    }
+
+    @Override
+    public void writeUInt64(String field, ULong value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else {
+            write(field, () -> writer.value(value.toString()));
+        }
+    }
+
+    @Override
+    public void writeFloat(String field, Float value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else if (value.isNaN() || value.isInfinite()) {
+            write(field, () -> writer.value(nonFiniteToString(value)));
+        } else {
+            write(field, () -> writer.value(value));
+        }
+    }
+
+    @Override
+    public void writeDouble(String field, Double value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else if (value.isNaN() || value.isInfinite()) {
+            write(field, () -> writer.value(nonFiniteToString(value)));
+        } else {
+            write(field, () -> writer.value(value.doubleValue()));
+        }
+    }
+
+    @Override
+    public void writeString(String field, String value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else {
+            if (value.length() > context.getEncodingLimits().getMaxStringLength()) {
+                throw new UaSerializationException(
+                    StatusCodes.Bad_EncodingLimitsExceeded,
+                    String.format(
+                        "max string length exceeded (length=%s, max=%s)",
+                        value.length(), context.getEncodingLimits().getMaxStringLength())
+                );
+            }
+
+            write(field, () -> writer.value(value));
+        }
+    }
+
+    @Override
+    public void writeDateTime(String field, DateTime value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else if (value.isNull()) {
+            write(field, () -> writer.value(MIN_DATE_TIME));
+        } else {
+            write(field, () -> writer.value(value.getJavaInstant().toString()));
+        }
+    }
+
+    @Override
+    public void writeGuid(String field, UUID value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else {
+            write(field, () -> writer.value(value.toString()));
+        }
+    }
+
+    @Override
+    public void writeByteString(String field, ByteString value) throws UaSerializationException {
+        if (value == null || value.isNull()) {
+            writeNull(field);
+        } else {
+            write(field, () -> writer.value(Base64.getEncoder().encodeToString(value.bytes())));
+        }
+    }
+
+    @Override
+    public void writeXmlElement(String field, XmlElement value) throws UaSerializationException {
+        if (value == null || value.isNull()) {
+            writeNull(field);
+        } else {
+            write(field, () -> writer.value(value.getFragment()));
+        }
+    }
+
+    @Override
+    public void writeNodeId(String field, NodeId value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else {
+            beginObject(field);
+            writeIdentifier(value.getType(), value.getIdentifier());
+            writeNonZero("Namespace", value.getNamespaceIndex().intValue());
+            endObject();
+        }
+    }
+
+    @Override
+    public void writeExpandedNodeId(String field, ExpandedNodeId value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else {
+            beginObject(field);
+            writeIdentifier(value.getType(), value.getIdentifier());
+
+            String namespaceUri = value.getNamespaceUri();
+            if (namespaceUri != null && !namespaceUri.isEmpty()) {
+                write("Namespace", () -> writer.value(namespaceUri));
+            } else {
+                writeNonZero("Namespace", value.getNamespaceIndex().intValue());
+            }
+
+            writeNonZero("ServerUri", value.getServerIndex());
+            endObject();
+        }
+    }
+
+    @Override
+    public void writeStatusCode(String field, StatusCode value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else {
+            write(field, () -> writer.value(value.getValue()));
+        }
+    }
+
+    @Override
+    public void writeQualifiedName(String field, QualifiedName value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else {
+            beginObject(field);
+            writeString("Name", value.getName());
+            writeNonZero("Uri", value.getNamespaceIndex().intValue());
+            endObject();
+        }
+    }
+
+    @Override
+    public void writeLocalizedText(String field, LocalizedText value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+        } else {
+            beginObject(field);
+            writeString("Locale", value.getLocale());
+            writeString("Text", value.getText());
+            endObject();
+        }
+    }
+
+    @Override
+    public void writeExtensionObject(String field, ExtensionObject value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+            return;
+        }
+
+        beginObject(field);
+        writeNodeId("TypeId", value.getEncodingId());
+
+        if (!value.isNull()) {
+            switch (value.getBodyType()) {
+                case ByteString: {
+                    BuiltinDataTypeCodec<?> codec = BuiltinDataTypeDictionary.getBuiltinCodec(value.getEncodingId());
+
+                    if (codec != null) {
+                        writeStructBody("Body", value.decode(context), codec);
+                    } else {
+                        write("Encoding", () -> writer.value(1));
+                        writeByteString("Body", (ByteString) value.getBody());
+                    }
+                    break;
+                }
+
+                case XmlElement: {
+                    write("Encoding", () -> writer.value(2));
+                    writeXmlElement("Body", (XmlElement) value.getBody());
+                    break;
+                }
+
+                default:
+                    throw new UaSerializationException(
+                        StatusCodes.Bad_EncodingError,
+                        "unknown body type: " + value.getBodyType());
+            }
+        }
+
+        endObject();
+    }
+
+    @Override
+    public void writeDataValue(String field, DataValue value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+            return;
+        }
+
+        beginObject(field);
+
+        if (value.getValue() != null && value.getValue().isNotNull()) {
+            writeVariant("Value", value.getValue());
+        }
+        if (value.getStatusCode() != null && !StatusCode.GOOD.equals(value.getStatusCode())) {
+            writeStatusCode("Status", value.getStatusCode());
+        }
+        if (value.getSourceTime() != null && !value.getSourceTime().isNull()) {
+            writeDateTime("SourceTimestamp", value.getSourceTime());
+        }
+        if (value.getSourcePicoseconds() != null) {
+            writeNonZero("SourcePicoseconds", value.getSourcePicoseconds().intValue());
+        }
+        if (value.getServerTime() != null && !value.getServerTime().isNull()) {
+            writeDateTime("ServerTimestamp", value.getServerTime());
+        }
+        if (value.getServerPicoseconds() != null) {
+            writeNonZero("ServerPicoseconds", value.getServerPicoseconds().intValue());
+        }
+
+        endObject();
+    }
+
+    @Override
+    public void writeVariant(String field, Variant variant) throws UaSerializationException {
+        Object value = variant != null ? variant.getValue() : null;
+
+        if (value == null) {
+            writeNull(field);
+            return;
+        }
+
+        boolean structure = false;
+        boolean enumeration = false;
+        Class<?> valueClass = value.getClass().isArray() ? ArrayUtil.getType(value) : value.getClass();
+
+        if (UaStructure.class.isAssignableFrom(valueClass)) {
+            valueClass = ExtensionObject.class;
+            structure = true;
+        } else if (UaEnumeration.class.isAssignableFrom(valueClass)) {
+            valueClass = Integer.class;
+            enumeration = true;
+        }
+
+        int typeId = TypeUtil.getBuiltinTypeId(valueClass);
+
+        if (typeId == -1) {
+            throw new UaSerializationException(
+                StatusCodes.Bad_EncodingError,
+                "not a built-in type: " + valueClass);
+        }
+
+        beginObject(field);
+        write("Type", () -> writer.value(typeId));
+
+        if (value.getClass().isArray()) {
+            int[] dimensions = ArrayUtil.getDimensions(value);
+            Object flattened = dimensions.length > 1 ? ArrayUtil.flatten(value) : value;
+            int length = Array.getLength(flattened);
+
+            checkArrayLength(length);
+
+            beginArray("Body");
+            for (int i = 0; i < length; i++) {
+                writeValue("Body", Array.get(flattened, i), typeId, structure, enumeration);
+            }
+            endArray();
+
+            if (dimensions.length > 1) {
+                beginArray("Dimensions");
+                for (int dimension : dimensions) {
+                    write(null, () -> writer.value(dimension));
+                }
+                endArray();
+            }
+        } else {
+            writeValue("Body", value, typeId, structure, enumeration);
+        }
+
+        endObject();
+    }
+
+    @Override
+    public void writeDiagnosticInfo(String field, DiagnosticInfo value) throws UaSerializationException {
+        if (value == null) {
+            writeNull(field);
+            return;
+        }
+
+        beginObject(field);
+
+        if (value.getSymbolicId() != -1) writeInt32("SymbolicId", value.getSymbolicId());
+        if (value.getNamespaceUri() != -1) writeInt32("NamespaceUri", value.getNamespaceUri());
+        if (value.getLocale() != -1) writeInt32("Locale", value.getLocale());
+        if (value.getLocalizedText() != -1) writeInt32("LocalizedText", value.getLocalizedText());
+        if (value.getAdditionalInfo() != null) writeString("AdditionalInfo", value.getAdditionalInfo());
+        if (value.getInnerStatusCode() != null) writeStatusCode("InnerStatusCode", value.getInnerStatusCode());
+        if (value.getInnerDiagnosticInfo() != null) {
+            writeDiagnosticInfo("InnerDiagnosticInfo", value.getInnerDiagnosticInfo());
+        }
+
+        endObject();
+    }
+
+    @Override
+    public void writeMessage(String field, UaMessage message) throws UaSerializationException {
+        NodeId encodingId = message.getBinaryEncodingId();
+
+        BuiltinDataTypeCodec<?> codec = BuiltinDataTypeDictionary.getBuiltinCodec(encodingId);
+
+        if (codec == null) {
+            throw new UaSerializationException(
+                StatusCodes.Bad_EncodingError,
+                "no codec registered: " + encodingId
+            );
+        }
+
+        beginObject(field);
+        writeNodeId("TypeId", encodingId);
+        writeStructBody("Body", message, codec);
+        endObject();
+    }
+
+    @Override
+    public void writeStruct(String field, Object value, NodeId dataTypeId) throws UaSerializationException {
+        DataTypeCodec codec = context.getDataTypeManager()
+            .getCodec(OpcUaDefaultBinaryEncoding.ENCODING_NAME, dataTypeId);
+
+        GenericDataTypeCodec<?> genericCodec = getGenericCodec(codec);
+
+        if (genericCodec == null) {
+            throw new UaSerializationException(
+                StatusCodes.Bad_EncodingError,
+                "no codec registered: " + dataTypeId
+            );
+        }
+
+        writeStructBody(field, value, genericCodec);
+    }
+
+    @Override
+    public void writeStruct(String field, Object value, ExpandedNodeId dataTypeId) throws UaSerializationException {
+        NodeId localDataTypeId = dataTypeId
+            .local(context.getNamespaceTable())
+            .orElseThrow(() -> new UaSerializationException(
+                StatusCodes.Bad_EncodingError,
+                "no codec registered: " + dataTypeId
+            ));
+
+        writeStruct(field, value, localDataTypeId);
+    }
+
+    @Override
+    public void writeStruct(String field, Object value, DataTypeCodec codec) throws UaSerializationException {
+        if (codec instanceof GenericDataTypeCodec) {
+            writeStructBody(field, value, (GenericDataTypeCodec<?>) codec);
+        } else {
+            throw new UaSerializationException(
+                StatusCodes.Bad_EncodingError,
+                new IllegalArgumentException("codec: " + codec)
+            );
+        }
+    }
+
+    @Override
+    public void writeBooleanArray(String field, Boolean[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeBoolean);
+    }
+
+    @Override
+    public void writeSByteArray(String field, Byte[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeSByte);
+    }
+
+    @Override
+    public void writeInt16Array(String field, Short[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeInt16);
+    }
+
+    @Override
+    public void writeInt32Array(String field, Integer[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeInt32);
+    }
+
+    @Override
+    public void writeInt64Array(String field, Long[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeInt64);
+    }
+
+    @Override
+    public void writeByteArray(String field, UByte[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeByte);
+    }
+
+    @Override
+    public void writeUInt16Array(String field, UShort[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeUInt16);
+    }
+
+    @Override
+    public void writeUInt32Array(String field, UInteger[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeUInt32);
+    }
+
+    @Override
+    public void writeUInt64Array(String field, ULong[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeUInt64);
+    }
+
+    @Override
+    public void writeFloatArray(String field, Float[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeFloat);
+    }
+
+    @Override
+    public void writeDoubleArray(String field, Double[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeDouble);
+    }
+
+    @Override
+    public void writeStringArray(String field, String[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeString);
+    }
+
+    @Override
+    public void writeDateTimeArray(String field, DateTime[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeDateTime);
+    }
+
+    @Override
+    public void writeGuidArray(String field, UUID[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeGuid);
+    }
+
+    @Override
+    public void writeByteStringArray(String field, ByteString[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeByteString);
+    }
+
+    @Override
+    public void writeXmlElementArray(String field, XmlElement[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeXmlElement);
+    }
+
+    @Override
+    public void writeNodeIdArray(String field, NodeId[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeNodeId);
+    }
+
+    @Override
+    public void writeExpandedNodeIdArray(String field, ExpandedNodeId[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeExpandedNodeId);
+    }
+
+    @Override
+    public void writeStatusCodeArray(String field, StatusCode[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeStatusCode);
+    }
+
+    @Override
+    public void writeQualifiedNameArray(String field, QualifiedName[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeQualifiedName);
+    }
+
+    @Override
+    public void writeLocalizedTextArray(String field, LocalizedText[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeLocalizedText);
+    }
+
+    @Override
+    public void writeExtensionObjectArray(String field, ExtensionObject[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeExtensionObject);
+    }
+
+    @Override
+    public void writeDataValueArray(String field, DataValue[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeDataValue);
+    }
+
+    @Override
+    public void writeVariantArray(String field, Variant[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeVariant);
+    }
+
+    @Override
+    public void writeDiagnosticInfoArray(String field, DiagnosticInfo[] value) throws UaSerializationException {
+        writeArray(field, value, this::writeDiagnosticInfo);
+    }
+
+    @Override
+    public void writeStructArray(String field, Object[] value, NodeId dataTypeId) throws UaSerializationException {
+        writeArray(field, value, (f, v) -> writeStruct(f, v, dataTypeId));
+    }
+
+    @Override
+    public void writeStructArray(
+        String field,
+        Object[] value,
+        ExpandedNodeId dataTypeId
+    ) throws UaSerializationException {
+
+        writeArray(field, value, (f, v) -> writeStruct(f, v, dataTypeId));
+    }
+
+    @Override
+    public <T> void writeArray(
+        String field, T[] values, BiConsumer<String, T> encoder) throws UaSerializationException {
+
+        if (values == null) {
+            writeNull(field);
+        } else {
+            checkArrayLength(values.length);
+
+            beginArray(field);
+            for (T t : values) {
+                encoder.accept(field, t);
+            }
+            endArray();
+        }
+    }
+
+    @Override
+    public <T extends UaStructure> void writeBuiltinStruct(
+        String field, T value, Class<T> clazz) throws UaSerializationException {
+
+        if (value == null) {
+            writeNull(field);
+            return;
+        }
+
+        BuiltinDataTypeCodec<?> codec = BuiltinDataTypeDictionary.getBuiltinCodec(clazz);
+
+        if (codec == null) {
+            throw new UaSerializationException(
+                StatusCodes.Bad_EncodingError,
+                "no codec registered: " + clazz
+            );
+        }
+
+        writeStructBody(field, value, codec);
+    }
+
+    @Override
+    public <T extends UaStructure> void writeBuiltinStructArray(
+        String field, T[] values, Class<T> clazz) throws UaSerializationException {
+
+        writeArray(field, values, (f, v) -> writeBuiltinStruct(f, v, clazz));
+    }
+
+    private void writeValue(String field, Object value, int typeId, boolean structure, boolean enumeration) {
+        if (value == null) {
+            writeNull(field);
+        } else if (structure) {
+            UaStructure struct = (UaStructure) value;
+
+            BuiltinDataTypeCodec<?> codec = BuiltinDataTypeDictionary.getBuiltinCodec(struct.getBinaryEncodingId());
+
+            if (codec != null) {
+                // Same shape as writeExtensionObject, without the round trip through a binary body.
+                beginObject(field);
+                writeNodeId("TypeId", struct.getBinaryEncodingId());
+                writeStructBody("Body", struct, codec);
+                endObject();
+            } else {
+                writeExtensionObject(field, ExtensionObject.encode(context, struct));
+            }
+        } else if (enumeration) {
+            writeInt32(field, ((UaEnumeration) value).getValue());
+        } else {
+            writeBuiltinType(field, typeId, value);
+        }
+    }
+
+    private void writeBuiltinType(String field, int typeId, Object value) throws UaSerializationException {
+        switch (typeId) {
+            case 1:
+                writeBoolean(field, (Boolean) value);
+                break;
+            case 2:
+                writeSByte(field, (Byte) value);
+                break;
+            case 3:
+                writeByte(field, (UByte) value);
+                break;
+            case 4:
+                writeInt16(field, (Short) value);
+                break;
+            case 5:
+                writeUInt16(field, (UShort) value);
+                break;
+            case 6:
+                writeInt32(field, (Integer) value);
+                break;
+            case 7:
+                writeUInt32(field, (UInteger) value);
+                break;
+            case 8:
+                writeInt64(field, (Long) value);
+                break;
+            case 9:
+                writeUInt64(field, (ULong) value);
+                break;
+            case 10:
+                writeFloat(field, (Float) value);
+                break;
+            case 11:
+                writeDouble(field, (Double) value);
+                break;
+            case 12:
+                writeString(field, (String) value);
+                break;
+            case 13:
+                writeDateTime(field, (DateTime) value);
+                break;
+            case 14:
+                writeGuid(field, (UUID) value);
+                break;
+            case 15:
+                writeByteString(field, (ByteString) value);
+                break;
+            case 16:
+                writeXmlElement(field, (XmlElement) value);
+                break;
+            case 17:
+                writeNodeId(field, (NodeId) value);
+                break;
+            case 18:
+                writeExpandedNodeId(field, (ExpandedNodeId) value);
+                break;
+            case 19:
+                writeStatusCode(field, (StatusCode) value);
+                break;
+            case 20:
+                writeQualifiedName(field, (QualifiedName) value);
+                break;
+            case 21:
+                writeLocalizedText(field, (LocalizedText) value);
+                break;
+            case 22:
+                writeExtensionObject(field, (ExtensionObject) value);
+                break;
+            case 23:
+                writeDataValue(field, (DataValue) value);
+                break;
+            case 24:
+                writeVariant(field, (Variant) value);
+                break;
+            case 25:
+                writeDiagnosticInfo(field, (DiagnosticInfo) value);
+                break;
+            default:
+                throw new UaSerializationException(
+                    StatusCodes.Bad_EncodingError,
+                    "unknown builtin type: " + typeId);
+        }
+    }
+
+    private void writeIdentifier(IdType idType, Object identifier) {
+        switch (idType) {
+            case Numeric:
+                write("Id", () -> writer.value(((UInteger) identifier).longValue()));
+                break;
+            case String:
+                write("IdType", () -> writer.value(1));
+                writeString("Id", (String) identifier);
+                break;
+            case Guid:
+                write("IdType", () -> writer.value(2));
+                writeGuid("Id", (UUID) identifier);
+                break;
+            case Opaque:
+                write("IdType", () -> writer.value(3));
+                writeByteString("Id", (ByteString) identifier);
+                break;
+            default:
+                throw new UaSerializationException(
+                    StatusCodes.Bad_EncodingError,
+                    "unknown IdType: " + idType);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeStructBody(String field, Object value, GenericDataTypeCodec<?> codec) {
+        beginObject(field);
+        ((GenericDataTypeCodec<Object>) codec).encode(context, this, value);
+        endObject();
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static GenericDataTypeCodec<?> getGenericCodec(@Nullable DataTypeCodec codec) {
+        if (codec instanceof GenericDataTypeCodec) {
+            return (GenericDataTypeCodec<?>) codec;
+        } else if (codec != null && UaStructure.class.isAssignableFrom(codec.getType())) {
+            // Built-in structures are registered as binary/XML adapters of their GenericDataTypeCodec.
+            return BuiltinDataTypeDictionary.getBuiltinCodec((Class<UaStructure>) codec.getType());
+        } else {
+            return null;
+        }
+    }
+
+    private void writeNumber(String field, Number value) {
+        if (value == null) {
+            writeNull(field);
+        } else {
+            write(field, () -> writer.value(value));
+        }
+    }
+
+    private void writeNonZero(String field, long value) {
+        if (value != 0) {
+            write(field, () -> writer.value(value));
+        }
+    }
+
+    private static String nonFiniteToString(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        } else {
+            return value > 0 ? "Infinity" : "-Infinity";
+        }
+    }
+
+    private void checkArrayLength(int length) throws UaSerializationException {
+        if (length > context.getEncodingLimits().getMaxArrayLength()) {
+            throw new UaSerializationException(
+                StatusCodes.Bad_EncodingLimitsExceeded,
+                "max array length exceeded"
+            );
+        }
+    }
+
+    /**
+     * Write {@code null}, unless in an object, where null fields are omitted entirely.
+     */
+    private void writeNull(String field) {
+        if (!inObject()) {
+            write(field, () -> writer.nullValue());
+        }
+    }
+
+    private void write(String field, JsonWrite write) {
+        try {
+            name(field);
+            write.write();
+            flushIfComplete();
+        } catch (IOException | IllegalStateException e) {
+            throw new UaSerializationException(StatusCodes.Bad_EncodingError, e);
+        }
+    }
+
+    private void beginObject(String field) {
+        if (containers.size() >= context.getEncodingLimits().getMaxRecursionDepth()) {
+            throw new UaSerializationException(
+                StatusCodes.Bad_EncodingLimitsExceeded,
+                "max recursion depth exceeded: " + context.getEncodingLimits().getMaxRecursionDepth()
+            );
+        }
+
+        write(field, () -> writer.beginObject());
+        containers.push(Boolean.FALSE);
+    }
+
+    private void endObject() {
+        containers.pop();
+        write(null, () -> writer.endObject());
+    }
+
+    private void beginArray(String field) {
+        write(field, () -> writer.beginArray());
+        containers.push(Boolean.TRUE);
+    }
+
+    private void endArray() {
+        containers.pop();
+        write(null, () -> writer.endArray());
+    }
+
+    /**
+     * Write the name of {@code field} if currently inside an object. Array elements and top-level values are
+     * written without a name.
+     */
+    private void name(String field) throws IOException {
+        if (field != null && inObject()) {
+            writer.name(field);
+        }
+    }
+
+    private boolean inObject() {
+        Boolean array = containers.peek();
+
+        return array != null && !array;
+    }
+
+    private void flushIfComplete() throws IOException {
+        if (containers.isEmpty()) {
+            writer.flush();
+        }
+    }
+
+    private interface JsonWrite {
+        void write() throws IOException;
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.stack.core.transport;
+
+import java.util.concurrent.ThreadFactory;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+
+/**
+ * The Netty transport that TCP and HTTP(S) channels use.
+ * <p>
+ * An {@link EventLoopGroup} only works with the channel classes of its own transport, so the channel classes for a
+ * bootstrap should come from {@link #of(EventLoopGroup)} rather than from configuration.
+ */
+public enum NettyTransport {
+
+    /**
+     * The {@code java.nio} transport, available everywhere.
+     */
+    NIO,
+
+    /**
+     * The native epoll transport, available on Linux x86_64. Supports {@code SO_REUSEPORT}.
+     * <p>
+     * {@code io.netty:netty-transport-native-epoll} is an optional dependency; add it, with the {@code linux-x86_64}
+     * classifier, to use this transport.
+     */
+    EPOLL;
+
+    /**
+     * @return {@code true} if this transport can be used on this platform.
+     */
+    public boolean isAvailable() {
+        switch (this) {
+            case EPOLL:
+                try {
+                    return Epoll.isAvailable();
+                } catch (LinkageError e) {
+                    return false;
+                }
+            case NIO:
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * @return this transport if it is available, otherwise {@link #NIO}.
+     */
+    public NettyTransport resolve() {
+        return isAvailable() ? this : NIO;
+    }
+
+    /**
+     * Create a new {@link EventLoopGroup} for this transport, or for {@link #NIO} if it is not available.
+     *
+     * @param threadFactory the {@link ThreadFactory} for the event loop threads.
+     * @return a new {@link EventLoopGroup} with the default number of threads.
+     */
+    public EventLoopGroup newEventLoopGroup(ThreadFactory threadFactory) {
+        if (resolve() == EPOLL) {
+            return new EpollEventLoopGroup(0, threadFactory);
+        } else {
+            return new NioEventLoopGroup(0, threadFactory);
+        }
+    }
+
+    /**
+     * @return the {@link SocketChannel} class for this transport.
+     */
+    public Class<? extends SocketChannel> getSocketChannelClass() {
+        return this == EPOLL ? EpollSocketChannel.class : NioSocketChannel.class;
+    }
+
+    /**
+     * @return the {@link ServerSocketChannel} class for this transport.
+     */
+    public Class<? extends ServerSocketChannel> getServerSocketChannelClass() {
+        return this == EPOLL ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+    }
+
+    /**
+     * @param eventLoopGroup an {@link EventLoopGroup}.
+     * @return the transport whose channels can be registered with {@code eventLoopGroup}.
+     */
+    public static NettyTransport of(EventLoopGroup eventLoopGroup) {
+        if (EPOLL.isAvailable() && eventLoopGroup instanceof EpollEventLoopGroup) {
+            return EPOLL;
+        } else {
+            return NIO;
+        }
+    }
+
+}
@@ -46,6 +46,11 @@ public class BuiltinDataTypeDictionary {
         return BUILTIN_CODECS.get(clazz);
     }
 
+    @Nullable
+    public static BuiltinDataTypeCodec<?> getBuiltinCodec(NodeId binaryEncodingId) {
+        return BUILTIN_CODECS_BY_ENCODING_ID.get(binaryEncodingId);
+    }
+
     private static class InstanceHolder {
 
         private static final AtomicBoolean INITIALIZED = new AtomicBoolean(false);
@@ -108,6 +113,9 @@ public class BuiltinDataTypeDictionary {
     private static final ConcurrentMap<String,
         BuiltinDataTypeCodec<? extends UaStructure>> BUILTIN_CODECS_BY_NAME = Maps.newConcurrentMap();
 
+    private static final ConcurrentMap<NodeId,
+        BuiltinDataTypeCodec<? extends UaStructure>> BUILTIN_CODECS_BY_ENCODING_ID = Maps.newConcurrentMap();
+
     private static final ConcurrentMap<NodeId, OpcUaBinaryDataTypeCodec<?>> BINARY_CODECS_BY_DATA_TYPE_ID
         = Maps.newConcurrentMap();
     private static final ConcurrentMap<NodeId, OpcUaBinaryDataTypeCodec<?>> BINARY_CODECS_BY_ENCODING_ID
@@ -144,6 +152,7 @@ public class BuiltinDataTypeDictionary {
 
         BUILTIN_CODECS.put(typeClazz, codec);
         BUILTIN_CODECS_BY_NAME.put(typeName, codec);
+        BUILTIN_CODECS_BY_ENCODING_ID.put(binaryEncodingId, codec);
     }
 
     static synchronized <T> void registerBinaryCodec(
@@ -35,12 +35,20 @@ public final class ExtensionObject {
     }
 
     private final Lazy<Object> decoded = new Lazy<>();
+    private final Lazy<Object> encoded = new Lazy<>();
 
     private final BodyType bodyType;
 
     private final Object body;
     private final NodeId encodingId;
 
+    /**
+     * The structure and context to encode a Default Binary body from, for instances created with
+     * {@link #encodeDeferred(SerializationContext, UaStructure)}; otherwise {@code null}.
+     */
+    private final UaStructure struct;
+    private final SerializationContext context;
+
     public ExtensionObject(
         @Nonnull ByteString body,
         @Nonnull NodeId encodingId) {
@@ -61,6 +69,8 @@ public final class ExtensionObject {
 
         this.body = body;
         this.encodingId = encodingId;
+        this.struct = null;
+        this.context = null;
 
         if (body instanceof ByteString) {
             bodyType = BodyType.ByteString;
@@ -71,8 +81,40 @@ public final class ExtensionObject {
         }
     }
 
+    private ExtensionObject(
+        @Nonnull SerializationContext context,
+        @Nonnull UaStructure struct) {
+
+        this.body = null;
+        this.encodingId = struct.getBinaryEncodingId();
+        this.struct = struct;
+        this.context = context;
+
+        bodyType = BodyType.ByteString;
+    }
+
     public Object getBody() {
-        return body;
+        if (struct != null) {
+            return encoded.getOrCompute(
+                () -> OpcUaDefaultBinaryEncoding.getInstance().encode(context, struct, encodingId));
+        } else {
+            return body;
+        }
+    }
+
+    /**
+     * Get the structure this ExtensionObject was created from by
+     * {@link #encodeDeferred(SerializationContext, UaStructure)}, if any.
+     * <p>
+     * Binary encoders use this to write the structure directly into their own buffer rather than copying an
+     * already-encoded body.
+     *
+     * @return the structure whose Default Binary encoding is the body, or {@code null} if the body was supplied
+     * already encoded.
+     */
+    @Nullable
+    public UaStructure getDeferredStructure() {
+        return struct;
     }
 
     public BodyType getBodyType() {
@@ -84,6 +126,8 @@ public final class ExtensionObject {
     }
 
     public boolean isNull() {
+        if (struct != null) return false;
+
         switch (bodyType) {
             case ByteString:
                 return ((ByteString) body).isNull();
@@ -123,7 +167,11 @@ public final class ExtensionObject {
     }
 
     public Object decode(SerializationContext context, DataTypeEncoding encoding) throws UaSerializationException {
-        return decoded.getOrCompute(() -> encoding.decode(context, body, encodingId));
+        if (struct != null && encoding == OpcUaDefaultBinaryEncoding.getInstance()) {
+            return struct;
+        }
+
+        return decoded.getOrCompute(() -> encoding.decode(context, getBody(), encodingId));
     }
 
     @Nullable
@@ -169,6 +217,26 @@ public final class ExtensionObject {
         return encodeDefaultBinary(context, struct, encodingId);
     }
 
+    /**
+     * Create an ExtensionObject whose Default Binary body is {@code struct}, encoded only when needed.
+     * <p>
+     * When the ExtensionObject is written by a binary encoder the structure is encoded directly into the
+     * destination, saving the intermediate buffer and copy {@link #encode(SerializationContext, UaStructure)} makes.
+     * Encoding errors surface when the ExtensionObject is written or its body is first requested, so {@code struct}
+     * must not be modified afterwards.
+     *
+     * @param context the {@link SerializationContext} to encode {@link #getBody()} with.
+     * @param struct  the {@link UaStructure} to encode.
+     * @return an ExtensionObject whose body is the Default Binary encoding of {@code struct}.
+     */
+    public static ExtensionObject encodeDeferred(
+        SerializationContext context,
+        UaStructure struct
+    ) {
+
+        return new ExtensionObject(context, struct);
+    }
+
     public static ExtensionObject encodeDefaultBinary(
         SerializationContext context,
         Object object,
@@ -228,19 +296,19 @@ public final class ExtensionObject {
 
         ExtensionObject that = (ExtensionObject) o;
 
-        return Objects.equal(body, that.body) &&
+        return Objects.equal(getBody(), that.getBody()) &&
             Objects.equal(encodingId, that.encodingId);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(body, encodingId);
+        return Objects.hashCode(getBody(), encodingId);
     }
 
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
-            .add("encoded", body)
+            .add("encoded", struct != null ? struct : body)
             .add("encodingId", encodingId)
             .toString();
     }
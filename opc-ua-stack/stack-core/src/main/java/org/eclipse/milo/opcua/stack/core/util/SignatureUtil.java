@@ -124,6 +124,49 @@ public class SignatureUtil {
         }
     }
 
+    /**
+     * Create a {@link Mac} initialized with {@code secretKey}.
+     * <p>
+     * The {@link Mac} resets after each {@link #hmac(Mac, ByteBuffer...)}, so it can compute any number of HMACs
+     * with the same key without being initialized again.
+     *
+     * @param securityAlgorithm the {@link SecurityAlgorithm} that provides the transformation for
+     *                          {@link Mac#getInstance(String)}}.
+     * @param secretKey         the secret key.
+     * @return an initialized {@link Mac}.
+     * @throws UaException if the {@link Mac} can't be created or initialized.
+     */
+    public static Mac newHmac(SecurityAlgorithm securityAlgorithm, byte[] secretKey) throws UaException {
+        String transformation = securityAlgorithm.getTransformation();
+
+        try {
+            Mac mac = Mac.getInstance(transformation);
+
+            mac.init(new SecretKeySpec(secretKey, transformation));
+
+            return mac;
+        } catch (NoSuchAlgorithmException e) {
+            throw new UaException(StatusCodes.Bad_InternalError, e);
+        } catch (GeneralSecurityException e) {
+            throw new UaException(StatusCodes.Bad_SecurityChecksFailed, e);
+        }
+    }
+
+    /**
+     * Compute the HMAC of the provided buffers using a {@link Mac} from {@link #newHmac(SecurityAlgorithm, byte[])}.
+     *
+     * @param mac     the initialized {@link Mac}.
+     * @param buffers the buffers to use.
+     * @return the computed HMAC.
+     */
+    public static byte[] hmac(Mac mac, ByteBuffer... buffers) {
+        for (ByteBuffer buffer : buffers) {
+            mac.update(buffer);
+        }
+
+        return mac.doFinal();
+    }
+
     private static final ThreadLocal<Map<String, Mac>> MAC_INSTANCES = new ThreadLocal<>();
 
     private static Mac getMacInstance(String transformation) throws NoSuchAlgorithmException {
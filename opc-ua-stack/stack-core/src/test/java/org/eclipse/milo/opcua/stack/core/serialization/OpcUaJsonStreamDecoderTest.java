@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2019 the Eclipse Milo Authors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.milo.opcua.stack.core.serialization;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.eclipse.milo.opcua.stack.core.Identifiers;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.UaSerializationException;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ExpandedNodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
+import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
+import org.eclipse.milo.opcua.stack.core.types.structured.Argument;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadResponse;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
+import org.eclipse.milo.opcua.stack.core.types.structured.RequestHeader;
+import org.eclipse.milo.opcua.stack.core.types.structured.ResponseHeader;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.ulong;
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.ushort;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class OpcUaJsonStreamDecoderTest {
+
+    private final SerializationContext context = new TestSerializationContext();
+
+    @DataProvider
+    public Object[][] getVariants() {
+        return new Object[][]{
+            {Variant.NULL_VALUE},
+            {new Variant(true)},
+            {new Variant((byte) -1)},
+            {new Variant(Integer.MAX_VALUE)},
+            {new Variant(Long.MIN_VALUE)},
+            {new Variant(ulong(Long.MAX_VALUE).add(ulong(1)))},
+            {new Variant(Double.NaN)},
+            {new Variant(Float.NEGATIVE_INFINITY)},
+            {new Variant("hello, world")},
+            {new Variant(new DateTime())},
+            {new Variant(UUID.randomUUID())},
+            {new Variant(ByteString.of(new byte[]{1, 2, 3}))},
+            {new Variant(new NodeId(2, "foo"))},
+            {new Variant(new NodeId(0, UUID.randomUUID()))},
+            {new Variant(new ExpandedNodeId(ushort(0), uint(42), "urn:test", 1))},
+            {new Variant(new StatusCode(StatusCodes.Bad_NodeIdUnknown))},
+            {new Variant(new QualifiedName(1, "bar"))},
+            {new Variant(LocalizedText.english("baz"))},
+            {new Variant(new Integer[]{1, 2, 3})},
+            {new Variant(new String[]{"a", null, "c"})},
+            {new Variant(new Integer[][]{{1, 2, 3}, {4, 5, 6}})},
+            {new Variant(new NodeId[]{Identifiers.Server, new NodeId(1, "x")})},
+            {new Variant(new Variant[]{new Variant(1), new Variant("two")})}
+        };
+    }
+
+    @Test(dataProvider = "getVariants")
+    public void testVariantRoundTrip(Variant variant) {
+        String json = encode(e -> e.writeVariant(null, variant));
+
+        Variant decoded = decoder(json).readVariant(null);
+
+        assertEquals(decoded, variant, json);
+    }
+
+    @Test
+    public void testExtensionObjectRoundTrip() {
+        Argument argument = new Argument(
+            "Arg",
+            Identifiers.Double,
+            -1,
+            null,
+            LocalizedText.english("an argument")
+        );
+
+        ExtensionObject xo = ExtensionObject.encode(context, argument);
+
+        String json = encode(e -> e.writeExtensionObject(null, xo));
+
+        ExtensionObject decoded = decoder(json).readExtensionObject(null);
+
+        assertEquals(decoded.getEncodingId(), xo.getEncodingId());
+        assertEquals(decoded.getBody(), xo.getBody());
+    }
+
+    @Test
+    public void testMessageRoundTrip() {
+        ReadRequest request = new ReadRequest(
+            new RequestHeader(NodeId.NULL_VALUE, DateTime.now(), uint(7), uint(0), null, uint(5000), null),
+            0.0,
+            TimestampsToReturn.Both,
+            new ReadValueId[]{
+                new ReadValueId(Identifiers.Server_ServerStatus_State, uint(13), null, QualifiedName.NULL_VALUE)
+            }
+        );
+
+        String json = encode(e -> e.writeMessage(null, request));
+
+        ReadRequest decodedRequest = (ReadRequest) decoder(json).readMessage(null);
+
+        assertEquals(decodedRequest.getRequestHeader().getRequestHandle(), uint(7));
+        assertEquals(decodedRequest.getTimestampsToReturn(), TimestampsToReturn.Both);
+        assertEquals(decodedRequest.getNodesToRead()[0].getNodeId(), Identifiers.Server_ServerStatus_State);
+        assertEquals(decodedRequest.getNodesToRead()[0].getAttributeId(), uint(13));
+
+        ReadResponse response = new ReadResponse(
+            new ResponseHeader(DateTime.now(), uint(7), StatusCode.GOOD, null, null, null),
+            new DataValue[]{new DataValue(new Variant(0), StatusCode.GOOD, DateTime.now())},
+            null
+        );
+
+        json = encode(e -> e.writeMessage(null, response));
+
+        ReadResponse decodedResponse = (ReadResponse) decoder(json).readMessage(null);
+
+        assertEquals(decodedResponse.getResponseHeader().getRequestHandle(), uint(7));
+        assertEquals(decodedResponse.getResults(), response.getResults());
+    }
+
+    @Test
+    public void testFieldsOutOfOrderAndMissing() {
+        String json = "{\"Text\":\"text\",\"Unknown\":[1,{\"a\":2}],\"Locale\":\"en\"}";
+
+        assertEquals(decoder(json).readLocalizedText(null), new LocalizedText("en", "text"));
+
+        json = "{\"Id\":\"foo\",\"Namespace\":2,\"IdType\":1}";
+
+        assertEquals(decoder(json).readNodeId(null), new NodeId(2, "foo"));
+
+        json = "{\"Value\":{\"Type\":6,\"Body\":42}}";
+
+        DataValue value = decoder(json).readDataValue(null);
+
+        assertEquals(value.getValue(), new Variant(42));
+        assertEquals(value.getStatusCode(), StatusCode.GOOD);
+        assertEquals(value.getSourceTime(), DateTime.MIN_VALUE);
+    }
+
+    @Test
+    public void testMalformedInput() {
+        try {
+            decoder("{\"Type\":6,\"Body\":\"not a number\"}").readVariant(null);
+            fail("expected UaSerializationException");
+        } catch (UaSerializationException e) {
+            assertEquals(e.getStatusCode().getValue(), StatusCodes.Bad_DecodingError);
+        }
+
+        try {
+            decoder("{\"Type\":6,\"Body\":").readVariant(null);
+            fail("expected UaSerializationException");
+        } catch (UaSerializationException e) {
+            assertTrue(e.getStatusCode().isBad());
+        }
+    }
+
+    private String encode(Consumer<OpcUaJsonStreamEncoder> consumer) {
+        StringWriter writer = new StringWriter();
+
+        consumer.accept(new OpcUaJsonStreamEncoder(context).setWriter(writer));
+
+        return writer.toString();
+    }
+
+    private OpcUaJsonStreamDecoder decoder(String json) {
+        return new OpcUaJsonStreamDecoder(context).setReader(new StringReader(json));
+    }
+
+}
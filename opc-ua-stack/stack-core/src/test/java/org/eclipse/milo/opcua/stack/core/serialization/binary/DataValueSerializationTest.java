@@ -42,6 +42,23 @@ public class DataValueSerializationTest {
         assertEquals(decodedValue, value);
     }
 
+    @Test(dataProvider = "getValues")
+    public void testSkipDataValue(DataValue value) {
+        ByteBuf buffer = BufferUtil.pooledBuffer();
+        encoder.setBuffer(buffer);
+        encoder.writeDataValue(value);
+        encoder.writeDataValue(value);
+
+        decoder.setBuffer(buffer);
+        decoder.skipDataValue();
+        DataValue decodedValue = decoder.readDataValue();
+
+        assertEquals(decodedValue, value);
+        assertEquals(buffer.readableBytes(), 0);
+
+        buffer.release();
+    }
+
     @DataProvider
     public Object[][] getValues() {
         return new Object[][]{
@@ -10,13 +10,22 @@
 
 package org.eclipse.milo.opcua.stack.core.serialization.binary;
 
+import org.eclipse.milo.opcua.stack.core.Identifiers;
+import org.eclipse.milo.opcua.stack.core.serialization.TestSerializationContext;
 import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
 import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
+import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
 import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
 import org.eclipse.milo.opcua.stack.core.types.builtin.XmlElement;
+import org.eclipse.milo.opcua.stack.core.types.structured.Argument;
+import org.eclipse.milo.opcua.stack.core.types.structured.DataChangeNotification;
+import org.eclipse.milo.opcua.stack.core.types.structured.MonitoredItemNotification;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
 import static org.testng.Assert.assertEquals;
 
 public class ExtensionObjectSerializationTest extends BinarySerializationFixture {
@@ -37,4 +46,49 @@ public class ExtensionObjectSerializationTest extends BinarySerializationFixture
         assertEquals(decoded, xo);
     }
 
+    @Test(description = "Deferred ExtensionObject is encoded inline, identically to an eagerly encoded one.")
+    public void testDeferredExtensionObject() throws Exception {
+        TestSerializationContext context = new TestSerializationContext();
+
+        DataChangeNotification notification = new DataChangeNotification(
+            new MonitoredItemNotification[]{
+                new MonitoredItemNotification(uint(1), new DataValue(new Variant(42))),
+                new MonitoredItemNotification(uint(2), new DataValue(new Variant("foo")))
+            },
+            null
+        );
+
+        ExtensionObject eager = ExtensionObject.encode(context, notification);
+        ExtensionObject deferred = ExtensionObject.encodeDeferred(context, notification);
+
+        writer.writeExtensionObject(deferred);
+        byte[] deferredBytes = new byte[buffer.readableBytes()];
+        buffer.getBytes(0, deferredBytes);
+
+        ExtensionObject decoded = reader.readExtensionObject();
+        assertEquals(decoded, eager);
+        assertEquals(deferred, eager);
+        assertEquals(deferred.decode(context), notification);
+
+        buffer.clear();
+        writer.writeExtensionObject(eager);
+        byte[] eagerBytes = new byte[buffer.readableBytes()];
+        buffer.getBytes(0, eagerBytes);
+
+        assertEquals(deferredBytes, eagerBytes);
+    }
+
+    @Test(description = "Structure in a Variant is encoded the same as an ExtensionObject in a Variant.")
+    public void testStructureInVariant() throws Exception {
+        Argument argument = new Argument(
+            "arg", Identifiers.Int32, -1, null, LocalizedText.english("description"));
+
+        writer.writeVariant(new Variant(new Argument[]{argument, argument}));
+        Variant decoded = reader.readVariant();
+
+        ExtensionObject xo = ExtensionObject.encode(new TestSerializationContext(), argument);
+
+        assertEquals(decoded, new Variant(new ExtensionObject[]{xo, xo}));
+    }
+
 }
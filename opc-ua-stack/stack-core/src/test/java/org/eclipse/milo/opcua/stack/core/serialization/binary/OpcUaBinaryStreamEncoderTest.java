@@ -10,14 +10,24 @@
 
 package org.eclipse.milo.opcua.stack.core.serialization.binary;
 
+import java.util.function.Consumer;
+
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
+import org.eclipse.milo.opcua.stack.core.Identifiers;
 import org.eclipse.milo.opcua.stack.core.serialization.OpcUaBinaryStreamEncoder;
 import org.eclipse.milo.opcua.stack.core.serialization.TestSerializationContext;
+import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.structured.Argument;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 public class OpcUaBinaryStreamEncoderTest {
 
@@ -78,4 +88,63 @@ public class OpcUaBinaryStreamEncoderTest {
         }
     }
 
+    @Test
+    public void testFlushBetweenArrayElements() throws Exception {
+        String[] values = new String[100];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = "value" + i;
+        }
+
+        assertFlushedEncoding(w -> w.writeStringArray(null, values));
+    }
+
+    @Test
+    public void testNoFlushInsideExtensionObject() throws Exception {
+        UInteger[] arrayDimensions = new UInteger[100];
+        for (int i = 0; i < arrayDimensions.length; i++) {
+            arrayDimensions[i] = uint(i);
+        }
+
+        Argument[] arguments = new Argument[10];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = new Argument(
+                "argument" + i,
+                Identifiers.UInt32,
+                1,
+                arrayDimensions,
+                LocalizedText.english("argument" + i)
+            );
+        }
+
+        // Each Argument is written as an ExtensionObject whose length is back-patched after its arrayDimensions.
+        assertFlushedEncoding(w -> w.writeVariant(new Variant(arguments)));
+    }
+
+    /**
+     * Assert that encoding with a {@link OpcUaBinaryStreamEncoder.FlushHandler} that consumes and discards
+     * everything it is offered produces the same bytes as encoding without one.
+     */
+    private static void assertFlushedEncoding(Consumer<OpcUaBinaryStreamEncoder> write) {
+        ByteBuf expected = Unpooled.buffer();
+        write.accept(new OpcUaBinaryStreamEncoder(new TestSerializationContext()).setBuffer(expected));
+
+        ByteBuf flushed = Unpooled.buffer();
+        ByteBuf buffer = Unpooled.buffer();
+        int[] flushes = new int[1];
+
+        OpcUaBinaryStreamEncoder writer = new OpcUaBinaryStreamEncoder(new TestSerializationContext())
+            .setBuffer(buffer)
+            .setFlushHandler(64, b -> {
+                flushes[0]++;
+                flushed.writeBytes(b);
+                b.discardReadBytes();
+            });
+
+        write.accept(writer);
+        flushed.writeBytes(buffer);
+
+        assertTrue(flushes[0] > 1);
+        assertEquals(ByteBufUtil.hexDump(flushed), ByteBufUtil.hexDump(expected));
+    }
+
 }
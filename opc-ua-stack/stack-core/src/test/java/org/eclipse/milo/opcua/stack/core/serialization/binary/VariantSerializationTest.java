@@ -10,13 +10,24 @@
 
 package org.eclipse.milo.opcua.stack.core.serialization.binary;
 
+import java.util.UUID;
+
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import org.eclipse.milo.opcua.stack.core.BuiltinDataType;
+import org.eclipse.milo.opcua.stack.core.UaSerializationException;
 import org.eclipse.milo.opcua.stack.core.serialization.OpcUaBinaryStreamDecoder;
 import org.eclipse.milo.opcua.stack.core.serialization.TestSerializationContext;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ExpandedNodeId;
 import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
+import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
 import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.builtin.XmlElement;
 import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
 import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned;
 import org.eclipse.milo.opcua.stack.core.types.structured.ServiceCounterDataType;
@@ -82,7 +93,31 @@ public class VariantSerializationTest extends BinarySerializationFixture {
                 new Variant(new Long[]{0L, 1L, 2L, 3L})},
 
             {new Variant(new long[][]{{0L, 1L}, {2L, 3L}}),
-                new Variant(new Long[][]{{0L, 1L}, {2L, 3L}})}
+                new Variant(new Long[][]{{0L, 1L}, {2L, 3L}})},
+
+            {new Variant(new double[]{0.0, 1.5, -2.25, Double.NaN}),
+                new Variant(new Double[]{0.0, 1.5, -2.25, Double.NaN})},
+
+            {new Variant(new double[][][]{{{0.0, 1.0}, {2.0, 3.0}}, {{4.0, 5.0}, {6.0, 7.0}}}),
+                new Variant(new Double[][][]{{{0.0, 1.0}, {2.0, 3.0}}, {{4.0, 5.0}, {6.0, 7.0}}})},
+
+            {new Variant(new float[]{0.0f, 1.5f, -2.25f}),
+                new Variant(new Float[]{0.0f, 1.5f, -2.25f})},
+
+            {new Variant(new short[]{0, -1, Short.MAX_VALUE}),
+                new Variant(new Short[]{0, -1, Short.MAX_VALUE})},
+
+            {new Variant(new byte[]{0, -1, Byte.MAX_VALUE}),
+                new Variant(new Byte[]{0, -1, Byte.MAX_VALUE})},
+
+            {new Variant(new boolean[]{true, false, true}),
+                new Variant(new Boolean[]{true, false, true})},
+
+            {new Variant(new Double[]{1.0, null, 3.0}),
+                new Variant(new Double[]{1.0, 0.0, 3.0})},
+
+            {new Variant(new Integer[]{1, null, 3}),
+                new Variant(new Integer[]{1, 0, 3})}
         };
     }
 
@@ -95,6 +130,47 @@ public class VariantSerializationTest extends BinarySerializationFixture {
         assertEquals(decoded, expected);
     }
 
+    @DataProvider(name = "DecodePrimitiveArrayVariantProvider")
+    public Object[][] getDecodePrimitiveArrayVariants() {
+        return new Object[][]{
+            {new Variant(new Integer[]{0, 1, 2, 3}),
+                new Variant(new int[]{0, 1, 2, 3})},
+
+            {new Variant(new Double[][]{{0.0, 1.0}, {2.0, 3.0}}),
+                new Variant(new double[][]{{0.0, 1.0}, {2.0, 3.0}})},
+
+            {new Variant(new float[]{0.0f, 1.5f}),
+                new Variant(new float[]{0.0f, 1.5f})},
+
+            {new Variant(new Boolean[]{true, false}),
+                new Variant(new boolean[]{true, false})},
+
+            {new Variant(new UInteger[]{Unsigned.uint(0), Unsigned.uint(1)}),
+                new Variant(new UInteger[]{Unsigned.uint(0), Unsigned.uint(1)})}
+        };
+    }
+
+    @Test(dataProvider = "DecodePrimitiveArrayVariantProvider",
+        description = "Test that arrays decode as primitive arrays when the decoder is configured to do so.")
+    public void testDecodePrimitiveArrayVariant(Variant variant, Variant expected) {
+        reader.setPrimitiveArrays(true);
+
+        writer.writeVariant(variant);
+        Variant decoded = reader.readVariant();
+
+        assertEquals(decoded, expected);
+    }
+
+    @Test(expectedExceptions = UaSerializationException.class,
+        description = "Test that an array length exceeding the readable bytes fails without allocating the array.")
+    public void testTruncatedPrimitiveArray() {
+        buffer.writeByte(BuiltinDataType.Double.getTypeId() | (1 << 7));
+        buffer.writeIntLE(1000);
+        buffer.writeDoubleLE(1.0);
+
+        reader.readVariant();
+    }
+
     @Test(description = "Test that a Variant containing a null array encoded with a negative array size to indicate a null value decodes properly.")
     public void testNullArrayEncodedWithNegativeArraySize() {
         ByteBuf buffer = Unpooled.buffer();
@@ -111,4 +187,49 @@ public class VariantSerializationTest extends BinarySerializationFixture {
         assertNull(v.getValue());
     }
 
+    @DataProvider(name = "SkipVariantProvider")
+    public Object[][] getSkipVariants() {
+        return new Object[][]{
+            {new Variant(null)},
+            {new Variant(true)},
+            {new Variant((byte) 1)},
+            {new Variant((short) 2)},
+            {new Variant(42L)},
+            {new Variant(3.14d)},
+            {new Variant("hello, world")},
+            {new Variant(DateTime.now())},
+            {new Variant(UUID.randomUUID())},
+            {new Variant(ByteString.of(new byte[]{1, 2, 3}))},
+            {new Variant(new XmlElement("<a/>"))},
+            {new Variant(new NodeId(0, 42))},
+            {new Variant(new NodeId(1, 300))},
+            {new Variant(new NodeId(2, 70000))},
+            {new Variant(new NodeId(2, "foo"))},
+            {new Variant(new NodeId(2, UUID.randomUUID()))},
+            {new Variant(new NodeId(2, ByteString.of(new byte[]{4, 5})))},
+            {new Variant(new ExpandedNodeId(0, "bar", "urn:test", 1))},
+            {new Variant(new StatusCode(0x80000000L))},
+            {new Variant(new QualifiedName(1, "name"))},
+            {new Variant(LocalizedText.english("text"))},
+            {new Variant(ExtensionObject.encode(
+                new TestSerializationContext(),
+                new ServiceCounterDataType(Unsigned.uint(1), Unsigned.uint(2))))},
+            {new Variant(new String[]{"a", null, "c"})},
+            {new Variant(new Double[][]{{0.0, 1.0}, {2.0, 3.0}})},
+            {new Variant(new Variant[]{new Variant(0), new Variant("one")})}
+        };
+    }
+
+    @Test(dataProvider = "SkipVariantProvider")
+    public void testSkipVariant(Variant variant) {
+        writer.writeVariant(variant);
+        writer.writeVariant(variant);
+
+        reader.skipVariant();
+        Variant decoded = reader.readVariant();
+
+        assertEquals(decoded, variant);
+        assertEquals(buffer.readableBytes(), 0);
+    }
+
 }
@@ -261,9 +261,7 @@ public class EndpointConfiguration {
 
             switch (transportProfile) {
                 case HTTPS_UAXML:
-                case HTTPS_UAJSON:
                 case WSS_UASC_UABINARY:
-                case WSS_UAJSON:
                     throw new IllegalArgumentException(
                         "unsupported transport: " + transportProfile);
 
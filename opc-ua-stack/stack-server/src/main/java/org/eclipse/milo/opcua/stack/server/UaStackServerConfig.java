@@ -22,6 +22,7 @@ import org.eclipse.milo.opcua.stack.core.security.CertificateManager;
 import org.eclipse.milo.opcua.stack.core.security.CertificateValidator;
 import org.eclipse.milo.opcua.stack.core.security.TrustListManager;
 import org.eclipse.milo.opcua.stack.core.serialization.EncodingLimits;
+import org.eclipse.milo.opcua.stack.core.transport.NettyTransport;
 import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
 import org.eclipse.milo.opcua.stack.core.types.structured.ApplicationDescription;
 
@@ -101,6 +102,17 @@ public interface UaStackServerConfig {
      */
     ExecutorService getExecutor();
 
+    /**
+     * Get the Netty transport the server binds its endpoints with.
+     * <p>
+     * If the transport is not available on this platform the server falls back to {@link NettyTransport#NIO}.
+     *
+     * @return the {@link NettyTransport} the server binds its endpoints with.
+     */
+    default NettyTransport getTransport() {
+        return NettyTransport.NIO;
+    }
+
     /**
      * @return a new {@link UaStackServerConfigBuilder}.
      */
@@ -132,6 +144,7 @@ public interface UaStackServerConfig {
         builder.setHttpsKeyPair(config.getHttpsKeyPair().orElse(null));
         builder.setHttpsCertificate(config.getHttpsCertificate().orElse(null));
         builder.setExecutor(config.getExecutor());
+        builder.setTransport(config.getTransport());
 
         return builder;
     }
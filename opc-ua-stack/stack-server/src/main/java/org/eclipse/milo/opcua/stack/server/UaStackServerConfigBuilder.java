@@ -24,6 +24,7 @@ import org.eclipse.milo.opcua.stack.core.security.CertificateManager;
 import org.eclipse.milo.opcua.stack.core.security.CertificateValidator;
 import org.eclipse.milo.opcua.stack.core.security.TrustListManager;
 import org.eclipse.milo.opcua.stack.core.serialization.EncodingLimits;
+import org.eclipse.milo.opcua.stack.core.transport.NettyTransport;
 import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
 
 public class UaStackServerConfigBuilder {
@@ -49,6 +50,8 @@ public class UaStackServerConfigBuilder {
 
     private ExecutorService executor;
 
+    private NettyTransport transport = NettyTransport.NIO;
+
     public UaStackServerConfigBuilder setEndpoints(Set<EndpointConfiguration> endpointConfigurations) {
         this.endpoints = endpointConfigurations;
         return this;
@@ -109,6 +112,11 @@ public class UaStackServerConfigBuilder {
         return this;
     }
 
+    public UaStackServerConfigBuilder setTransport(NettyTransport transport) {
+        this.transport = transport;
+        return this;
+    }
+
     public UaStackServerConfig build() {
         if (executor == null) {
             executor = Stack.sharedExecutor();
@@ -126,7 +134,8 @@ public class UaStackServerConfigBuilder {
             certificateValidator,
             httpsKeyPair,
             httpsCertificate,
-            executor
+            executor,
+            transport
         );
     }
 
@@ -151,6 +160,8 @@ public class UaStackServerConfigBuilder {
 
         private final ExecutorService executor;
 
+        private final NettyTransport transport;
+
         UaStackServerConfigImpl(
             Set<EndpointConfiguration> endpointConfigurations,
             LocalizedText applicationName,
@@ -163,7 +174,8 @@ public class UaStackServerConfigBuilder {
             CertificateValidator certificateValidator,
             @Nullable KeyPair httpsKeyPair,
             @Nullable X509Certificate httpsCertificate,
-            ExecutorService executor) {
+            ExecutorService executor,
+            NettyTransport transport) {
 
             this.endpointConfigurations = endpointConfigurations;
             this.applicationName = applicationName;
@@ -177,6 +189,7 @@ public class UaStackServerConfigBuilder {
             this.httpsKeyPair = httpsKeyPair;
             this.httpsCertificate = httpsCertificate;
             this.executor = executor;
+            this.transport = transport;
         }
 
         @Override
@@ -239,6 +252,11 @@ public class UaStackServerConfigBuilder {
             return executor;
         }
 
+        @Override
+        public NettyTransport getTransport() {
+            return transport;
+        }
+
     }
 
 }
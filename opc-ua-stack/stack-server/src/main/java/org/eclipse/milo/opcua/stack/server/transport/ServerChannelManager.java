@@ -11,6 +11,8 @@
 package org.eclipse.milo.opcua.stack.server.transport;
 
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
@@ -23,12 +25,14 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
+import io.netty.channel.epoll.EpollChannelOption;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.logging.LoggingHandler;
 import org.eclipse.milo.opcua.stack.core.Stack;
+import org.eclipse.milo.opcua.stack.core.transport.NettyTransport;
 import org.eclipse.milo.opcua.stack.core.transport.TransportProfile;
 import org.eclipse.milo.opcua.stack.core.util.AsyncSemaphore;
+import org.eclipse.milo.opcua.stack.core.util.FutureUtils;
 import org.eclipse.milo.opcua.stack.core.util.Unit;
 import org.eclipse.milo.opcua.stack.server.EndpointConfiguration;
 import org.eclipse.milo.opcua.stack.server.UaStackServer;
@@ -44,7 +48,7 @@ public class ServerChannelManager {
     private final AsyncSemaphore semaphore = new AsyncSemaphore(1);
 
     private final Multiset<InetSocketAddress> addresses = ConcurrentHashMultiset.create();
-    private final Map<InetSocketAddress, Channel> channels = Maps.newConcurrentMap();
+    private final Map<InetSocketAddress, List<Channel>> channels = Maps.newConcurrentMap();
 
     private final UaStackServer stackServer;
 
@@ -68,16 +72,16 @@ public class ServerChannelManager {
             } else {
                 logger.debug("binding to {}", bindAddress);
 
-                CompletableFuture<Channel> bootstrap = bootstrap(
+                CompletableFuture<List<Channel>> bootstrap = bootstrap(
                     stackServer,
                     bindAddress,
                     endpoint.getTransportProfile()
                 );
 
-                return bootstrap.whenComplete((channel, ex) -> {
-                    if (channel != null) {
+                return bootstrap.whenComplete((boundChannels, ex) -> {
+                    if (boundChannels != null) {
                         addresses.add(bindAddress);
-                        channels.put(bindAddress, channel);
+                        channels.put(bindAddress, boundChannels);
                         future.complete(Unit.VALUE);
                     } else {
                         future.completeExceptionally(ex);
@@ -103,10 +107,10 @@ public class ServerChannelManager {
             if (addresses.remove(bindAddress, 1) == 1) {
                 logger.debug("unbinding from {}", bindAddress);
 
-                Channel channel = channels.remove(bindAddress);
+                List<Channel> boundChannels = channels.remove(bindAddress);
 
-                if (channel != null) {
-                    channel.close();
+                if (boundChannels != null) {
+                    boundChannels.forEach(Channel::close);
                 }
             }
 
@@ -116,7 +120,14 @@ public class ServerChannelManager {
         return future;
     }
 
-    private static CompletableFuture<Channel> bootstrap(
+    /**
+     * Bind a server channel to {@code bindAddress}.
+     * <p>
+     * With the {@link NettyTransport#EPOLL} transport
+     * {@link Stack.ConnectionLimits#REUSE_PORT_BIND_COUNT} channels are bound with {@code SO_REUSEPORT}, each
+     * accepting connections on its own event loop thread.
+     */
+    private static CompletableFuture<List<Channel>> bootstrap(
         UaStackServer stackServer,
         InetSocketAddress bindAddress,
         TransportProfile transportProfile) {
@@ -129,28 +140,51 @@ public class ServerChannelManager {
             initializer = new OpcServerHttpChannelInitializer(stackServer);
         }
 
+        NettyTransport transport = stackServer.getConfig().getTransport().resolve();
+
         ServerBootstrap bootstrap = new ServerBootstrap();
 
-        bootstrap.group(Stack.sharedEventLoop())
+        bootstrap.group(Stack.sharedEventLoop(transport))
             .handler(new LoggingHandler(ServerChannelManager.class))
-            .channel(NioServerSocketChannel.class)
+            .channel(transport.getServerSocketChannelClass())
             .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
             .childOption(ChannelOption.TCP_NODELAY, true)
             .childHandler(initializer);
 
-        CompletableFuture<Channel> channelFuture = new CompletableFuture<>();
+        int bindCount = 1;
 
-        bootstrap.bind(bindAddress).addListener((ChannelFutureListener) future -> {
-            if (future.isSuccess()) {
-                Channel channel = future.channel();
+        if (transport == NettyTransport.EPOLL) {
+            bindCount = Math.max(1, Stack.ConnectionLimits.REUSE_PORT_BIND_COUNT);
 
-                channelFuture.complete(channel);
-            } else {
-                channelFuture.completeExceptionally(future.cause());
+            if (bindCount > 1) {
+                bootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
             }
-        });
+        }
+
+        List<CompletableFuture<Channel>> channelFutures = new ArrayList<>(bindCount);
+
+        for (int i = 0; i < bindCount; i++) {
+            CompletableFuture<Channel> channelFuture = new CompletableFuture<>();
+
+            bootstrap.bind(bindAddress).addListener((ChannelFutureListener) future -> {
+                if (future.isSuccess()) {
+                    Channel channel = future.channel();
 
-        return channelFuture;
+                    channelFuture.complete(channel);
+                } else {
+                    channelFuture.completeExceptionally(future.cause());
+                }
+            });
+
+            channelFutures.add(channelFuture);
+        }
+
+        return FutureUtils.sequence(channelFutures).whenComplete((boundChannels, ex) -> {
+            if (boundChannels == null) {
+                // Don't leave some of the channels bound if any of them failed.
+                channelFutures.forEach(f -> f.thenAccept(Channel::close));
+            }
+        });
     }
 
 }
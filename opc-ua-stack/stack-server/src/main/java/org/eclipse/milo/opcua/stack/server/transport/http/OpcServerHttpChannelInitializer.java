@@ -155,7 +155,7 @@ public class OpcServerHttpChannelInitializer extends ChannelInitializer<SocketCh
                 ctx.channel().pipeline().addLast(new OpcServerWebSocketFrameHandler(stackServer));
 
                 httpRequest.retain();
-                ctx.executor().execute(() -> ctx.fireChannelRead(httpRequest));
+                ctx.executor().execute(() -> ctx.pipeline().fireChannelRead(httpRequest));
             } else if (Objects.equals(httpRequest.method(), HttpMethod.POST)) {
                 logger.debug("intercepted HTTP POST");
 
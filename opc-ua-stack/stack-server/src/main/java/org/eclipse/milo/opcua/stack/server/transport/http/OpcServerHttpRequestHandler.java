@@ -32,6 +32,11 @@ import org.eclipse.milo.opcua.stack.core.channel.ServerSecureChannel;
 import org.eclipse.milo.opcua.stack.core.security.SecurityPolicy;
 import org.eclipse.milo.opcua.stack.core.serialization.OpcUaBinaryStreamDecoder;
 import org.eclipse.milo.opcua.stack.core.serialization.OpcUaBinaryStreamEncoder;
+import org.eclipse.milo.opcua.stack.core.serialization.OpcUaJsonStreamDecoder;
+import org.eclipse.milo.opcua.stack.core.serialization.OpcUaJsonStreamEncoder;
+import org.eclipse.milo.opcua.stack.core.serialization.UaDecoder;
+import org.eclipse.milo.opcua.stack.core.serialization.UaEncoder;
+import org.eclipse.milo.opcua.stack.core.serialization.UaMessage;
 import org.eclipse.milo.opcua.stack.core.serialization.UaRequestMessage;
 import org.eclipse.milo.opcua.stack.core.serialization.UaResponseMessage;
 import org.eclipse.milo.opcua.stack.core.transport.TransportProfile;
@@ -56,6 +61,8 @@ public class OpcServerHttpRequestHandler extends SimpleChannelInboundHandler<Ful
     private static final String UABINARY_CONTENT_TYPE =
         HttpHeaderValues.APPLICATION_OCTET_STREAM.toString();
 
+    private static final String UAJSON_CONTENT_TYPE = "application/opcua+uajson";
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
     private final UaStackServer stackServer;
@@ -81,13 +88,14 @@ public class OpcServerHttpRequestHandler extends SimpleChannelInboundHandler<Ful
             MessageSecurityMode.None :
             MessageSecurityMode.Sign;
 
+        TransportProfile transportProfile = transportProfile(contentType);
+
         EndpointDescription endpoint = stackServer.getEndpointDescriptions()
             .stream()
             .filter(e -> {
-                // TODO use contentType to determine which TransportProfile to match
                 boolean transportMatch = Objects.equals(
                     e.getTransportProfileUri(),
-                    TransportProfile.HTTPS_UABINARY.getUri()
+                    transportProfile.getUri()
                 );
 
                 boolean pathMatch = Objects.equals(
@@ -136,10 +144,9 @@ public class OpcServerHttpRequestHandler extends SimpleChannelInboundHandler<Ful
 
         keyPair.ifPresent(secureChannel::setKeyPair);
 
-        OpcUaBinaryStreamDecoder decoder = new OpcUaBinaryStreamDecoder(stackServer.getSerializationContext());
-        decoder.setBuffer(httpRequest.content());
-
         try {
+            UaDecoder decoder = decoder(transportProfile, httpRequest.content());
+
             UaRequestMessage request = (UaRequestMessage) decoder.readMessage(null);
             UInteger requestHandle = request.getRequestHeader().getRequestHandle();
 
@@ -157,9 +164,9 @@ public class OpcServerHttpRequestHandler extends SimpleChannelInboundHandler<Ful
 
             serviceRequest.getFuture().whenComplete((response, fault) -> {
                 if (response != null) {
-                    sendServiceResponse(ctx, request, response);
+                    sendServiceResponse(ctx, transportProfile, request, response);
                 } else {
-                    sendServiceFault(ctx, requestHandle, fault);
+                    sendServiceFault(ctx, transportProfile, requestHandle, fault);
                 }
             });
 
@@ -167,37 +174,22 @@ public class OpcServerHttpRequestHandler extends SimpleChannelInboundHandler<Ful
         } catch (Throwable t) {
             logger.error("Error decoding UaRequestMessage", t);
 
-            sendServiceFault(ctx, null, t);
+            sendServiceFault(ctx, transportProfile, null, t);
         }
     }
 
     private void sendServiceResponse(
         ChannelHandlerContext ctx,
+        TransportProfile transportProfile,
         UaRequestMessage request,
         UaResponseMessage response) {
 
-        ByteBuf contentBuffer = BufferUtil.pooledBuffer();
-
-        // TODO switch on transport profile for binary vs xml encoding
-        OpcUaBinaryStreamEncoder binaryEncoder = new OpcUaBinaryStreamEncoder(stackServer.getSerializationContext());
-        binaryEncoder.setBuffer(contentBuffer);
-        binaryEncoder.writeMessage(null, response);
-
-        FullHttpResponse httpResponse = new DefaultFullHttpResponse(
-            HttpVersion.HTTP_1_1,
-            HttpResponseStatus.OK,
-            contentBuffer
-        );
-
-        httpResponse.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
-        httpResponse.headers().set(HttpHeaderNames.CONTENT_TYPE, UABINARY_CONTENT_TYPE);
-        httpResponse.headers().set(HttpHeaderNames.CONTENT_LENGTH, contentBuffer.readableBytes());
-
-        ctx.writeAndFlush(httpResponse);
+        sendMessage(ctx, transportProfile, response);
     }
 
     private void sendServiceFault(
         ChannelHandlerContext ctx,
+        TransportProfile transportProfile,
         UInteger requestHandle,
         Throwable fault) {
 
@@ -216,12 +208,18 @@ public class OpcServerHttpRequestHandler extends SimpleChannelInboundHandler<Ful
             )
         );
 
+        sendMessage(ctx, transportProfile, serviceFault);
+    }
+
+    private void sendMessage(ChannelHandlerContext ctx, TransportProfile transportProfile, UaMessage message) {
         ByteBuf contentBuffer = BufferUtil.pooledBuffer();
 
-        // TODO switch on transport profile for binary vs xml encoding
-        OpcUaBinaryStreamEncoder binaryEncoder = new OpcUaBinaryStreamEncoder(stackServer.getSerializationContext());
-        binaryEncoder.setBuffer(contentBuffer);
-        binaryEncoder.writeMessage(null, serviceFault);
+        try {
+            encoder(transportProfile, contentBuffer).writeMessage(null, message);
+        } catch (Throwable t) {
+            contentBuffer.release();
+            throw t;
+        }
 
         FullHttpResponse httpResponse = new DefaultFullHttpResponse(
             HttpVersion.HTTP_1_1,
@@ -229,11 +227,45 @@ public class OpcServerHttpRequestHandler extends SimpleChannelInboundHandler<Ful
             contentBuffer
         );
 
+        String contentType = transportProfile == TransportProfile.HTTPS_UAJSON ?
+            UAJSON_CONTENT_TYPE :
+            UABINARY_CONTENT_TYPE;
+
         httpResponse.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
-        httpResponse.headers().set(HttpHeaderNames.CONTENT_TYPE, UABINARY_CONTENT_TYPE);
+        httpResponse.headers().set(HttpHeaderNames.CONTENT_TYPE, contentType);
         httpResponse.headers().set(HttpHeaderNames.CONTENT_LENGTH, contentBuffer.readableBytes());
 
         ctx.writeAndFlush(httpResponse);
     }
 
+    private UaDecoder decoder(TransportProfile transportProfile, ByteBuf content) {
+        if (transportProfile == TransportProfile.HTTPS_UAJSON) {
+            return new OpcUaJsonStreamDecoder(stackServer.getSerializationContext()).setBuffer(content);
+        } else {
+            return new OpcUaBinaryStreamDecoder(stackServer.getSerializationContext()).setBuffer(content);
+        }
+    }
+
+    private UaEncoder encoder(TransportProfile transportProfile, ByteBuf content) {
+        if (transportProfile == TransportProfile.HTTPS_UAJSON) {
+            return new OpcUaJsonStreamEncoder(stackServer.getSerializationContext()).setBuffer(content);
+        } else {
+            return new OpcUaBinaryStreamEncoder(stackServer.getSerializationContext()).setBuffer(content);
+        }
+    }
+
+    /**
+     * Select the {@link TransportProfile} of a request from its Content-Type, compared case-insensitively; anything
+     * other than the UA JSON content type is treated as UA Binary.
+     */
+    private static TransportProfile transportProfile(String contentType) {
+        if (contentType != null &&
+            contentType.regionMatches(true, 0, UAJSON_CONTENT_TYPE, 0, UAJSON_CONTENT_TYPE.length())) {
+
+            return TransportProfile.HTTPS_UAJSON;
+        } else {
+            return TransportProfile.HTTPS_UABINARY;
+        }
+    }
+
 }
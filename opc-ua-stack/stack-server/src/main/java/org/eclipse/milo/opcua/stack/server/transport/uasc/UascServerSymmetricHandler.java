@@ -13,12 +13,14 @@ package org.eclipse.milo.opcua.stack.server.transport.uasc;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.CompositeByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import io.netty.util.ReferenceCountUtil;
+import org.eclipse.milo.opcua.stack.core.Stack;
 import org.eclipse.milo.opcua.stack.core.StatusCodes;
 import org.eclipse.milo.opcua.stack.core.UaException;
 import org.eclipse.milo.opcua.stack.core.UaSerializationException;
@@ -30,6 +32,7 @@ import org.eclipse.milo.opcua.stack.core.channel.SerializationQueue;
 import org.eclipse.milo.opcua.stack.core.channel.ServerSecureChannel;
 import org.eclipse.milo.opcua.stack.core.channel.headers.HeaderDecoder;
 import org.eclipse.milo.opcua.stack.core.channel.messages.MessageType;
+import org.eclipse.milo.opcua.stack.core.serialization.OpcUaBinaryStreamEncoder;
 import org.eclipse.milo.opcua.stack.core.serialization.UaRequestMessage;
 import org.eclipse.milo.opcua.stack.core.serialization.UaResponseMessage;
 import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
@@ -53,6 +56,11 @@ public class UascServerSymmetricHandler extends ByteToMessageDecoder implements
 
     private List<ByteBuf> chunkBuffers;
 
+    /**
+     * A response whose remaining chunks are waiting for the channel to become writable.
+     */
+    private final AtomicReference<ChunkEncoder.ChunkStream> pendingChunkStream = new AtomicReference<>();
+
     private final int maxChunkCount;
     private final int maxChunkSize;
 
@@ -221,13 +229,18 @@ public class UascServerSymmetricHandler extends ByteToMessageDecoder implements
         UaResponseMessage response) {
 
         serializationQueue.encode((binaryEncoder, chunkEncoder) -> {
+            if (Stack.ChunkStreamingLimits.STREAMING_ENABLED) {
+                streamServiceResponse(ctx, requestId, request, response, binaryEncoder, chunkEncoder);
+                return;
+            }
+
             ByteBuf messageBuffer = BufferUtil.pooledBuffer();
 
             try {
                 binaryEncoder.setBuffer(messageBuffer);
                 binaryEncoder.writeMessage(null, response);
 
-                checkMessageSize(messageBuffer);
+                checkMessageSize(messageBuffer.readableBytes());
 
                 chunkEncoder.encodeSymmetric(
                     secureChannel,
@@ -270,6 +283,191 @@ public class UascServerSymmetricHandler extends ByteToMessageDecoder implements
         });
     }
 
+    /**
+     * Encode {@code response} and write its chunks while it is being encoded, so the first chunk is on its way to the
+     * client before the rest of the response has been encoded.
+     * <p>
+     * Chunks are only written during encoding while the channel is writable; otherwise they stay in the message
+     * buffer and are written by {@link #writeChunks(ChannelHandlerContext, ChunkEncoder.ChunkStream)} once the
+     * response has been encoded. If encoding fails after chunks have been written the message is ended with an abort
+     * chunk, otherwise a ServiceFault is sent as usual.
+     * <p>
+     * Must be called from the encoding queue.
+     */
+    private void streamServiceResponse(
+        ChannelHandlerContext ctx,
+        long requestId,
+        UaRequestMessage request,
+        UaResponseMessage response,
+        OpcUaBinaryStreamEncoder binaryEncoder,
+        ChunkEncoder chunkEncoder) {
+
+        ByteBuf messageBuffer = BufferUtil.pooledBuffer();
+        ChunkEncoder.ChunkStream chunkStream = null;
+
+        try {
+            ChunkEncoder.ChunkStream stream = chunkStream = chunkEncoder.openSymmetricStream(
+                secureChannel,
+                requestId,
+                messageBuffer,
+                MessageType.SecureMessage
+            );
+
+            binaryEncoder
+                .setBuffer(messageBuffer)
+                .setFlushHandler(stream.getMaxBodySize() + 1, buffer -> flushChunks(ctx, stream, buffer));
+
+            binaryEncoder.writeMessage(null, response);
+
+            checkMessageSize(stream.getMessageSize());
+
+            stream.complete();
+        } catch (UaException | UaSerializationException ex) {
+            StatusCode statusCode = ex instanceof UaException ?
+                ((UaException) ex).getStatusCode() :
+                ((UaSerializationException) ex).getStatusCode();
+
+            logger.error("Error encoding response: {}", statusCode, ex);
+
+            if (chunkStream != null && chunkStream.getChunkCount() > 0) {
+                abortChunkStream(ctx, chunkStream, statusCode);
+            } else {
+                if (chunkStream != null) {
+                    chunkStream.release();
+                }
+
+                UInteger requestHandle = request.getRequestHeader().getRequestHandle();
+
+                sendServiceFault(ctx, requestId, requestHandle, new UaException(statusCode.getValue(), ex));
+            }
+            return;
+        } finally {
+            binaryEncoder.setFlushHandler(0, null);
+            messageBuffer.release();
+        }
+
+        writeChunks(ctx, chunkStream);
+    }
+
+    /**
+     * The {@link OpcUaBinaryStreamEncoder.FlushHandler} of a response being streamed: write the full chunks encoded
+     * so far, as long as the channel is writable, and discard their bytes from the message buffer.
+     */
+    private void flushChunks(
+        ChannelHandlerContext ctx,
+        ChunkEncoder.ChunkStream chunkStream,
+        ByteBuf messageBuffer) throws UaSerializationException {
+
+        checkMessageSize(chunkStream.getMessageSize());
+
+        try {
+            boolean written = false;
+
+            while (chunkStream.hasNext() && ctx.channel().isWritable()) {
+                ctx.write(chunkStream.next(), ctx.voidPromise());
+                written = true;
+            }
+
+            if (written) {
+                ctx.flush();
+            }
+        } catch (UaException ex) {
+            throw new UaSerializationException(ex.getStatusCode().getValue(), ex);
+        }
+
+        messageBuffer.discardSomeReadBytes();
+    }
+
+    /**
+     * End a response whose first chunks have already been written with an abort chunk.
+     */
+    private void abortChunkStream(
+        ChannelHandlerContext ctx,
+        ChunkEncoder.ChunkStream chunkStream,
+        StatusCode statusCode) {
+
+        try {
+            ByteBuf abortChunk = chunkStream.abort(statusCode.getValue(), "error encoding response");
+
+            ctx.writeAndFlush(abortChunk, ctx.voidPromise());
+        } catch (UaException ex) {
+            logger.error("Error encoding abort chunk: {}", ex.getMessage(), ex);
+
+            ctx.close();
+        }
+    }
+
+    /**
+     * Write chunks from {@code chunkStream} for as long as the channel is writable.
+     * <p>
+     * If the channel stops being writable before the last chunk is written the encoding queue is paused and the
+     * stream is parked until {@link #channelWritabilityChanged(ChannelHandlerContext)} resumes it, so a slow reader
+     * holds back the rest of the response instead of it piling up in the outbound buffer.
+     * <p>
+     * Must be called from the encoding queue.
+     */
+    private void writeChunks(ChannelHandlerContext ctx, ChunkEncoder.ChunkStream chunkStream) {
+        try {
+            while (chunkStream.hasNext()) {
+                if (!ctx.channel().isActive()) {
+                    chunkStream.release();
+                    return;
+                }
+
+                if (!ctx.channel().isWritable()) {
+                    serializationQueue.pauseEncoding();
+                    pendingChunkStream.set(chunkStream);
+
+                    ctx.flush();
+
+                    // Writability may have changed, or the channel closed, before the stream was parked.
+                    if (ctx.channel().isWritable() || !ctx.channel().isActive()) {
+                        resumeChunkStream(ctx);
+                    }
+                    return;
+                }
+
+                ctx.write(chunkStream.next(), ctx.voidPromise());
+            }
+
+            ctx.flush();
+        } catch (UaException ex) {
+            logger.error("Error encoding response chunk: {}", ex.getMessage(), ex);
+
+            chunkStream.release();
+
+            ctx.close();
+        }
+    }
+
+    private void resumeChunkStream(ChannelHandlerContext ctx) {
+        ChunkEncoder.ChunkStream chunkStream = pendingChunkStream.getAndSet(null);
+
+        if (chunkStream != null) {
+            serializationQueue.resumeEncoding((binaryEncoder, chunkEncoder) -> writeChunks(ctx, chunkStream));
+        }
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        if (ctx.channel().isWritable()) {
+            resumeChunkStream(ctx);
+        }
+
+        super.channelWritabilityChanged(ctx);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        ChunkEncoder.ChunkStream chunkStream = pendingChunkStream.getAndSet(null);
+
+        if (chunkStream != null) {
+            chunkStream.release();
+        }
+
+        super.channelInactive(ctx);
+    }
+
     private void sendServiceFault(
         ChannelHandlerContext ctx,
         long requestId,
@@ -298,7 +496,7 @@ public class UascServerSymmetricHandler extends ByteToMessageDecoder implements
                 binaryEncoder.setBuffer(messageBuffer);
                 binaryEncoder.writeMessage(null, serviceFault);
 
-                checkMessageSize(messageBuffer);
+                checkMessageSize(messageBuffer.readableBytes());
 
                 chunkEncoder.encodeSymmetric(
                     secureChannel,
@@ -333,8 +531,7 @@ public class UascServerSymmetricHandler extends ByteToMessageDecoder implements
         });
     }
 
-    private void checkMessageSize(ByteBuf messageBuffer) throws UaSerializationException {
-        int messageSize = messageBuffer.readableBytes();
+    private void checkMessageSize(long messageSize) throws UaSerializationException {
         int remoteMaxMessageSize = serializationQueue.getParameters().getRemoteMaxMessageSize();
 
         if (remoteMaxMessageSize > 0 && messageSize > remoteMaxMessageSize) {
@@ -10,20 +10,46 @@
 
 package org.eclipse.milo.opcua.stack.server.transport.websocket;
 
+import java.net.InetSocketAddress;
+import java.util.Objects;
+
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
 import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrameAggregator;
 import org.eclipse.milo.opcua.stack.core.Stack;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.UaException;
+import org.eclipse.milo.opcua.stack.core.security.SecurityPolicy;
+import org.eclipse.milo.opcua.stack.core.serialization.OpcUaJsonStreamDecoder;
+import org.eclipse.milo.opcua.stack.core.serialization.OpcUaJsonStreamEncoder;
+import org.eclipse.milo.opcua.stack.core.serialization.UaMessage;
+import org.eclipse.milo.opcua.stack.core.serialization.UaRequestMessage;
 import org.eclipse.milo.opcua.stack.core.transport.TransportProfile;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.MessageSecurityMode;
+import org.eclipse.milo.opcua.stack.core.types.structured.EndpointDescription;
+import org.eclipse.milo.opcua.stack.core.types.structured.ResponseHeader;
+import org.eclipse.milo.opcua.stack.core.types.structured.ServiceFault;
+import org.eclipse.milo.opcua.stack.core.util.EndpointUtil;
 import org.eclipse.milo.opcua.stack.server.UaStackServer;
+import org.eclipse.milo.opcua.stack.server.services.ServiceRequest;
 import org.eclipse.milo.opcua.stack.server.transport.uasc.UascServerHelloHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import static io.netty.handler.codec.http.websocketx.WebSocketServerProtocolHandler.HandshakeComplete;
 
 public class OpcServerWebSocketFrameHandler extends SimpleChannelInboundHandler<WebSocketFrame> {
 
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
     private String subprotocol;
+    private String path;
 
     private final UaStackServer stackServer;
 
@@ -37,6 +63,7 @@ public class OpcServerWebSocketFrameHandler extends SimpleChannelInboundHandler<
             HandshakeComplete handshake = (HandshakeComplete) event;
 
             subprotocol = handshake.selectedSubprotocol();
+            path = handshake.requestUri();
 
             if (Stack.WSS_PROTOCOL_BINARY.equalsIgnoreCase(subprotocol)) {
                 UascServerHelloHandler helloHandler = new UascServerHelloHandler(
@@ -45,6 +72,11 @@ public class OpcServerWebSocketFrameHandler extends SimpleChannelInboundHandler<
                 );
 
                 ctx.channel().pipeline().addLast(helloHandler);
+            } else if (Stack.WSS_PROTOCOL_JSON.equalsIgnoreCase(subprotocol)) {
+                // Each JSON message is a single logical frame, possibly split into continuation frames.
+                int maxMessageSize = stackServer.getConfig().getMessageLimits().getMaxMessageSize();
+
+                ctx.pipeline().addBefore(ctx.name(), null, new WebSocketFrameAggregator(maxMessageSize));
             } else {
                 throw new IllegalArgumentException("subprotocol: " + subprotocol);
             }
@@ -60,13 +92,120 @@ public class OpcServerWebSocketFrameHandler extends SimpleChannelInboundHandler<
 
             ctx.fireChannelRead(msg.content().retain());
         } else if (Stack.WSS_PROTOCOL_JSON.equalsIgnoreCase(subprotocol)) {
-            // TODO End of the pipeline; decode and deliver
-            String text = ((TextWebSocketFrame) msg).text();
-
-            throw new IllegalArgumentException("subprotocol: " + subprotocol);
+            // End of the pipeline; decode and deliver
+            onJsonMessage(ctx, msg.content());
         } else {
             ctx.close();
         }
     }
 
+    private void onJsonMessage(ChannelHandlerContext ctx, ByteBuf content) {
+        UInteger requestHandle = null;
+
+        try {
+            EndpointDescription endpoint = stackServer.getEndpointDescriptions()
+                .stream()
+                .filter(e -> {
+                    boolean transportMatch = Objects.equals(
+                        e.getTransportProfileUri(),
+                        TransportProfile.WSS_UAJSON.getUri()
+                    );
+
+                    boolean pathMatch = Objects.equals(
+                        EndpointUtil.getPath(e.getEndpointUrl()),
+                        path
+                    );
+
+                    // UA JSON over WebSockets has no secure channel; security comes from TLS.
+                    boolean securityPolicyMatch = Objects.equals(
+                        e.getSecurityPolicyUri(),
+                        SecurityPolicy.None.getUri()
+                    );
+
+                    boolean securityModeMatch = Objects.equals(
+                        e.getSecurityMode(),
+                        MessageSecurityMode.None
+                    );
+
+                    return transportMatch && pathMatch && securityPolicyMatch && securityModeMatch;
+                })
+                .findFirst()
+                .orElseThrow(() ->
+                    new UaException(
+                        StatusCodes.Bad_TcpEndpointUrlInvalid,
+                        "unrecognized endpoint uri: " + path));
+
+            OpcUaJsonStreamDecoder decoder = new OpcUaJsonStreamDecoder(stackServer.getSerializationContext());
+            decoder.setBuffer(content);
+
+            UaRequestMessage request = (UaRequestMessage) decoder.readMessage(null);
+            requestHandle = request.getRequestHeader().getRequestHandle();
+
+            InetSocketAddress remoteSocketAddress =
+                (InetSocketAddress) ctx.channel().remoteAddress();
+
+            ServiceRequest serviceRequest = new ServiceRequest(
+                stackServer,
+                request,
+                endpoint,
+                0L,
+                remoteSocketAddress.getAddress(),
+                null
+            );
+
+            UInteger handle = requestHandle;
+
+            serviceRequest.getFuture().whenComplete((response, fault) -> {
+                if (response != null) {
+                    sendMessage(ctx, response);
+                } else {
+                    sendServiceFault(ctx, handle, fault);
+                }
+            });
+
+            stackServer.onServiceRequest(path, serviceRequest);
+        } catch (Throwable t) {
+            logger.error("Error decoding UaRequestMessage", t);
+
+            sendServiceFault(ctx, requestHandle, t);
+        }
+    }
+
+    private void sendServiceFault(ChannelHandlerContext ctx, UInteger requestHandle, Throwable fault) {
+        StatusCode statusCode = UaException.extract(fault)
+            .map(UaException::getStatusCode)
+            .orElse(StatusCode.BAD);
+
+        ServiceFault serviceFault = new ServiceFault(
+            new ResponseHeader(
+                DateTime.now(),
+                requestHandle,
+                statusCode,
+                null,
+                null,
+                null
+            )
+        );
+
+        sendMessage(ctx, serviceFault);
+    }
+
+    private void sendMessage(ChannelHandlerContext ctx, UaMessage message) {
+        ByteBuf buffer = ctx.alloc().buffer();
+
+        try {
+            OpcUaJsonStreamEncoder encoder = new OpcUaJsonStreamEncoder(stackServer.getSerializationContext());
+            encoder.setBuffer(buffer);
+            encoder.writeMessage(null, message);
+        } catch (Throwable t) {
+            buffer.release();
+
+            logger.error("Error encoding {}", message.getClass().getSimpleName(), t);
+            ctx.close();
+            return;
+        }
+
+        ctx.writeAndFlush(new TextWebSocketFrame(buffer));
+    }
+
 }
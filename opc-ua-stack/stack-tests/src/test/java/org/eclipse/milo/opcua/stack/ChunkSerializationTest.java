@@ -18,6 +18,7 @@ import io.netty.buffer.ByteBuf;
 import io.netty.util.ReferenceCountUtil;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.eclipse.milo.opcua.stack.client.transport.uasc.ClientSecureChannel;
+import org.eclipse.milo.opcua.stack.core.Stack;
 import org.eclipse.milo.opcua.stack.core.UaException;
 import org.eclipse.milo.opcua.stack.core.channel.MessageLimits;
 import org.eclipse.milo.opcua.stack.core.channel.ChannelParameters;
@@ -323,4 +324,25 @@ public class ChunkSerializationTest extends SecureChannelFixture {
         }
     }
 
+    @Test(dataProvider = "getSymmetricSecurityParameters")
+    public void testSymmetricMessageParallel(SecurityPolicy securityPolicy,
+                                             MessageSecurityMode messageSecurity) throws Exception {
+
+        boolean parallelEnabled = Stack.ChunkCryptoLimits.PARALLEL_ENABLED;
+        int parallelMinChunkCount = Stack.ChunkCryptoLimits.PARALLEL_MIN_CHUNK_COUNT;
+        int maxParallelism = Stack.ChunkCryptoLimits.MAX_PARALLELISM;
+
+        Stack.ChunkCryptoLimits.PARALLEL_ENABLED = true;
+        Stack.ChunkCryptoLimits.PARALLEL_MIN_CHUNK_COUNT = 2;
+        Stack.ChunkCryptoLimits.MAX_PARALLELISM = 4;
+
+        try {
+            testSymmetricMessage(securityPolicy, messageSecurity);
+        } finally {
+            Stack.ChunkCryptoLimits.PARALLEL_ENABLED = parallelEnabled;
+            Stack.ChunkCryptoLimits.PARALLEL_MIN_CHUNK_COUNT = parallelMinChunkCount;
+            Stack.ChunkCryptoLimits.MAX_PARALLELISM = maxParallelism;
+        }
+    }
+
 }
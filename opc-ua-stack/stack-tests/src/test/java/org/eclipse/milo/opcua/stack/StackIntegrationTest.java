@@ -17,17 +17,29 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 
+import com.google.common.base.Strings;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.eclipse.milo.opcua.stack.client.DiscoveryClient;
 import org.eclipse.milo.opcua.stack.client.UaStackClient;
 import org.eclipse.milo.opcua.stack.client.UaStackClientConfig;
 import org.eclipse.milo.opcua.stack.client.UaStackClientConfigBuilder;
+import org.eclipse.milo.opcua.stack.core.Stack;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.channel.MessageAbortedException;
+import org.eclipse.milo.opcua.stack.core.channel.MessageLimits;
 import org.eclipse.milo.opcua.stack.core.security.SecurityPolicy;
+import org.eclipse.milo.opcua.stack.core.transport.NettyTransport;
 import org.eclipse.milo.opcua.stack.core.transport.TransportProfile;
+import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
 import org.eclipse.milo.opcua.stack.core.types.enumerated.MessageSecurityMode;
 import org.eclipse.milo.opcua.stack.core.types.enumerated.UserTokenType;
 import org.eclipse.milo.opcua.stack.core.types.structured.EndpointDescription;
+import org.eclipse.milo.opcua.stack.core.types.structured.GetEndpointsRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.GetEndpointsResponse;
 import org.eclipse.milo.opcua.stack.core.types.structured.UserTokenPolicy;
 import org.eclipse.milo.opcua.stack.core.util.SelfSignedCertificateGenerator;
 import org.eclipse.milo.opcua.stack.core.util.SelfSignedHttpsCertificateBuilder;
@@ -37,12 +49,15 @@ import org.eclipse.milo.opcua.stack.server.UaStackServerConfig;
 import org.eclipse.milo.opcua.stack.server.UaStackServerConfigBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.testng.annotations.AfterSuite;
-import org.testng.annotations.BeforeSuite;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 public abstract class StackIntegrationTest extends SecurityFixture {
 
@@ -66,7 +81,7 @@ public abstract class StackIntegrationTest extends SecurityFixture {
     protected UaStackClient stackClient;
     protected UaStackServer stackServer;
 
-    @BeforeSuite
+    @BeforeClass
     public void setUpClientServer() throws Exception {
         super.setUp();
 
@@ -133,6 +148,26 @@ public abstract class StackIntegrationTest extends SecurityFixture {
                         .setTransportProfile(TransportProfile.HTTPS_UABINARY)
                         .build()
                 );
+
+                endpointConfigurations.add(
+                    base.copy()
+                        .setBindPort(httpsBindPort)
+                        .setSecurityPolicy(SecurityPolicy.None)
+                        .setSecurityMode(MessageSecurityMode.None)
+                        .setTransportProfile(TransportProfile.HTTPS_UAJSON)
+                        .build()
+                );
+
+                // WebSocket Transport Endpoints
+                endpointConfigurations.add(
+                    base.copy()
+                        .setPath("/ws")
+                        .setBindPort(httpsBindPort)
+                        .setSecurityPolicy(SecurityPolicy.None)
+                        .setSecurityMode(MessageSecurityMode.None)
+                        .setTransportProfile(TransportProfile.WSS_UAJSON)
+                        .build()
+                );
             }
         }
 
@@ -173,7 +208,7 @@ public abstract class StackIntegrationTest extends SecurityFixture {
         stackClient.connect().get();
     }
 
-    @AfterSuite
+    @AfterClass
     public void tearDownClientServer() throws Exception {
         stackClient.disconnect().get();
         stackServer.shutdown().get();
@@ -211,6 +246,110 @@ public abstract class StackIntegrationTest extends SecurityFixture {
 
     }
 
+    public static class TestTcpEpollStackIntegrationTest extends StackIntegrationTest {
+
+        @Override
+        protected UaStackClientConfigBuilder configureClient(UaStackClientConfigBuilder builder) {
+            return builder.setTransport(NettyTransport.EPOLL);
+        }
+
+        @Override
+        protected UaStackServerConfigBuilder configureServer(UaStackServerConfigBuilder builder) {
+            return builder.setTransport(NettyTransport.EPOLL);
+        }
+
+        @Test
+        public void test() throws Exception {
+            // Falls back to NIO where epoll is not available.
+            assertEquals(stackClient.getConfig().getTransport(), NettyTransport.EPOLL.resolve());
+
+            assertGetEndpoints(stackClient);
+        }
+
+    }
+
+    public static class TestTcpStreamingStackIntegrationTest extends StackIntegrationTest {
+
+        @Override
+        protected UaStackClientConfigBuilder configureClient(UaStackClientConfigBuilder builder) {
+            // Small chunks so each GetEndpointsResponse is streamed as several chunks.
+            return builder.setMessageLimits(new MessageLimits(
+                8196,
+                MessageLimits.DEFAULT_MAX_CHUNK_COUNT,
+                MessageLimits.DEFAULT_MAX_MESSAGE_SIZE
+            ));
+        }
+
+        @Test
+        public void test() throws Exception {
+            boolean streamingEnabled = Stack.ChunkStreamingLimits.STREAMING_ENABLED;
+            Stack.ChunkStreamingLimits.STREAMING_ENABLED = true;
+
+            try {
+                List<CompletableFuture<Void>> futures = newArrayList();
+
+                for (int i = 0; i < 16; i++) {
+                    futures.add(CompletableFuture.runAsync(() -> {
+                        try {
+                            assertGetEndpoints(stackClient);
+                        } catch (Exception e) {
+                            throw new CompletionException(e);
+                        }
+                    }));
+                }
+
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+            } finally {
+                Stack.ChunkStreamingLimits.STREAMING_ENABLED = streamingEnabled;
+            }
+        }
+
+    }
+
+    public static class TestTcpStreamingAbortStackIntegrationTest extends StackIntegrationTest {
+
+        @Override
+        protected UaStackClientConfigBuilder configureClient(UaStackClientConfigBuilder builder) {
+            // Room for the first chunk of a GetEndpointsResponse and a final or abort chunk, but not for all of it.
+            return builder.setMessageLimits(new MessageLimits(
+                8196,
+                2,
+                MessageLimits.DEFAULT_MAX_MESSAGE_SIZE
+            ));
+        }
+
+        @Override
+        protected UaStackServerConfigBuilder configureServer(UaStackServerConfigBuilder builder) {
+            // Every EndpointDescription repeats the application name, making the response at least three chunks.
+            return builder.setApplicationName(LocalizedText.english(Strings.repeat("x", 2048)));
+        }
+
+        @Test
+        public void test() throws Exception {
+            boolean streamingEnabled = Stack.ChunkStreamingLimits.STREAMING_ENABLED;
+            Stack.ChunkStreamingLimits.STREAMING_ENABLED = true;
+
+            try {
+                // The first chunk is written while the response is encoded, so the rest is aborted, not faulted.
+                for (int i = 0; i < 2; i++) {
+                    try {
+                        assertGetEndpoints(stackClient);
+                        fail("expected the response to be aborted");
+                    } catch (ExecutionException e) {
+                        assertTrue(e.getCause() instanceof MessageAbortedException);
+                        assertEquals(
+                            ((MessageAbortedException) e.getCause()).getStatusCode().getValue(),
+                            StatusCodes.Bad_EncodingLimitsExceeded
+                        );
+                    }
+                }
+            } finally {
+                Stack.ChunkStreamingLimits.STREAMING_ENABLED = streamingEnabled;
+            }
+        }
+
+    }
+
     public static class TestHttpStackIntegrationTest extends StackIntegrationTest {
 
         @Override
@@ -224,4 +363,84 @@ public abstract class StackIntegrationTest extends SecurityFixture {
 
     }
 
+    public static class TestHttpJsonStackIntegrationTest extends StackIntegrationTest {
+
+        @Override
+        protected String getDiscoveryUrl() {
+            return String.format("opc.https://localhost:%d/test", getHttpsBindPort());
+        }
+
+        @Override
+        protected EndpointDescription selectEndpoint(List<EndpointDescription> endpoints) {
+            return withTransport(
+                endpoints.get(0),
+                endpoints.get(0).getEndpointUrl(),
+                TransportProfile.HTTPS_UAJSON
+            );
+        }
+
+        @Test
+        public void test() throws Exception {
+            assertGetEndpoints(stackClient);
+        }
+
+    }
+
+    public static class TestWebSocketJsonStackIntegrationTest extends StackIntegrationTest {
+
+        @Override
+        protected String getDiscoveryUrl() {
+            return String.format("opc.https://localhost:%d/test", getHttpsBindPort());
+        }
+
+        @Override
+        protected EndpointDescription selectEndpoint(List<EndpointDescription> endpoints) {
+            return withTransport(
+                endpoints.get(0),
+                String.format("opc.wss://localhost:%d/ws", getHttpsBindPort()),
+                TransportProfile.WSS_UAJSON
+            );
+        }
+
+        @Test
+        public void test() throws Exception {
+            assertGetEndpoints(stackClient);
+        }
+
+    }
+
+    /**
+     * DiscoveryClient only asks for endpoints with the binary profile matching the discovery URL scheme, so the JSON
+     * endpoints are derived from the SecurityPolicy None HTTPS endpoint instead.
+     */
+    private static EndpointDescription withTransport(
+        EndpointDescription endpoint,
+        String endpointUrl,
+        TransportProfile transportProfile) {
+
+        return new EndpointDescription(
+            endpointUrl,
+            endpoint.getServer(),
+            endpoint.getServerCertificate(),
+            endpoint.getSecurityMode(),
+            endpoint.getSecurityPolicyUri(),
+            endpoint.getUserIdentityTokens(),
+            transportProfile.getUri(),
+            endpoint.getSecurityLevel()
+        );
+    }
+
+    private static void assertGetEndpoints(UaStackClient stackClient) throws Exception {
+        GetEndpointsRequest request = new GetEndpointsRequest(
+            stackClient.newRequestHeader(),
+            stackClient.getConfig().getEndpoint().getEndpointUrl(),
+            null,
+            null
+        );
+
+        GetEndpointsResponse response = (GetEndpointsResponse) stackClient.sendRequest(request).get();
+
+        assertTrue(response.getEndpoints().length > 0);
+    }
+
 }
@@ -60,6 +60,8 @@ public class UaStackClientConfigTest extends SecurityFixture {
         assertEquals(copy.getChannelLifetime(), original.getChannelLifetime());
         assertEquals(copy.getExecutor(), original.getExecutor());
         assertEquals(copy.getEventLoop(), original.getEventLoop());
+        assertEquals(copy.getEventLoopGroup(), original.getEventLoopGroup());
+        assertEquals(copy.getTransport(), original.getTransport());
         assertEquals(copy.getWheelTimer(), original.getWheelTimer());
         assertEquals(copy.getAcknowledgeTimeout(), original.getAcknowledgeTimeout());
     }
@@ -76,22 +76,6 @@ public class EndpointConfigurationTest {
                     .build()
         );
 
-        expectThrows(
-            IllegalStateException.class,
-            () ->
-                EndpointConfiguration.newBuilder()
-                    .setTransportProfile(TransportProfile.HTTPS_UAJSON)
-                    .build()
-        );
-
-        expectThrows(
-            IllegalStateException.class,
-            () ->
-                EndpointConfiguration.newBuilder()
-                    .setTransportProfile(TransportProfile.WSS_UAJSON)
-                    .build()
-        );
-
         expectThrows(
             IllegalStateException.class,
             () ->